@@ -84,7 +84,7 @@ class WebSocketService {
   }
 
   // 지점별 알림 구독
-  subscribeToBranchNotifications(branchId, callback) {
+  subscribeToBranchNotifications(branchId, callback, onUnreadCount) {
     if (!this.connected || !this.stompClient) {
       console.error('웹소켓이 연결되지 않았습니다.');
       return null;
@@ -95,6 +95,13 @@ class WebSocketService {
       try {
         console.log('웹소켓 메시지 수신:', message);
         const notification = JSON.parse(message.body);
+        // 같은 채널로 오는 읽지 않은 알림 수 갱신 메시지는 새 알림이 아님
+        if (notification.type === 'unread_count') {
+          if (onUnreadCount) {
+            onUnreadCount(notification.unreadCount);
+          }
+          return;
+        }
         console.log('지점 알림 수신:', notification);
         if (callback) {
           callback(notification);
@@ -110,7 +117,7 @@ class WebSocketService {
   }
 
   // 본사 알림 구독 (모든 지점의 알림)
-  subscribeToHQNotifications(callback) {
+  subscribeToHQNotifications(callback, onUnreadCount) {
     if (!this.connected || !this.stompClient) {
       console.error('웹소켓이 연결되지 않았습니다.');
       return null;
@@ -121,6 +128,13 @@ class WebSocketService {
       try {
         console.log('웹소켓 메시지 수신:', message);
         const notification = JSON.parse(message.body);
+        // 같은 채널로 오는 읽지 않은 알림 수 갱신 메시지는 새 알림이 아님
+        if (notification.type === 'unread_count') {
+          if (onUnreadCount) {
+            onUnreadCount(notification.unreadCount);
+          }
+          return;
+        }
         console.log('본사 알림 수신:', notification);
         if (callback) {
           callback(notification);
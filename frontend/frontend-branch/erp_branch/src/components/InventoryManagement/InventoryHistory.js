@@ -10,6 +10,7 @@ export default function InventoryHistory({ branchId }) {
   const [dateRange, setDateRange] = useState({ start: '', end: '' });
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
 
   // API 기본 URL
   const API_BASE_URL = 'http://localhost:8080/api';
@@ -22,9 +23,12 @@ export default function InventoryHistory({ branchId }) {
   }, [branchId, selectedType, dateRange.start, dateRange.end]);
 
   // 재고 이동 이력 조회
-  const fetchInventoryHistory = async () => {
+  // cursor 가 있으면 다음 페이지를 이어 붙임
+  const fetchInventoryHistory = async (cursor = null) => {
     try {
-      setLoading(true);
+      if (!cursor) {
+        setLoading(true);
+      }
       setError(null);
 
       // API 파라미터 구성
@@ -41,6 +45,9 @@ export default function InventoryHistory({ branchId }) {
       if (searchTerm.trim()) {
         params.append('searchTerm', searchTerm.trim());
       }
+      if (cursor) {
+        params.append('cursor', cursor);
+      }
 
       const url = `${API_BASE_URL}/stock-movements/branch/${branchId}?${params.toString()}`;
       console.log('재고 이동 이력 API 호출:', url);
@@ -54,7 +61,8 @@ export default function InventoryHistory({ branchId }) {
       const data = await response.json();
       console.log('재고 이동 이력 데이터:', data);
       
-      setHistory(data);
+      setHistory(prev => (cursor ? [...prev, ...data] : data));
+      setNextCursor(response.headers.get('X-Next-Cursor'));
       
     } catch (err) {
       console.error('재고 이동 이력 조회 오류:', err);
@@ -329,7 +337,7 @@ export default function InventoryHistory({ branchId }) {
                       </span>
                     </td>
                     <td className={`${styles['quantity']} ${item.type === 'in' ? styles['quantity-in'] : styles['quantity-out']}`}>
-                      {item.type === 'in' ? '+' : '-'}{item.quantity}
+                      {item.type === 'in' ? '+' : '-'}{Math.abs(item.quantity)}
                     </td>
                     <td>{item.previousStock}</td>
                     <td className={styles['current-stock']}>{item.currentStock}</td>
@@ -342,6 +350,11 @@ export default function InventoryHistory({ branchId }) {
               </tbody>
             </table>
           )}
+          {nextCursor && (
+            <button className={styles['load-more-button']} onClick={() => fetchInventoryHistory(nextCursor)}>
+              더 보기
+            </button>
+          )}
         </div>
       </div>
     </div>
@@ -20,6 +20,10 @@ export default function NotificationCenter({ branchId }) {
 
   // 웹소켓 메시지 핸들러
   const handleWebSocketMessage = (notification) => {
+    // 읽지 않은 알림 수 갱신 메시지는 새 알림이 아님
+    if (notification.type === 'unread_count') {
+      return;
+    }
     console.log('새로운 알림 수신:', notification);
     
     // 새 알림을 목록 맨 앞에 추가
@@ -198,6 +198,10 @@ export default function Header({ activeTab, setActiveTab, onLogout, loginData })
           webSocketService.subscribeToBranchNotifications(
             loginData.branchId,
             (notification) => {
+              // 읽지 않은 알림 수 갱신 메시지는 목록에 추가하지 않음
+              if (notification.type === 'unread_count') {
+                return;
+              }
               console.log('실시간 알림 수신:', notification);
               console.log('알림 상세 정보:', {
                 id: notification.id,
@@ -50,7 +50,10 @@ public class DataInitializer {
         "09_recipe_ingredients_data.sql",
         "10_sales_statistics_tables.sql",
         "11_order_management_tables.sql",
-        "12_stocks_data.sql"
+        "12_stocks_data.sql",
+        "15_notification_indexes.sql",
+        "16_drop_sales_statistics_trigger.sql",
+        "17_orders_sales_recorded.sql"
     );
 
     @PostConstruct
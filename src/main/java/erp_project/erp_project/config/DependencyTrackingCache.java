@@ -0,0 +1,111 @@
+package erp_project.erp_project.config;
+
+import erp_project.erp_project.service.CacheDependencyIndex;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 캐시 저장/삭제 시 키 의존성 인덱스를 함께 갱신하는 캐시 데코레이터
+ * - 실제 저장은 위임 캐시(RedisCache)가 담당
+ */
+public class DependencyTrackingCache implements Cache {
+
+    private final Cache delegate;
+    private final CacheDependencyIndex dependencyIndex;
+
+    public DependencyTrackingCache(Cache delegate, CacheDependencyIndex dependencyIndex) {
+        this.delegate = delegate;
+        this.dependencyIndex = dependencyIndex;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // 값을 새로 적재한 경우에만 인덱스 등록
+        boolean[] loaded = new boolean[1];
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        if (loaded[0]) {
+            dependencyIndex.register(getName(), key);
+        }
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, () -> valueLoader.get().thenApply(value -> {
+            dependencyIndex.register(getName(), key);
+            return value;
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        dependencyIndex.register(getName(), key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            dependencyIndex.register(getName(), key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        dependencyIndex.unregister(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        dependencyIndex.unregister(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        dependencyIndex.clear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        dependencyIndex.clear(getName());
+        return invalidated;
+    }
+}
@@ -0,0 +1,203 @@
+package erp_project.erp_project.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 2단계 캐시 (L1: 프로세스 내 Caffeine, L2: Redis)
+ * - 조회: L1 → L2 → 원본 메서드 순서, L2 적중 값은 L1 에 채움 (역직렬화는 L2 적중 시 1회만)
+ * - 변경(put/evict/clear): L2 반영 후 L1 을 비우고 pub/sub 으로 다른 노드의 L1 도 비움
+ * - 무효화 도중 L2 에서 읽은 이전 값이 L1 에 다시 들어가지 않도록 세대(generation) 값을 비교
+ * - L1 은 크기 제한 + 쓰기 후 만료로 pub/sub 메시지 유실 시에도 오래된 값 유지 시간을 제한
+ * - L1 값은 호출자 간에 같은 인스턴스를 공유하므로 반환된 DTO 를 수정하지 말 것
+ */
+public class NearCache implements Cache {
+
+    private final Cache remote;
+    private final NearCacheInvalidationBus invalidationBus;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+
+    // 무효화가 일어날 때마다 증가
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    public NearCache(Cache remote, NearCacheInvalidationBus invalidationBus, long maximumSize, Duration expireAfterWrite) {
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        long observed = generation.get();
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        fillLocal(localKey, wrapper.get(), observed);
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return (T) value;
+        }
+        long observed = generation.get();
+        T loaded = remote.get(key, valueLoader);
+        fillLocal(localKey, loaded, observed);
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        invalidateLocal(localKey(key));
+        invalidationBus.publishEvict(getName(), localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            invalidateLocal(localKey(key));
+            invalidationBus.publishEvict(getName(), localKey(key));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        invalidateLocal(localKey(key));
+        invalidationBus.publishEvict(getName(), localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        invalidateLocal(localKey(key));
+        invalidationBus.publishEvict(getName(), localKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidateLocalAll();
+        invalidationBus.publishClear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        invalidateLocalAll();
+        invalidationBus.publishClear(getName());
+        return invalidated;
+    }
+
+    /**
+     * 다른 노드의 무효화 메시지 수신 시 (L2 는 이미 반영된 상태)
+     */
+    void invalidateLocal(String localKey) {
+        generation.incrementAndGet();
+        local.invalidate(localKey);
+    }
+
+    void invalidateLocalAll() {
+        generation.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    /**
+     * 계층별 지표 (L1: Caffeine 통계, L2: L1 미스 이후 Redis 적중/미스)
+     */
+    public Map<String, Object> getStats() {
+        CacheStats l1 = local.stats();
+        long l2Lookups = remoteHits.sum() + remoteMisses.sum();
+
+        Map<String, Object> l1Stats = new LinkedHashMap<>();
+        l1Stats.put("size", local.estimatedSize());
+        l1Stats.put("hits", l1.hitCount());
+        l1Stats.put("misses", l1.missCount());
+        l1Stats.put("hitRate", l1.hitRate());
+        l1Stats.put("evictions", l1.evictionCount());
+
+        Map<String, Object> l2Stats = new LinkedHashMap<>();
+        l2Stats.put("hits", remoteHits.sum());
+        l2Stats.put("misses", remoteMisses.sum());
+        l2Stats.put("hitRate", l2Lookups == 0 ? 0.0 : (double) remoteHits.sum() / l2Lookups);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("l1", l1Stats);
+        stats.put("l2", l2Stats);
+        stats.put("invalidations", generation.get());
+        return stats;
+    }
+
+    /**
+     * 조회 시작 후 무효화가 없었을 때만 L1 에 저장
+     */
+    private void fillLocal(String localKey, Object value, long observedGeneration) {
+        if (value == null) {
+            return;
+        }
+        local.put(localKey, value);
+        // put 도중 무효화가 끼어들었으면 방금 넣은 값을 버림
+        if (generation.get() != observedGeneration) {
+            local.invalidate(localKey);
+        }
+    }
+
+    // 노드 간 메시지로 주고받으므로 문자열 키 사용 (RedisCache 키 변환과 동일하게 toString)
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,93 @@
+package erp_project.erp_project.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 노드 간 L1(near cache) 무효화 메시지 버스 (Redis pub/sub)
+ * - 메시지 형식: {nodeId}|{cacheName}|{E:키 | C}
+ * - 자기 노드가 보낸 메시지는 이미 로컬에 반영했으므로 무시
+ */
+@Slf4j
+public class NearCacheInvalidationBus implements MessageListener {
+
+    public static final String CHANNEL = "cache:near:invalidate";
+
+    private static final String EVICT = "E:";
+    private static final String CLEAR = "C";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, NearCache> caches = new ConcurrentHashMap<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+
+    public NearCacheInvalidationBus(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    public void register(NearCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    public Map<String, NearCache> getCaches() {
+        return caches;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(cacheName, EVICT + key);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(cacheName, CLEAR);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int first = body.indexOf('|');
+        int second = first >= 0 ? body.indexOf('|', first + 1) : -1;
+        if (second < 0 || nodeId.equals(body.substring(0, first))) {
+            return;
+        }
+
+        NearCache cache = caches.get(body.substring(first + 1, second));
+        if (cache == null) {
+            return;
+        }
+        received.increment();
+        String command = body.substring(second + 1);
+        if (command.startsWith(EVICT)) {
+            cache.invalidateLocal(command.substring(EVICT.length()));
+        } else {
+            cache.invalidateLocalAll();
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    private void publish(String cacheName, String command) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, nodeId + "|" + cacheName + "|" + command);
+            published.increment();
+        } catch (Exception e) {
+            // 전파 실패 시 다른 노드의 L1 은 expire-after-write 까지 이전 값을 유지할 수 있음
+            log.warn("near cache 무효화 전파 실패: {} - {}, error: {}", cacheName, command, e.getMessage());
+        }
+    }
+}
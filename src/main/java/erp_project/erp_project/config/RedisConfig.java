@@ -1,13 +1,22 @@
 package erp_project.erp_project.config;
 
+import erp_project.erp_project.service.CacheDependencyIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -15,6 +24,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
@@ -41,8 +53,56 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * 캐시 이름별 hit/miss 통계를 수집하는 캐시 라이터
+     * - allEntries 삭제(clear)도 KEYS 대신 SCAN 배치로 수행
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisCacheWriter redisCacheWriter(RedisConnectionFactory connectionFactory,
+                                             @Value("${app.redis.scan.count:500}") int scanCount) {
+        return RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(scanCount))
+                .withStatisticsCollector(CacheStatisticsCollector.create());
+    }
+
+    /**
+     * near cache(L1) 무효화 메시지 버스
+     */
+    @Bean
+    public NearCacheInvalidationBus nearCacheInvalidationBus(StringRedisTemplate stringRedisTemplate) {
+        return new NearCacheInvalidationBus(stringRedisTemplate);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       NearCacheInvalidationBus nearCacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(nearCacheInvalidationBus, new ChannelTopic(NearCacheInvalidationBus.CHANNEL));
+        return container;
+    }
+
+    /**
+     * 버전 헤더 + Smile(바이너리) 캐시 직렬화기 (binary-cache-names 에 지정한 캐시에만 적용, 쓰기 형식 기본값은 json)
+     */
+    @Bean
+    public VersionedCacheSerializer versionedCacheSerializer(
+            @Value("${app.cache.serializer.write-format:json}") String writeFormat,
+            @Value("${app.cache.serializer.compress-threshold-bytes:2048}") int compressThreshold) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return new VersionedCacheSerializer(new GenericJackson2JsonRedisSerializer(objectMapper),
+                VersionedCacheSerializer.WriteFormat.valueOf(writeFormat.toUpperCase()), compressThreshold);
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisCacheWriter redisCacheWriter,
+                                     CacheDependencyIndex cacheDependencyIndex,
+                                     VersionedCacheSerializer versionedCacheSerializer,
+                                     @Value("${app.cache.serializer.binary-cache-names:}") Set<String> binaryCacheNames,
+                                     NearCacheInvalidationBus nearCacheInvalidationBus,
+                                     @Value("${app.cache.near.cache-names:menus,menu,menuCategories}") Set<String> nearCacheNames,
+                                     @Value("${app.cache.near.maximum-size:1000}") long nearCacheMaximumSize,
+                                     @Value("${app.cache.near.expire-after-write-seconds:60}") long nearCacheExpireSeconds) {
         // ObjectMapper 설정 (JavaTimeModule 포함)
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -83,18 +143,44 @@ public class RedisConfig {
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultConfig)
-                .withCacheConfiguration("sales", salesConfig)
-                .withCacheConfiguration("salesStatistics", salesConfig)
-                .withCacheConfiguration("salesOverview", salesConfig)
-                .withCacheConfiguration("productSales", salesConfig)
-                .withCacheConfiguration("realtimeSales", realtimeSalesConfig)
-                .withCacheConfiguration("aggregatedSales", aggregatedSalesConfig)
-                .withCacheConfiguration("dashboardKpis", dashboardConfig)
-                .withCacheConfiguration("todaySales", dashboardConfig)
-                .withCacheConfiguration("weeklySalesTrend", dashboardConfig)
-                .withCacheConfiguration("topProducts", dashboardConfig)
-                .build();
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new LinkedHashMap<>();
+        cacheConfigurations.put("sales", salesConfig);
+        cacheConfigurations.put("salesStatistics", salesConfig);
+        cacheConfigurations.put("salesOverview", salesConfig);
+        cacheConfigurations.put("productSales", salesConfig);
+        cacheConfigurations.put("realtimeSales", realtimeSalesConfig);
+        cacheConfigurations.put("aggregatedSales", aggregatedSalesConfig);
+        cacheConfigurations.put("dashboardKpis", dashboardConfig);
+        cacheConfigurations.put("todaySales", dashboardConfig);
+        cacheConfigurations.put("weeklySalesTrend", dashboardConfig);
+        cacheConfigurations.put("topProducts", dashboardConfig);
+        cacheConfigurations.put("menuCategories", defaultConfig);
+
+        // 지정한 캐시만 바이너리 직렬화기로 교체 (TTL 등 나머지 설정은 유지)
+        RedisSerializationContext.SerializationPair<Object> binaryValues =
+                RedisSerializationContext.SerializationPair.fromSerializer(versionedCacheSerializer);
+        for (String cacheName : binaryCacheNames) {
+            RedisCacheConfiguration config = cacheConfigurations.getOrDefault(cacheName, defaultConfig);
+            cacheConfigurations.put(cacheName, config.serializeValuesWith(binaryValues));
+        }
+
+        // 매출/대시보드 캐시는 키 의존성 인덱스를 갱신하는 데코레이터로 감싼다 (지점/기간 단위 무효화용)
+        // 메뉴/카테고리 캐시는 프로세스 내 L1 을 앞에 둔 2단계 캐시로 감싼다
+        return new RedisCacheManager(redisCacheWriter, defaultConfig, cacheConfigurations) {
+            @Override
+            protected Cache decorateCache(Cache cache) {
+                Cache decorated = super.decorateCache(cache);
+                if (cacheDependencyIndex.isTracked(cache.getName())) {
+                    return new DependencyTrackingCache(decorated, cacheDependencyIndex);
+                }
+                if (nearCacheNames.contains(cache.getName())) {
+                    NearCache nearCache = new NearCache(decorated, nearCacheInvalidationBus,
+                            nearCacheMaximumSize, Duration.ofSeconds(nearCacheExpireSeconds));
+                    nearCacheInvalidationBus.register(nearCache);
+                    return nearCache;
+                }
+                return decorated;
+            }
+        };
     }
 }
@@ -0,0 +1,146 @@
+package erp_project.erp_project.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 버전 헤더가 붙은 바이너리 캐시 직렬화기
+ * - 헤더 4바이트: [MAGIC][포맷 버전][코덱][플래그(압축 여부)] + 본문
+ * - 코덱은 Smile(바이너리 JSON): 반복되는 필드명/문자열을 back-reference 로 줄이고 숫자를 바이너리로 저장
+ * - 본문이 임계값 이상이면 Deflate 압축 (압축 결과가 더 클 때는 원본 유지)
+ * - MAGIC 으로 시작하지 않는 값은 기존 JSON 으로 읽고, 모르는 버전/코덱은 캐시 미스로 처리
+ *   → 배포 순서: write-format=json 으로 전 노드 배포(읽기만 지원) 후 smile 로 전환
+ */
+@Slf4j
+public class VersionedCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xCB;
+    static final byte FORMAT_VERSION = 1;
+    static final byte CODEC_SMILE = 1;
+    static final byte FLAG_DEFLATE = 0x01;
+    static final int HEADER_SIZE = 4;
+
+    public enum WriteFormat { JSON, SMILE }
+
+    private final RedisSerializer<Object> jsonSerializer;
+    private final ObjectMapper smileMapper;
+    private final WriteFormat writeFormat;
+    private final int compressThreshold;
+
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedWrites = new LongAdder();
+    private final LongAdder legacyReads = new LongAdder();
+    private final LongAdder unsupportedReads = new LongAdder();
+
+    public VersionedCacheSerializer(RedisSerializer<Object> jsonSerializer, WriteFormat writeFormat, int compressThreshold) {
+        this.jsonSerializer = jsonSerializer;
+        this.writeFormat = writeFormat;
+        this.compressThreshold = compressThreshold;
+        // 기존 JSON 직렬화기와 같은 설정 (JavaTimeModule, 타입 정보 없음)
+        this.smileMapper = new ObjectMapper(new SmileFactory());
+        this.smileMapper.registerModule(new JavaTimeModule());
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null || writeFormat == WriteFormat.JSON) {
+            return jsonSerializer.serialize(value);
+        }
+        try {
+            byte[] body = smileMapper.writeValueAsBytes(value);
+            uncompressedBytes.add(body.length);
+            byte flags = 0;
+            if (body.length >= compressThreshold) {
+                byte[] deflated = deflate(body);
+                if (deflated.length < body.length) {
+                    body = deflated;
+                    flags |= FLAG_DEFLATE;
+                    compressedWrites.increment();
+                }
+            }
+
+            byte[] out = new byte[HEADER_SIZE + body.length];
+            out[0] = MAGIC;
+            out[1] = FORMAT_VERSION;
+            out[2] = CODEC_SMILE;
+            out[3] = flags;
+            System.arraycopy(body, 0, out, HEADER_SIZE, body.length);
+            writes.increment();
+            bytesWritten.add(out.length);
+            return out;
+        } catch (IOException e) {
+            throw new SerializationException("캐시 값 직렬화 실패: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            legacyReads.increment();
+            return jsonSerializer.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE || bytes[1] > FORMAT_VERSION || bytes[2] != CODEC_SMILE) {
+            // 새 버전 노드가 쓴 값: 캐시 미스로 처리하면 원본 조회 후 이 노드의 포맷으로 덮어씀
+            unsupportedReads.increment();
+            log.debug("지원하지 않는 캐시 포맷: version={}, codec={}", bytes.length > 1 ? bytes[1] : -1, bytes.length > 2 ? bytes[2] : -1);
+            return null;
+        }
+        try {
+            if ((bytes[3] & FLAG_DEFLATE) != 0) {
+                try (InflaterInputStream in = new InflaterInputStream(
+                        new ByteArrayInputStream(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE))) {
+                    return smileMapper.readValue(in.readAllBytes(), Object.class);
+                }
+            }
+            return smileMapper.readValue(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE, Object.class);
+        } catch (IOException e) {
+            throw new SerializationException("캐시 값 역직렬화 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 직렬화 지표 (저장 바이트, 압축 전 바이트, 압축 횟수, 구 포맷 읽기 수)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("writeFormat", writeFormat.name());
+        stats.put("compressThresholdBytes", compressThreshold);
+        stats.put("writes", writes.sum());
+        stats.put("bytesWritten", bytesWritten.sum());
+        stats.put("uncompressedBytes", uncompressedBytes.sum());
+        stats.put("compressedWrites", compressedWrites.sum());
+        stats.put("legacyJsonReads", legacyReads.sum());
+        stats.put("unsupportedFormatReads", unsupportedReads.sum());
+        return stats;
+    }
+
+    private static byte[] deflate(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 2);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(buffer, deflater)) {
+            out.write(body);
+        } finally {
+            deflater.end();
+        }
+        return buffer.toByteArray();
+    }
+}
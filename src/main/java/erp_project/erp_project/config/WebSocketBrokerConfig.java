@@ -0,0 +1,30 @@
+package erp_project.erp_project.config;
+
+import erp_project.erp_project.websocket.BrokerFanoutBus;
+import erp_project.erp_project.websocket.EmbeddedBrokerFanoutBus;
+import erp_project.erp_project.websocket.RedisBrokerFanoutBus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 노드 간 웹소켓 메시지 전파 통로 (simple/relay 모드에서는 없음)
+ */
+@Configuration
+public class WebSocketBrokerConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.websocket.broker.mode", havingValue = "redis")
+    public BrokerFanoutBus redisBrokerFanoutBus(StringRedisTemplate stringRedisTemplate,
+                                                RedisMessageListenerContainer redisMessageListenerContainer) {
+        return new RedisBrokerFanoutBus(stringRedisTemplate, redisMessageListenerContainer);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.websocket.broker.mode", havingValue = "embedded")
+    public BrokerFanoutBus embeddedBrokerFanoutBus() {
+        return new EmbeddedBrokerFanoutBus();
+    }
+}
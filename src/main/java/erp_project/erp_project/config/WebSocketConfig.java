@@ -1,27 +1,83 @@
 package erp_project.erp_project.config;
 
+import erp_project.erp_project.websocket.BrokerFanoutInterceptor;
+import erp_project.erp_project.websocket.BrokerTrafficMetrics;
 import erp_project.erp_project.websocket.WebSocketAuthInterceptor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * STOMP 브로커 설정 (app.websocket.broker.mode)
+ * - simple: JVM 내 simple broker (단일 노드)
+ * - redis: 노드별 simple broker + 서버 발신 메시지를 Redis pub/sub 으로 전 노드에 전파
+ * - relay: 외부 STOMP 브로커(RabbitMQ, ActiveMQ 등)로 릴레이
+ * - embedded: redis 모드와 같지만 전파 통로가 프로세스 내 (테스트용)
+ * 어느 노드에 연결된 클라이언트든 모든 노드가 보낸 메시지를 받으므로 sticky session 이 필요 없음
+ * (SockJS HTTP 폴백 전송은 자체적으로 세션 고정이 필요)
+ */
 @Configuration
 @EnableWebSocketMessageBroker
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptor authInterceptor;
+    private final BrokerFanoutInterceptor fanoutInterceptor;
+    private final BrokerTrafficMetrics trafficMetrics;
 
-    public WebSocketConfig(WebSocketAuthInterceptor authInterceptor) {
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${app.websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    public WebSocketConfig(WebSocketAuthInterceptor authInterceptor,
+                           BrokerFanoutInterceptor fanoutInterceptor,
+                           BrokerTrafficMetrics trafficMetrics) {
         this.authInterceptor = authInterceptor;
+        this.fanoutInterceptor = fanoutInterceptor;
+        this.trafficMetrics = trafficMetrics;
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // 클라이언트가 구독할 수 있는 destination prefix 설정
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            var relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+            if (StringUtils.hasText(relayVirtualHost)) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+            log.info("STOMP 외부 브로커 릴레이 사용: {}:{}", relayHost, relayPort);
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+            log.info("STOMP simple broker 사용: mode={}", brokerMode);
+        }
+        // 서버 발신 메시지에 보낸 시각을 붙이고 다른 노드로 전파
+        config.configureBrokerChannel().interceptors(fanoutInterceptor);
         // 클라이언트에서 서버로 메시지를 보낼 때 사용할 destination prefix 설정
         config.setApplicationDestinationPrefixes("/app");
     }
@@ -39,4 +95,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // 인증 인터셉터 등록
         registration.interceptors(authInterceptor);
     }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // destination 별 전달 건수/지연 기록
+        registration.interceptors(trafficMetrics);
+    }
 }
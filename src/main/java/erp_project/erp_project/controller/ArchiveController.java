@@ -1,12 +1,21 @@
 package erp_project.erp_project.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import erp_project.erp_project.entity.ArchiveSegment;
+import erp_project.erp_project.service.ArchiveEngineService;
 import erp_project.erp_project.service.SalesDataArchivingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/archive")
@@ -14,7 +23,10 @@ import java.time.LocalDate;
 @Slf4j
 public class ArchiveController {
     
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
     private final SalesDataArchivingService archivingService;
+    private final ArchiveEngineService archiveEngineService;
     
     /**
      * 아카이빙 통계 조회
@@ -52,4 +64,90 @@ public class ArchiveController {
             return ResponseEntity.badRequest().body("아카이빙 실행 실패: " + e.getMessage());
         }
     }
+    
+    /**
+     * 아카이브 세그먼트 목록 (기간은 yyyy-MM, 양 끝 포함)
+     * GET /api/archive/segments?dataset=orders&branchId=&from=&to=
+     */
+    @GetMapping("/segments")
+    public ResponseEntity<List<ArchiveSegment>> getSegments(
+            @RequestParam(defaultValue = "orders") String dataset,
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            return ResponseEntity.ok(archiveEngineService.getSegments(
+                ArchiveEngineService.dataset(dataset), branchId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * 아카이브된 주문 단건 조회 (아이템/상세 포함)
+     * GET /api/archive/orders/{orderId}?branchId=
+     */
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<JsonNode> getArchivedOrder(
+            @PathVariable Long orderId,
+            @RequestParam(required = false) Long branchId) {
+        try {
+            JsonNode order = archiveEngineService.findArchivedOrder(orderId, branchId);
+            return order != null ? ResponseEntity.ok(order) : ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("아카이브 주문 조회 실패: orderId={}", orderId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 아카이브 데이터 내보내기 (NDJSON 스트리밍, 한 줄에 문서 1건)
+     * GET /api/archive/{dataset}/export?branchId=&from=yyyy-MM&to=yyyy-MM
+     */
+    @GetMapping("/{dataset}/export")
+    public ResponseEntity<StreamingResponseBody> exportArchive(
+            @PathVariable String dataset,
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        ArchiveEngineService.Dataset target;
+        try {
+            target = ArchiveEngineService.dataset(dataset);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream out = new BufferedOutputStream(outputStream);
+            archiveEngineService.export(target, branchId, from, to, out);
+            out.flush();
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"archive-" + dataset + ".ndjson\"")
+                .body(body);
+    }
+    
+    /**
+     * 아카이브 파일 존재/체크섬 검사
+     * POST /api/archive/verify?dataset=orders
+     */
+    @PostMapping("/verify")
+    public ResponseEntity<Map<String, Object>> verifyArchive(@RequestParam(defaultValue = "orders") String dataset) {
+        try {
+            return ResponseEntity.ok(archiveEngineService.verify(ArchiveEngineService.dataset(dataset)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * 아카이브 이동 누적 통계
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getArchiveMetrics() {
+        return ResponseEntity.ok(archiveEngineService.getMetrics());
+    }
 }
@@ -231,4 +231,51 @@ public class CacheController {
             return ResponseEntity.internalServerError().body(response);
         }
     }
+    
+    /**
+     * 캐시 이름별 적중률 조회
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        try {
+            return ResponseEntity.ok(cacheService.getCacheHitRates());
+        } catch (Exception e) {
+            log.error("캐시 통계 조회 실패: {}", e.getMessage(), e);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "캐시 통계 조회 중 오류가 발생했습니다: " + e.getMessage());
+            
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+    
+    /**
+     * 캐시 통계 초기화
+     */
+    @PostMapping("/stats/reset")
+    public ResponseEntity<Map<String, Object>> resetCacheStats() {
+        cacheService.resetCacheStatistics();
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "캐시 통계가 초기화되었습니다.");
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 2단계(near) 캐시 계층별 지표 조회
+     */
+    @GetMapping("/near-stats")
+    public ResponseEntity<Map<String, Object>> getNearCacheStats() {
+        return ResponseEntity.ok(cacheService.getNearCacheStats());
+    }
+    
+    /**
+     * 바이너리 캐시 직렬화 지표 조회 (저장 바이트, 압축 횟수)
+     */
+    @GetMapping("/serializer-stats")
+    public ResponseEntity<Map<String, Object>> getSerializerStats() {
+        return ResponseEntity.ok(cacheService.getSerializerStats());
+    }
 }
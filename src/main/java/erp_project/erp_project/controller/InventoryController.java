@@ -2,6 +2,7 @@ package erp_project.erp_project.controller;
 
 import erp_project.erp_project.entity.MaterialStock;
 import erp_project.erp_project.service.InventoryService;
+import erp_project.erp_project.service.StockReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +18,9 @@ public class InventoryController {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
     /**
      * 주문 완료 시 재고 차감
      */
@@ -45,6 +49,14 @@ public class InventoryController {
         }
     }
 
+    /**
+     * 재고 예약 현황 (미정산 예약 수, 예약/확정/해제/만료/거절 건수)
+     */
+    @GetMapping("/reservations/metrics")
+    public ResponseEntity<Map<String, Object>> getReservationMetrics() {
+        return ResponseEntity.ok(stockReservationService.getMetrics());
+    }
+
     /**
      * 특정 지점의 전체 재고 현황
      */
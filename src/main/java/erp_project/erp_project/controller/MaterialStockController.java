@@ -3,11 +3,13 @@ package erp_project.erp_project.controller;
 import erp_project.erp_project.dto.MaterialStockDTO;
 import erp_project.erp_project.dto.InventoryAlertDTO;
 import erp_project.erp_project.service.MaterialStockService;
+import erp_project.erp_project.service.StockStatusIndexService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/material-stocks")
@@ -16,6 +18,7 @@ import java.util.List;
 public class MaterialStockController {
 
     private final MaterialStockService materialStockService;
+    private final StockStatusIndexService stockStatusIndexService;
 
     // 지점별 재고 조회
     @GetMapping("/branch/{branchId}")
@@ -48,6 +51,12 @@ public class MaterialStockController {
         return ResponseEntity.ok(alerts);
     }
 
+    // 재고 임계값 상태 인덱스 지표
+    @GetMapping("/status-index/metrics")
+    public ResponseEntity<Map<String, Object>> getStatusIndexMetrics() {
+        return ResponseEntity.ok(stockStatusIndexService.getMetrics());
+    }
+
     // 재고 업데이트
     @PutMapping("/{id}")
     public ResponseEntity<MaterialStockDTO> updateMaterialStock(
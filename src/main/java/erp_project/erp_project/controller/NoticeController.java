@@ -291,6 +291,19 @@ public class NoticeController {
         }
     }
     
+    /**
+     * 구성원 재구성에 실패한 대상 그룹 (audienceError 에 사유, 대상 지점/직급 수정 필요)
+     */
+    @GetMapping("/target-groups/failed")
+    public ResponseEntity<List<NoticeTargetGroup>> getFailedTargetGroups() {
+        try {
+            return ResponseEntity.ok(noticeService.getCalculationService().getFailedGroups());
+        } catch (Exception e) {
+            log.error("재구성 실패 대상 그룹 조회 오류", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     /**
      * 대상 그룹 생성
      */
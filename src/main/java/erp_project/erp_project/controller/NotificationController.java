@@ -1,22 +1,35 @@
 package erp_project.erp_project.controller;
 
 import erp_project.erp_project.dto.NotificationDTO;
+import erp_project.erp_project.repository.NotificationQueryRepository;
+import erp_project.erp_project.service.NotificationOutboxService;
+import erp_project.erp_project.service.NotificationRetentionService;
 import erp_project.erp_project.service.NotificationService;
+import erp_project.erp_project.service.UnreadCounterService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/notifications")
 @RequiredArgsConstructor
 @Slf4j
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = "X-Next-Cursor")
 public class NotificationController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final UnreadCounterService unreadCounterService;
+    private final NotificationRetentionService notificationRetentionService;
 
     /**
      * 지점별 모든 알림 조회 (페이징 지원)
@@ -61,6 +74,65 @@ public class NotificationController {
         }
     }
 
+    /**
+     * 지점 알림 피드 (최신순, 키셋 페이지네이션)
+     * GET /api/notifications/branch/{branchId}/feed?type=&category=&unread=true&limit=50&cursor=...
+     * - 다음 페이지가 있으면 X-Next-Cursor 헤더로 커서 전달, 그 값을 cursor 로 다시 요청
+     */
+    @GetMapping("/branch/{branchId}/feed")
+    public ResponseEntity<List<NotificationDTO>> getBranchFeed(
+            @PathVariable Long branchId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "false") boolean unread,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return feed(NotificationService.RECIPIENT_TYPE_BRANCH, branchId, type, category, unread, cursor, limit);
+    }
+
+    /**
+     * 본사 알림 피드 (최신순, 키셋 페이지네이션)
+     */
+    @GetMapping("/headquarters/feed")
+    public ResponseEntity<List<NotificationDTO>> getHeadquartersFeed(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "false") boolean unread,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return feed(NotificationService.RECIPIENT_TYPE_HEADQUARTERS, null, type, category, unread, cursor, limit);
+    }
+
+    private ResponseEntity<List<NotificationDTO>> feed(String recipientType, Long recipientId, String type,
+                                                       String category, boolean unread, String cursor, int limit) {
+        NotificationQueryRepository.Cursor after;
+        try {
+            after = cursor != null && !cursor.isBlank() ? NotificationQueryRepository.Cursor.decode(cursor) : null;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            NotificationQueryRepository.FeedFilter filter = new NotificationQueryRepository.FeedFilter(
+                    type != null && !type.isBlank() ? type : null,
+                    category != null && !category.isBlank() ? category : null,
+                    unread);
+            NotificationQueryRepository.FeedPage page = notificationService.getFeed(
+                    recipientType, recipientId, filter, after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+            List<NotificationDTO> notifications = page.rows().stream()
+                    .map(notificationService::toDTO)
+                    .collect(Collectors.toList());
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor().encode());
+            }
+            return response.body(notifications);
+        } catch (Exception e) {
+            log.error("알림 피드 조회 실패 - 수신자: {}/{}, 오류: {}", recipientType, recipientId, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * 지점별 읽지 않은 알림 조회
      */
@@ -176,4 +248,61 @@ public class NotificationController {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 알림 아웃박스 처리 현황 (대기/소진 행 수, 병합/폐기 건수, 단계별 지연)
+     */
+    @GetMapping("/outbox/metrics")
+    public ResponseEntity<Map<String, Object>> getOutboxMetrics() {
+        try {
+            return ResponseEntity.ok(notificationOutboxService.getMetrics());
+        } catch (Exception e) {
+            log.error("알림 아웃박스 현황 조회 실패 - 오류: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 읽지 않은 건수 카운터 현황 (적중/적재/보정 건수, 마지막 대사 결과)
+     */
+    @GetMapping("/unread-counters/metrics")
+    public ResponseEntity<Map<String, Object>> getUnreadCounterMetrics() {
+        return ResponseEntity.ok(unreadCounterService.getMetrics());
+    }
+
+    /**
+     * 읽지 않은 건수 카운터를 DB 기준으로 즉시 보정
+     */
+    @PostMapping("/unread-counters/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileUnreadCounters() {
+        try {
+            return ResponseEntity.ok(unreadCounterService.reconcile());
+        } catch (Exception e) {
+            log.error("읽지 않은 건수 카운터 보정 실패 - 오류: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 보존 기간이 지난 알림 즉시 정리 (묶음 단위 삭제)
+     */
+    @PostMapping("/retention/run")
+    public ResponseEntity<Map<String, Object>> runRetention() {
+        try {
+            return ResponseEntity.ok(notificationRetentionService.purge());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("알림 보존 기간 정리 실패 - 오류: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 마지막 알림 정리 결과 (삭제 건수, 묶음 수, 소요 시간)
+     */
+    @GetMapping("/retention/last-run")
+    public ResponseEntity<Map<String, Object>> getRetentionLastRun() {
+        return ResponseEntity.ok(notificationRetentionService.getLastRun());
+    }
+}
@@ -1,5 +1,7 @@
 package erp_project.erp_project.controller;
 
+import erp_project.erp_project.dto.CartItemRequest;
+import erp_project.erp_project.dto.CreateOrderRequest;
 import erp_project.erp_project.entity.Orders;
 import erp_project.erp_project.entity.OrderItems;
 import erp_project.erp_project.entity.OrderHistory;
@@ -7,8 +9,15 @@ import erp_project.erp_project.repository.OrderRepository;
 import erp_project.erp_project.repository.OrderItemRepository;
 import erp_project.erp_project.repository.BranchesRepository;
 import erp_project.erp_project.repository.OrderHistoryRepository;
-import erp_project.erp_project.service.AutomatedOrderService;
+import erp_project.erp_project.service.CacheService;
+import erp_project.erp_project.service.OrderIngestionService;
+import erp_project.erp_project.service.SalesStatisticsService;
+import erp_project.erp_project.service.StockReservationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -27,6 +37,7 @@ import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api/orders")
+@Slf4j
 public class OrderController {
     
     @Autowired
@@ -42,11 +53,23 @@ public class OrderController {
     private OrderHistoryRepository orderHistoryRepository;
 
     @Autowired
-    private AutomatedOrderService automatedOrderService;
+    private OrderIngestionService orderIngestionService;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+    
+    @Autowired
+    private SalesStatisticsService salesStatisticsService;
+
     // 토스페이먼츠 시크릿 키 (실제로는 환경 변수로 관리해야 함)
     private static final String TOSS_SECRET_KEY = "test_sk_D4yKeq5bgrpKRd0JYbLVGX0lzW6Y";
     
@@ -120,10 +143,7 @@ public class OrderController {
     }
     
     // 아이템 타입 판단 메서드
-    private OrderItems.ItemType determineItemType(Map<String, Object> itemData) {
-        String menuName = (String) itemData.get("menuName");
-        String displayName = (String) itemData.get("displayName");
-        
+    private OrderItems.ItemType determineItemType(String menuName, String displayName) {
         // 메뉴 이름이나 표시 이름에 "세트"가 포함되어 있으면 SET
         if (menuName != null && menuName.contains("세트")) {
             return OrderItems.ItemType.SET;
@@ -160,53 +180,22 @@ public class OrderController {
         return OrderItems.ItemType.BURGER;
     }
     
-    // 주문 생성 API
+    // 주문 생성 API (타입 DTO로 바로 역직렬화, 옵션은 원문 JSON 그대로 전달)
     @PostMapping("/create")
-    public ResponseEntity<Map<String, Object>> createOrder(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<Map<String, Object>> createOrder(@Valid @RequestBody CreateOrderRequest request) {
         try {
-            // 디버깅: 받은 요청 데이터 로그 출력
-            System.out.println("=== 주문 생성 요청 데이터 ===");
-            System.out.println("전체 요청: " + request);
-            System.out.println("보안 해시: " + request.get("securityHash"));
-            System.out.println("타임스탬프: " + request.get("timestamp"));
-            System.out.println("지점 ID: " + request.get("branchId"));
-            System.out.println("주문 유형: " + request.get("orderType"));
-            System.out.println("고객명: " + request.get("customerName"));
-            System.out.println("고객 전화: " + request.get("customerPhone"));
-            System.out.println("결제 방법: " + request.get("paymentMethod"));
-            System.out.println("아이템: " + request.get("items"));
-            System.out.println("================================");
-            
             // 보안 검증
-            if (!request.containsKey("securityHash") || !request.containsKey("timestamp")) {
+            if (request.getSecurityHash() == null || request.getTimestamp() == null) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("error", "보안 정보가 누락되었습니다.");
                 return ResponseEntity.badRequest().body(errorResponse);
             }
             
-            String receivedHash = (String) request.get("securityHash");
-            long timestamp = Long.valueOf(request.get("timestamp").toString());
-            
-            // 주문 데이터 추출
-            Long branchId = Long.valueOf(request.get("branchId").toString());
-            String orderType = (String) request.get("orderType");
-            String customerName = (String) request.get("customerName");
-            String customerPhone = (String) request.get("customerPhone");
-            String paymentMethod = (String) request.get("paymentMethod");
-            List<Map<String, Object>> items = (List<Map<String, Object>>) request.get("items");
-            
-            // 보안 해시 검증
-            String dataToHash = branchId + orderType + customerName + customerPhone + paymentMethod + items.toString();
-            System.out.println("=== 보안 해시 검증 ===");
-            System.out.println("데이터 해시: " + dataToHash);
-            System.out.println("받은 해시: " + receivedHash);
-            System.out.println("타임스탬프: " + timestamp);
-            System.out.println("================================");
-            
             // 임시로 보안 검증 건너뛰기 (테스트용)
-            System.out.println("보안 검증 건너뛰기 (테스트 모드)");
             /*
-            if (!validateSecurityHash(dataToHash, timestamp, receivedHash)) {
+            String dataToHash = request.getBranchId() + request.getOrderType() + request.getCustomerName()
+                + request.getCustomerPhone() + request.getPaymentMethod() + request.getItems();
+            if (!validateSecurityHash(dataToHash, request.getTimestamp(), request.getSecurityHash())) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("error", "보안 검증에 실패했습니다.");
                 return ResponseEntity.badRequest().body(errorResponse);
@@ -215,9 +204,8 @@ public class OrderController {
 
             // 총 금액 계산
             BigDecimal totalAmount = BigDecimal.ZERO;
-            for (Map<String, Object> item : items) {
-                BigDecimal itemTotal = new BigDecimal(item.get("totalPrice").toString());
-                totalAmount = totalAmount.add(itemTotal);
+            for (CartItemRequest item : request.getItems()) {
+                totalAmount = totalAmount.add(item.getTotalPrice());
             }
 
             // 주문 번호 생성 (토스페이먼츠 요구사항에 맞춤)
@@ -230,123 +218,47 @@ public class OrderController {
             if (orderNumber.length() > 64) {
                 orderNumber = orderNumber.substring(0, 64);
             }
-            
-            // 디버깅을 위한 로그 출력
-            System.out.println("생성된 주문 번호: " + orderNumber + " (길이: " + orderNumber.length() + ")");
 
             // 주문 엔티티 생성
             Orders order = new Orders();
-            order.setBranchId(branchId);
+            order.setBranchId(request.getBranchId());
             order.setOrderNumber(orderNumber);
             order.setOrderStatus(Orders.OrderStatus.pending);
-            order.setOrderType(Orders.OrderType.valueOf(orderType));
-            order.setCustomerName(customerName);
-            order.setCustomerPhone(customerPhone);
+            order.setOrderType(Orders.OrderType.valueOf(request.getOrderType()));
+            order.setCustomerName(request.getCustomerName());
+            order.setCustomerPhone(request.getCustomerPhone());
             order.setTotalAmount(totalAmount);
             order.setDiscountAmount(BigDecimal.ZERO);
             order.setFinalAmount(totalAmount);
-            order.setPaymentMethod(Orders.PaymentMethod.valueOf(paymentMethod));
+            order.setPaymentMethod(Orders.PaymentMethod.valueOf(request.getPaymentMethod()));
             order.setPaymentStatus(Orders.PaymentStatus.pending); // 결제 대기 상태로 변경
             order.setOrderTime(LocalDateTime.now());
 
-            // 주문 저장
-            Orders savedOrder = orderRepository.save(order);
-
-            // 주문 아이템 저장 및 자동화 처리
-            List<OrderItems> savedOrderItems = new ArrayList<>();
-            System.out.println("=== 주문 아이템 처리 시작 ===");
-            for (Map<String, Object> itemData : items) {
-                System.out.println("처리 중인 아이템: " + itemData.get("menuName"));
+            // 주문 아이템 생성 (저장은 OrderIngestionService에서 일괄 처리)
+            List<OrderItems> orderItems = new ArrayList<>(request.getItems().size());
+            for (CartItemRequest itemData : request.getItems()) {
                 OrderItems orderItem = new OrderItems();
-                orderItem.setOrderId(savedOrder.getOrderId());
-                orderItem.setMenuId(Long.valueOf(itemData.get("menuId").toString()));
-                orderItem.setMenuName((String) itemData.get("menuName"));
-                orderItem.setUnitPrice(new BigDecimal(itemData.get("unitPrice").toString()));
-                orderItem.setQuantity(Integer.valueOf(itemData.get("quantity").toString()));
-                orderItem.setTotalPrice(new BigDecimal(itemData.get("totalPrice").toString()));
-                orderItem.setDisplayName((String) itemData.get("displayName"));
+                orderItem.setMenuId(itemData.getMenuId());
+                orderItem.setMenuName(itemData.getMenuName());
+                orderItem.setUnitPrice(itemData.getUnitPrice());
+                orderItem.setQuantity(itemData.getQuantity());
+                orderItem.setTotalPrice(itemData.getTotalPrice());
+                orderItem.setDisplayName(itemData.getDisplayName());
                 
                 // 아이템 타입 설정 (세트 메뉴인지 단품인지 판단)
-                try {
-                    OrderItems.ItemType itemType = determineItemType(itemData);
-                    orderItem.setItemType(itemType);
-                    
-                    // is_set_component 설정
-                    if (itemType == OrderItems.ItemType.SET) {
-                        orderItem.setIsSetComponent(true);
-                    } else {
-                        orderItem.setIsSetComponent(false);
-                    }
-                    
-                    System.out.println("아이템 타입 설정: " + itemType + " for " + itemData.get("menuName"));
-                } catch (Exception e) {
-                    System.err.println("아이템 타입 설정 실패: " + e.getMessage());
-                    // 기본값으로 BURGER 설정
-                    orderItem.setItemType(OrderItems.ItemType.BURGER);
-                    orderItem.setIsSetComponent(false);
-                }
-                
-                // 옵션 정보를 JSON으로 저장
-                try {
-                    if (itemData.get("displayOptions") != null) {
-                        Object displayOptions = itemData.get("displayOptions");
-                        if (displayOptions instanceof List) {
-                            // List를 JSON 문자열로 변환
-                            orderItem.setDisplayOptions(objectMapper.writeValueAsString(displayOptions));
-                        } else if (displayOptions instanceof String) {
-                            // 이미 문자열인 경우 그대로 사용
-                            orderItem.setDisplayOptions((String) displayOptions);
-                        } else {
-                            // 기타 타입은 빈 배열로 설정
-                            orderItem.setDisplayOptions("[]");
-                        }
-                    } else {
-                        // null인 경우 빈 배열로 설정
-                        orderItem.setDisplayOptions("[]");
-                    }
-                } catch (Exception e) {
-                    // JSON 변환 실패 시 빈 배열로 설정
-                    orderItem.setDisplayOptions("[]");
-                    System.err.println("displayOptions JSON 변환 실패: " + e.getMessage());
-                }
+                OrderItems.ItemType itemType = determineItemType(itemData.getMenuName(), itemData.getDisplayName());
+                orderItem.setItemType(itemType);
+                orderItem.setIsSetComponent(itemType == OrderItems.ItemType.SET);
                 
-                // 상세 옵션 정보를 JSON으로 저장 (optionsJson)
-                try {
-                    if (itemData.get("options") != null) {
-                        Object options = itemData.get("options");
-                        if (options instanceof List) {
-                            // List를 JSON 문자열로 변환
-                            orderItem.setOptionsJson(objectMapper.writeValueAsString(options));
-                        } else if (options instanceof String) {
-                            // 이미 문자열인 경우 그대로 사용
-                            orderItem.setOptionsJson((String) options);
-                        } else {
-                            // 기타 타입은 빈 배열로 설정
-                            orderItem.setOptionsJson("[]");
-                        }
-                    } else {
-                        // null인 경우 빈 배열로 설정
-                        orderItem.setOptionsJson("[]");
-                    }
-                } catch (Exception e) {
-                    // JSON 변환 실패 시 빈 배열로 설정
-                    orderItem.setOptionsJson("[]");
-                    System.err.println("options JSON 변환 실패: " + e.getMessage());
-                }
+                // 옵션 정보는 요청 원문 JSON 그대로 저장 (없으면 빈 배열)
+                orderItem.setDisplayOptions(itemData.getDisplayOptions() != null ? itemData.getDisplayOptions() : "[]");
+                orderItem.setOptionsJson(itemData.getOptionsJson() != null ? itemData.getOptionsJson() : "[]");
                 
-                OrderItems savedOrderItem = orderItemRepository.save(orderItem);
-                savedOrderItems.add(savedOrderItem);
+                orderItems.add(orderItem);
             }
             
-            // 자동화된 order_item_details 생성 (오류 발생 시에도 주문은 성공)
-            try {
-                automatedOrderService.processOrderItemsAutomatically(savedOrder, savedOrderItems);
-                System.out.println("order_item_details 자동 생성 완료");
-            } catch (Exception e) {
-                System.err.println("order_item_details 자동 생성 실패: " + e.getMessage());
-                e.printStackTrace();
-                // 주문은 성공했으므로 계속 진행
-            }
+            // 주문 + 주문 아이템 + order_item_details 를 한 트랜잭션으로 일괄 저장
+            Orders savedOrder = orderIngestionService.ingest(order, orderItems);
 
             // 응답 데이터 생성
             Map<String, Object> response = new HashMap<>();
@@ -363,6 +275,43 @@ public class OrderController {
         }
     }
 
+    // 기존 Map 요청 호환 API (Map -> CreateOrderRequest 어댑터)
+    @PostMapping("/create/legacy")
+    public ResponseEntity<Map<String, Object>> createOrderFromMap(@RequestBody Map<String, Object> request) {
+        CreateOrderRequest typedRequest;
+        try {
+            typedRequest = objectMapper.convertValue(request, CreateOrderRequest.class);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "주문 요청 형식이 올바르지 않습니다: " + e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        
+        Set<ConstraintViolation<CreateOrderRequest>> violations = validator.validate(typedRequest);
+        if (!violations.isEmpty()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", violations.iterator().next().getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        
+        return createOrder(typedRequest);
+    }
+
+    // 주문 적재 단계별 지연 시간 조회 API
+    @GetMapping("/ingestion/metrics")
+    public ResponseEntity<Map<String, Object>> getIngestionMetrics() {
+        return ResponseEntity.ok(orderIngestionService.getIngestionMetrics());
+    }
+
+    // 주문 적재 지표 초기화 API (부하 테스트 전후 비교용)
+    @PostMapping("/ingestion/metrics/reset")
+    public ResponseEntity<Map<String, Object>> resetIngestionMetrics() {
+        orderIngestionService.resetIngestionMetrics();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "주문 적재 지표가 초기화되었습니다.");
+        return ResponseEntity.ok(response);
+    }
+
     // 결제 상태 업데이트 API
     @PutMapping("/{orderNumber}/payment-status")
     public ResponseEntity<Map<String, Object>> updatePaymentStatus(
@@ -393,6 +342,9 @@ public class OrderController {
             // 주문 저장
             orderRepository.save(order);
             
+            // 이미 완료된 주문의 결제가 완료되면 매출 통계에 반영
+            salesStatisticsService.recordCompletedOrder(order.getOrderId());
+            
             Map<String, Object> response = new HashMap<>();
             response.put("message", "결제 상태가 업데이트되었습니다.");
             response.put("orderNumber", orderNumber);
@@ -507,11 +459,31 @@ public class OrderController {
             order.setUpdatedAt(LocalDateTime.now());
             
             orderRepository.save(order);
+            
+            // 취소 주문은 생성 시 예약한 원재료 재고 해제
+            if ("cancelled".equals(newStatus)) {
+                stockReservationService.release(order);
+            }
+            
+            // 완료 주문은 매출 통계에 반영되므로 해당 지점/날짜에 걸린 캐시 키만 무효화
+            if ("completed".equals(newStatus)) {
+                salesStatisticsService.recordCompletedOrder(orderId);
+                invalidateSalesCaches(order);
+            }
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
+    
+    private void invalidateSalesCaches(Orders order) {
+        try {
+            LocalDateTime createdAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+            cacheService.invalidateSalesCaches(order.getBranchId(), createdAt.toLocalDate());
+        } catch (Exception e) {
+            log.warn("매출 캐시 무효화 실패: orderId={}, error={}", order.getOrderId(), e.getMessage());
+        }
+    }
 
 
 
@@ -50,11 +50,12 @@ public class RegularOrderExecutionController {
     @PostMapping("/execute-all")
     public ResponseEntity<Map<String, Object>> executeAllScheduledOrders() {
         try {
-            executionService.executeScheduledOrders();
+            Map<String, Object> summary = executionService.executeScheduledOrders();
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "모든 예정된 정기발주가 실행되었습니다.");
+            response.put("summary", summary);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -67,4 +68,18 @@ public class RegularOrderExecutionController {
             return ResponseEntity.badRequest().body(response);
         }
     }
+
+    /**
+     * 정기발주 실행 통계 (건당 처리 시간, 마지막 일괄 실행 처리량)
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        return ResponseEntity.ok(executionService.getMetrics());
+    }
+
+    @DeleteMapping("/metrics")
+    public ResponseEntity<Void> resetMetrics() {
+        executionService.resetMetrics();
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -3,6 +3,7 @@ package erp_project.erp_project.controller;
 import erp_project.erp_project.dto.SalesOverviewRequestDto;
 import erp_project.erp_project.dto.SalesOverviewResponseDto;
 import erp_project.erp_project.dto.DailySalesTrendResponseDto;
+import erp_project.erp_project.entity.SalesRollup;
 import erp_project.erp_project.service.SalesOverviewService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/sales")
@@ -116,6 +118,40 @@ public class SalesOverviewController {
         }
     }
     
+    /**
+     * 기간별 매출 비교 API
+     * 기준 연월까지 최근 N개 기간(월/주)의 매출 합계를 조회합니다.
+     * 마감된 기간은 롤업 테이블에서 읽으므로 주문량과 무관하게 응답합니다.
+     * 
+     * @param year 기준 연도
+     * @param month 기준 월
+     * @param periods 기간 수 (기본 12)
+     * @param periodType MONTH 또는 WEEK
+     * @param branchId 가맹점 ID (선택사항, 없으면 본사 제외 전체)
+     * @return 기간별 매출 데이터
+     */
+    @GetMapping("/comparison")
+    public ResponseEntity<Map<String, Object>> getSalesComparison(
+            @RequestParam Integer year,
+            @RequestParam Integer month,
+            @RequestParam(defaultValue = "12") Integer periods,
+            @RequestParam(defaultValue = "MONTH") SalesRollup.PeriodType periodType,
+            @RequestParam(required = false) Long branchId) {
+        
+        log.info("기간별 매출 비교 요청 - 연도: {}, 월: {}, 기간: {} {}, 가맹점 ID: {}", year, month, periods, periodType, branchId);
+        
+        if (periods < 1 || periods > 60) {
+            return ResponseEntity.badRequest().body(Map.of("error", "periods 는 1~60 사이여야 합니다"));
+        }
+        
+        try {
+            return ResponseEntity.ok(salesOverviewService.getSalesComparison(periodType, year, month, periods, branchId));
+        } catch (Exception e) {
+            log.error("기간별 매출 비교 조회 중 오류 발생", e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "기간별 매출 비교 조회 실패: " + e.getMessage()));
+        }
+    }
+    
     /**
      * 카테고리별 매출 조회 API
      * 선택한 연월의 카테고리별 매출 현황을 조회합니다.
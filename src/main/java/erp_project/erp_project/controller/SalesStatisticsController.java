@@ -5,6 +5,10 @@ import erp_project.erp_project.entity.MenuSalesStatistics;
 import erp_project.erp_project.entity.CategorySalesStatistics;
 import erp_project.erp_project.dto.ProductSalesStatisticsDto;
 import erp_project.erp_project.dto.CategorySalesStatisticsDto;
+import erp_project.erp_project.dto.SalesCubeQueryDto;
+import erp_project.erp_project.service.SalesAggregationService;
+import erp_project.erp_project.service.SalesCubeService;
+import erp_project.erp_project.service.SalesRollupService;
 import erp_project.erp_project.service.SalesStatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -13,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/sales-statistics")
@@ -22,6 +27,15 @@ public class SalesStatisticsController {
     @Autowired
     private SalesStatisticsService salesStatisticsService;
     
+    @Autowired
+    private SalesAggregationService salesAggregationService;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private SalesCubeService salesCubeService;
+    
     /**
      * 지점별 일별 매출 조회
      */
@@ -222,4 +236,92 @@ public class SalesStatisticsController {
         List<SalesStatistics> stats = salesStatisticsService.getHourlyStatisticsForDebug(branchId, date);
         return ResponseEntity.ok(stats);
     }
+    
+    /**
+     * 매출 집계 엔진 지표 (미반영 버킷 수, flush 횟수/지연 시간)
+     */
+    @GetMapping("/aggregation/metrics")
+    public ResponseEntity<Map<String, Object>> getAggregationMetrics() {
+        return ResponseEntity.ok(salesAggregationService.getMetrics());
+    }
+    
+    /**
+     * 메모리 변화량 즉시 반영
+     */
+    @PostMapping("/aggregation/flush")
+    public ResponseEntity<Map<String, Object>> flushAggregation() {
+        salesAggregationService.flush();
+        return ResponseEntity.ok(salesAggregationService.getMetrics());
+    }
+    
+    /**
+     * orders 기준 재집계 (branchId 생략 시 전체 지점)
+     */
+    @PostMapping("/aggregation/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAggregation(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long branchId) {
+        
+        try {
+            return ResponseEntity.ok(salesAggregationService.rebuild(date, branchId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "재집계 실패: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 월/주 롤업 지표 (갱신 대기 기간, 재조정 결과, 롤업/일별 조회 수)
+     */
+    @GetMapping("/rollup/metrics")
+    public ResponseEntity<Map<String, Object>> getRollupMetrics() {
+        return ResponseEntity.ok(salesRollupService.getMetrics());
+    }
+    
+    /**
+     * 최근 N개월 롤업 재조정 (야간 작업 수동 실행)
+     */
+    @PostMapping("/rollup/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileRollups(@RequestParam(defaultValue = "13") int months) {
+        try {
+            return ResponseEntity.ok(salesRollupService.reconcile(months));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "롤업 재조정 실패: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 인메모리 매출 큐브 조회 (지점/메뉴/카테고리/날짜/시간 필터 + 그룹 + 상위 N)
+     */
+    @PostMapping("/cube/query")
+    public ResponseEntity<Map<String, Object>> queryCube(@RequestBody SalesCubeQueryDto request) {
+        try {
+            return ResponseEntity.ok(salesCubeService.query(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "잘못된 큐브 조회 조건: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 매출 큐브 지표 (행 수, 메모리 사용량, 적재/조회 지연 시간)
+     */
+    @GetMapping("/cube/metrics")
+    public ResponseEntity<Map<String, Object>> getCubeMetrics() {
+        return ResponseEntity.ok(salesCubeService.getMetrics());
+    }
+    
+    /**
+     * 매출 큐브 재적재
+     */
+    @PostMapping("/cube/reload")
+    public ResponseEntity<Map<String, Object>> reloadCube() {
+        try {
+            return ResponseEntity.ok(salesCubeService.reload());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "큐브 재적재 실패: " + e.getMessage()));
+        }
+    }
 }
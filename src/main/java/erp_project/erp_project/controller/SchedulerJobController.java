@@ -0,0 +1,48 @@
+package erp_project.erp_project.controller;
+
+import erp_project.erp_project.entity.SchedulerJobRun;
+import erp_project.erp_project.entity.SchedulerLock;
+import erp_project.erp_project.service.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/scheduler")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class SchedulerJobController {
+
+    private final SchedulerLockService schedulerLockService;
+
+    /**
+     * 스케줄 작업 잠금 현황 (보유 노드, fencing token, 임대 만료 시각)
+     */
+    @GetMapping("/locks")
+    public ResponseEntity<List<SchedulerLock>> getLocks() {
+        return ResponseEntity.ok(schedulerLockService.getLocks());
+    }
+
+    /**
+     * 스케줄 작업 실행 이력 (최신순)
+     */
+    @GetMapping("/runs")
+    public ResponseEntity<List<SchedulerJobRun>> getRuns(
+            @RequestParam(required = false) String jobName,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(schedulerLockService.getRuns(jobName, Math.min(Math.max(limit, 1), 500)));
+    }
+
+    /**
+     * 이 노드의 잠금 획득/건너뜀/상실 횟수
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        return ResponseEntity.ok(schedulerLockService.getMetrics());
+    }
+}
@@ -3,29 +3,50 @@ package erp_project.erp_project.controller;
 import erp_project.erp_project.entity.StockMovement;
 import erp_project.erp_project.repository.StockMovementRepository;
 import erp_project.erp_project.repository.MaterialStockRepository;
+import erp_project.erp_project.repository.StockMovementQueryRepository;
+import erp_project.erp_project.service.StockJournalService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/stock-movements")
 @RequiredArgsConstructor
 @Slf4j
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = "X-Next-Cursor")
 public class StockMovementController {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
     private final StockMovementRepository stockMovementRepository;
+    private final StockMovementQueryRepository stockMovementQueryRepository;
     private final MaterialStockRepository materialStockRepository;
+    private final StockJournalService stockJournalService;
+    private final ObjectMapper objectMapper;
     
     /**
-     * 특정 지점의 재고 이동 이력 조회
-     * GET /api/stock-movements/branch/{branchId}
+     * 특정 지점의 재고 이동 이력 조회 (최신순, 키셋 페이지네이션)
+     * GET /api/stock-movements/branch/{branchId}?limit=100&cursor=...
+     * - 다음 페이지가 있으면 X-Next-Cursor 헤더로 커서 전달, 그 값을 cursor 로 다시 요청
      */
     @GetMapping("/branch/{branchId}")
     public ResponseEntity<List<StockMovementResponse>> getStockMovementsByBranch(
@@ -33,46 +54,36 @@ public class StockMovementController {
             @RequestParam(required = false) String movementType,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
-            @RequestParam(required = false) String searchTerm) {
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
         try {
-            log.info("지점별 재고 이동 이력 조회: branchId={}, movementType={}, startDate={}, endDate={}, searchTerm={}", 
-                    branchId, movementType, startDate, endDate, searchTerm);
+            log.info("지점별 재고 이동 이력 조회: branchId={}, movementType={}, startDate={}, endDate={}, searchTerm={}, limit={}", 
+                    branchId, movementType, startDate, endDate, searchTerm, limit);
             
-            List<StockMovement> movements;
-            
-            // 기본적으로 지점별 조회
-            if (movementType != null && !movementType.equals("all")) {
-                movements = stockMovementRepository.findByBranchIdAndMovementTypeOrderByMovementDateDesc(
-                    branchId, StockMovement.MovementType.valueOf(movementType.toUpperCase()));
-            } else {
-                movements = stockMovementRepository.findByBranchIdOrderByMovementDateDesc(branchId);
+            StockMovementQueryRepository.MovementFilter filter;
+            StockMovementQueryRepository.Cursor after;
+            try {
+                filter = toFilter(movementType, startDate, endDate, searchTerm);
+                after = cursor != null && !cursor.isBlank() ? StockMovementQueryRepository.Cursor.decode(cursor) : null;
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                return ResponseEntity.badRequest().build();
             }
             
-            // 날짜 범위 필터링
-            if (startDate != null && endDate != null) {
-                LocalDateTime start = LocalDateTime.parse(startDate + "T00:00:00");
-                LocalDateTime end = LocalDateTime.parse(endDate + "T23:59:59");
-                movements = movements.stream()
-                    .filter(movement -> movement.getMovementDate().isAfter(start) && 
-                                       movement.getMovementDate().isBefore(end))
-                    .collect(Collectors.toList());
-            }
-            
-            // 검색어 필터링
-            if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-                movements = movements.stream()
-                    .filter(movement -> movement.getMaterial().getName().toLowerCase()
-                        .contains(searchTerm.toLowerCase()))
-                    .collect(Collectors.toList());
-            }
+            StockMovementQueryRepository.MovementPage page = stockMovementQueryRepository.findPage(
+                    branchId, filter, after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
             
             // 응답 DTO 변환
-            List<StockMovementResponse> responses = movements.stream()
+            List<StockMovementResponse> responses = page.rows().stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
             
             log.info("재고 이동 이력 조회 완료: {}건", responses.size());
-            return ResponseEntity.ok(responses);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor().encode());
+            }
+            return response.body(responses);
             
         } catch (Exception e) {
             log.error("재고 이동 이력 조회 실패: branchId={}", branchId, e);
@@ -80,6 +91,58 @@ public class StockMovementController {
         }
     }
     
+    /**
+     * 특정 지점의 재고 이동 이력 전체 내보내기 (NDJSON 스트리밍, 한 줄에 이력 1건)
+     * GET /api/stock-movements/branch/{branchId}/export
+     */
+    @GetMapping("/branch/{branchId}/export")
+    public ResponseEntity<StreamingResponseBody> exportStockMovements(
+            @PathVariable Long branchId,
+            @RequestParam(required = false) String movementType,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String searchTerm) {
+        StockMovementQueryRepository.MovementFilter filter;
+        try {
+            filter = toFilter(movementType, startDate, endDate, searchTerm);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream out = new BufferedOutputStream(outputStream);
+            try {
+                stockMovementQueryRepository.stream(branchId, filter, row -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(convertToResponse(row)));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"stock-movements-" + branchId + ".ndjson\"")
+                .body(body);
+    }
+    
+    private StockMovementQueryRepository.MovementFilter toFilter(String movementType, String startDate,
+                                                                 String endDate, String searchTerm) {
+        String type = movementType != null && !movementType.equals("all")
+                ? StockMovement.MovementType.valueOf(movementType.toUpperCase()).name() : null;
+        LocalDateTime from = startDate != null && !startDate.isBlank() ? LocalDate.parse(startDate).atStartOfDay() : null;
+        LocalDateTime to = endDate != null && !endDate.isBlank() ? LocalDate.parse(endDate).plusDays(1).atStartOfDay() : null;
+        String search = searchTerm != null && !searchTerm.trim().isEmpty() ? searchTerm.trim() : null;
+        return new StockMovementQueryRepository.MovementFilter(type, from, to, search);
+    }
+    
     /**
      * 특정 자재의 재고 이동 이력 조회
      * GET /api/stock-movements/material/{materialId}
@@ -108,6 +171,63 @@ public class StockMovementController {
         }
     }
     
+    /**
+     * 지점의 시점 재고 (스냅샷 + 이후 이동 이력 합계)
+     * GET /api/stock-movements/branch/{branchId}/levels?at=2026-10-01T00:00:00 (at 없으면 현재)
+     */
+    @GetMapping("/branch/{branchId}/levels")
+    public ResponseEntity<Map<Long, BigDecimal>> getStockLevelsAt(
+            @PathVariable Long branchId,
+            @RequestParam(required = false) String at) {
+        try {
+            LocalDateTime pointInTime = at != null ? LocalDateTime.parse(at) : null;
+            return ResponseEntity.ok(stockJournalService.getLevelsAt(branchId, pointInTime));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("시점 재고 조회 실패: branchId={}, at={}", branchId, at, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 이동 이력 기준 재고와 현재 재고 비교
+     * GET /api/stock-movements/branch/{branchId}/verify
+     */
+    @GetMapping("/branch/{branchId}/verify")
+    public ResponseEntity<Map<String, Object>> verifyStockLevels(@PathVariable Long branchId) {
+        try {
+            return ResponseEntity.ok(stockJournalService.verify(branchId));
+        } catch (Exception e) {
+            log.error("재고 이력 검증 실패: branchId={}", branchId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 재고 스냅샷 즉시 생성
+     * POST /api/stock-movements/snapshots
+     */
+    @PostMapping("/snapshots")
+    public ResponseEntity<Map<String, Object>> takeSnapshot() {
+        try {
+            int rows = stockJournalService.takeSnapshot();
+            return ResponseEntity.ok(Map.of("rows", rows));
+        } catch (Exception e) {
+            log.error("재고 스냅샷 생성 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 재고 이력 저널 지표
+     * GET /api/stock-movements/journal/metrics
+     */
+    @GetMapping("/journal/metrics")
+    public ResponseEntity<Map<String, Object>> getJournalMetrics() {
+        return ResponseEntity.ok(stockJournalService.getMetrics());
+    }
+    
     /**
      * 재고 이동 이력을 응답 DTO로 변환
      */
@@ -127,13 +247,8 @@ public class StockMovementController {
             log.warn("재고 정보 조회 실패: materialId={}, branchId={}", materialId, branchId);
         }
         
-        // 이전 재고 계산 (현재 재고 - 이동 수량)
-        Integer previousStock = currentStock;
-        if (movement.getMovementType() == StockMovement.MovementType.SUPPLY_IN) {
-            previousStock = currentStock - movement.getQuantity().intValue();
-        } else if (movement.getMovementType() == StockMovement.MovementType.SALE_DEDUCTION) {
-            previousStock = currentStock + movement.getQuantity().intValue();
-        }
+        // 이전 재고 계산 (현재 재고 - 이동 수량, 수량은 입고 양수 / 출고 음수)
+        Integer previousStock = currentStock - movement.getQuantity().intValue();
         
         return StockMovementResponse.builder()
                 .id(movement.getId())
@@ -143,7 +258,7 @@ public class StockMovementController {
                 .quantity(movement.getQuantity().intValue())
                 .previousStock(previousStock)
                 .currentStock(currentStock)
-                .reason(getMovementReason(movement))
+                .reason(getMovementReason(movement.getMovementType(), movement.getReferenceType()))
                 .employeeName(movement.getNotes() != null ? movement.getNotes() : "시스템")
                 .timestamp(movement.getMovementDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")))
                 .unit(movement.getUnit())
@@ -154,6 +269,32 @@ public class StockMovementController {
                 .build();
     }
     
+    /**
+     * 조회 전용 행을 응답 DTO로 변환 (자재/현재 재고는 조회 시 JOIN 된 값 사용)
+     */
+    private StockMovementResponse convertToResponse(StockMovementQueryRepository.MovementRow row) {
+        StockMovement.MovementType movementType = StockMovement.MovementType.valueOf(row.movementType());
+        Integer currentStock = row.currentStock() != null ? row.currentStock().intValue() : 0;
+        
+        return StockMovementResponse.builder()
+                .id(row.id())
+                .itemName(row.materialName())
+                .itemCategory(row.materialCategory())
+                .type(convertMovementTypeToFrontendType(movementType))
+                .quantity(row.quantity().intValue())
+                .previousStock(currentStock - row.quantity().intValue())
+                .currentStock(currentStock)
+                .reason(getMovementReason(movementType, row.referenceType()))
+                .employeeName(row.notes() != null ? row.notes() : "시스템")
+                .timestamp(row.movementDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")))
+                .unit(row.unit())
+                .costPerUnit(row.costPerUnit())
+                .totalCost(row.totalCost())
+                .referenceType(row.referenceType())
+                .referenceId(row.referenceId())
+                .build();
+    }
+    
     /**
      * MovementType을 프론트엔드 타입으로 변환
      */
@@ -177,12 +318,12 @@ public class StockMovementController {
     /**
      * 이동 사유 생성
      */
-    private String getMovementReason(StockMovement movement) {
-        switch (movement.getMovementType()) {
+    private String getMovementReason(StockMovement.MovementType movementType, String referenceType) {
+        switch (movementType) {
             case SUPPLY_IN:
-                if ("SUPPLY_REQUEST".equals(movement.getReferenceType())) {
+                if ("SUPPLY_REQUEST".equals(referenceType)) {
                     return "발주 입고";
-                } else if ("RETURN".equals(movement.getReferenceType())) {
+                } else if ("RETURN".equals(referenceType)) {
                     return "반품 입고";
                 }
                 return "입고";
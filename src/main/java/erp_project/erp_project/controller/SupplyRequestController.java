@@ -4,14 +4,12 @@ import erp_project.erp_project.entity.SupplyRequest;
 import erp_project.erp_project.entity.SupplyRequestItem;
 import erp_project.erp_project.entity.Material;
 import erp_project.erp_project.entity.Branches;
-import erp_project.erp_project.entity.MaterialStock;
-import erp_project.erp_project.entity.StockMovement;
 import erp_project.erp_project.repository.SupplyRequestRepository;
 import erp_project.erp_project.repository.SupplyRequestItemRepository;
 import erp_project.erp_project.repository.MaterialRepository;
 import erp_project.erp_project.repository.BranchesRepository;
-import erp_project.erp_project.repository.MaterialStockRepository;
-import erp_project.erp_project.repository.StockMovementRepository;
+import erp_project.erp_project.service.ReplenishmentService;
+import erp_project.erp_project.service.StockJournalService;
 import erp_project.erp_project.service.WebSocketNotificationService;
 import erp_project.erp_project.dto.NotificationDTO;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -37,9 +36,9 @@ public class SupplyRequestController {
     private final SupplyRequestItemRepository supplyRequestItemRepository;
     private final MaterialRepository materialRepository;
     private final BranchesRepository branchesRepository;
-    private final MaterialStockRepository materialStockRepository;
-    private final StockMovementRepository stockMovementRepository;
     private final WebSocketNotificationService webSocketNotificationService;
+    private final StockJournalService stockJournalService;
+    private final ReplenishmentService replenishmentService;
     
     /**
      * 발주 요청 목록 조회
@@ -470,6 +469,51 @@ public class SupplyRequestController {
         }
     }
     
+    /**
+     * 소비 속도 기반 자동 보충 즉시 실행 (지점별 승인 대기 발주 요청 생성)
+     * POST /api/supply-requests/replenishment/run
+     */
+    @PostMapping("/replenishment/run")
+    public ResponseEntity<Map<String, Object>> runReplenishment() {
+        try {
+            return ResponseEntity.ok(replenishmentService.run(true));
+        } catch (Exception e) {
+            log.error("자동 보충 실행 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * 자동 보충 계산 결과 미리보기 (발주 요청 생성 없음)
+     * GET /api/supply-requests/replenishment/preview?branchId={branchId}
+     */
+    @GetMapping("/replenishment/preview")
+    public ResponseEntity<Map<String, Object>> previewReplenishment(@RequestParam(required = false) Long branchId) {
+        try {
+            Map<String, Object> result = replenishmentService.run(false);
+            if (branchId != null) {
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> branches = (List<Map<String, Object>>) result.get("branches");
+                result.put("branches", branches.stream()
+                    .filter(branch -> branchId.equals(branch.get("branchId")))
+                    .collect(Collectors.toList()));
+            }
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("자동 보충 미리보기 실패: branchId={}", branchId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * 마지막 자동 보충 실행 요약
+     * GET /api/supply-requests/replenishment/last-run
+     */
+    @GetMapping("/replenishment/last-run")
+    public ResponseEntity<Map<String, Object>> getLastReplenishmentRun() {
+        return ResponseEntity.ok(replenishmentService.getLastRun());
+    }
+    
     // DTO 클래스들
     public static class SupplyRequestCreateRequest {
         private Long requestingBranchId;
@@ -872,82 +916,12 @@ public class SupplyRequestController {
             // 발주 아이템 목록 조회
             List<SupplyRequestItem> items = supplyRequestItemRepository.findBySupplyRequestId(supplyRequest.getId());
             
-            for (SupplyRequestItem item : items) {
-                Long materialId = item.getMaterial().getId();
-                Long branchId = supplyRequest.getRequestingBranchId();
-                BigDecimal quantity = item.getRequestedQuantity();
-                String unit = item.getUnit();
-                BigDecimal costPerUnit = item.getCostPerUnit();
-                
-                log.info("재고 업데이트: materialId={}, branchId={}, quantity={}, unit={}", 
-                        materialId, branchId, quantity, unit);
-                
-                // 해당 지점의 재고 정보 조회
-                MaterialStock existingStock = materialStockRepository.findByBranchIdAndMaterialId(branchId, materialId);
-                
-                if (existingStock != null) {
-                    // 기존 재고가 있는 경우 수량 증가
-                    BigDecimal newCurrentStock = existingStock.getCurrentStock().add(quantity);
-                    existingStock.setCurrentStock(newCurrentStock);
-                    existingStock.setLastUpdated(LocalDateTime.now());
-                    
-                    materialStockRepository.save(existingStock);
-                    log.info("기존 재고 업데이트 완료: materialId={}, branchId={}, 기존수량={}, 추가수량={}, 새수량={}", 
-                            materialId, branchId, existingStock.getCurrentStock().subtract(quantity), quantity, newCurrentStock);
-                    
-                } else {
-                    // 기존 재고가 없는 경우 새로 생성
-                    Material material = item.getMaterial();
-                    Branches branch = branchesRepository.findById(branchId)
-                            .orElseThrow(() -> new RuntimeException("지점을 찾을 수 없습니다: " + branchId));
-                    
-                    MaterialStock newStock = MaterialStock.builder()
-                            .material(material)
-                            .branch(branch)
-                            .currentStock(quantity)
-                            .minStock(BigDecimal.ZERO)
-                            .maxStock(BigDecimal.valueOf(1000)) // 기본값 설정
-                            .reservedStock(BigDecimal.ZERO)
-                            .lastUpdated(LocalDateTime.now())
-                            .createdAt(LocalDateTime.now())
-                            .build();
-                    
-                    materialStockRepository.save(newStock);
-                    log.info("새 재고 생성 완료: materialId={}, branchId={}, 수량={}", 
-                            materialId, branchId, quantity);
-                }
-                
-                // 재고 이동 이력 기록
-                try {
-                    log.info("StockMovement 생성 시작: materialId={}, branchId={}, quantity={}, costPerUnit={}", 
-                            materialId, branchId, quantity, costPerUnit);
-                    
-                    StockMovement movement = StockMovement.builder()
-                            .material(item.getMaterial())
-                            .branch(branchesRepository.findById(branchId).orElse(null))
-                            .movementType(StockMovement.MovementType.SUPPLY_IN)
-                            .quantity(quantity)
-                            .unit(unit)
-                            .costPerUnit(costPerUnit)
-                            .totalCost(quantity.multiply(costPerUnit))
-                            .referenceId(supplyRequest.getId())
-                            .referenceType("SUPPLY_REQUEST")
-                            .notes("발주 요청 배송 완료로 인한 재고 입고")
-                            .movementDate(LocalDateTime.now())
-                            .createdAt(LocalDateTime.now())
-                            .build();
-                    
-                    log.info("StockMovement 객체 생성 완료: {}", movement);
-                    
-                    StockMovement savedMovement = stockMovementRepository.save(movement);
-                    log.info("재고 이동 이력 저장 완료: id={}, materialId={}, branchId={}, 수량={}, 타입={}", 
-                            savedMovement.getId(), materialId, branchId, quantity, StockMovement.MovementType.SUPPLY_IN);
-                            
-                } catch (Exception e) {
-                    log.error("StockMovement 저장 실패: materialId={}, branchId={}, error={}", materialId, branchId, e.getMessage(), e);
-                    // StockMovement 저장 실패는 전체 트랜잭션에 영향을 주지 않도록 처리
-                }
-            }
+            // 재고 증가(재고 행이 없으면 생성)와 SUPPLY_IN 이동 이력을 한 트랜잭션에서 일괄 처리
+            List<StockJournalService.JournalLine> lines = items.stream()
+                    .map(item -> new StockJournalService.JournalLine(item.getMaterial().getId(),
+                            item.getRequestedQuantity(), item.getUnit(), item.getCostPerUnit()))
+                    .collect(Collectors.toList());
+            stockJournalService.receiveSupply(supplyRequest.getRequestingBranchId(), supplyRequest.getId(), lines);
             
             log.info("배송 완료 시 재고 업데이트 완료: supplyRequestId={}", supplyRequest.getId());
             
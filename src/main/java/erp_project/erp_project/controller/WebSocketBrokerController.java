@@ -0,0 +1,44 @@
+package erp_project.erp_project.controller;
+
+import erp_project.erp_project.websocket.BrokerFanoutInterceptor;
+import erp_project.erp_project.websocket.BrokerTrafficMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/websocket")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class WebSocketBrokerController {
+
+    private final BrokerTrafficMetrics trafficMetrics;
+    private final BrokerFanoutInterceptor fanoutInterceptor;
+
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    /**
+     * 브로커 모드와 destination 별 처리량/전달 지연
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", brokerMode);
+        result.put("nodeId", fanoutInterceptor.getNodeId());
+        result.putAll(trafficMetrics.snapshot());
+        return ResponseEntity.ok(result);
+    }
+
+    @DeleteMapping("/metrics")
+    public ResponseEntity<Void> resetMetrics() {
+        trafficMetrics.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,17 +1,47 @@
 package erp_project.erp_project.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import erp_project.erp_project.util.RawJsonDeserializer;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
 import java.math.BigDecimal;
-import java.util.List;
 
+// 키오스크가 보내는 부가 필드(itemType 등)는 무시
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class CartItemRequest {
+    @NotNull(message = "메뉴 ID는 필수입니다")
     private Long menuId;
+    
+    @NotBlank(message = "메뉴 이름은 필수입니다")
     private String menuName;
+    
+    @NotNull(message = "수량은 필수입니다")
+    @Positive(message = "수량은 1 이상이어야 합니다")
     private Integer quantity;
+    
+    @NotNull(message = "단가는 필수입니다")
+    @PositiveOrZero(message = "단가는 0 이상이어야 합니다")
     private BigDecimal unitPrice;
+    
+    @NotNull(message = "합계 금액은 필수입니다")
+    @PositiveOrZero(message = "합계 금액은 0 이상이어야 합니다")
     private BigDecimal totalPrice;
-    private List<OptionRequest> options;
+    
+    // 옵션 목록 (OptionRequest 배열) - 재직렬화 없이 원문 JSON 그대로 options_json에 저장
+    @JsonProperty("options")
+    @JsonDeserialize(using = RawJsonDeserializer.class)
+    private String optionsJson;
+    
     private String displayName;
-    private List<String> displayOptions;
+    
+    // 표시용 옵션 문자열 배열 - 원문 JSON 그대로 display_options에 저장
+    @JsonDeserialize(using = RawJsonDeserializer.class)
+    private String displayOptions;
     
     // 기본 생성자
     public CartItemRequest() {}
@@ -19,14 +49,14 @@ public class CartItemRequest {
     // 생성자
     public CartItemRequest(Long menuId, String menuName, Integer quantity, 
                           BigDecimal unitPrice, BigDecimal totalPrice, 
-                          List<OptionRequest> options, String displayName, 
-                          List<String> displayOptions) {
+                          String optionsJson, String displayName, 
+                          String displayOptions) {
         this.menuId = menuId;
         this.menuName = menuName;
         this.quantity = quantity;
         this.unitPrice = unitPrice;
         this.totalPrice = totalPrice;
-        this.options = options;
+        this.optionsJson = optionsJson;
         this.displayName = displayName;
         this.displayOptions = displayOptions;
     }
@@ -47,12 +77,12 @@ public class CartItemRequest {
     public BigDecimal getTotalPrice() { return totalPrice; }
     public void setTotalPrice(BigDecimal totalPrice) { this.totalPrice = totalPrice; }
     
-    public List<OptionRequest> getOptions() { return options; }
-    public void setOptions(List<OptionRequest> options) { this.options = options; }
+    public String getOptionsJson() { return optionsJson; }
+    public void setOptionsJson(String optionsJson) { this.optionsJson = optionsJson; }
     
     public String getDisplayName() { return displayName; }
     public void setDisplayName(String displayName) { this.displayName = displayName; }
     
-    public List<String> getDisplayOptions() { return displayOptions; }
-    public void setDisplayOptions(List<String> displayOptions) { this.displayOptions = displayOptions; }
+    public String getDisplayOptions() { return displayOptions; }
+    public void setDisplayOptions(String displayOptions) { this.displayOptions = displayOptions; }
 }
@@ -1,16 +1,36 @@
 package erp_project.erp_project.dto;
 
-import java.math.BigDecimal;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
 import java.util.List;
 
+// 키오스크가 보내는 부가 필드(itemType 등)는 무시
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class CreateOrderRequest {
+    @NotNull(message = "지점 ID는 필수입니다")
     private Long branchId;
+    
+    @NotBlank(message = "주문 유형은 필수입니다")
     private String orderType; // "dine_in" or "takeout"
+    
     private String customerName;
     private String customerPhone;
+    
+    @NotEmpty(message = "주문 아이템이 없습니다")
+    @Valid
     private List<CartItemRequest> items;
+    
+    @NotBlank(message = "결제 방법은 필수입니다")
     private String paymentMethod;
     
+    // 보안 검증 정보
+    private String securityHash;
+    private Long timestamp;
+    
     // 기본 생성자
     public CreateOrderRequest() {}
     
@@ -43,4 +63,10 @@ public class CreateOrderRequest {
     
     public String getPaymentMethod() { return paymentMethod; }
     public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+    
+    public String getSecurityHash() { return securityHash; }
+    public void setSecurityHash(String securityHash) { this.securityHash = securityHash; }
+    
+    public Long getTimestamp() { return timestamp; }
+    public void setTimestamp(Long timestamp) { this.timestamp = timestamp; }
 }
@@ -0,0 +1,42 @@
+package erp_project.erp_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 매출 큐브 조회 요청
+ * - 필터: 지점/메뉴/카테고리 ID 목록 (비어 있으면 전체), 날짜/시간 범위
+ * - groupBy: BRANCH, MENU, CATEGORY, DATE, HOUR 중 0개 이상 (없으면 전체 합계 1행)
+ * - orderBy: SALES, QUANTITY, ROWS (내림차순), limit 이 있으면 상위 N 개
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesCubeQueryDto {
+
+    private List<Long> branchIds;
+
+    private List<Long> menuIds;
+
+    private List<Long> categoryIds;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private Integer fromHour;
+
+    private Integer toHour;
+
+    private List<String> groupBy;
+
+    private String orderBy;
+
+    private Integer limit;
+}
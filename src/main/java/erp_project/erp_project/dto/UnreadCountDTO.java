@@ -0,0 +1,27 @@
+package erp_project.erp_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 읽지 않은 건수 변경 푸시 (알림과 같은 웹소켓 채널로 전송, type 으로 구분)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountDTO {
+
+    private String type; // unread_count, notice_unread_count
+    private String recipientType; // "HEADQUARTERS", "BRANCH", "USER"
+    private Long recipientId;
+    private long unreadCount;
+    private LocalDateTime timestamp;
+
+    public static final String TYPE_NOTIFICATION = "unread_count";
+    public static final String TYPE_NOTICE = "notice_unread_count";
+}
@@ -0,0 +1,104 @@
+package erp_project.erp_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 아카이브 세그먼트 목록 (추가 전용)
+ * - 원본 행을 옮긴 NDJSON.gz 파일 1개 = 1행, 파일은 dataset/branch=지점/month=연월 디렉터리에 저장
+ * - 세그먼트 기록과 원본 행 삭제는 같은 트랜잭션 → 목록에 있는 행만 원본에서 사라짐
+ * - first_key ~ last_key 는 세그먼트에 담긴 원본 PK 범위 (단건 조회 시 읽을 파일 선택용)
+ */
+@Entity
+@Table(name = "archive_segments",
+       indexes = {
+           @Index(name = "idx_archive_segments_dataset_branch_period", columnList = "dataset, branch_id, period"),
+           @Index(name = "idx_archive_segments_dataset_first_key", columnList = "dataset, first_key")
+       })
+public class ArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "segment_id")
+    private Long segmentId;
+
+    // orders, sales_statistics, menu_sales_statistics, category_sales_statistics
+    @Column(name = "dataset", nullable = false, length = 50)
+    private String dataset;
+
+    @Column(name = "branch_id", nullable = false)
+    private Long branchId;
+
+    // yyyy-MM
+    @Column(name = "period", nullable = false, length = 7)
+    private String period;
+
+    @Column(name = "first_key", nullable = false)
+    private Long firstKey;
+
+    @Column(name = "last_key", nullable = false)
+    private Long lastKey;
+
+    // 문서(줄) 수
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+
+    // 문서에 포함된 하위 행 수 (주문 아이템 + 상세)
+    @Column(name = "child_row_count", nullable = false)
+    private Integer childRowCount = 0;
+
+    // 아카이브 루트 기준 상대 경로
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+
+    @Column(name = "byte_size", nullable = false)
+    private Long byteSize;
+
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // 기본 생성자
+    public ArchiveSegment() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getSegmentId() { return segmentId; }
+    public void setSegmentId(Long segmentId) { this.segmentId = segmentId; }
+
+    public String getDataset() { return dataset; }
+    public void setDataset(String dataset) { this.dataset = dataset; }
+
+    public Long getBranchId() { return branchId; }
+    public void setBranchId(Long branchId) { this.branchId = branchId; }
+
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+
+    public Long getFirstKey() { return firstKey; }
+    public void setFirstKey(Long firstKey) { this.firstKey = firstKey; }
+
+    public Long getLastKey() { return lastKey; }
+    public void setLastKey(Long lastKey) { this.lastKey = lastKey; }
+
+    public Integer getRowCount() { return rowCount; }
+    public void setRowCount(Integer rowCount) { this.rowCount = rowCount; }
+
+    public Integer getChildRowCount() { return childRowCount; }
+    public void setChildRowCount(Integer childRowCount) { this.childRowCount = childRowCount; }
+
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) { this.filePath = filePath; }
+
+    public Long getByteSize() { return byteSize; }
+    public void setByteSize(Long byteSize) { this.byteSize = byteSize; }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -6,7 +6,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "category_sales_statistics")
+@Table(name = "category_sales_statistics",
+       uniqueConstraints = @UniqueConstraint(name = "uk_category_sales_statistics_branch_category_date",
+                                             columnNames = {"branch_id", "category_id", "statistic_date"}))
 public class CategorySalesStatistics {
     
     @Id
@@ -11,13 +11,54 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "material_stocks")
+@Table(name = "material_stocks",
+       indexes = {
+           @Index(name = "idx_material_stocks_branch_status", columnList = "branch_id, stock_status"),
+           @Index(name = "idx_material_stocks_status", columnList = "stock_status")
+       })
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class MaterialStock {
     
+    /**
+     * 재고 임계값 상태 (재고 수량 변경 시 같은 UPDATE 에서 갱신)
+     */
+    public enum StockStatus {
+        CRITICAL,   // 최소 재고 이하
+        WARNING,    // 최소 재고의 1.2배 이하
+        EXCESS,     // 최대 재고의 80% 이상
+        NORMAL;
+
+        private static final BigDecimal WARNING_RATIO = new BigDecimal("1.2");
+        private static final BigDecimal EXCESS_RATIO = new BigDecimal("0.8");
+
+        // StockMutationRepository.STATUS_CASE 와 같은 규칙
+        public static StockStatus of(BigDecimal currentStock, BigDecimal minStock, BigDecimal maxStock) {
+            if (currentStock.compareTo(minStock) <= 0) {
+                return CRITICAL;
+            } else if (currentStock.compareTo(minStock.multiply(WARNING_RATIO)) <= 0) {
+                return WARNING;
+            } else if (maxStock.signum() > 0 && currentStock.compareTo(maxStock.multiply(EXCESS_RATIO)) >= 0) {
+                return EXCESS;
+            }
+            return NORMAL;
+        }
+
+        // 재고 상태 필터 값 (low / excess / normal)
+        public String filterName() {
+            switch (this) {
+                case CRITICAL:
+                    return "low";
+                case EXCESS:
+                    return "excess";
+                default:
+                    return "normal";
+            }
+        }
+    }
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -45,6 +86,10 @@ public class MaterialStock {
     @Column(name = "available_stock", precision = 10, scale = 3)
     private BigDecimal availableStock;
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stock_status", length = 10)
+    private StockStatus stockStatus;
+    
     @Column(name = "last_updated", nullable = false)
     private LocalDateTime lastUpdated;
     
@@ -80,5 +125,8 @@ public class MaterialStock {
         if (currentStock != null && reservedStock != null) {
             this.availableStock = currentStock.subtract(reservedStock);
         }
+        if (currentStock != null && minStock != null && maxStock != null) {
+            this.stockStatus = StockStatus.of(currentStock, minStock, maxStock);
+        }
     }
 }
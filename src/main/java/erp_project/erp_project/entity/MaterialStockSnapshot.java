@@ -0,0 +1,72 @@
+package erp_project.erp_project.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 재고 스냅샷 (추가 전용)
+ * - stock_movements 를 last_movement_id 까지 누적한 지점/원재료별 현재 재고
+ * - 시점 재고 = 해당 시점 이전 마지막 스냅샷 + 이후 이동 이력 합계
+ * - 주기 작업에서 이전 스냅샷 이후 이동이 있던 원재료만 새 행 추가
+ */
+@Entity
+@Table(name = "material_stock_snapshots",
+       uniqueConstraints = @UniqueConstraint(name = "uk_material_stock_snapshots_branch_material_movement",
+                                             columnNames = {"branch_id", "material_id", "last_movement_id"}),
+       indexes = @Index(name = "idx_material_stock_snapshots_branch_snapshot_at",
+                        columnList = "branch_id, snapshot_at"))
+public class MaterialStockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "snapshot_id")
+    private Long snapshotId;
+
+    @Column(name = "branch_id", nullable = false)
+    private Long branchId;
+
+    @Column(name = "material_id", nullable = false)
+    private Long materialId;
+
+    @Column(name = "current_stock", nullable = false, precision = 12, scale = 3)
+    private BigDecimal currentStock;
+
+    // 이 스냅샷에 반영된 마지막 stock_movements.id
+    @Column(name = "last_movement_id", nullable = false)
+    private Long lastMovementId;
+
+    // last_movement_id 이동의 movement_date
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // 기본 생성자
+    public MaterialStockSnapshot() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getSnapshotId() { return snapshotId; }
+    public void setSnapshotId(Long snapshotId) { this.snapshotId = snapshotId; }
+
+    public Long getBranchId() { return branchId; }
+    public void setBranchId(Long branchId) { this.branchId = branchId; }
+
+    public Long getMaterialId() { return materialId; }
+    public void setMaterialId(Long materialId) { this.materialId = materialId; }
+
+    public BigDecimal getCurrentStock() { return currentStock; }
+    public void setCurrentStock(BigDecimal currentStock) { this.currentStock = currentStock; }
+
+    public Long getLastMovementId() { return lastMovementId; }
+    public void setLastMovementId(Long lastMovementId) { this.lastMovementId = lastMovementId; }
+
+    public LocalDateTime getSnapshotAt() { return snapshotAt; }
+    public void setSnapshotAt(LocalDateTime snapshotAt) { this.snapshotAt = snapshotAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
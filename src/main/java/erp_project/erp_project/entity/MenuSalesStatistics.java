@@ -6,7 +6,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "menu_sales_statistics")
+@Table(name = "menu_sales_statistics",
+       uniqueConstraints = @UniqueConstraint(name = "uk_menu_sales_statistics_branch_menu_date",
+                                             columnNames = {"branch_id", "menu_id", "statistic_date"}))
 public class MenuSalesStatistics {
     
     @Id
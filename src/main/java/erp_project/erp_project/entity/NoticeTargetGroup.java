@@ -74,6 +74,10 @@ public class NoticeTargetGroup {
     @Column(name = "member_count", nullable = false)
     private Integer memberCount;
     
+    // 구성원 재구성 실패 사유 (대상 JSON 형식 오류 등, 정상이면 null) - 고칠 때까지 이전 구성원 기준으로 노출
+    @Column(name = "audience_error", length = 500)
+    private String audienceError;
+    
     @Enumerated(EnumType.STRING)
     @Column(name = "status", columnDefinition = "ENUM('active', 'inactive') DEFAULT 'active'")
     private TargetGroupStatus status;
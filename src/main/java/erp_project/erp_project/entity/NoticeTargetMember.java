@@ -0,0 +1,39 @@
+package erp_project.erp_project.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 공지 대상 그룹 구성원 (그룹 → 지점, 직급)
+ * - 대상 그룹의 target_branches / target_positions JSON 을 그룹 생성/수정 시 행으로 풀어 저장
+ * - branch_id 가 null 이면 전체 지점, role 이 null 이면 전체 직급
+ * - 지점별 공지 노출/수신 인원 계산은 JSON 문자열 대신 이 테이블과의 인덱스 조인으로 처리
+ */
+@Entity
+@Table(name = "notice_target_members", indexes = {
+    @Index(name = "idx_notice_target_members_branch_group", columnList = "branch_id, target_group_id"),
+    @Index(name = "idx_notice_target_members_group", columnList = "target_group_id, branch_id, role")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoticeTargetMember {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "target_group_id", nullable = false)
+    private Long targetGroupId;
+
+    @Column(name = "branch_id")
+    private Long branchId; // null: 전체 지점
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", length = 20)
+    private Users.UserRole role; // null: 전체 직급
+}
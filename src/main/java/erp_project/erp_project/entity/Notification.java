@@ -9,7 +9,14 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_coalesce_key", columnList = "coalesce_key, timestamp"),
+    @Index(name = "idx_notifications_recipient_unread_feed", columnList = "recipient_type, recipient_id, is_read, timestamp, id"),
+    @Index(name = "idx_notifications_recipient_feed", columnList = "recipient_type, recipient_id, timestamp, id"),
+    @Index(name = "idx_notifications_recipient_type_feed", columnList = "recipient_type, recipient_id, type, timestamp, id"),
+    @Index(name = "idx_notifications_recipient_category_feed", columnList = "recipient_type, recipient_id, category, timestamp, id"),
+    @Index(name = "idx_notifications_timestamp_id", columnList = "timestamp, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -60,6 +67,9 @@ public class Notification {
     @Column(name = "read_at")
     private LocalDateTime readAt;
     
+    @Column(name = "coalesce_key", length = 200)
+    private String coalesceKey; // 같은 키의 알림은 일정 시간 안에 한 번만 저장 (아웃박스 디스패처)
+    
     @Column(name = "created_at", nullable = false)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -0,0 +1,79 @@
+package erp_project.erp_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 알림 아웃박스 (업무 트랜잭션과 같은 트랜잭션에 기록, 커밋 후 디스패처가 notifications 로 옮기고 전송)
+ * - 디스패처는 claim_token/claimed_until 로 행을 선점하고, 옮긴 뒤 같은 트랜잭션에서 삭제
+ * - 선점이 만료된 행은 다른 디스패처(다른 노드 포함)가 다시 가져감
+ * - coalesce_key 가 같은 알림은 일정 시간 안에 한 번만 저장
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+    @Index(name = "idx_notification_outbox_claim_token", columnList = "claim_token"),
+    @Index(name = "idx_notification_outbox_claimed_until", columnList = "claimed_until, id")
+})
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "recipient_type", nullable = false, length = 20)
+    private String recipientType;
+
+    @Column(name = "recipient_id")
+    private Long recipientId;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload; // NotificationDTO JSON
+
+    @Column(name = "coalesce_key", length = 200)
+    private String coalesceKey;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "claim_token", length = 64)
+    private String claimToken;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // 기본 생성자
+    public NotificationOutbox() {
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getRecipientType() { return recipientType; }
+    public void setRecipientType(String recipientType) { this.recipientType = recipientType; }
+
+    public Long getRecipientId() { return recipientId; }
+    public void setRecipientId(Long recipientId) { this.recipientId = recipientId; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public String getCoalesceKey() { return coalesceKey; }
+    public void setCoalesceKey(String coalesceKey) { this.coalesceKey = coalesceKey; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getClaimToken() { return claimToken; }
+    public void setClaimToken(String claimToken) { this.claimToken = claimToken; }
+
+    public LocalDateTime getClaimedUntil() { return claimedUntil; }
+    public void setClaimedUntil(LocalDateTime claimedUntil) { this.claimedUntil = claimedUntil; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -6,7 +6,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+       indexes = @Index(name = "idx_orders_created_at", columnList = "created_at"))
 public class Orders {
     
     @Id
@@ -69,6 +70,11 @@ public class Orders {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // 매출 집계 반영 여부 (조건부 UPDATE 로만 변경, 엔티티 저장 시에는 덮어쓰지 않음)
+    @Column(name = "sales_recorded", insertable = false, updatable = false,
+            columnDefinition = "BOOLEAN NOT NULL DEFAULT FALSE")
+    private boolean salesRecorded;
+    
     // OrderItems와의 일대다 관계
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItems> orderItems;
@@ -135,6 +141,8 @@ public class Orders {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public boolean isSalesRecorded() { return salesRecorded; }
+    
     public List<OrderItems> getOrderItems() { return orderItems; }
     public void setOrderItems(List<OrderItems> orderItems) { this.orderItems = orderItems; }
     
@@ -11,7 +11,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "regular_order_executions")
+@Table(name = "regular_order_executions",
+       uniqueConstraints = @UniqueConstraint(name = "uk_regular_order_executions_order_date",
+                                             columnNames = {"regular_order_id", "execution_date"}))
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,110 @@
+package erp_project.erp_project.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 월/주 단위 매출 롤업 (일별 통계 행을 기간별로 미리 합산)
+ * - dimension 별 dimension_id: BRANCH=0, HOUR=시간(0-23), MENU=메뉴 ID, CATEGORY=카테고리 ID
+ * - period_start: 월은 1일, 주는 월요일
+ */
+@Entity
+@Table(name = "sales_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_sales_rollups_period_branch_dimension",
+                                             columnNames = {"period_type", "period_start", "branch_id", "dimension", "dimension_id"}),
+       indexes = @Index(name = "idx_sales_rollups_period_dimension",
+                        columnList = "period_type, dimension, period_start"))
+public class SalesRollup {
+
+    public enum PeriodType {
+        MONTH, WEEK
+    }
+
+    public enum Dimension {
+        BRANCH, HOUR, MENU, CATEGORY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long rollupId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period_type", nullable = false, length = 10)
+    private PeriodType periodType;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "branch_id", nullable = false)
+    private Long branchId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false, length = 10)
+    private Dimension dimension;
+
+    @Column(name = "dimension_id", nullable = false)
+    private Long dimensionId = 0L;
+
+    @Column(name = "total_orders", columnDefinition = "INT DEFAULT 0")
+    private Integer totalOrders = 0;
+
+    @Column(name = "quantity_sold", columnDefinition = "INT DEFAULT 0")
+    private Integer quantitySold = 0;
+
+    @Column(name = "total_sales", columnDefinition = "DECIMAL(14,2) DEFAULT 0.00")
+    private BigDecimal totalSales = BigDecimal.ZERO;
+
+    @Column(name = "total_discount", columnDefinition = "DECIMAL(14,2) DEFAULT 0.00")
+    private BigDecimal totalDiscount = BigDecimal.ZERO;
+
+    @Column(name = "net_sales", columnDefinition = "DECIMAL(14,2) DEFAULT 0.00")
+    private BigDecimal netSales = BigDecimal.ZERO;
+
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+
+    // 기본 생성자
+    public SalesRollup() {
+        this.refreshedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getRollupId() { return rollupId; }
+    public void setRollupId(Long rollupId) { this.rollupId = rollupId; }
+
+    public PeriodType getPeriodType() { return periodType; }
+    public void setPeriodType(PeriodType periodType) { this.periodType = periodType; }
+
+    public LocalDate getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+
+    public Long getBranchId() { return branchId; }
+    public void setBranchId(Long branchId) { this.branchId = branchId; }
+
+    public Dimension getDimension() { return dimension; }
+    public void setDimension(Dimension dimension) { this.dimension = dimension; }
+
+    public Long getDimensionId() { return dimensionId; }
+    public void setDimensionId(Long dimensionId) { this.dimensionId = dimensionId; }
+
+    public Integer getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(Integer totalOrders) { this.totalOrders = totalOrders; }
+
+    public Integer getQuantitySold() { return quantitySold; }
+    public void setQuantitySold(Integer quantitySold) { this.quantitySold = quantitySold; }
+
+    public BigDecimal getTotalSales() { return totalSales; }
+    public void setTotalSales(BigDecimal totalSales) { this.totalSales = totalSales; }
+
+    public BigDecimal getTotalDiscount() { return totalDiscount; }
+    public void setTotalDiscount(BigDecimal totalDiscount) { this.totalDiscount = totalDiscount; }
+
+    public BigDecimal getNetSales() { return netSales; }
+    public void setNetSales(BigDecimal netSales) { this.netSales = netSales; }
+
+    public LocalDateTime getRefreshedAt() { return refreshedAt; }
+    public void setRefreshedAt(LocalDateTime refreshedAt) { this.refreshedAt = refreshedAt; }
+}
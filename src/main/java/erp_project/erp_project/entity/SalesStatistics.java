@@ -6,7 +6,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sales_statistics")
+@Table(name = "sales_statistics",
+       uniqueConstraints = @UniqueConstraint(name = "uk_sales_statistics_branch_date_hour",
+                                             columnNames = {"branch_id", "statistic_date", "statistic_hour_key"}))
 public class SalesStatistics {
     
     @Id
@@ -23,6 +25,11 @@ public class SalesStatistics {
     @Column(name = "statistic_hour")
     private Integer statisticHour; // 시간별 통계용 (0-23), NULL이면 일별 통계
     
+    // 유니크 키용 생성 컬럼 (NULL은 유니크 키에서 중복으로 보지 않으므로 일별 행은 -1로 치환)
+    @Column(name = "statistic_hour_key", insertable = false, updatable = false,
+            columnDefinition = "INT AS (IFNULL(statistic_hour, -1)) PERSISTENT")
+    private Integer statisticHourKey;
+    
     @Column(name = "total_orders", columnDefinition = "INT DEFAULT 0")
     private Integer totalOrders = 0;
     
@@ -0,0 +1,93 @@
+package erp_project.erp_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 스케줄 작업 실행 이력
+ * - 잠금을 얻은 노드만 기록 (잠금 경쟁에서 진 노드는 기록 없음)
+ * - 실행 시점의 fencing_token 을 함께 남겨 같은 작업의 중복 실행 여부 확인
+ */
+@Entity
+@Table(name = "scheduler_job_runs",
+       indexes = @Index(name = "idx_scheduler_job_runs_job_started", columnList = "job_name, started_at"))
+public class SchedulerJobRun {
+
+    public enum RunStatus {
+        RUNNING,     // 실행 중
+        SUCCEEDED,   // 완료
+        FAILED,      // 예외로 종료
+        LEASE_LOST   // 실행 중 잠금 상실 (다른 노드가 이어받았을 수 있음)
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "run_id")
+    private Long runId;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    // 샤드 작업이 아니면 null
+    @Column(name = "shard")
+    private Integer shard;
+
+    @Column(name = "owner", nullable = false, length = 200)
+    private String owner;
+
+    @Column(name = "fencing_token", nullable = false)
+    private Long fencingToken;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private RunStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    // 기본 생성자
+    public SchedulerJobRun() {
+        this.startedAt = LocalDateTime.now();
+        this.status = RunStatus.RUNNING;
+    }
+
+    // Getters and Setters
+    public Long getRunId() { return runId; }
+    public void setRunId(Long runId) { this.runId = runId; }
+
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+
+    public Integer getShard() { return shard; }
+    public void setShard(Integer shard) { this.shard = shard; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public Long getFencingToken() { return fencingToken; }
+    public void setFencingToken(Long fencingToken) { this.fencingToken = fencingToken; }
+
+    public RunStatus getStatus() { return status; }
+    public void setStatus(RunStatus status) { this.status = status; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public Long getDurationMs() { return durationMs; }
+    public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+}
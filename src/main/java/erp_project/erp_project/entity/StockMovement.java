@@ -10,7 +10,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "stock_movements")
+@Table(name = "stock_movements",
+       indexes = {
+           @Index(name = "idx_stock_movements_branch_material_id", columnList = "branch_id, material_id, id"),
+           @Index(name = "idx_stock_movements_movement_date", columnList = "movement_date"),
+           // 지점별 최신순 키셋 조회 (movement_date, id) / 이동 타입 필터 포함
+           @Index(name = "idx_stock_movements_branch_date_id", columnList = "branch_id, movement_date, id"),
+           @Index(name = "idx_stock_movements_branch_type_date_id", columnList = "branch_id, movement_type, movement_date, id")
+       })
 @Data
 @Builder
 @NoArgsConstructor
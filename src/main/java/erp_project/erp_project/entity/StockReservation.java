@@ -0,0 +1,90 @@
+package erp_project.erp_project.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 재고 예약 원장 (추가 전용, 수정/삭제 없음)
+ * - 주문 생성 시 원재료별 RESERVED 행 (settlement = false)
+ * - 완료/취소/만료 시 같은 수량의 COMMITTED / RELEASED / EXPIRED 행 (settlement = true)
+ * - (order_id, material_id, settlement) 유니크 → 예약 1회, 정산 1회만 가능 (중복 정산 방지)
+ */
+@Entity
+@Table(name = "stock_reservations",
+       uniqueConstraints = @UniqueConstraint(name = "uk_stock_reservations_order_material_settlement",
+                                             columnNames = {"order_id", "material_id", "settlement"}),
+       indexes = @Index(name = "idx_stock_reservations_settlement_created",
+                        columnList = "settlement, created_at"))
+public class StockReservation {
+
+    public enum EntryType {
+        RESERVED,   // 주문 생성 시 예약
+        COMMITTED,  // 주문 완료 → 실제 차감
+        RELEASED,   // 주문 취소 → 예약 해제
+        EXPIRED     // 예약 시간 초과 → 예약 해제
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "branch_id", nullable = false)
+    private Long branchId;
+
+    @Column(name = "material_id", nullable = false)
+    private Long materialId;
+
+    @Column(name = "quantity", nullable = false, precision = 10, scale = 3)
+    private BigDecimal quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 10)
+    private EntryType entryType;
+
+    @Column(name = "settlement", nullable = false)
+    private Boolean settlement = false;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // 기본 생성자
+    public StockReservation() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getReservationId() { return reservationId; }
+    public void setReservationId(Long reservationId) { this.reservationId = reservationId; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Long getBranchId() { return branchId; }
+    public void setBranchId(Long branchId) { this.branchId = branchId; }
+
+    public Long getMaterialId() { return materialId; }
+    public void setMaterialId(Long materialId) { this.materialId = materialId; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public EntryType getEntryType() { return entryType; }
+    public void setEntryType(EntryType entryType) { this.entryType = entryType; }
+
+    public Boolean getSettlement() { return settlement; }
+    public void setSettlement(Boolean settlement) { this.settlement = settlement; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -10,7 +10,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_branch_role_active", columnList = "branch_id, role, is_active")
+})
 @Data
 @Builder
 @NoArgsConstructor
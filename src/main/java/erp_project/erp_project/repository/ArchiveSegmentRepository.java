@@ -0,0 +1,27 @@
+package erp_project.erp_project.repository;
+
+import erp_project.erp_project.entity.ArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, Long> {
+
+    // 데이터셋/지점의 기간 범위 세그먼트 (기간은 yyyy-MM 문자열 비교)
+    @Query("SELECT s FROM ArchiveSegment s WHERE s.dataset = :dataset " +
+           "AND (:branchId IS NULL OR s.branchId = :branchId) " +
+           "AND (:fromPeriod IS NULL OR s.period >= :fromPeriod) AND (:toPeriod IS NULL OR s.period <= :toPeriod) " +
+           "ORDER BY s.branchId, s.period, s.firstKey")
+    List<ArchiveSegment> findSegments(@Param("dataset") String dataset, @Param("branchId") Long branchId,
+                                      @Param("fromPeriod") String fromPeriod, @Param("toPeriod") String toPeriod);
+
+    // 원본 PK 가 범위에 포함되는 세그먼트 (지점별 세그먼트 범위가 겹칠 수 있어 여러 개 가능)
+    @Query("SELECT s FROM ArchiveSegment s WHERE s.dataset = :dataset AND s.firstKey <= :key AND s.lastKey >= :key " +
+           "AND (:branchId IS NULL OR s.branchId = :branchId) ORDER BY s.segmentId")
+    List<ArchiveSegment> findContaining(@Param("dataset") String dataset, @Param("key") Long key,
+                                        @Param("branchId") Long branchId);
+}
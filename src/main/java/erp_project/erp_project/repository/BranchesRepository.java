@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,9 @@ public interface BranchesRepository extends JpaRepository<Branches, Long> {
     // 지점명과 상태로 지점 조회
     Optional<Branches> findByBranchNameAndStatus(String branchName, Branches.BranchStatus status);
     
+    // 지점명 목록으로 지점 조회
+    List<Branches> findByBranchNameIn(Collection<String> branchNames);
+    
     @Query("SELECT b FROM Branches b WHERE b.branchCode IN :branchCodes")
     List<Branches> findByBranchCodes(@Param("branchCodes") List<String> branchCodes);
     
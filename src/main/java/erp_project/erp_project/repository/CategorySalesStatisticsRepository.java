@@ -44,6 +44,28 @@ public interface CategorySalesStatisticsRepository extends JpaRepository<Categor
         @Param("endDate") LocalDate endDate
     );
     
+    // 전지점 기간 카테고리별 매출 합계 (지점/카테고리 GROUP BY: branchId, categoryId, 판매수량, 총매출)
+    @Query("SELECT c.branchId, c.categoryId, COALESCE(SUM(c.quantitySold), 0), COALESCE(SUM(c.totalSales), 0) " +
+           "FROM CategorySalesStatistics c " +
+           "WHERE c.statisticDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY c.branchId, c.categoryId")
+    List<Object[]> sumCategorySalesGroupByBranch(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    // 지정 지점들의 카테고리별 매출 합계 (categoryId, 판매수량, 총매출) - SalesRollupRepository.sumDimensionTotalsByBranchIdIn 과 같은 형태
+    @Query("SELECT c.categoryId, SUM(c.quantitySold), SUM(c.totalSales) " +
+           "FROM CategorySalesStatistics c " +
+           "WHERE c.statisticDate BETWEEN :startDate AND :endDate " +
+           "AND c.branchId IN :branchIds " +
+           "GROUP BY c.categoryId")
+    List<Object[]> sumCategorySalesByBranchIdIn(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("branchIds") List<Long> branchIds
+    );
+    
     // 대용량 처리를 위한 메서드들
     List<CategorySalesStatistics> findByBranchIdAndStatisticDate(Long branchId, LocalDate date);
     
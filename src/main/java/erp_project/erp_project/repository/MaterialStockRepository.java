@@ -1,12 +1,17 @@
 package erp_project.erp_project.repository;
 
 import erp_project.erp_project.entity.MaterialStock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MaterialStockRepository extends JpaRepository<MaterialStock, Long> {
@@ -20,6 +25,15 @@ public interface MaterialStockRepository extends JpaRepository<MaterialStock, Lo
     // 지점과 재료로 특정 재고 조회
     MaterialStock findByBranchIdAndMaterialId(Long branchId, Long materialId);
 
+    // 임계값 상태별 재고 조회 (branch_id, stock_status 인덱스)
+    @EntityGraph(attributePaths = {"material", "branch"})
+    List<MaterialStock> findByBranchIdAndStockStatusIn(Long branchId, Collection<MaterialStock.StockStatus> stockStatuses);
+
+    // 수동 재고 조정용 행 잠금 조회 (조정 전 수량으로 증감량 계산)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ms FROM MaterialStock ms WHERE ms.id = :id")
+    Optional<MaterialStock> findByIdForUpdate(@Param("id") Long id);
+
     // 재고 부족 항목 조회 (현재 재고가 최소 재고 이하)
     @Query("SELECT ms FROM MaterialStock ms WHERE ms.branch.id = :branchId AND ms.currentStock <= ms.minStock")
     List<MaterialStock> findLowStockItems(@Param("branchId") Long branchId);
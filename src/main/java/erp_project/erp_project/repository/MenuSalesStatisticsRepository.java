@@ -140,6 +140,29 @@ public interface MenuSalesStatisticsRepository extends JpaRepository<MenuSalesSt
         @Param("endDate") LocalDate endDate
     );
     
+    // 전지점 기간 메뉴별 판매 합계 (지점/메뉴 GROUP BY: branchId, menuId, 판매수량, 총매출, 지점 내 수량순 정렬)
+    @Query("SELECT m.branchId, m.menuId, SUM(m.quantitySold), SUM(m.totalSales) " +
+           "FROM MenuSalesStatistics m " +
+           "WHERE m.statisticDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY m.branchId, m.menuId " +
+           "ORDER BY m.branchId, SUM(m.quantitySold) DESC")
+    List<Object[]> sumMenuSalesGroupByBranch(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    // 지정 지점들의 메뉴/날짜별 판매 합계 (menuId, 날짜, 판매수량, 총매출)
+    @Query("SELECT m.menuId, m.statisticDate, SUM(m.quantitySold), SUM(m.totalSales) " +
+           "FROM MenuSalesStatistics m " +
+           "WHERE m.statisticDate BETWEEN :startDate AND :endDate " +
+           "AND m.branchId IN :branchIds " +
+           "GROUP BY m.menuId, m.statisticDate")
+    List<Object[]> sumMenuSalesGroupByMenuAndDate(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("branchIds") List<Long> branchIds
+    );
+    
     // 대용량 처리를 위한 메서드들
     List<MenuSalesStatistics> findByBranchIdAndStatisticDate(Long branchId, LocalDate date);
     
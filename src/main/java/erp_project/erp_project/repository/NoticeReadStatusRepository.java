@@ -26,6 +26,11 @@ public interface NoticeReadStatusRepository extends JpaRepository<NoticeReadStat
     // 특정 공지사항의 읽음 상태 삭제
     void deleteByNoticeId(Long noticeId);
     
+    // 특정 공지사항의 사용자별 읽지 않은 상태 수 ({userId, count})
+    @Query("SELECT nrs.userId, COUNT(nrs) FROM NoticeReadStatus nrs " +
+           "WHERE nrs.noticeId = :noticeId AND nrs.isRead = false GROUP BY nrs.userId")
+    List<Object[]> countUnreadByUserForNotice(@Param("noticeId") Long noticeId);
+    
     // 특정 사용자의 읽지 않은 공지사항 수 조회
     @Query("SELECT COUNT(nrs) FROM NoticeReadStatus nrs " +
            "WHERE nrs.userId = :userId AND nrs.isRead = false")
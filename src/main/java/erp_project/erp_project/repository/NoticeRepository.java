@@ -16,24 +16,28 @@ import java.util.List;
 public interface NoticeRepository extends JpaRepository<Notice, Long> {
     
     // 공지사항 목록 조회 (페이징) - 작성자 정보 포함, 지점별 필터링
-    @Query("SELECT DISTINCT n FROM Notice n " +
-           "LEFT JOIN FETCH n.author a " +
-           "LEFT JOIN NoticeTargetMapping ntm ON n.id = ntm.noticeId " +
-           "LEFT JOIN NoticeTargetGroup ntg ON ntm.targetGroupId = ntg.id " +
+    // 지점 노출 조건: 공개 공지 / 대상 그룹 없음 / 대상 그룹 구성원에 해당 지점(또는 전체 지점) 포함
+    String NOTICE_FILTER_CONDITION =
            "WHERE (:category IS NULL OR n.category = :category) " +
            "AND (:status IS NULL OR n.status = :status) " +
            "AND (:isImportant IS NULL OR n.isImportant = :isImportant) " +
            "AND (:searchTerm IS NULL OR n.title LIKE %:searchTerm% OR n.content LIKE %:searchTerm%) " +
-           "AND (:branchId IS NULL OR n.isPublic = true OR " +
-           "     (ntg.targetBranches LIKE %:branchName% OR ntg.targetBranches = '[]' OR ntg.targetBranches IS NULL)) " +
-           "ORDER BY n.isImportant DESC, n.priority DESC, n.createdAt DESC")
+           "AND (:branchId IS NULL OR n.isPublic = true " +
+           "     OR NOT EXISTS (SELECT 1 FROM NoticeTargetMapping ntm0 WHERE ntm0.noticeId = n.id) " +
+           "     OR EXISTS (SELECT 1 FROM NoticeTargetMapping ntm JOIN NoticeTargetMember m ON m.targetGroupId = ntm.targetGroupId " +
+           "                WHERE ntm.noticeId = n.id AND (m.branchId = :branchId OR m.branchId IS NULL))) ";
+
+    @Query(value = "SELECT n FROM Notice n " +
+                   "LEFT JOIN FETCH n.author a " +
+                   NOTICE_FILTER_CONDITION +
+                   "ORDER BY n.isImportant DESC, n.priority DESC, n.createdAt DESC",
+           countQuery = "SELECT COUNT(n) FROM Notice n " + NOTICE_FILTER_CONDITION)
     Page<Notice> findNoticesWithFilters(
         @Param("category") Notice.NoticeCategory category,
         @Param("status") Notice.NoticeStatus status,
         @Param("isImportant") Boolean isImportant,
         @Param("searchTerm") String searchTerm,
         @Param("branchId") Long branchId,
-        @Param("branchName") String branchName,
         Pageable pageable
     );
     
@@ -1,12 +1,15 @@
 package erp_project.erp_project.repository;
 
 import erp_project.erp_project.entity.NoticeTargetGroup;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NoticeTargetGroupRepository extends JpaRepository<NoticeTargetGroup, Long> {
@@ -17,6 +20,19 @@ public interface NoticeTargetGroupRepository extends JpaRepository<NoticeTargetG
     
 
     
+    // 구성원 재구성용 행 잠금 조회 (여러 노드가 같은 그룹을 동시에 재구성하지 않도록)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ntg FROM NoticeTargetGroup ntg WHERE ntg.id = :id")
+    Optional<NoticeTargetGroup> findByIdForUpdate(@Param("id") Long id);
+    
+    // 구성원 행이 하나도 없는 그룹 (구성원 테이블 도입 전 그룹, 재구성 실패 그룹)
+    @Query("SELECT ntg.id FROM NoticeTargetGroup ntg " +
+           "WHERE NOT EXISTS (SELECT 1 FROM NoticeTargetMember m WHERE m.targetGroupId = ntg.id)")
+    List<Long> findIdsWithoutMembers();
+    
+    // 구성원 재구성에 실패한 그룹
+    List<NoticeTargetGroup> findByAudienceErrorIsNotNullOrderByName();
+    
     // 이름으로 검색
     @Query("SELECT ntg FROM NoticeTargetGroup ntg " +
            "WHERE ntg.name LIKE %:searchTerm% OR ntg.description LIKE %:searchTerm% " +
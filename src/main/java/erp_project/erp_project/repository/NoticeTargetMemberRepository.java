@@ -0,0 +1,36 @@
+package erp_project.erp_project.repository;
+
+import erp_project.erp_project.entity.NoticeTargetMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NoticeTargetMemberRepository extends JpaRepository<NoticeTargetMember, Long> {
+
+    // 대상 그룹의 구성원 전체 삭제 (재구성 전)
+    @Modifying
+    @Query("DELETE FROM NoticeTargetMember m WHERE m.targetGroupId = :targetGroupId")
+    int deleteByTargetGroupId(@Param("targetGroupId") Long targetGroupId);
+
+    // 대상 그룹 중 전체 지점 대상이 있는지
+    boolean existsByTargetGroupIdInAndBranchIdIsNull(Collection<Long> targetGroupIds);
+
+    // 대상 그룹들에 포함된 활성 지점 ID
+    @Query("SELECT DISTINCT m.branchId FROM NoticeTargetMember m JOIN Branches b ON m.branchId = b.id " +
+           "WHERE m.targetGroupId IN :targetGroupIds AND b.status = 'active'")
+    List<Long> findActiveBranchIdsByTargetGroupIds(@Param("targetGroupIds") Collection<Long> targetGroupIds);
+
+    // 대상 그룹의 실제 수신 인원 (활성 사용자, 지점/직급 조건 중 하나라도 맞으면 1명으로 계산)
+    @Query(value = "SELECT COUNT(DISTINCT u.id) FROM notice_target_members m " +
+                   "JOIN users u ON (m.branch_id IS NULL OR u.branch_id = m.branch_id) " +
+                   "AND (m.role IS NULL OR u.role = m.role) " +
+                   "WHERE m.target_group_id = :targetGroupId AND u.is_active = TRUE",
+           nativeQuery = true)
+    long countRecipients(@Param("targetGroupId") Long targetGroupId);
+}
@@ -0,0 +1,151 @@
+package erp_project.erp_project.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 알림 피드 조회/정리 전용 저장소 (JDBC)
+ * - (timestamp, id) 내림차순 키셋 페이지네이션: OFFSET/COUNT 없이 마지막 행 다음부터 읽음 (테이블 크기와 무관하게 일정)
+ * - 수신자 + 타입/카테고리/읽음 여부 조건을 SQL 로 처리하고, 각 조건마다 (수신자, 조건, timestamp, id) 복합 인덱스 사용
+ * - 보존 기간 정리는 오래된 순으로 묶음 단위 삭제 (한 번에 잠그는 행 수 제한)
+ */
+@Repository
+public class NotificationQueryRepository {
+
+    private static final String SELECT_SQL =
+        "SELECT id, recipient_type, recipient_id, type, category, title, message, target_type, target_id, " +
+        "target_name, target_detail, `timestamp`, is_read, read_at FROM notifications WHERE recipient_type = ?";
+
+    private static final String ORDER_SQL = " ORDER BY `timestamp` DESC, id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationQueryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 한 페이지 조회 (limit + 1 행을 읽어 다음 페이지 존재 여부 판단)
+     * @param recipientId 지점 ID (본사는 null)
+     */
+    public FeedPage findPage(String recipientType, Long recipientId, FeedFilter filter, Cursor after, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        params.add(recipientType);
+        if (recipientId != null) {
+            sql.append(" AND recipient_id = ?");
+            params.add(recipientId);
+        } else {
+            sql.append(" AND recipient_id IS NULL");
+        }
+        if (filter.type() != null) {
+            sql.append(" AND type = ?");
+            params.add(filter.type());
+        }
+        if (filter.category() != null) {
+            sql.append(" AND category = ?");
+            params.add(filter.category());
+        }
+        if (filter.unreadOnly()) {
+            sql.append(" AND is_read = FALSE");
+        }
+        if (after != null) {
+            sql.append(" AND (`timestamp` < ? OR (`timestamp` = ? AND id < ?))");
+            Timestamp timestamp = Timestamp.valueOf(after.timestamp());
+            params.add(timestamp);
+            params.add(timestamp);
+            params.add(after.id());
+        }
+        sql.append(ORDER_SQL).append(" LIMIT ?");
+        params.add(limit + 1);
+
+        List<FeedRow> rows = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapRow(rs), params.toArray());
+        if (rows.size() <= limit) {
+            return new FeedPage(rows, null);
+        }
+        List<FeedRow> page = rows.subList(0, limit);
+        FeedRow last = page.get(limit - 1);
+        return new FeedPage(page, new Cursor(last.timestamp(), last.id()));
+    }
+
+    /**
+     * cutoff 이전 알림 중 가장 오래된 batchSize 건 (삭제 대상)
+     * @param readOnly true 면 읽은 알림만
+     */
+    public List<PurgeCandidate> findPurgeCandidates(LocalDateTime cutoff, boolean readOnly, int batchSize) {
+        String sql = "SELECT id, recipient_type, recipient_id, is_read FROM notifications WHERE `timestamp` < ?" +
+            (readOnly ? " AND is_read = TRUE" : "") + " ORDER BY `timestamp`, id LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new PurgeCandidate(
+            rs.getLong(1), rs.getString(2), rs.getObject(3, Long.class), rs.getBoolean(4)),
+            Timestamp.valueOf(cutoff), batchSize);
+    }
+
+    public int deleteByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String sql = "DELETE FROM notifications WHERE id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        return jdbcTemplate.update(sql, ids.toArray());
+    }
+
+    private static FeedRow mapRow(ResultSet rs) throws SQLException {
+        long recipientId = rs.getLong(3);
+        boolean recipientIdNull = rs.wasNull();
+        long targetId = rs.getLong(9);
+        boolean targetIdNull = rs.wasNull();
+        Timestamp readAt = rs.getTimestamp(14);
+        return new FeedRow(
+            rs.getLong(1), rs.getString(2), recipientIdNull ? null : recipientId, rs.getString(4), rs.getString(5),
+            rs.getString(6), rs.getString(7), rs.getString(8), targetIdNull ? null : targetId, rs.getString(10),
+            rs.getString(11), rs.getTimestamp(12).toLocalDateTime(), rs.getBoolean(13),
+            readAt != null ? readAt.toLocalDateTime() : null);
+    }
+
+    /**
+     * @param type       알림 타입 (null 이면 전체)
+     * @param category   알림 카테고리 (null 이면 전체)
+     * @param unreadOnly 읽지 않은 알림만
+     */
+    public record FeedFilter(String type, String category, boolean unreadOnly) {
+
+        public static final FeedFilter ALL = new FeedFilter(null, null, false);
+    }
+
+    public record FeedRow(long id, String recipientType, Long recipientId, String type, String category,
+                          String title, String message, String targetType, Long targetId, String targetName,
+                          String targetDetail, LocalDateTime timestamp, boolean isRead, LocalDateTime readAt) {}
+
+    public record FeedPage(List<FeedRow> rows, Cursor nextCursor) {}
+
+    public record PurgeCandidate(long id, String recipientType, Long recipientId, boolean isRead) {}
+
+    /**
+     * 마지막으로 받은 행의 (timestamp, id), 클라이언트에는 불투명 문자열로 전달
+     */
+    public record Cursor(LocalDateTime timestamp, long id) {
+
+        public String encode() {
+            String raw = timestamp + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String token) {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + token);
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package erp_project.erp_project.repository;
 
 import erp_project.erp_project.entity.Notification;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -18,14 +18,14 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // 특정 수신자의 모든 알림 조회 (최신순)
     List<Notification> findByRecipientTypeAndRecipientIdOrderByTimestampDesc(String recipientType, Long recipientId);
     
-    // 특정 수신자의 모든 알림 조회 (페이징 지원)
-    Page<Notification> findByRecipientTypeAndRecipientIdOrderByTimestampDesc(String recipientType, Long recipientId, Pageable pageable);
+    // 특정 수신자의 모든 알림 조회 (페이징 지원, 전체 개수 COUNT 없음)
+    Slice<Notification> findByRecipientTypeAndRecipientIdOrderByTimestampDesc(String recipientType, Long recipientId, Pageable pageable);
     
     // 본사의 모든 알림 조회 (최신순)
     List<Notification> findByRecipientTypeOrderByTimestampDesc(String recipientType);
     
-    // 본사의 모든 알림 조회 (페이징 지원)
-    Page<Notification> findByRecipientTypeOrderByTimestampDesc(String recipientType, Pageable pageable);
+    // 본사의 모든 알림 조회 (페이징 지원, 전체 개수 COUNT 없음)
+    Slice<Notification> findByRecipientTypeOrderByTimestampDesc(String recipientType, Pageable pageable);
     
     // 특정 수신자의 읽지 않은 알림 조회
     List<Notification> findByRecipientTypeAndRecipientIdAndIsReadFalseOrderByTimestampDesc(String recipientType, Long recipientId);
@@ -39,20 +39,20 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // 본사의 읽지 않은 알림 개수 조회
     long countByRecipientTypeAndIsReadFalse(String recipientType);
     
-    // 특정 알림을 읽음으로 표시
+    // 특정 알림을 읽음으로 표시 (읽지 않은 알림만, 변경된 행 수 반환)
     @Modifying(clearAutomatically = true)
-    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.id = :id")
-    void markAsRead(@Param("id") Long id, @Param("readAt") LocalDateTime readAt);
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.id = :id AND n.isRead = false")
+    int markAsRead(@Param("id") Long id, @Param("readAt") LocalDateTime readAt);
     
-    // 특정 수신자의 모든 알림을 읽음으로 표시
+    // 특정 수신자의 모든 알림을 읽음으로 표시 (변경된 행 수 반환)
     @Modifying(clearAutomatically = true)
-    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.recipientType = :recipientType AND n.recipientId = :recipientId")
-    void markAllAsRead(@Param("recipientType") String recipientType, @Param("recipientId") Long recipientId, @Param("readAt") LocalDateTime readAt);
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.recipientType = :recipientType AND n.recipientId = :recipientId AND n.isRead = false")
+    int markAllAsRead(@Param("recipientType") String recipientType, @Param("recipientId") Long recipientId, @Param("readAt") LocalDateTime readAt);
     
-    // 본사의 모든 알림을 읽음으로 표시
+    // 본사의 모든 알림을 읽음으로 표시 (변경된 행 수 반환)
     @Modifying(clearAutomatically = true)
-    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.recipientType = :recipientType AND n.recipientId IS NULL")
-    void markAllAsReadForHeadquarters(@Param("recipientType") String recipientType, @Param("readAt") LocalDateTime readAt);
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.recipientType = :recipientType AND n.recipientId IS NULL AND n.isRead = false")
+    int markAllAsReadForHeadquarters(@Param("recipientType") String recipientType, @Param("readAt") LocalDateTime readAt);
     
     // 특정 수신자의 오래된 알림 삭제 (30일 이상)
     @Modifying
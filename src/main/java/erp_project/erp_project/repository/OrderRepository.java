@@ -2,6 +2,7 @@ package erp_project.erp_project.repository;
 
 import erp_project.erp_project.entity.Orders;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -90,4 +91,11 @@ public interface OrderRepository extends JpaRepository<Orders, Long> {
     
     @Query("SELECT DISTINCT o.branchId FROM Orders o")
     List<Long> findDistinctBranchIds();
+    
+    // 완료 + 결제 완료 주문을 매출 반영됨으로 표시 (아직 표시되지 않은 주문만, 변경된 행 수 반환)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Orders o SET o.salesRecorded = true WHERE o.orderId = :orderId AND o.salesRecorded = false " +
+           "AND o.orderStatus = erp_project.erp_project.entity.Orders.OrderStatus.completed " +
+           "AND o.paymentStatus = erp_project.erp_project.entity.Orders.PaymentStatus.completed")
+    int markSalesRecorded(@Param("orderId") Long orderId);
 }
@@ -18,4 +18,9 @@ public interface RecipeIngredientRepository extends JpaRepository<RecipeIngredie
     // 레시피 ID로 재료 목록 조회 (InventoryService에서 사용)
     @Query("SELECT ri FROM RecipeIngredient ri WHERE ri.recipe.id = :recipeId")
     List<RecipeIngredient> findByRecipeId(@Param("recipeId") Long recipeId);
+    
+    // BOM 인덱스 생성용 (메뉴 ID, 레시피 ID, 원재료 ID, 사용량) - 엔티티 로딩 없이 1회 조회
+    @Query("SELECT r.menu.id, r.id, ri.material.id, ri.quantity FROM RecipeIngredient ri JOIN ri.recipe r " +
+           "ORDER BY r.menu.id, r.id")
+    List<Object[]> findAllBomLines();
 }
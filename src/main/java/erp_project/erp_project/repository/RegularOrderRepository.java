@@ -58,6 +58,19 @@ public interface RegularOrderRepository extends JpaRepository<RegularOrder, Long
     @Query("SELECT ro FROM RegularOrder ro WHERE ro.branchId = :branchId AND ro.orderName LIKE %:keyword% ORDER BY ro.createdAt DESC")
     List<RegularOrder> findByOrderNameContaining(@Param("branchId") Long branchId, @Param("keyword") String keyword);
     
+    // 실행할 정기발주 ID 조회 (작업 분할용)
+    @Query("SELECT ro.id FROM RegularOrder ro WHERE ro.isActive = true AND ro.nextOrderDate <= :date ORDER BY ro.id")
+    List<Long> findDueOrderIds(@Param("date") LocalDate date);
+    
+    // 지점 샤드(branch_id % shards)의 실행할 정기발주 ID 조회
+    @Query("SELECT ro.id FROM RegularOrder ro WHERE ro.isActive = true AND ro.nextOrderDate <= :date " +
+           "AND MOD(ro.branchId, :shards) = :shard ORDER BY ro.id")
+    List<Long> findDueOrderIdsInShard(@Param("date") LocalDate date, @Param("shards") int shards, @Param("shard") int shard);
+    
+    // ID 목록으로 정기발주 조회 (아이템 포함)
+    @Query("SELECT DISTINCT ro FROM RegularOrder ro LEFT JOIN FETCH ro.items WHERE ro.id IN :ids")
+    List<RegularOrder> findByIdInWithItems(@Param("ids") List<Long> ids);
+    
     // 실행할 정기발주 조회 (활성이고 다음 발주일이 오늘 이전인 것들)
     @Query("SELECT ro FROM RegularOrder ro WHERE ro.isActive = true AND ro.nextOrderDate <= :date")
     List<RegularOrder> findByIsActiveTrueAndNextOrderDateLessThanEqual(@Param("date") LocalDate date);
@@ -0,0 +1,48 @@
+package erp_project.erp_project.repository;
+
+import erp_project.erp_project.entity.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    // 해당 기간 롤업 생성 여부
+    boolean existsByPeriodTypeAndPeriodStart(SalesRollup.PeriodType periodType, LocalDate periodStart);
+
+    // 지점별 기간 합계 (branchId, 총매출, 총주문수) - sumDailySalesGroupByBranch 와 같은 형태
+    @Query("SELECT r.branchId, r.totalSales, r.totalOrders FROM SalesRollup r " +
+           "WHERE r.periodType = :periodType AND r.periodStart = :periodStart " +
+           "AND r.dimension = erp_project.erp_project.entity.SalesRollup.Dimension.BRANCH")
+    List<Object[]> findBranchTotals(
+        @Param("periodType") SalesRollup.PeriodType periodType,
+        @Param("periodStart") LocalDate periodStart
+    );
+
+    // 지점/차원별 기간 합계 (branchId, dimensionId, 판매수량, 총매출, 지점 내 수량순 정렬)
+    @Query("SELECT r.branchId, r.dimensionId, r.quantitySold, r.totalSales FROM SalesRollup r " +
+           "WHERE r.periodType = :periodType AND r.periodStart = :periodStart AND r.dimension = :dimension " +
+           "ORDER BY r.branchId, r.quantitySold DESC")
+    List<Object[]> findDimensionTotals(
+        @Param("periodType") SalesRollup.PeriodType periodType,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("dimension") SalesRollup.Dimension dimension
+    );
+
+    // 지정 지점들의 차원별 기간 합계 (dimensionId, 판매수량, 총매출)
+    @Query("SELECT r.dimensionId, SUM(r.quantitySold), SUM(r.totalSales) FROM SalesRollup r " +
+           "WHERE r.periodType = :periodType AND r.periodStart = :periodStart AND r.dimension = :dimension " +
+           "AND r.branchId IN :branchIds " +
+           "GROUP BY r.dimensionId")
+    List<Object[]> sumDimensionTotalsByBranchIdIn(
+        @Param("periodType") SalesRollup.PeriodType periodType,
+        @Param("periodStart") LocalDate periodStart,
+        @Param("dimension") SalesRollup.Dimension dimension,
+        @Param("branchIds") List<Long> branchIds
+    );
+}
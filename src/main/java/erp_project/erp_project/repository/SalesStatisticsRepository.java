@@ -74,6 +74,18 @@ public interface SalesStatisticsRepository extends JpaRepository<SalesStatistics
            "GROUP BY s.statisticDate ORDER BY s.statisticDate ASC")
     List<Object[]> findWeeklySalesTrendByBranch(@Param("branchId") Long branchId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
+    // 전지점 기간 매출 합계 (지점별 GROUP BY: branchId, 총매출, 총주문수)
+    @Query("SELECT s.branchId, COALESCE(SUM(s.totalSales), 0), COALESCE(SUM(s.totalOrders), 0) FROM SalesStatistics s " +
+           "WHERE s.statisticDate BETWEEN :startDate AND :endDate AND s.statisticHour IS NULL " +
+           "GROUP BY s.branchId")
+    List<Object[]> sumDailySalesGroupByBranch(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    // 전지점 기간 시간대별 매출 합계 (지점/시간 GROUP BY: branchId, 시간, 총주문수, 총매출)
+    @Query("SELECT s.branchId, s.statisticHour, COALESCE(SUM(s.totalOrders), 0), COALESCE(SUM(s.totalSales), 0) FROM SalesStatistics s " +
+           "WHERE s.statisticDate BETWEEN :startDate AND :endDate AND s.statisticHour IS NOT NULL " +
+           "GROUP BY s.branchId, s.statisticHour")
+    List<Object[]> sumHourlySalesGroupByBranch(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
     // 대용량 처리를 위한 메서드들
     List<SalesStatistics> findByBranchIdAndStatisticDateBetweenAndStatisticHourIsNull(Long branchId, LocalDate startDate, LocalDate endDate);
     
@@ -0,0 +1,18 @@
+package erp_project.erp_project.repository;
+
+import erp_project.erp_project.entity.SchedulerJobRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SchedulerJobRunRepository extends JpaRepository<SchedulerJobRun, Long> {
+
+    // 최근 실행 이력
+    List<SchedulerJobRun> findAllByOrderByRunIdDesc(Pageable pageable);
+
+    // 작업별 최근 실행 이력
+    List<SchedulerJobRun> findByJobNameOrderByRunIdDesc(String jobName, Pageable pageable);
+}
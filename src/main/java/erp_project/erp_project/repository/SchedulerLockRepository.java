@@ -0,0 +1,14 @@
+package erp_project.erp_project.repository;
+
+import erp_project.erp_project.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // 잠금 현황 (조회 전용, 획득/연장/해제는 SchedulerLockService 의 조건부 UPDATE 로만 수행)
+    List<SchedulerLock> findAllByOrderByJobNameAsc();
+}
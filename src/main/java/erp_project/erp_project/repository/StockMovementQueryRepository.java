@@ -0,0 +1,151 @@
+package erp_project.erp_project.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 재고 이동 이력 조회 전용 저장소 (JDBC)
+ * - (movement_date, id) 내림차순 키셋 페이지네이션: OFFSET 없이 마지막 행 다음부터 읽음 (페이지 깊이와 무관하게 일정)
+ * - 이동 타입/기간/자재명 필터를 SQL 조건으로 처리, 자재명/분류와 현재 재고는 같은 쿼리에서 JOIN
+ * - 내보내기는 같은 키셋 페이지를 이어 읽으며 행 단위 콜백 (메모리는 한 페이지 분량, 페이지마다 커넥션 반납)
+ */
+@Repository
+public class StockMovementQueryRepository {
+
+    public static final int STREAM_PAGE_SIZE = 500;
+
+    private static final String SELECT_SQL =
+        "SELECT sm.id, sm.material_id, m.name, m.category, sm.movement_type, sm.quantity, sm.unit, sm.cost_per_unit, " +
+        "sm.total_cost, sm.reference_id, sm.reference_type, sm.notes, sm.movement_date, ms.current_stock " +
+        "FROM stock_movements sm " +
+        "JOIN materials m ON m.id = sm.material_id " +
+        "LEFT JOIN material_stocks ms ON ms.branch_id = sm.branch_id AND ms.material_id = sm.material_id " +
+        "WHERE sm.branch_id = ?";
+
+    private static final String ORDER_SQL = " ORDER BY sm.movement_date DESC, sm.id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockMovementQueryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 한 페이지 조회 (limit + 1 행을 읽어 다음 페이지 존재 여부 판단)
+     */
+    public MovementPage findPage(Long branchId, MovementFilter filter, Cursor after, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        params.add(branchId);
+        appendFilter(sql, params, filter);
+        if (after != null) {
+            sql.append(" AND (sm.movement_date < ? OR (sm.movement_date = ? AND sm.id < ?))");
+            Timestamp movementDate = Timestamp.valueOf(after.movementDate());
+            params.add(movementDate);
+            params.add(movementDate);
+            params.add(after.id());
+        }
+        sql.append(ORDER_SQL).append(" LIMIT ?");
+        params.add(limit + 1);
+
+        List<MovementRow> rows = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapRow(rs), params.toArray());
+        if (rows.size() <= limit) {
+            return new MovementPage(rows, null);
+        }
+        List<MovementRow> page = rows.subList(0, limit);
+        MovementRow last = page.get(limit - 1);
+        return new MovementPage(page, new Cursor(last.movementDate(), last.id()));
+    }
+
+    /**
+     * 필터에 맞는 전체 행을 최신순으로 한 행씩 전달 (내보내기용)
+     * - MySQL 드라이버는 fetch size 만으로는 결과를 나눠 받지 않으므로 키셋 페이지 단위로 읽음
+     * - 느린 클라이언트에 쓰는 동안 커넥션을 잡고 있지 않음
+     */
+    public void stream(Long branchId, MovementFilter filter, Consumer<MovementRow> consumer) {
+        Cursor after = null;
+        do {
+            MovementPage page = findPage(branchId, filter, after, STREAM_PAGE_SIZE);
+            page.rows().forEach(consumer);
+            after = page.nextCursor();
+        } while (after != null);
+    }
+
+    private static void appendFilter(StringBuilder sql, List<Object> params, MovementFilter filter) {
+        if (filter.movementType() != null) {
+            sql.append(" AND sm.movement_type = ?");
+            params.add(filter.movementType());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND sm.movement_date >= ?");
+            params.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND sm.movement_date < ?");
+            params.add(Timestamp.valueOf(filter.to()));
+        }
+        if (filter.searchTerm() != null) {
+            sql.append(" AND m.name LIKE ?");
+            params.add("%" + escapeLike(filter.searchTerm()) + "%");
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static MovementRow mapRow(ResultSet rs) throws SQLException {
+        long referenceId = rs.getLong(10);
+        return new MovementRow(
+            rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5),
+            rs.getBigDecimal(6), rs.getString(7), rs.getBigDecimal(8), rs.getBigDecimal(9),
+            rs.wasNull() ? null : referenceId, rs.getString(11), rs.getString(12),
+            rs.getTimestamp(13).toLocalDateTime(), rs.getBigDecimal(14));
+    }
+
+    /**
+     * @param movementType MovementType 이름 (null 이면 전체)
+     * @param from         포함 하한 (null 이면 제한 없음)
+     * @param to           제외 상한 (null 이면 제한 없음)
+     * @param searchTerm   자재명 부분 일치 (null 이면 전체)
+     */
+    public record MovementFilter(String movementType, LocalDateTime from, LocalDateTime to, String searchTerm) {}
+
+    public record MovementRow(long id, long materialId, String materialName, String materialCategory,
+                              String movementType, BigDecimal quantity, String unit, BigDecimal costPerUnit,
+                              BigDecimal totalCost, Long referenceId, String referenceType, String notes,
+                              LocalDateTime movementDate, BigDecimal currentStock) {}
+
+    public record MovementPage(List<MovementRow> rows, Cursor nextCursor) {}
+
+    /**
+     * 마지막으로 받은 행의 (movement_date, id), 클라이언트에는 불투명 문자열로 전달
+     */
+    public record Cursor(LocalDateTime movementDate, long id) {
+
+        public String encode() {
+            String raw = movementDate + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String token) {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + token);
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package erp_project.erp_project.repository;
+
+import erp_project.erp_project.entity.MaterialStock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 재고 수량 변경 전용 저장소 (JDBC)
+ * - 엔티티 조회 → 비교 → 저장 대신 조건부 UPDATE 로 DB 가 가용 재고를 직접 확인하고 차감/예약
+ *   (동시에 완료되는 주문끼리 초과 차감 불가)
+ * - 주문 1건의 원재료 변경을 JDBC 배치 1회로 전송, 건별 영향 행 수로 부족 여부 판단
+ * - 원재료 ID 순으로 정렬해 실행 (주문끼리 행 잠금 순서를 맞춰 교착 방지)
+ * - 호출 측 트랜잭션 안에서 실행해야 함 (부족 시 예외로 전체 롤백)
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockMutationRepository {
+
+    // 재고 임계값 상태 (MaterialStock.StockStatus.of 와 같은 규칙, current_stock 대입 뒤에 두어 변경 후 값 기준)
+    public static final String STATUS_CASE =
+        "CASE WHEN current_stock <= min_stock THEN 'CRITICAL' " +
+        "WHEN current_stock <= min_stock * 1.2 THEN 'WARNING' " +
+        "WHEN max_stock > 0 AND current_stock >= max_stock * 0.8 THEN 'EXCESS' " +
+        "ELSE 'NORMAL' END";
+
+    // available_stock 을 먼저 계산 (대입 순서와 무관하게 변경 전 current_stock 기준)
+    private static final String DEDUCT_SQL =
+        "UPDATE material_stocks " +
+        "SET available_stock = current_stock - reserved_stock - ?, current_stock = current_stock - ?, " +
+        "stock_status = " + STATUS_CASE + ", last_updated = ? " +
+        "WHERE branch_id = ? AND material_id = ? AND current_stock - reserved_stock >= ?";
+
+    // 예약: 가용 재고 범위 안에서 reserved_stock 증가
+    private static final String RESERVE_SQL =
+        "UPDATE material_stocks " +
+        "SET available_stock = current_stock - reserved_stock - ?, reserved_stock = reserved_stock + ?, last_updated = ? " +
+        "WHERE branch_id = ? AND material_id = ? AND current_stock - reserved_stock >= ?";
+
+    // 예약 확정: 현재 재고와 예약 재고를 함께 차감 (가용 재고는 변하지 않음)
+    private static final String COMMIT_RESERVED_SQL =
+        "UPDATE material_stocks " +
+        "SET current_stock = current_stock - ?, reserved_stock = reserved_stock - ?, " +
+        "stock_status = " + STATUS_CASE + ", last_updated = ? " +
+        "WHERE branch_id = ? AND material_id = ? AND reserved_stock >= ?";
+
+    // 예약 해제: 수동 재고 조정 등으로 예약 재고가 부족해도 0 아래로 내려가지 않게 함
+    private static final String RELEASE_SQL =
+        "UPDATE material_stocks " +
+        "SET available_stock = current_stock - GREATEST(reserved_stock - ?, 0), " +
+        "reserved_stock = GREATEST(reserved_stock - ?, 0), last_updated = ? " +
+        "WHERE branch_id = ? AND material_id = ?";
+
+    // 입고: 무조건 증가 (재고 행이 없으면 영향 행 0 → 새 행 추가)
+    private static final String RECEIVE_SQL =
+        "UPDATE material_stocks " +
+        "SET available_stock = current_stock + ? - reserved_stock, current_stock = current_stock + ?, " +
+        "stock_status = " + STATUS_CASE + ", last_updated = ? " +
+        "WHERE branch_id = ? AND material_id = ?";
+
+    private static final BigDecimal NEW_STOCK_MAX = BigDecimal.valueOf(1000);
+
+    private static final String INSERT_STOCK_SQL =
+        "INSERT INTO material_stocks (material_id, branch_id, current_stock, min_stock, max_stock, reserved_stock, " +
+        "available_stock, stock_status, last_updated, created_at) VALUES (?, ?, ?, 0, 1000, 0, ?, ?, ?, ?)";
+
+    private static final String SELECT_AVAILABLE_SQL =
+        "SELECT material_id, current_stock - reserved_stock FROM material_stocks " +
+        "WHERE branch_id = ? AND material_id IN (%s)";
+
+    private static final String SELECT_LEVELS_SQL =
+        "SELECT ms.id, ms.material_id, m.name, m.category, m.unit, m.cost_per_unit, " +
+        "ms.current_stock, ms.reserved_stock, ms.min_stock, ms.max_stock " +
+        "FROM material_stocks ms JOIN materials m ON m.id = ms.material_id " +
+        "WHERE ms.branch_id = ? AND ms.material_id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 지점 재고에서 원재료별 수량을 차감
+     * - 차감된 행과 부족(또는 재고 행 없음) 원재료를 함께 반환, 부족이 있으면 호출 측에서 롤백해야 함
+     * - 반환되는 재고 수준은 이 트랜잭션이 잠근 차감 후 값
+     */
+    public MutationResult deduct(Long branchId, Collection<StockDelta> deltas) {
+        return apply(DEDUCT_SQL, branchId, deltas, true);
+    }
+
+    /**
+     * 가용 재고에서 원재료별 수량을 예약 (reserved_stock 증가)
+     */
+    public MutationResult reserve(Long branchId, Collection<StockDelta> deltas) {
+        return apply(RESERVE_SQL, branchId, deltas, true);
+    }
+
+    /**
+     * 예약분을 실제 차감으로 전환 (current_stock, reserved_stock 동시 감소)
+     */
+    public MutationResult commitReserved(Long branchId, Collection<StockDelta> deltas) {
+        return apply(COMMIT_RESERVED_SQL, branchId, deltas, true);
+    }
+
+    /**
+     * 예약 해제 (재고 행이 없는 원재료는 무시)
+     */
+    public void release(Long branchId, Collection<StockDelta> deltas) {
+        List<StockDelta> ordered = sorted(deltas);
+        if (!ordered.isEmpty()) {
+            batch(RELEASE_SQL, branchId, ordered, false);
+        }
+    }
+
+    /**
+     * 입고 수량만큼 재고 증가 (재고 행이 없는 원재료는 최소 0 / 최대 1000 기본값으로 새 행 추가)
+     */
+    public MutationResult receive(Long branchId, Collection<StockDelta> deltas) {
+        List<StockDelta> ordered = sorted(deltas);
+        if (ordered.isEmpty()) {
+            return new MutationResult(List.of(), List.of(), List.of(), List.of());
+        }
+
+        int[] counts = batch(RECEIVE_SQL, branchId, ordered, false);
+        List<StockDelta> missing = new ArrayList<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            if (counts[i] == 0) {
+                missing.add(ordered.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_STOCK_SQL, missing, missing.size(), (ps, delta) -> {
+                ps.setLong(1, delta.materialId());
+                ps.setLong(2, branchId);
+                ps.setBigDecimal(3, delta.quantity());
+                ps.setBigDecimal(4, delta.quantity());
+                ps.setString(5, MaterialStock.StockStatus.of(delta.quantity(), BigDecimal.ZERO, NEW_STOCK_MAX).name());
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            });
+        }
+
+        Map<Long, StockLevel> levels = findLevels(branchId,
+            ordered.stream().map(StockDelta::materialId).toList());
+        return new MutationResult(
+            ordered.stream().map(delta -> levels.get(delta.materialId())).toList(),
+            ordered, List.of(), List.of());
+    }
+
+    /**
+     * 지점의 원재료별 가용 재고(현재 - 예약)만 조회 (JOIN 없음, 재고 행이 없는 원재료는 결과에 없음)
+     */
+    public Map<Long, BigDecimal> findAvailable(Long branchId, Collection<Long> materialIds) {
+        Map<Long, BigDecimal> available = new LinkedHashMap<>();
+        if (materialIds.isEmpty()) {
+            return available;
+        }
+        jdbcTemplate.query(String.format(SELECT_AVAILABLE_SQL, placeholders(materialIds)),
+            rs -> {
+                available.put(rs.getLong(1), rs.getBigDecimal(2));
+            }, params(branchId, materialIds));
+        return available;
+    }
+
+    private MutationResult apply(String sql, Long branchId, Collection<StockDelta> deltas, boolean guarded) {
+        List<StockDelta> ordered = sorted(deltas);
+        if (ordered.isEmpty()) {
+            return new MutationResult(List.of(), List.of(), List.of(), List.of());
+        }
+
+        int[] counts = batch(sql, branchId, ordered, guarded);
+        List<StockDelta> applied = new ArrayList<>();
+        List<StockDelta> shortfalls = new ArrayList<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                // 건별 결과가 없으면 부족 여부를 알 수 없으므로 변경 자체를 실패 처리 (롤백)
+                throw new IllegalStateException("JDBC 드라이버가 배치 건별 영향 행 수를 반환하지 않습니다");
+            }
+            (counts[i] > 0 ? applied : shortfalls).add(ordered.get(i));
+        }
+
+        Map<Long, StockLevel> levels = findLevels(branchId,
+            ordered.stream().map(StockDelta::materialId).toList());
+        return new MutationResult(
+            applied.stream().map(delta -> levels.get(delta.materialId())).toList(),
+            applied,
+            shortfalls,
+            shortfalls.stream().map(delta -> levels.get(delta.materialId())).toList());
+    }
+
+    // 모든 SQL 의 파라미터 순서: 수량, 수량, 시각, 지점, 원재료[, 조건 수량]
+    private int[] batch(String sql, Long branchId, List<StockDelta> ordered, boolean guarded) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.batchUpdate(sql, ordered, ordered.size(), (ps, delta) -> {
+            ps.setBigDecimal(1, delta.quantity());
+            ps.setBigDecimal(2, delta.quantity());
+            ps.setTimestamp(3, now);
+            ps.setLong(4, branchId);
+            ps.setLong(5, delta.materialId());
+            if (guarded) {
+                ps.setBigDecimal(6, delta.quantity());
+            }
+        })[0];
+    }
+
+    private static List<StockDelta> sorted(Collection<StockDelta> deltas) {
+        return deltas.stream()
+            .sorted(Comparator.comparingLong(StockDelta::materialId))
+            .toList();
+    }
+
+    /**
+     * 지점의 원재료별 재고 수준을 한 번에 조회 (재고 행이 없는 원재료는 결과에 없음)
+     */
+    public Map<Long, StockLevel> findLevels(Long branchId, Collection<Long> materialIds) {
+        Map<Long, StockLevel> levels = new LinkedHashMap<>();
+        if (materialIds.isEmpty()) {
+            return levels;
+        }
+        jdbcTemplate.query(String.format(SELECT_LEVELS_SQL, placeholders(materialIds)), rs -> {
+            StockLevel level = new StockLevel(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+                rs.getString(5), rs.getBigDecimal(6), rs.getBigDecimal(7), rs.getBigDecimal(8),
+                rs.getBigDecimal(9), rs.getBigDecimal(10));
+            levels.put(level.materialId(), level);
+        }, params(branchId, materialIds));
+        return levels;
+    }
+
+    private static String placeholders(Collection<Long> materialIds) {
+        return materialIds.stream().map(id -> "?").collect(Collectors.joining(","));
+    }
+
+    private static Object[] params(Long branchId, Collection<Long> materialIds) {
+        List<Object> params = new ArrayList<>(materialIds.size() + 1);
+        params.add(branchId);
+        params.addAll(materialIds);
+        return params.toArray();
+    }
+
+    public record StockDelta(long materialId, BigDecimal quantity) {}
+
+    public record StockLevel(long stockId, long materialId, String materialName, String materialCategory,
+                             String unit, BigDecimal costPerUnit, BigDecimal currentStock, BigDecimal reservedStock,
+                             BigDecimal minStock, BigDecimal maxStock) {
+
+        public BigDecimal availableStock() {
+            return currentStock.subtract(reservedStock);
+        }
+
+        public MaterialStock.StockStatus status() {
+            return MaterialStock.StockStatus.of(currentStock, minStock, maxStock);
+        }
+    }
+
+    /**
+     * @param applied         변경된 원재료의 변경 후 재고 (원재료 ID 순)
+     * @param appliedDeltas   applied 와 같은 순서의 변경 요청
+     * @param shortfalls      변경하지 못한 원재료 요청
+     * @param shortfallLevels 부족 원재료의 현재 재고 (재고 행이 없으면 null)
+     */
+    public record MutationResult(List<StockLevel> applied, List<StockDelta> appliedDeltas,
+                                 List<StockDelta> shortfalls, List<StockLevel> shortfallLevels) {
+
+        public boolean hasShortfall() {
+            return !shortfalls.isEmpty();
+        }
+
+        /**
+         * 첫 번째 부족 원재료에 대한 오류 메시지
+         */
+        public String shortfallMessage(Long branchId) {
+            StockDelta shortfall = shortfalls.get(0);
+            StockLevel level = shortfallLevels.get(0);
+            if (level == null) {
+                return String.format("재고 정보를 찾을 수 없습니다: Material ID: %d, Branch ID: %d",
+                    shortfall.materialId(), branchId);
+            }
+            return String.format("재고 부족: %s (필요: %s, 가용: %s)",
+                level.materialName(), shortfall.quantity(), level.availableStock());
+        }
+    }
+}
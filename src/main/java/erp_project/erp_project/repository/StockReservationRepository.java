@@ -0,0 +1,33 @@
+package erp_project.erp_project.repository;
+
+import erp_project.erp_project.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // 주문의 미정산 예약 행 (다른 인스턴스에서 생성된 예약 확인용)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId = :orderId AND r.settlement = false " +
+           "AND NOT EXISTS (SELECT s.reservationId FROM StockReservation s " +
+           "WHERE s.orderId = r.orderId AND s.materialId = r.materialId AND s.settlement = true)")
+    List<StockReservation> findOpenByOrderId(@Param("orderId") Long orderId);
+
+    // 기동 시 인메모리 인덱스 복구용 미정산 예약 행
+    @Query("SELECT r FROM StockReservation r WHERE r.settlement = false AND r.createdAt >= :since " +
+           "AND NOT EXISTS (SELECT s.reservationId FROM StockReservation s " +
+           "WHERE s.orderId = r.orderId AND s.materialId = r.materialId AND s.settlement = true) " +
+           "ORDER BY r.orderId, r.materialId")
+    List<StockReservation> findOpenCreatedSince(@Param("since") LocalDateTime since);
+
+    // 주문이 이미 예약분 차감으로 정산됐는지
+    boolean existsByOrderIdAndEntryType(Long orderId, StockReservation.EntryType entryType);
+
+    // 주문의 예약/정산 이력
+    List<StockReservation> findByOrderIdOrderByReservationIdAsc(Long orderId);
+}
@@ -0,0 +1,448 @@
+package erp_project.erp_project.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erp_project.erp_project.entity.ArchiveSegment;
+import erp_project.erp_project.repository.ArchiveSegmentRepository;
+import erp_project.erp_project.util.NdjsonGzipArchive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 오래된 행을 로컬 디스크의 압축 아카이브로 이동
+ * - 원본 PK 순 키셋 청크로 읽음 (대상 전체를 메모리에 올리지 않음)
+ * - 청크를 지점/월 단위로 나눠 NDJSON.gz 세그먼트로 기록 → 체크섬 재확인 → 세그먼트 목록 기록 + 원본 삭제를 한 트랜잭션으로
+ *   (삭제는 세그먼트에 담긴 PK 만 대상, 청크 크기로 제한)
+ * - 주문은 아이템/상세/옵션까지 한 문서로 묶어 저장 (order_items → order_item_details, order_item_options 중첩)
+ * - 아카이브된 데이터는 세그먼트 목록으로 파일을 찾아 단건 조회 / 기간 내보내기
+ * - 세그먼트 기록 전에 실패한 파일은 지우지 않음 (목록에 없는 파일은 조회 대상 아님, 재실행 시 같은 이름이면 교체)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveEngineService {
+
+    public static final Dataset ORDERS = new Dataset("orders", "orders", "order_id", "created_at");
+    public static final Dataset SALES_STATISTICS =
+        new Dataset("sales_statistics", "sales_statistics", "statistic_id", "statistic_date");
+    public static final Dataset MENU_SALES_STATISTICS =
+        new Dataset("menu_sales_statistics", "menu_sales_statistics", "menu_statistic_id", "statistic_date");
+    public static final Dataset CATEGORY_SALES_STATISTICS =
+        new Dataset("category_sales_statistics", "category_sales_statistics", "category_statistic_id", "statistic_date");
+
+    private static final List<Dataset> DATASETS = List.of(ORDERS, SALES_STATISTICS, MENU_SALES_STATISTICS, CATEGORY_SALES_STATISTICS);
+
+    // 한 청크 IN 목록이 커지지 않도록 제한
+    private static final int MAX_CHUNK_SIZE = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveSegmentRepository segmentRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.archive.directory:./archive}")
+    private String directory;
+
+    private final LongAdder archivedRows = new LongAdder();
+    private final LongAdder archivedChildRows = new LongAdder();
+    private final LongAdder writtenSegments = new LongAdder();
+    private final LongAdder writtenBytes = new LongAdder();
+
+    public static Dataset dataset(String name) {
+        for (Dataset dataset : DATASETS) {
+            if (dataset.name().equals(name)) {
+                return dataset;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 아카이브 데이터셋입니다: " + name);
+    }
+
+    /**
+     * from(포함) ~ to(제외) 기간의 행을 아카이브로 이동
+     * @param from  null 이면 하한 없음
+     * @param lease 스케줄 잠금 (잃으면 다음 청크부터 중단, 수동 실행은 null)
+     * @return 처리 요약
+     */
+    public Map<String, Object> archive(Dataset dataset, Temporal from, Temporal to, int chunkSize,
+                                       SchedulerLockService.JobLease lease) throws IOException {
+        long start = System.nanoTime();
+        int limit = Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE));
+        String dateFilter = dataset.dateColumn() + " < ?" + (from != null ? " AND " + dataset.dateColumn() + " >= ?" : "");
+        Object[] dateArgs = from != null ? new Object[] {jdbcValue(to), jdbcValue(from)} : new Object[] {jdbcValue(to)};
+
+        // 키셋 상한: 이후에 생긴 최신 행까지 훑지 않도록
+        Long maxKey = jdbcTemplate.queryForObject(
+            "SELECT MAX(" + dataset.keyColumn() + ") FROM " + dataset.table() + " WHERE " + dateFilter, Long.class, dateArgs);
+
+        int rows = 0;
+        int childRows = 0;
+        int segments = 0;
+        boolean interrupted = false;
+        long after = 0;
+        while (maxKey != null) {
+            if (lease != null && !lease.isValid()) {
+                interrupted = true;
+                break;
+            }
+            List<Object> args = new ArrayList<>(List.of(after, maxKey));
+            Collections.addAll(args, dateArgs);
+            args.add(limit);
+            List<Map<String, Object>> chunk = jdbcTemplate.queryForList(
+                "SELECT * FROM " + dataset.table() + " WHERE " + dataset.keyColumn() + " > ? AND " +
+                dataset.keyColumn() + " <= ? AND " + dateFilter + " ORDER BY " + dataset.keyColumn() + " LIMIT ?",
+                args.toArray());
+            if (chunk.isEmpty()) {
+                break;
+            }
+            after = key(chunk.get(chunk.size() - 1), dataset.keyColumn());
+            chunk.forEach(ArchiveEngineService::normalize);
+
+            Map<Long, List<Map<String, Object>>> itemsByOrder = dataset == ORDERS ? loadOrderChildren(chunk) : Map.of();
+
+            // 지점/월 단위 세그먼트
+            Map<String, List<Map<String, Object>>> partitions = new LinkedHashMap<>();
+            for (Map<String, Object> row : chunk) {
+                String partition = ((Number) row.get("branch_id")).longValue() + "|" + period(row.get(dataset.dateColumn()));
+                partitions.computeIfAbsent(partition, p -> new ArrayList<>()).add(row);
+            }
+            for (Map.Entry<String, List<Map<String, Object>>> entry : partitions.entrySet()) {
+                String[] parts = entry.getKey().split("\\|");
+                childRows += writeSegment(dataset, Long.parseLong(parts[0]), parts[1], entry.getValue(), itemsByOrder, lease);
+                rows += entry.getValue().size();
+                segments++;
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("dataset", dataset.name());
+        summary.put("from", from != null ? from.toString() : null);
+        summary.put("to", to.toString());
+        summary.put("rows", rows);
+        summary.put("childRows", childRows);
+        summary.put("segments", segments);
+        summary.put("interrupted", interrupted);
+        summary.put("elapsedMs", (System.nanoTime() - start) / 1_000_000);
+        log.info("아카이브 이동 완료: {}", summary);
+        return summary;
+    }
+
+    /**
+     * 아카이브된 주문 1건 (아이템/상세 포함), 없으면 null
+     */
+    public JsonNode findArchivedOrder(Long orderId, Long branchId) throws IOException {
+        String marker = "\"order_id\":" + orderId + ",";
+        for (ArchiveSegment segment : segmentRepository.findContaining(ORDERS.name(), orderId, branchId)) {
+            Path file = verifiedFile(segment);
+            JsonNode[] found = new JsonNode[1];
+            NdjsonGzipArchive.readLines(file, line -> {
+                if (!line.contains(marker)) {
+                    return true;
+                }
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    if (node.path("order_id").asLong() == orderId) {
+                        found[0] = node;
+                        return false;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            });
+            if (found[0] != null) {
+                return found[0];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 기간 범위 세그먼트의 문서를 NDJSON 으로 그대로 출력 (압축 해제, 한 줄씩)
+     * @return 출력한 문서 수
+     */
+    public long export(Dataset dataset, Long branchId, String fromPeriod, String toPeriod, OutputStream out) throws IOException {
+        long[] written = new long[1];
+        for (ArchiveSegment segment : segmentRepository.findSegments(dataset.name(), branchId, fromPeriod, toPeriod)) {
+            NdjsonGzipArchive.readLines(verifiedFile(segment), line -> {
+                try {
+                    out.write(line.getBytes(StandardCharsets.UTF_8));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                written[0]++;
+                return true;
+            });
+            out.flush();
+        }
+        return written[0];
+    }
+
+    public List<ArchiveSegment> getSegments(Dataset dataset, Long branchId, String fromPeriod, String toPeriod) {
+        return segmentRepository.findSegments(dataset.name(), branchId, fromPeriod, toPeriod);
+    }
+
+    /**
+     * 세그먼트 파일 존재/크기/체크섬 검사
+     */
+    public Map<String, Object> verify(Dataset dataset) {
+        int checked = 0;
+        List<Map<String, Object>> problems = new ArrayList<>();
+        for (ArchiveSegment segment : segmentRepository.findSegments(dataset.name(), null, null, null)) {
+            checked++;
+            String problem;
+            try {
+                Path file = resolve(segment);
+                if (!Files.exists(file)) {
+                    problem = "missing";
+                } else if (Files.size(file) != segment.getByteSize()) {
+                    problem = "size";
+                } else if (!NdjsonGzipArchive.checksum(file).equals(segment.getSha256())) {
+                    problem = "checksum";
+                } else {
+                    continue;
+                }
+            } catch (IOException e) {
+                problem = "io: " + e.getMessage();
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("segmentId", segment.getSegmentId());
+            entry.put("filePath", segment.getFilePath());
+            entry.put("problem", problem);
+            problems.add(entry);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("dataset", dataset.name());
+        result.put("segments", checked);
+        result.put("problems", problems);
+        return result;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("directory", root().toString());
+        metrics.put("archivedRows", archivedRows.sum());
+        metrics.put("archivedChildRows", archivedChildRows.sum());
+        metrics.put("writtenSegments", writtenSegments.sum());
+        metrics.put("writtenBytes", writtenBytes.sum());
+        return metrics;
+    }
+
+    /**
+     * 청크 주문들의 아이템/상세/옵션을 읽어 아이템 문서에 상세/옵션을 중첩
+     * @return 주문 ID → 아이템 문서 목록
+     */
+    private Map<Long, List<Map<String, Object>>> loadOrderChildren(List<Map<String, Object>> orders) {
+        List<Object> orderIds = new ArrayList<>(orders.size());
+        for (Map<String, Object> order : orders) {
+            orderIds.add(key(order, "order_id"));
+        }
+        List<Map<String, Object>> items = jdbcTemplate.queryForList(
+            "SELECT * FROM order_items WHERE order_id IN (" + placeholders(orderIds.size()) + ") ORDER BY order_item_id",
+            orderIds.toArray());
+
+        List<Object> itemIds = new ArrayList<>(items.size());
+        for (Map<String, Object> item : items) {
+            itemIds.add(key(item, "order_item_id"));
+        }
+        Map<Long, List<Map<String, Object>>> detailsByItem = loadItemChildren("order_item_details", "detail_id", itemIds);
+        Map<Long, List<Map<String, Object>>> optionsByItem = loadItemChildren("order_item_options", "id", itemIds);
+
+        Map<Long, List<Map<String, Object>>> itemsByOrder = new HashMap<>();
+        for (Map<String, Object> item : items) {
+            normalize(item);
+            item.put("details", detailsByItem.getOrDefault(key(item, "order_item_id"), List.of()));
+            item.put("options", optionsByItem.getOrDefault(key(item, "order_item_id"), List.of()));
+            itemsByOrder.computeIfAbsent(key(item, "order_id"), id -> new ArrayList<>()).add(item);
+        }
+        return itemsByOrder;
+    }
+
+    private Map<Long, List<Map<String, Object>>> loadItemChildren(String table, String keyColumn, List<Object> itemIds) {
+        Map<Long, List<Map<String, Object>>> childrenByItem = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return childrenByItem;
+        }
+        for (Map<String, Object> child : jdbcTemplate.queryForList(
+                "SELECT * FROM " + table + " WHERE order_item_id IN (" + placeholders(itemIds.size()) + ") ORDER BY " + keyColumn,
+                itemIds.toArray())) {
+            normalize(child);
+            childrenByItem.computeIfAbsent(key(child, "order_item_id"), id -> new ArrayList<>()).add(child);
+        }
+        return childrenByItem;
+    }
+
+    /**
+     * 세그먼트 1개 기록 후 원본 삭제
+     * - 삭제 트랜잭션 안에서 잠금 토큰 확인 (다른 노드가 이어받았으면 파일만 남기고 중단, 다음 실행에서 덮어씀)
+     * @return 하위 행 수 (주문 아이템 + 상세 + 옵션)
+     */
+    @SuppressWarnings("unchecked")
+    private int writeSegment(Dataset dataset, long branchId, String period, List<Map<String, Object>> rows,
+                             Map<Long, List<Map<String, Object>>> itemsByOrder,
+                             SchedulerLockService.JobLease lease) throws IOException {
+        List<Object> keys = new ArrayList<>(rows.size());
+        List<Object> itemIds = new ArrayList<>();
+        List<Object> detailIds = new ArrayList<>();
+        List<Object> optionIds = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            long key = key(row, dataset.keyColumn());
+            keys.add(key);
+            if (dataset == ORDERS) {
+                List<Map<String, Object>> items = itemsByOrder.getOrDefault(key, List.of());
+                row.put("items", items);
+                for (Map<String, Object> item : items) {
+                    itemIds.add(key(item, "order_item_id"));
+                    for (Map<String, Object> detail : (List<Map<String, Object>>) item.get("details")) {
+                        detailIds.add(key(detail, "detail_id"));
+                    }
+                    for (Map<String, Object> option : (List<Map<String, Object>>) item.get("options")) {
+                        optionIds.add(key(option, "id"));
+                    }
+                }
+            }
+        }
+        long firstKey = (Long) keys.get(0);
+        long lastKey = (Long) keys.get(keys.size() - 1);
+        String relativePath = dataset.name() + "/branch=" + branchId + "/month=" + period +
+            "/part-" + firstKey + "-" + lastKey + ".ndjson.gz";
+
+        NdjsonGzipArchive.Written written = NdjsonGzipArchive.write(root().resolve(relativePath), rows, objectMapper);
+        // 디스크에서 다시 읽어 확인한 뒤에만 원본 삭제
+        if (!NdjsonGzipArchive.checksum(written.path()).equals(written.sha256())) {
+            throw new IOException("아카이브 파일 체크섬 불일치: " + relativePath);
+        }
+
+        int childRows = itemIds.size() + detailIds.size() + optionIds.size();
+        ArchiveSegment segment = new ArchiveSegment();
+        segment.setDataset(dataset.name());
+        segment.setBranchId(branchId);
+        segment.setPeriod(period);
+        segment.setFirstKey(firstKey);
+        segment.setLastKey(lastKey);
+        segment.setRowCount(rows.size());
+        segment.setChildRowCount(childRows);
+        segment.setFilePath(relativePath);
+        segment.setByteSize(written.bytes());
+        segment.setSha256(written.sha256());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (lease != null) {
+                lease.checkFence();
+            }
+            segmentRepository.save(segment);
+            // 자식부터, 아카이브에 담긴 PK 만 삭제 (삭제 행 수가 다르면 전체 롤백)
+            deleteArchived("order_item_details", "detail_id", detailIds, relativePath);
+            deleteArchived("order_item_options", "id", optionIds, relativePath);
+            deleteArchived("order_items", "order_item_id", itemIds, relativePath);
+            deleteArchived(dataset.table(), dataset.keyColumn(), keys, relativePath);
+        });
+
+        archivedRows.add(rows.size());
+        archivedChildRows.add(childRows);
+        writtenSegments.increment();
+        writtenBytes.add(written.bytes());
+        log.debug("아카이브 세그먼트 기록: {} ({}행, {} bytes)", relativePath, rows.size(), written.bytes());
+        return childRows;
+    }
+
+    private void deleteArchived(String table, String keyColumn, List<Object> keys, String relativePath) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        int deleted = jdbcTemplate.update("DELETE FROM " + table + " WHERE " + keyColumn +
+            " IN (" + placeholders(keys.size()) + ")", keys.toArray());
+        if (deleted != keys.size()) {
+            throw new IllegalStateException("아카이브 중 원본 행이 변경되었습니다: " + relativePath +
+                " (" + table + " expected=" + keys.size() + ", deleted=" + deleted + ")");
+        }
+    }
+
+    private Path verifiedFile(ArchiveSegment segment) throws IOException {
+        Path file = resolve(segment);
+        if (!NdjsonGzipArchive.checksum(file).equals(segment.getSha256())) {
+            throw new IOException("아카이브 파일 체크섬 불일치: " + segment.getFilePath());
+        }
+        return file;
+    }
+
+    private Path resolve(ArchiveSegment segment) {
+        return root().resolve(segment.getFilePath());
+    }
+
+    private Path root() {
+        return Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    // JDBC 날짜 타입을 java.time 으로 (JSON 에 ISO 문자열로 기록)
+    private static void normalize(Map<String, Object> row) {
+        row.replaceAll((column, value) -> {
+            if (value instanceof Timestamp timestamp) {
+                return timestamp.toLocalDateTime();
+            }
+            if (value instanceof Date date) {
+                return date.toLocalDate();
+            }
+            return value;
+        });
+    }
+
+    private static Object jdbcValue(Temporal value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return Timestamp.valueOf(dateTime);
+        }
+        if (value instanceof LocalDate date) {
+            return Date.valueOf(date);
+        }
+        throw new IllegalArgumentException("지원하지 않는 기간 값입니다: " + value);
+    }
+
+    private static String period(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate().toString().substring(0, 7);
+        }
+        if (value instanceof LocalDate date) {
+            return date.toString().substring(0, 7);
+        }
+        throw new IllegalArgumentException("기간을 알 수 없는 값입니다: " + value);
+    }
+
+    private static long key(Map<String, Object> row, String column) {
+        return ((Number) row.get(column)).longValue();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * @param name       세그먼트 디렉터리/목록에 쓰는 이름
+     * @param keyColumn  키셋 기준 PK
+     * @param dateColumn 보존 기간 판단 및 월 파티션 기준
+     */
+    public record Dataset(String name, String table, String keyColumn, String dateColumn) {}
+}
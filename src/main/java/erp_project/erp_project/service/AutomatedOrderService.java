@@ -34,33 +34,45 @@ public class AutomatedOrderService {
         }
         
         for (OrderItems orderItem : orderItems) {
-            try {
-                if (orderItem == null || orderItem.getItemType() == null) {
-                    System.out.println("주문 아이템 또는 아이템 타입이 null입니다.");
-                    continue;
-                }
-                
-                // 1. 세트 메뉴인 경우 - 구성 요소들을 자동으로 order_item_details에 생성
-                if ("SET".equals(orderItem.getItemType().name())) {
-                    createSetMenuDetailsAutomatically(orderItem);
-                }
-                
-                // 2. 단품 버거인 경우 - 재료 변경 사항을 자동으로 order_item_details에 생성
-                if ("BURGER".equals(orderItem.getItemType().name())) {
-                    createIngredientModificationsAutomatically(orderItem);
-                }
-            } catch (Exception e) {
-                System.err.println("주문 아이템 처리 중 오류 발생: " + e.getMessage());
-                e.printStackTrace();
-                // 개별 아이템 오류는 무시하고 계속 진행
+            List<OrderItemDetails> details = buildOrderItemDetails(orderItem);
+            if (!details.isEmpty()) {
+                orderItemDetailsRepository.saveAll(details);
             }
         }
     }
     
     /**
-     * 세트 메뉴 구성 요소들을 자동으로 order_item_details에 생성
+     * 주문 아이템 하나에 대한 order_item_details 목록 생성 (저장하지 않음)
+     * - 배치 적재(OrderIngestionService)와 기존 saveAll 경로가 같은 규칙을 공유
+     */
+    public List<OrderItemDetails> buildOrderItemDetails(OrderItems orderItem) {
+        try {
+            if (orderItem == null || orderItem.getItemType() == null) {
+                System.out.println("주문 아이템 또는 아이템 타입이 null입니다.");
+                return new ArrayList<>();
+            }
+            
+            // 1. 세트 메뉴인 경우 - 구성 요소들을 자동으로 order_item_details에 생성
+            if ("SET".equals(orderItem.getItemType().name())) {
+                return createSetMenuDetailsAutomatically(orderItem);
+            }
+            
+            // 2. 단품 버거인 경우 - 재료 변경 사항을 자동으로 order_item_details에 생성
+            if ("BURGER".equals(orderItem.getItemType().name())) {
+                return createIngredientModificationsAutomatically(orderItem);
+            }
+        } catch (Exception e) {
+            System.err.println("주문 아이템 처리 중 오류 발생: " + e.getMessage());
+            e.printStackTrace();
+            // 개별 아이템 오류는 무시하고 계속 진행
+        }
+        return new ArrayList<>();
+    }
+    
+    /**
+     * 세트 메뉴 구성 요소들을 order_item_details 형태로 생성
      */
-    private void createSetMenuDetailsAutomatically(OrderItems orderItem) {
+    private List<OrderItemDetails> createSetMenuDetailsAutomatically(OrderItems orderItem) {
         
         // 세트 메뉴의 기본 구성 요소들을 자동 생성
         List<OrderItemDetails> setComponents = new ArrayList<>();
@@ -85,8 +97,7 @@ public class AutomatedOrderService {
         OrderItemDetails drinkComponent = createDrinkComponentFromOptions(orderItem);
         setComponents.add(drinkComponent);
         
-        // order_item_details에 저장
-        orderItemDetailsRepository.saveAll(setComponents);
+        return setComponents;
     }
     
     /**
@@ -477,9 +488,9 @@ public class AutomatedOrderService {
     }
     
     /**
-     * 단품 버거의 재료 변경 사항을 자동으로 order_item_details에 생성
+     * 단품 버거의 재료 변경 사항을 order_item_details 형태로 생성
      */
-    private void createIngredientModificationsAutomatically(OrderItems orderItem) {
+    private List<OrderItemDetails> createIngredientModificationsAutomatically(OrderItems orderItem) {
         
         // 기본 재료들을 자동으로 생성 (실제로는 주문 요청에서 받아와야 함)
         List<OrderItemDetails> ingredientModifications = new ArrayList<>();
@@ -493,6 +504,7 @@ public class AutomatedOrderService {
             ingredientDetail.setIngredientType(ingredient);
             ingredientDetail.setIngredientAction(OrderItemDetails.IngredientAction.ADD);
             ingredientDetail.setIngredientPrice(BigDecimal.ZERO); // 기본 재료는 추가 비용 없음
+            ingredientDetail.setUnitPrice(BigDecimal.ZERO); // unit_price는 NOT NULL
             ingredientDetail.setTotalPrice(BigDecimal.ZERO);
             ingredientDetail.setQuantity(1);
             ingredientDetail.setNotes("기본 포함 재료");
@@ -510,14 +522,14 @@ public class AutomatedOrderService {
             ingredientDetail.setIngredientType(extraIngredients[i]);
             ingredientDetail.setIngredientAction(OrderItemDetails.IngredientAction.ADD);
             ingredientDetail.setIngredientPrice(extraPrices[i]);
+            ingredientDetail.setUnitPrice(extraPrices[i]);
             ingredientDetail.setTotalPrice(extraPrices[i]);
             ingredientDetail.setQuantity(1);
             ingredientDetail.setNotes("추가 재료");
             ingredientModifications.add(ingredientDetail);
         }
         
-        // order_item_details에 저장
-        orderItemDetailsRepository.saveAll(ingredientModifications);
+        return ingredientModifications;
     }
     
     /**
@@ -0,0 +1,255 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.OrderItemDetails;
+import erp_project.erp_project.entity.OrderItems;
+import erp_project.erp_project.repository.RecipeIngredientRepository;
+import erp_project.erp_project.util.BillOfMaterials;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 레시피 BOM 인덱스 관리
+ * - 기동 시 레시피/재료 전체를 1회 조회해 메뉴별 원재료 사용량 배열로 컴파일
+ * - 레시피 생성/수정/삭제가 커밋된 뒤 전체를 다시 컴파일해 참조 교체 (조회 측은 잠금 없음)
+ * - 재고 차감/가용성 체크는 이 인덱스만 사용 (주문마다 레시피 조회 없음)
+ * - 다른 노드 전파: 커밋 후 Redis 버전 증가 + pub/sub 으로 재생성 요청 (메시지 형식: {nodeId}|{version})
+ *   메시지를 놓친 노드는 주기 버전 확인에서 자기 인덱스 버전과 다르면 재생성
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BomIndexService implements MessageListener {
+
+    public static final String CHANNEL = "bom:index:invalidate";
+
+    private static final String VERSION_KEY = "bom:index:version";
+
+    private final RecipeIngredientRepository recipeIngredientRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile BillOfMaterials index;
+    // 마지막 재생성 직전에 읽은 Redis 버전 (읽지 못했으면 null)
+    private volatile String builtVersion;
+
+    private final AtomicLong rebuildCount = new AtomicLong();
+    private volatile long lastRebuiltAt;
+    private volatile long lastRebuildMicros;
+    private final AtomicLong remoteRebuildCount = new AtomicLong();
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 첫 조회 시 다시 시도
+            log.error("기동 시 BOM 인덱스 생성 실패", e);
+        }
+    }
+
+    /**
+     * 현재 트랜잭션 커밋 후 인덱스 재생성 + 다른 노드에 전파 (트랜잭션 밖이면 즉시)
+     */
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuildAndBroadcast();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    rebuildAndBroadcast();
+                } catch (Exception e) {
+                    // 기존 인덱스 유지, 다음 레시피 변경 시 재시도
+                    log.error("레시피 변경 후 BOM 인덱스 재생성 실패", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 다른 노드의 재생성 요청 (자기 노드가 보낸 메시지, 이미 같은 버전이면 무시)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))
+                || body.substring(separator + 1).equals(builtVersion)) {
+            return;
+        }
+        try {
+            rebuild();
+            remoteRebuildCount.incrementAndGet();
+        } catch (Exception e) {
+            // 주기 버전 확인에서 재시도
+            log.error("다른 노드의 레시피 변경 후 BOM 인덱스 재생성 실패", e);
+        }
+    }
+
+    /**
+     * 놓친 전파 메시지 보정 (Redis 버전이 인덱스 생성 시점과 다르면 재생성)
+     */
+    @Scheduled(fixedDelayString = "${app.bom.index.version-check-interval-ms:60000}",
+               initialDelayString = "${app.bom.index.version-check-interval-ms:60000}")
+    public void checkVersion() {
+        String version = readVersion();
+        if (version != null && !version.equals(builtVersion)) {
+            log.info("BOM 인덱스 버전 변경 감지: {} -> {}", builtVersion, version);
+            rebuild();
+            remoteRebuildCount.incrementAndGet();
+        }
+    }
+
+    private void rebuildAndBroadcast() {
+        String version = null;
+        try {
+            version = String.valueOf(stringRedisTemplate.opsForValue().increment(VERSION_KEY));
+        } catch (Exception e) {
+            // 다른 노드는 다음 레시피 변경 때까지 이전 인덱스 사용
+            log.warn("BOM 인덱스 버전 증가 실패: {}", e.getMessage());
+        }
+        rebuild();
+        if (version != null) {
+            try {
+                stringRedisTemplate.convertAndSend(CHANNEL, nodeId + "|" + version);
+            } catch (Exception e) {
+                // 다른 노드는 주기 버전 확인에서 반영
+                log.warn("BOM 인덱스 재생성 전파 실패: {}", e.getMessage());
+            }
+        }
+    }
+
+    private String readVersion() {
+        try {
+            return stringRedisTemplate.opsForValue().get(VERSION_KEY);
+        } catch (Exception e) {
+            log.warn("BOM 인덱스 버전 조회 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 레시피/재료 전체로 인덱스를 새로 만들어 교체
+     * - 한 메뉴에 레시피가 여러 개면 ID 가 가장 작은 레시피만 사용
+     */
+    public synchronized BillOfMaterials rebuild() {
+        long start = System.nanoTime();
+        // 조회 전에 읽은 버전을 기록 (조회 중 바뀐 변경은 다음 메시지/버전 확인에서 다시 반영)
+        String version = readVersion();
+        BillOfMaterials.Builder builder = new BillOfMaterials.Builder();
+        Long currentMenuId = null;
+        Long currentRecipeId = null;
+        for (Object[] row : recipeIngredientRepository.findAllBomLines()) {
+            Long menuId = (Long) row[0];
+            Long recipeId = (Long) row[1];
+            if (!menuId.equals(currentMenuId)) {
+                currentMenuId = menuId;
+                currentRecipeId = recipeId;
+            } else if (!recipeId.equals(currentRecipeId)) {
+                continue;
+            }
+            builder.add(menuId, (Long) row[2], (BigDecimal) row[3]);
+        }
+        BillOfMaterials next = builder.build();
+        index = next;
+        builtVersion = version;
+
+        lastRebuildMicros = (System.nanoTime() - start) / 1_000;
+        lastRebuiltAt = System.currentTimeMillis();
+        rebuildCount.incrementAndGet();
+        log.info("BOM 인덱스 생성: 메뉴 {}개, 재료 행 {}개, {}us", next.menuCount(), next.lineCount(), lastRebuildMicros);
+        return next;
+    }
+
+    public BillOfMaterials current() {
+        BillOfMaterials current = index;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * 주문 아이템 목록을 원재료별 사용량으로 전개
+     * - 세트 메뉴는 order_item_details 구성 요소(버거/사이드/음료) 단위로 전개, 구성 요소가 없으면 세트 메뉴 자체 레시피
+     * - 재료 추가/제거(INGREDIENT) 상세는 원재료와 매핑 정보가 없어 반영하지 않음
+     */
+    public BillOfMaterials.Usage explode(List<OrderItems> orderItems, Map<Long, List<OrderItemDetails>> detailsByItemId) {
+        BillOfMaterials bom = current();
+        BillOfMaterials.Usage usage = new BillOfMaterials.Usage();
+        for (OrderItems orderItem : orderItems) {
+            if (orderItem.getMenuId() == null || orderItem.getQuantity() == null) {
+                continue;
+            }
+            long units = orderItem.getQuantity();
+            boolean expanded = false;
+            if (orderItem.getItemType() == OrderItems.ItemType.SET) {
+                for (OrderItemDetails component : detailsByItemId.getOrDefault(orderItem.getOrderItemId(), List.of())) {
+                    if (component.getItemType() == OrderItemDetails.ItemType.INGREDIENT || component.getMenuId() == null) {
+                        continue;
+                    }
+                    int componentQuantity = component.getQuantity() != null ? component.getQuantity() : 1;
+                    bom.explode(component.getMenuId(), units * componentQuantity, usage);
+                    expanded = true;
+                }
+            }
+            if (!expanded) {
+                bom.explode(orderItem.getMenuId(), units, usage);
+            }
+        }
+        return usage;
+    }
+
+    /**
+     * 주문 아이템 + 상세 목록으로 전개 (상세를 주문 아이템별로 묶어서 전달)
+     */
+    public BillOfMaterials.Usage explode(List<OrderItems> orderItems, List<OrderItemDetails> details) {
+        Map<Long, List<OrderItemDetails>> detailsByItemId = new HashMap<>();
+        for (OrderItemDetails detail : details) {
+            detailsByItemId.computeIfAbsent(detail.getOrderItemId(), key -> new ArrayList<>()).add(detail);
+        }
+        return explode(orderItems, detailsByItemId);
+    }
+
+    public Map<String, Object> getMetrics() {
+        BillOfMaterials current = index;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("menus", current != null ? current.menuCount() : 0);
+        metrics.put("lines", current != null ? current.lineCount() : 0);
+        metrics.put("rebuildCount", rebuildCount.get());
+        metrics.put("lastRebuiltAt", lastRebuiltAt);
+        metrics.put("lastRebuildMicros", lastRebuildMicros);
+        metrics.put("version", builtVersion);
+        metrics.put("remoteRebuildCount", remoteRebuildCount.get());
+        return metrics;
+    }
+}
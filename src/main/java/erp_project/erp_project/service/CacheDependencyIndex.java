@@ -0,0 +1,165 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.util.RedisKeyScanner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 매출/대시보드 캐시 키 의존성 인덱스
+ * - 캐시 저장 시 키를 지점별 Redis SET (cache-index:{캐시명}:{지점ID|all}) 에 기록
+ * - 주문 1건이 들어오면 해당 지점 + 전체(all) 키 중 조회 기간에 주문 날짜가 포함된 키만 골라낸다
+ * - 조회 기간은 키 문자열(SpEL 키 형식)에서 계산하므로 인덱스에는 키만 저장
+ * - Redis 에 두므로 여러 인스턴스/재시작 후에도 이전에 저장된 키를 찾을 수 있음
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheDependencyIndex {
+
+    private static final String INDEX_PREFIX = "cache-index:";
+    private static final String ALL_BRANCHES = "all";
+    // 지점 ID 가 null 인 캐시 키 (SpEL 문자열 연결 시 "null" 로 들어감) → 전체 지점 조회
+    private static final String NULL_BRANCH = "null";
+    private static final Pattern DATE_TOKEN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final Pattern NUMBER_TOKEN = Pattern.compile("\\d+");
+
+    // 인덱스 대상 캐시 (지점/기간 단위 키를 쓰는 매출 통계 및 대시보드 캐시)
+    public static final Set<String> TRACKED_CACHES = Set.of(
+        "salesStatistics", "aggregatedSales", "dashboardKpis", "todaySales", "weeklySalesTrend", "topProducts");
+
+    // 키의 날짜가 "조회 기준일"이고 실제로는 전날까지 7일을 조회하는 캐시 (DashboardService)
+    private static final Set<String> TRAILING_WEEK_CACHES = Set.of("weeklySalesTrend", "topProducts");
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisKeyScanner redisKeyScanner;
+
+    // 인덱스 SET 만료 시간 (추적 대상 캐시의 최대 TTL 이상)
+    @Value("${app.cache.dependency-index.ttl-hours:6}")
+    private long indexTtlHours;
+
+    public boolean isTracked(String cacheName) {
+        return TRACKED_CACHES.contains(cacheName);
+    }
+
+    /**
+     * 캐시 저장 시 키 등록
+     */
+    public void register(String cacheName, Object key) {
+        String cacheKey = String.valueOf(key);
+        String indexKey = indexKey(cacheName, resolve(cacheName, cacheKey).branch());
+        try {
+            stringRedisTemplate.opsForSet().add(indexKey, cacheKey);
+            stringRedisTemplate.expire(indexKey, Duration.ofHours(indexTtlHours));
+        } catch (Exception e) {
+            log.warn("캐시 인덱스 등록 실패: {} - {}, error: {}", cacheName, cacheKey, e.getMessage());
+        }
+    }
+
+    /**
+     * 캐시 삭제 시 키 제거
+     */
+    public void unregister(String cacheName, Object key) {
+        String cacheKey = String.valueOf(key);
+        try {
+            stringRedisTemplate.opsForSet().remove(indexKey(cacheName, resolve(cacheName, cacheKey).branch()), cacheKey);
+        } catch (Exception e) {
+            log.warn("캐시 인덱스 제거 실패: {} - {}, error: {}", cacheName, cacheKey, e.getMessage());
+        }
+    }
+
+    /**
+     * 캐시 전체 삭제 시 인덱스 제거
+     */
+    public void clear(String cacheName) {
+        try {
+            redisKeyScanner.unlinkMatching(INDEX_PREFIX + cacheName + ":*");
+        } catch (Exception e) {
+            log.warn("캐시 인덱스 초기화 실패: {}, error: {}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * 지점/날짜에 영향을 받는 캐시 키 조회
+     * - 해당 지점 키 + 전체 지점(all) 키 중 조회 기간에 date 가 포함된 키
+     */
+    public List<String> findAffectedKeys(String cacheName, Long branchId, LocalDate date) {
+        List<String> affected = new ArrayList<>();
+        for (String branch : List.of(String.valueOf(branchId), ALL_BRANCHES)) {
+            Set<String> members = stringRedisTemplate.opsForSet().members(indexKey(cacheName, branch));
+            if (members == null) {
+                continue;
+            }
+            for (String cacheKey : members) {
+                if (resolve(cacheName, cacheKey).covers(date)) {
+                    affected.add(cacheKey);
+                }
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * 캐시 키에서 지점과 조회 기간 계산
+     * - 예) topMenus:sales:3:2024-01-01:2024-01-31, monthly:3:2024:1, monthly:null:2024:1, hourly:all:..., 3_2024-01-31, 3
+     * - 해석할 수 없는 부분은 보수적으로 처리 (지점 미상 → all, 기간 미상 → 무제한)
+     */
+    KeyScope resolve(String cacheName, String cacheKey) {
+        String branch = null;
+        List<LocalDate> dates = new ArrayList<>(2);
+        List<Integer> numbers = new ArrayList<>(2);
+
+        for (String token : cacheKey.split("[:_]")) {
+            if (DATE_TOKEN.matcher(token).matches()) {
+                dates.add(LocalDate.parse(token));
+            } else if (branch == null && NULL_BRANCH.equals(token)) {
+                branch = ALL_BRANCHES;
+            } else if (branch == null && (ALL_BRANCHES.equals(token) || NUMBER_TOKEN.matcher(token).matches())) {
+                branch = token;
+            } else if (NUMBER_TOKEN.matcher(token).matches()) {
+                numbers.add(Integer.parseInt(token));
+            }
+        }
+
+        LocalDate from = null;
+        LocalDate to = null;
+        if (dates.size() >= 2) {
+            from = dates.get(0);
+            to = dates.get(1);
+        } else if (dates.size() == 1 && TRAILING_WEEK_CACHES.contains(cacheName)) {
+            from = dates.get(0).minusDays(7);
+            to = dates.get(0).minusDays(1);
+        } else if (dates.size() == 1) {
+            from = dates.get(0);
+            to = dates.get(0);
+        } else if (numbers.size() >= 2 && numbers.get(1) >= 1 && numbers.get(1) <= 12) {
+            YearMonth month = YearMonth.of(numbers.get(0), numbers.get(1));
+            from = month.atDay(1);
+            to = month.atEndOfMonth();
+        }
+        return new KeyScope(branch != null ? branch : ALL_BRANCHES, from, to);
+    }
+
+    private static String indexKey(String cacheName, String branch) {
+        return INDEX_PREFIX + cacheName + ":" + branch;
+    }
+
+    /**
+     * 캐시 키가 의존하는 지점/기간 (from/to 가 null 이면 기간 제한 없음)
+     */
+    record KeyScope(String branch, LocalDate from, LocalDate to) {
+        boolean covers(LocalDate date) {
+            return (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package erp_project.erp_project.service;
 
+import erp_project.erp_project.config.NearCacheInvalidationBus;
+import erp_project.erp_project.config.VersionedCacheSerializer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Service
@@ -14,6 +23,10 @@ import java.util.Objects;
 public class CacheService {
     
     private final CacheManager cacheManager;
+    private final RedisCacheWriter redisCacheWriter;
+    private final CacheDependencyIndex cacheDependencyIndex;
+    private final NearCacheInvalidationBus nearCacheInvalidationBus;
+    private final VersionedCacheSerializer versionedCacheSerializer;
     
     /**
      * 모든 캐시 클리어
@@ -37,7 +50,7 @@ public class CacheService {
     /**
      * 메뉴 관련 캐시 클리어
      */
-    @CacheEvict(value = {"menus", "menu"}, allEntries = true)
+    @CacheEvict(value = {"menus", "menu", "menuCategories"}, allEntries = true)
     public void clearMenuCaches() {
         log.info("메뉴 관련 캐시를 클리어합니다.");
     }
@@ -111,4 +124,73 @@ public class CacheService {
         clearSalesOverviewCaches();
         clearProductSalesCaches();
     }
+    
+    /**
+     * 지점/날짜에 해당하는 매출·대시보드 캐시 키만 무효화
+     * - 조회 기간에 date 가 포함된 해당 지점 키와 전체 지점(all) 키만 삭제
+     * - branchId 가 null 이면 대상 캐시 전체 삭제
+     */
+    public int invalidateSalesCaches(Long branchId, LocalDate date) {
+        int evicted = 0;
+        for (String cacheName : CacheDependencyIndex.TRACKED_CACHES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null) {
+                continue;
+            }
+            if (branchId == null) {
+                cache.clear();
+                continue;
+            }
+            List<String> keys = cacheDependencyIndex.findAffectedKeys(cacheName, branchId, date);
+            keys.forEach(cache::evict);
+            evicted += keys.size();
+        }
+        log.debug("매출 캐시 부분 무효화: branchId={}, date={}, evicted={}", branchId, date, evicted);
+        return evicted;
+    }
+    
+    /**
+     * 캐시 이름별 hit/miss 및 적중률
+     */
+    public Map<String, Object> getCacheHitRates() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        cacheManager.getCacheNames().stream().sorted().forEach(cacheName -> {
+            CacheStatistics stats = redisCacheWriter.getCacheStatistics(cacheName);
+            long lookups = stats.getHits() + stats.getMisses();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("hits", stats.getHits());
+            entry.put("misses", stats.getMisses());
+            entry.put("puts", stats.getPuts());
+            entry.put("deletes", stats.getDeletes());
+            entry.put("hitRate", lookups == 0 ? 0.0 : (double) stats.getHits() / lookups);
+            entry.put("since", stats.getSince());
+            result.put(cacheName, entry);
+        });
+        return result;
+    }
+    
+    /**
+     * 캐시 통계 초기화
+     */
+    public void resetCacheStatistics() {
+        cacheManager.getCacheNames().forEach(redisCacheWriter::clearStatistics);
+    }
+    
+    /**
+     * 2단계(near) 캐시 계층별 hit/miss/eviction 지표
+     */
+    public Map<String, Object> getNearCacheStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        nearCacheInvalidationBus.getCaches().forEach((cacheName, cache) -> result.put(cacheName, cache.getStats()));
+        result.put("invalidationMessagesPublished", nearCacheInvalidationBus.getPublishedCount());
+        result.put("invalidationMessagesReceived", nearCacheInvalidationBus.getReceivedCount());
+        return result;
+    }
+    
+    /**
+     * 바이너리 캐시 직렬화 지표
+     */
+    public Map<String, Object> getSerializerStats() {
+        return versionedCacheSerializer.getStats();
+    }
 }
@@ -25,7 +25,7 @@ public class DashboardService {
     private final OrderRepository orderRepository;
     private final SupplyRequestRepository supplyRequestRepository;
     private final MaterialStockRepository materialStockRepository;
-    private final NotificationRepository notificationRepository;
+    private final UnreadCounterService unreadCounterService;
     private final MenuSalesStatisticsRepository menuSalesStatisticsRepository;
     private final BranchesRepository branchesRepository;
     
@@ -156,8 +156,8 @@ public class DashboardService {
             log.info("읽지 않은 알림 수 조회 시작: branchId={}", branchId);
             
             // 해당 지점에 대한 읽지 않은 알림 수 조회
-            // Notification에서 recipientType = "BRANCH"이고 recipientId = branchId인 읽지 않은 알림 수
-            long unreadCount = notificationRepository.countByRecipientTypeAndRecipientIdAndIsReadFalse("BRANCH", branchId);
+            // Redis 카운터 (없으면 DB COUNT 로 적재)
+            long unreadCount = unreadCounterService.getNotificationUnread(NotificationService.RECIPIENT_TYPE_BRANCH, branchId);
             
             log.info("읽지 않은 알림 수 조회 결과: branchId={}, count={}", branchId, unreadCount);
             
@@ -451,8 +451,8 @@ public class DashboardService {
                 .countByStatus(SupplyRequest.SupplyRequestStatus.PENDING);
             
             // 5. 읽지 않은 알림 수 (본사용)
-            Long unreadNotificationsCount = notificationRepository
-                .countByRecipientTypeAndIsReadFalse("HEADQUARTERS");
+            Long unreadNotificationsCount = unreadCounterService
+                .getNotificationUnread(NotificationService.RECIPIENT_TYPE_HEADQUARTERS, null);
             
             Map<String, Object> result = new HashMap<>();
             result.put("totalTodaySales", Map.of("value", totalTodaySales, "label", "전지점 오늘 총매출"));
@@ -3,9 +3,12 @@ package erp_project.erp_project.service;
 import erp_project.erp_project.entity.*;
 import erp_project.erp_project.repository.*;
 import erp_project.erp_project.dto.NotificationDTO;
+import erp_project.erp_project.util.BillOfMaterials;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -37,6 +40,24 @@ public class InventoryService {
     
     @Autowired
     private OrdersRepository ordersRepository;
+    
+    @Autowired
+    private OrderItemDetailsRepository orderItemDetailsRepository;
+    
+    @Autowired
+    private BomIndexService bomIndexService;
+    
+    @Autowired
+    private StockMutationRepository stockMutationRepository;
+    
+    @Autowired
+    private StockReservationService stockReservationService;
+    
+    @Autowired
+    private StockJournalService stockJournalService;
+    
+    @Autowired
+    private SalesStatisticsService salesStatisticsService;
 
     /**
      * 주문 완료 시 재고 차감 및 주문 상태 변경
@@ -51,88 +72,54 @@ public class InventoryService {
         Orders order = orderOpt.get();
         Long branchId = order.getBranchId();
         
-        // 주문 아이템 조회
-        List<OrderItems> orderItems = orderItemsRepository.findByOrderId(orderId);
-        
-        for (OrderItems orderItem : orderItems) {
-            // 메뉴의 레시피 조회
-            Optional<Recipe> recipeOpt = recipeRepository.findByMenuId(orderItem.getMenuId());
+        // 주문 생성 시 예약된 재고가 있으면 예약분을 차감으로 전환 (주문 아이템/레시피 전개 없음)
+        // 이미 정산된 예약(동시 완료, 재시도)은 다시 차감하지 않음
+        StockReservationService.CommitOutcome outcome = stockReservationService.commit(order);
+        if (outcome == StockReservationService.CommitOutcome.NO_RESERVATION) {
+            // 예약이 없는 주문 (기능 도입 전 주문, 만료된 예약)
+            List<OrderItems> orderItems = orderItemsRepository.findByOrderId(orderId);
             
-            if (recipeOpt.isPresent()) {
-                Recipe recipe = recipeOpt.get();
-                
-                // 레시피의 재료들 조회
-                List<RecipeIngredient> ingredients = recipeIngredientRepository.findByRecipeId(recipe.getId());
-                
-                // 각 재료별로 재고 차감
-                for (RecipeIngredient ingredient : ingredients) {
-                    // 주문 수량만큼 재료 사용량 계산
-                    BigDecimal requiredQuantity = ingredient.getQuantity()
-                        .multiply(BigDecimal.valueOf(orderItem.getQuantity()));
-                    
-                    // 재고 차감
-                    deductMaterialStock(ingredient.getMaterial().getId(), 
-                                     branchId, 
-                                     requiredQuantity);
-                }
-            }
+            // 원재료별 사용량 합계 (BOM 인덱스 사용, 레시피 조회 없음)
+            BillOfMaterials.Usage usage = explodeOrder(orderId, orderItems);
+            
+            // 재료 전체를 조건부 UPDATE 로 한 번에 차감
+            deductMaterialStocks(branchId, orderId, usage);
         }
         
-        // 재고 차감 완료 후 주문 상태를 completed로 변경
-        // 이렇게 하면 트리거가 실행되어 매출 데이터가 자동 생성됨
+        // 재고 차감 완료 후 주문 상태를 completed로 변경하고 커밋 후 매출 통계에 반영
         order.setOrderStatus(Orders.OrderStatus.completed);
         order.setCompletedTime(LocalDateTime.now());
         ordersRepository.save(order);
+        salesStatisticsService.recordCompletedOrder(orderId);
     }
 
     /**
-     * 특정 재료의 재고 차감
+     * 주문 재료 전체의 재고 차감
+     * - 가용 재고 확인과 차감을 DB 조건부 UPDATE 로 처리 (동시 주문 완료 시에도 음수 재고 없음)
+     * - 하나라도 부족하면 예외 → 트랜잭션 전체 롤백
+     * - 차감 내역은 같은 트랜잭션에서 재고 이동 이력으로 기록
      */
-    private void deductMaterialStock(Long materialId, Long branchId, BigDecimal quantity) {
-        // 해당 지점의 재고 조회
-        MaterialStock stock = materialStockRepository
-            .findByBranchIdAndMaterialId(branchId, materialId);
+    private void deductMaterialStocks(Long branchId, Long orderId, BillOfMaterials.Usage usage) {
+        List<StockMutationRepository.StockDelta> deltas = new ArrayList<>(usage.size());
+        for (int i = 0; i < usage.size(); i++) {
+            deltas.add(new StockMutationRepository.StockDelta(usage.materialId(i), usage.quantity(i)));
+        }
         
-        if (stock != null) {
-            // 재고 부족 체크
-            if (stock.getAvailableStock().compareTo(quantity) < 0) {
-                throw new RuntimeException(
-                    String.format("재고 부족: %s (필요: %s, 가용: %s)", 
-                                stock.getMaterial().getName(), 
-                                quantity, 
-                                stock.getAvailableStock())
-                );
-            }
-            
-            // 재고 변경 전 상태 저장
-            BigDecimal previousStock = stock.getCurrentStock();
-            String previousStatus = determineStockStatus(stock);
-            
-            // 현재 재고에서 차감
-            stock.setCurrentStock(stock.getCurrentStock().subtract(quantity));
-            stock.setLastUpdated(LocalDateTime.now());
-            
-            // 재고 업데이트
-            MaterialStock updatedStock = materialStockRepository.save(stock);
-            
-            // 재고 차감 시 부족 상태가 된 경우에만 웹소켓 알림 전송
-            String newStatus = determineStockStatus(updatedStock);
-            System.out.println("재고 차감 완료 - 상태 확인 중");
-            System.out.println("재고 차감 정보 - 이전: " + previousStock + ", 현재: " + updatedStock.getCurrentStock() + ", 차감량: " + quantity);
-            System.out.println("재고 상태 - 이전: " + previousStatus + ", 현재: " + newStatus);
-            
-            // 부족 상태가 된 경우에만 알림 전송
-            if ("low".equals(newStatus)) {
-                System.out.println("재고가 부족 상태가 되어 알림 전송");
-                sendStockStatusChangeNotification(updatedStock, previousStock, previousStatus, newStatus, quantity);
-            } else {
-                System.out.println("재고 상태가 정상이므로 알림 전송하지 않음");
-            }
-        } else {
-            throw new RuntimeException(
-                String.format("재고 정보를 찾을 수 없습니다: Material ID: %d, Branch ID: %d", 
-                            materialId, branchId)
-            );
+        StockMutationRepository.MutationResult result = stockJournalService.deductForOrder(branchId, orderId, deltas);
+        if (result.hasShortfall()) {
+            throw new RuntimeException(result.shortfallMessage(branchId));
+        }
+    }
+
+    /**
+     * 재고가 최소 재고 이하로 내려간 순간에만 웹소켓 알림 전송 (이미 부족 상태인 재고의 추가 차감은 알림 없음)
+     * - 재고 변경 트랜잭션 커밋 후 호출되므로 아웃박스 메모리 큐에 넘기기만 함 (저장/전송은 디스패처)
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void onStockStatusChange(StockStatusIndexService.StatusChange change) {
+        if (change.status() == MaterialStock.StockStatus.CRITICAL) {
+            sendStockStatusChangeNotification(change);
         }
     }
 
@@ -149,41 +136,44 @@ public class InventoryService {
         Orders order = orderOpt.get();
         Long branchId = order.getBranchId();
         
+        // 이미 예약된 주문은 재고가 확보된 상태
+        if (stockReservationService.hasOpenReservation(branchId, orderId)) {
+            return true;
+        }
+        
         List<OrderItems> orderItems = orderItemsRepository.findByOrderId(orderId);
+        BillOfMaterials.Usage usage = explodeOrder(orderId, orderItems);
         
-        for (OrderItems orderItem : orderItems) {
-            Optional<Recipe> recipeOpt = recipeRepository.findByMenuId(orderItem.getMenuId());
-            
-            if (recipeOpt.isPresent()) {
-                Recipe recipe = recipeOpt.get();
-                List<RecipeIngredient> ingredients = recipeIngredientRepository.findByRecipeId(recipe.getId());
-                
-                for (RecipeIngredient ingredient : ingredients) {
-                    BigDecimal requiredQuantity = ingredient.getQuantity()
-                        .multiply(BigDecimal.valueOf(orderItem.getQuantity()));
-                    
-                    if (!isMaterialStockSufficient(ingredient.getMaterial().getId(), 
-                                                 branchId, 
-                                                 requiredQuantity)) {
-                        return false;
-                    }
-                }
+        // 재료별 가용 재고(현재 - 예약)를 한 번에 조회해 비교
+        List<Long> materialIds = new ArrayList<>(usage.size());
+        for (int i = 0; i < usage.size(); i++) {
+            materialIds.add(usage.materialId(i));
+        }
+        Map<Long, BigDecimal> available = stockMutationRepository.findAvailable(branchId, materialIds);
+        
+        for (int i = 0; i < usage.size(); i++) {
+            BigDecimal availableStock = available.get(usage.materialId(i));
+            if (availableStock == null || availableStock.compareTo(usage.quantity(i)) < 0) {
+                return false;
             }
         }
         return true;
     }
 
     /**
-     * 특정 재료의 재고 충분성 체크
+     * 주문 아이템을 원재료별 사용량으로 전개
+     * - 세트 메뉴가 있을 때만 구성 요소(order_item_details)를 주문 단위로 1회 조회
      */
-    private boolean isMaterialStockSufficient(Long materialId, Long branchId, BigDecimal quantity) {
-        MaterialStock stock = materialStockRepository
-            .findByBranchIdAndMaterialId(branchId, materialId);
-        
-        if (stock != null) {
-            return stock.getAvailableStock().compareTo(quantity) >= 0;
+    private BillOfMaterials.Usage explodeOrder(Long orderId, List<OrderItems> orderItems) {
+        Map<Long, List<OrderItemDetails>> detailsByItemId = new HashMap<>();
+        boolean hasSetMenu = orderItems.stream()
+            .anyMatch(orderItem -> orderItem.getItemType() == OrderItems.ItemType.SET);
+        if (hasSetMenu) {
+            for (OrderItemDetails detail : orderItemDetailsRepository.findByOrderId(orderId)) {
+                detailsByItemId.computeIfAbsent(detail.getOrderItemId(), key -> new ArrayList<>()).add(detail);
+            }
         }
-        return false;
+        return bomIndexService.explode(orderItems, detailsByItemId);
     }
 
     /**
@@ -283,51 +273,34 @@ public class InventoryService {
         return result;
     }
     
-    // 재고 상태 판단 (부족, 정상, 과다)
-    private String determineStockStatus(MaterialStock stock) {
-        BigDecimal currentStock = stock.getCurrentStock();
-        BigDecimal minStock = stock.getMinStock();
-        BigDecimal maxStock = stock.getMaxStock();
-        
-        if (currentStock.compareTo(minStock) <= 0) {
-            return "low"; // 부족
-        } else if (currentStock.compareTo(maxStock.multiply(BigDecimal.valueOf(0.8))) >= 0) {
-            return "excess"; // 과다
-        } else {
-            return "normal"; // 정상
-        }
-    }
-    
     // 재고 상태 변경 시 웹소켓 알림 전송
-    private void sendStockStatusChangeNotification(MaterialStock stock, BigDecimal previousStock, 
-                                                  String previousStatus, String newStatus, BigDecimal deductedQuantity) {
+    private void sendStockStatusChangeNotification(StockStatusIndexService.StatusChange change) {
         try {
-            System.out.println("알림 생성 시작 - 지점 ID: " + stock.getBranch().getId());
-            
+            String previousStatus = change.previousStatus().filterName();
+            String newStatus = change.status().filterName();
+            BigDecimal deductedQuantity = change.previousStock().subtract(change.currentStock());
             NotificationDTO notification = NotificationDTO.builder()
                     .id(System.currentTimeMillis()) // 임시 ID
                     .type(NotificationDTO.TYPE_INVENTORY)
                     .category(determineNotificationCategory(newStatus))
                     .title("재고 부족 알림")
-                    .message(generateStockDeductionMessage(stock, previousStock, deductedQuantity, newStatus))
+                    .message(generateStockDeductionMessage(change, deductedQuantity))
                     .targetType(NotificationDTO.TARGET_TYPE_MATERIAL)
-                    .targetId(stock.getId())
-                    .targetName(stock.getMaterial().getName())
+                    .targetId(change.stockId())
+                    .targetName(change.materialName())
                     .targetDetail(String.format("{\"currentStock\":%s,\"previousStock\":%s,\"deductedQuantity\":%s,\"minStock\":%s,\"maxStock\":%s,\"unit\":\"%s\",\"previousStatus\":\"%s\",\"newStatus\":\"%s\"}", 
-                            stock.getCurrentStock(), previousStock, deductedQuantity, stock.getMinStock(), stock.getMaxStock(), 
-                            stock.getMaterial().getUnit(), previousStatus, newStatus))
+                            change.currentStock(), change.previousStock(), deductedQuantity, change.minStock(), change.maxStock(), 
+                            change.unit(), previousStatus, newStatus))
                     .timestamp(LocalDateTime.now())
                     .isRead(false)
-                    .branchId(stock.getBranch().getId())
+                    .branchId(change.branchId())
                     .userId(null)
                     .userName("시스템")
                     .build();
             
-            System.out.println("알림 생성 완료 - 제목: " + notification.getTitle() + ", 메시지: " + notification.getMessage());
-            
-            // 해당 지점에 웹소켓 알림 전송
-            webSocketNotificationService.sendNotificationToBranch(stock.getBranch().getId(), notification);
-            System.out.println("웹소켓 알림 전송 완료 - 지점 ID: " + stock.getBranch().getId());
+            // 같은 재고가 같은 상태로 반복 진입하면 일정 시간 안에 한 번만 알림
+            String coalesceKey = "stock:" + change.stockId() + ":" + newStatus;
+            webSocketNotificationService.sendNotificationToBranchAfterCommit(change.branchId(), notification, coalesceKey);
             
         } catch (Exception e) {
             // 알림 전송 실패는 로그만 남기고 재고 업데이트는 계속 진행
@@ -349,10 +322,9 @@ public class InventoryService {
     }
     
     // 재고 차감 메시지 생성
-    private String generateStockDeductionMessage(MaterialStock stock, BigDecimal previousStock, 
-                                               BigDecimal deductedQuantity, String newStatus) {
+    private String generateStockDeductionMessage(StockStatusIndexService.StatusChange change, BigDecimal deductedQuantity) {
         return String.format("%s 재고가 부족합니다! (현재: %s, 최소 필요: %s, 차감량: %s)", 
-                stock.getMaterial().getName(), stock.getCurrentStock(), stock.getMinStock(), deductedQuantity);
+                change.materialName(), change.currentStock(), change.minStock(), deductedQuantity);
     }
     
     // 상태 텍스트 변환
@@ -10,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,6 +20,8 @@ import java.util.stream.Collectors;
 public class MaterialStockService {
 
     private final MaterialStockRepository materialStockRepository;
+    private final StockJournalService stockJournalService;
+    private final StockStatusIndexService stockStatusIndexService;
 
     // 지점별 재고 조회 (DTO 사용)
     public List<MaterialStockDTO> getMaterialStocksByBranch(Long branchId) {
@@ -36,93 +39,62 @@ public class MaterialStockService {
                 .collect(Collectors.toList());
     }
 
-    // 재고 상태별 조회
+    // 재고 상태별 조회 (stock_status 컬럼 인덱스로 해당 상태 재고만 조회)
     public List<MaterialStockDTO> getMaterialStocksByStatus(Long branchId, String status) {
-        List<MaterialStock> allStocks = materialStockRepository.findByBranchId(branchId);
+        List<MaterialStock.StockStatus> statuses = Arrays.stream(MaterialStock.StockStatus.values())
+                .filter(stockStatus -> stockStatus.filterName().equals(status))
+                .collect(Collectors.toList());
+        if (statuses.isEmpty()) {
+            return List.of();
+        }
         
-        return allStocks.stream()
-                .filter(stock -> {
-                    String stockStatus = determineStockStatus(stock);
-                    return stockStatus.equals(status);
-                })
+        return materialStockRepository.findByBranchIdAndStockStatusIn(branchId, statuses).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
-    // 지점별 현재 재고 상태 알림 생성 (재고 알림 페이지용)
+    // 지점별 현재 재고 상태 알림 생성 (재고 알림 페이지용, 임계값 상태 인덱스의 부족/과다 재고만 사용, 최신순)
     public List<InventoryAlertDTO> generateCurrentStockAlerts(Long branchId) {
-        List<MaterialStock> materialStocks = materialStockRepository.findByBranchId(branchId);
-        List<InventoryAlertDTO> alerts = materialStocks.stream()
-                .map(this::generateAlertFromCurrentStock)
-                .filter(alert -> alert != null) // null이 아닌 알림만 필터링
-                .collect(Collectors.toList());
-        
-        // 최신 알림이 위로 오도록 정렬
-        return alerts.stream()
-                .sorted((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()))
+        return stockStatusIndexService.getOffenders(branchId).stream()
+                .map(this::generateAlert)
                 .collect(Collectors.toList());
     }
 
-    // 개별 재고로부터 현재 상태 알림 생성 (재고 알림 페이지용)
-    private InventoryAlertDTO generateAlertFromCurrentStock(MaterialStock stock) {
-        if (stock.getMaterial() == null) {
-            return null;
-        }
-
-        BigDecimal currentStock = stock.getCurrentStock();
-        BigDecimal minStock = stock.getMinStock();
-        BigDecimal maxStock = stock.getMaxStock();
-        
-        // 재고 상태에 따른 알림 생성
-        if (currentStock.compareTo(minStock) <= 0) {
-            // 위험 수준: 최소 재고 이하
-            return InventoryAlertDTO.builder()
-                    .id(stock.getId())
-                    .type(InventoryAlertDTO.TYPE_CRITICAL)
-                    .message(stock.getMaterial().getName() + " 재고가 최소 재고량 이하입니다.")
-                    .itemName(stock.getMaterial().getName())
-                    .category(stock.getMaterial().getCategory())
-                    .currentStock(currentStock)
-                    .minStock(minStock)
-                    .maxStock(maxStock)
-                    .unit(stock.getMaterial().getUnit())
-                    .timestamp(stock.getLastUpdated() != null ? stock.getLastUpdated() : LocalDateTime.now())
-                    .isRead(false)
-                    .build();
-        } else if (currentStock.compareTo(minStock.multiply(BigDecimal.valueOf(1.2))) <= 0) {
-            // 경고 수준: 최소 재고의 1.2배 이하
-            return InventoryAlertDTO.builder()
-                    .id(stock.getId())
-                    .type(InventoryAlertDTO.TYPE_WARNING)
-                    .message(stock.getMaterial().getName() + " 재고가 부족합니다.")
-                    .itemName(stock.getMaterial().getName())
-                    .category(stock.getMaterial().getCategory())
-                    .currentStock(currentStock)
-                    .minStock(minStock)
-                    .maxStock(maxStock)
-                    .unit(stock.getMaterial().getUnit())
-                    .timestamp(stock.getLastUpdated() != null ? stock.getLastUpdated() : LocalDateTime.now())
-                    .isRead(false)
-                    .build();
-        } else if (maxStock.compareTo(BigDecimal.ZERO) > 0 && 
-                   currentStock.compareTo(maxStock.multiply(BigDecimal.valueOf(0.8))) >= 0) {
-            // 과다 수준: 최대 재고의 80% 이상
-            return InventoryAlertDTO.builder()
-                    .id(stock.getId())
-                    .type(InventoryAlertDTO.TYPE_WARNING)
-                    .message(stock.getMaterial().getName() + " 재고가 과다합니다.")
-                    .itemName(stock.getMaterial().getName())
-                    .category(stock.getMaterial().getCategory())
-                    .currentStock(currentStock)
-                    .minStock(minStock)
-                    .maxStock(maxStock)
-                    .unit(stock.getMaterial().getUnit())
-                    .timestamp(stock.getLastUpdated() != null ? stock.getLastUpdated() : LocalDateTime.now())
-                    .isRead(false)
-                    .build();
+    // 임계값 상태 인덱스 항목으로 알림 생성
+    private InventoryAlertDTO generateAlert(StockStatusIndexService.Offender offender) {
+        String type;
+        String message;
+        switch (offender.status()) {
+            case CRITICAL:
+                // 위험 수준: 최소 재고 이하
+                type = InventoryAlertDTO.TYPE_CRITICAL;
+                message = offender.materialName() + " 재고가 최소 재고량 이하입니다.";
+                break;
+            case WARNING:
+                // 경고 수준: 최소 재고의 1.2배 이하
+                type = InventoryAlertDTO.TYPE_WARNING;
+                message = offender.materialName() + " 재고가 부족합니다.";
+                break;
+            default:
+                // 과다 수준: 최대 재고의 80% 이상
+                type = InventoryAlertDTO.TYPE_WARNING;
+                message = offender.materialName() + " 재고가 과다합니다.";
+                break;
         }
         
-        return null; // 정상 상태는 알림 생성하지 않음
+        return InventoryAlertDTO.builder()
+                .id(offender.stockId())
+                .type(type)
+                .message(message)
+                .itemName(offender.materialName())
+                .category(offender.materialCategory())
+                .currentStock(offender.currentStock())
+                .minStock(offender.minStock())
+                .maxStock(offender.maxStock())
+                .unit(offender.unit())
+                .timestamp(offender.lastUpdated())
+                .isRead(false)
+                .build();
     }
 
     // Entity를 DTO로 변환
@@ -151,38 +123,40 @@ public class MaterialStockService {
                 .build();
     }
 
-    // 재고 상태 판단 (부족, 정상, 과다)
-    private String determineStockStatus(MaterialStock stock) {
-        BigDecimal currentStock = stock.getCurrentStock();
-        BigDecimal minStock = stock.getMinStock();
-        BigDecimal maxStock = stock.getMaxStock();
-        
-        if (currentStock.compareTo(minStock) <= 0) {
-            return "low"; // 부족
-        } else if (currentStock.compareTo(maxStock.multiply(BigDecimal.valueOf(0.8))) >= 0) {
-            return "excess"; // 과다
-        } else {
-            return "normal"; // 정상
-        }
-    }
-
     // 재고 업데이트
     @Transactional
     public MaterialStock updateMaterialStock(Long id, MaterialStock materialStock) {
-        MaterialStock existingStock = materialStockRepository.findById(id)
+        MaterialStock existingStock = materialStockRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("재고 정보를 찾을 수 없습니다."));
+        // 요청에 없는 값은 기존 값 유지 (부분 수정)
+        BigDecimal currentStock = materialStock.getCurrentStock() != null
+                ? materialStock.getCurrentStock() : existingStock.getCurrentStock();
+        BigDecimal adjustment = currentStock.subtract(existingStock.getCurrentStock());
+        BigDecimal previousStock = existingStock.getCurrentStock();
+        MaterialStock.StockStatus previousStatus = MaterialStock.StockStatus.of(
+                existingStock.getCurrentStock(), existingStock.getMinStock(), existingStock.getMaxStock());
         
         // 재고 상태 변경 시 알림은 InventoryService에서 재고 차감 시에만 전송
         // MaterialStockService에서는 이전 상태를 저장하지 않음
         
-        existingStock.setCurrentStock(materialStock.getCurrentStock());
-        existingStock.setMinStock(materialStock.getMinStock());
-        existingStock.setMaxStock(materialStock.getMaxStock());
-        existingStock.setReservedStock(materialStock.getReservedStock());
+        existingStock.setCurrentStock(currentStock);
+        if (materialStock.getMinStock() != null) {
+            existingStock.setMinStock(materialStock.getMinStock());
+        }
+        if (materialStock.getMaxStock() != null) {
+            existingStock.setMaxStock(materialStock.getMaxStock());
+        }
+        // reserved_stock 은 주문 예약/확정/해제만 변경 (요청 값 무시)
         existingStock.setLastUpdated(LocalDateTime.now());
         
         MaterialStock updatedStock = materialStockRepository.save(existingStock);
         
+        // 현재 재고 증감분을 ADJUSTMENT 이동 이력으로 기록
+        stockJournalService.recordAdjustment(existingStock.getBranch().getId(), existingStock.getId(),
+                new StockJournalService.JournalLine(existingStock.getMaterial().getId(), adjustment,
+                        existingStock.getMaterial().getUnit(), existingStock.getMaterial().getCostPerUnit()));
+        stockStatusIndexService.onStockUpdated(previousStatus, previousStock, updatedStock);
+        
         // 재고 상태 변경 시 알림은 InventoryService에서 재고 차감 시에만 전송
         // MaterialStockService에서는 상태 변경 알림을 전송하지 않음
         
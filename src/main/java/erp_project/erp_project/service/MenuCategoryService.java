@@ -7,6 +7,8 @@ import erp_project.erp_project.repository.MenuCategoryRepository;
 import erp_project.erp_project.repository.MenuRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,7 @@ public class MenuCategoryService {
     /**
      * 모든 활성화된 카테고리 조회 (계층 구조)
      */
+    @Cacheable(value = "menuCategories", key = "'active'")
     public List<MenuCategoryResponseDto> getAllActiveCategories() {
         List<MenuCategory> topLevelCategories = menuCategoryRepository.findTopLevelCategories();
         
@@ -36,6 +39,7 @@ public class MenuCategoryService {
     /**
      * 모든 카테고리 조회 (관리자용)
      */
+    @Cacheable(value = "menuCategories", key = "'all'")
     public List<MenuCategoryResponseDto> getAllCategories() {
         List<MenuCategory> categories = menuCategoryRepository.findAllByOrderByDisplayOrderAsc();
         
@@ -47,6 +51,7 @@ public class MenuCategoryService {
     /**
      * 카테고리 ID로 조회
      */
+    @Cacheable(value = "menuCategories", key = "'id:' + #id")
     public MenuCategoryResponseDto getCategoryById(Long id) {
         MenuCategory category = menuCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("카테고리를 찾을 수 없습니다: " + id));
@@ -67,6 +72,7 @@ public class MenuCategoryService {
     /**
      * 상위 카테고리만 조회
      */
+    @Cacheable(value = "menuCategories", key = "'topLevel'")
     public List<MenuCategoryResponseDto> getTopLevelCategories() {
         List<MenuCategory> categories = menuCategoryRepository.findByParentCategoryIdIsNullAndIsActiveTrueOrderByDisplayOrderAsc();
         
@@ -78,6 +84,7 @@ public class MenuCategoryService {
     /**
      * 특정 상위 카테고리의 하위 카테고리들 조회
      */
+    @Cacheable(value = "menuCategories", key = "'sub:' + #parentId")
     public List<MenuCategoryResponseDto> getSubCategories(Long parentId) {
         List<MenuCategory> categories = menuCategoryRepository.findByParentCategoryIdAndIsActiveTrueOrderByDisplayOrderAsc(parentId);
         
@@ -101,6 +108,7 @@ public class MenuCategoryService {
      * 카테고리 생성
      */
     @Transactional
+    @CacheEvict(value = {"menuCategories", "menus", "menu"}, allEntries = true)
     public MenuCategoryResponseDto createCategory(MenuCategoryRequestDto requestDto) {
         // 카테고리명 중복 확인
         if (menuCategoryRepository.existsByName(requestDto.getName())) {
@@ -130,6 +138,7 @@ public class MenuCategoryService {
      * 카테고리 수정
      */
     @Transactional
+    @CacheEvict(value = {"menuCategories", "menus", "menu"}, allEntries = true)
     public MenuCategoryResponseDto updateCategory(Long id, MenuCategoryRequestDto requestDto) {
         MenuCategory category = menuCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("카테고리를 찾을 수 없습니다: " + id));
@@ -167,6 +176,7 @@ public class MenuCategoryService {
      * 카테고리 삭제 (실제 삭제)
      */
     @Transactional
+    @CacheEvict(value = {"menuCategories", "menus", "menu"}, allEntries = true)
     public void deleteCategory(Long id) {
         MenuCategory category = menuCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("카테고리를 찾을 수 없습니다: " + id));
@@ -191,6 +201,7 @@ public class MenuCategoryService {
      * 카테고리 순서 변경
      */
     @Transactional
+    @CacheEvict(value = {"menuCategories", "menus", "menu"}, allEntries = true)
     public void updateCategoryOrder(Long id, Integer newOrder) {
         MenuCategory category = menuCategoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("카테고리를 찾을 수 없습니다: " + id));
@@ -111,14 +111,14 @@ public class MenuService {
     
     // 메뉴 추가 - 캐시 무효화
     @Transactional
-    @CacheEvict(value = {"menus", "menu"}, allEntries = true)
+    @CacheEvict(value = {"menus", "menu", "menuCategories"}, allEntries = true)
     public Menu createMenu(Menu menu) {
         return menuRepository.save(menu);
     }
     
     // 이미지 업로드를 포함한 메뉴 추가 - 캐시 무효화
     @Transactional
-    @CacheEvict(value = {"menus", "menu"}, allEntries = true)
+    @CacheEvict(value = {"menus", "menu", "menuCategories"}, allEntries = true)
     public Menu createMenuWithImage(
             String name, String code, Long categoryId, BigDecimal price, 
             BigDecimal basePrice, Integer stock, String unit, String description, 
@@ -187,7 +187,7 @@ public class MenuService {
     
     // 메뉴 수정 - 캐시 무효화
     @Transactional
-    @CacheEvict(value = {"menus", "menu"}, allEntries = true)
+    @CacheEvict(value = {"menus", "menu", "menuCategories"}, allEntries = true)
     public Menu updateMenu(Long id, Menu menuDetails) {
         Menu menu = menuRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("메뉴를 찾을 수 없습니다: " + id));
@@ -207,7 +207,7 @@ public class MenuService {
 
     // 판매가만 수정 - 캐시 무효화
     @Transactional
-    @CacheEvict(value = {"menus", "menu"}, allEntries = true)
+    @CacheEvict(value = {"menus", "menu", "menuCategories"}, allEntries = true)
     public MenuResponseDto updateMenuPrice(Long id, BigDecimal newPrice, String reason, String updatedBy) {
         Menu menu = menuRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("메뉴를 찾을 수 없습니다: " + id));
@@ -234,7 +234,7 @@ public class MenuService {
     
     // 메뉴 수정 (이미지 업로드 포함) - 캐시 무효화
     @Transactional
-    @CacheEvict(value = {"menus", "menu"}, allEntries = true)
+    @CacheEvict(value = {"menus", "menu", "menuCategories"}, allEntries = true)
     public Menu updateMenuWithImage(Long id, String name, String description, BigDecimal price, 
                                    String category, BigDecimal basePrice, Boolean isAvailable, 
                                    Integer displayOrder, MultipartFile image) {
@@ -293,7 +293,7 @@ public class MenuService {
     
     // 메뉴 삭제 (실제 데이터베이스에서 삭제) - 캐시 무효화
     @Transactional
-    @CacheEvict(value = {"menus", "menu"}, allEntries = true)
+    @CacheEvict(value = {"menus", "menu", "menuCategories"}, allEntries = true)
     public void deleteMenu(Long id) {
         Menu menu = menuRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("메뉴를 찾을 수 없습니다: " + id));
@@ -304,7 +304,7 @@ public class MenuService {
     
     // 메뉴 가용성 토글 - 캐시 무효화
     @Transactional
-    @CacheEvict(value = {"menus", "menu"}, allEntries = true)
+    @CacheEvict(value = {"menus", "menu", "menuCategories"}, allEntries = true)
     public void toggleMenuAvailability(Long id) {
         Menu menu = menuRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("메뉴를 찾을 수 없습니다: " + id));
@@ -315,6 +315,7 @@ public class MenuService {
     
     // 메뉴 이미지 URL 업데이트
     @Transactional
+    @CacheEvict(value = {"menus", "menu", "menuCategories"}, allEntries = true)
     public Menu updateMenuImage(Long id, String imageUrl) {
         Menu menu = menuRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("메뉴를 찾을 수 없습니다: " + id));
@@ -7,8 +7,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -29,8 +32,12 @@ public class NoticeService {
     private final NoticeAttachmentRepository attachmentRepository;
     private final FileStorageService fileStorageService;
     private final TargetGroupCalculationService calculationService;
+    private final NoticeTargetMemberRepository memberRepository;
     private final BranchesRepository branchesRepository;
     private final WebSocketNotificationService webSocketNotificationService;
+    private final UnreadCounterService unreadCounterService;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
     
     /**
      * 공지사항 생성
@@ -110,6 +117,11 @@ public class NoticeService {
             fileStorageService.deleteFile(attachment.getFilePath());
         }
         
+        // 삭제될 읽지 않은 상태만큼 사용자별 카운터 감소 (커밋 후, 동시 읽음 처리로 어긋난 값은 대사에서 보정)
+        for (Object[] row : readStatusRepository.countUnreadByUserForNotice(noticeId)) {
+            unreadCounterService.noticesReadAfterCommit((Long) row[0], ((Long) row[1]).intValue());
+        }
+        
         // 관련 데이터 삭제
         attachmentRepository.deleteByNoticeId(noticeId);
         readStatusRepository.deleteByNoticeId(noticeId);
@@ -165,15 +177,7 @@ public class NoticeService {
             Long branchId,
             Pageable pageable) {
         
-        String branchName = null;
-        if (branchId != null) {
-            Optional<Branches> branch = branchesRepository.findById(branchId);
-            if (branch.isPresent()) {
-                branchName = branch.get().getBranchName();
-            }
-        }
-        
-        return noticeRepository.findNoticesWithFilters(category, status, isImportant, searchTerm, branchId, branchName, pageable);
+        return noticeRepository.findNoticesWithFilters(category, status, isImportant, searchTerm, branchId, pageable);
     }
     
     /**
@@ -195,6 +199,7 @@ public class NoticeService {
             if (!status.getIsRead()) {
                 status.markAsRead();
                 readStatusRepository.save(status);
+                unreadCounterService.noticesReadAfterCommit(userId, 1);
             }
         } else {
             NoticeReadStatus newStatus = NoticeReadStatus.builder()
@@ -210,9 +215,9 @@ public class NoticeService {
     /**
      * 사용자의 읽지 않은 공지사항 수 조회
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long getUnreadNoticeCount(Long userId) {
-        return readStatusRepository.countUnreadNoticesByUserId(userId);
+        return unreadCounterService.getNoticeUnread(userId);
     }
     
     /**
@@ -224,11 +229,12 @@ public class NoticeService {
             targetGroup.setStatus(NoticeTargetGroup.TargetGroupStatus.active);
         }
         
-        // 인원수 계산
-        int memberCount = calculationService.calculateMemberCount(targetGroup);
-        targetGroup.setMemberCount(memberCount);
+        NoticeTargetGroup savedGroup = targetGroupRepository.save(targetGroup);
+        
+        // 구성원 행 생성 + 인원수 계산 (같은 트랜잭션)
+        calculationService.materialize(savedGroup);
         
-        return targetGroupRepository.save(targetGroup);
+        return targetGroupRepository.save(savedGroup);
     }
     
     public NoticeTargetGroup updateTargetGroup(Long targetGroupId, NoticeTargetGroup targetGroup) {
@@ -241,9 +247,8 @@ public class NoticeService {
         existingGroup.setTargetPositions(targetGroup.getTargetPositions());
         existingGroup.setStatus(targetGroup.getStatus());
         
-        // 인원수 재계산
-        int memberCount = calculationService.calculateMemberCount(existingGroup);
-        existingGroup.setMemberCount(memberCount);
+        // 구성원 재구성 + 인원수 재계산
+        calculationService.materialize(existingGroup);
         
         return targetGroupRepository.save(existingGroup);
     }
@@ -251,6 +256,7 @@ public class NoticeService {
     public void deleteTargetGroup(Long targetGroupId) {
         // 관련 매핑 삭제
         mappingRepository.deleteByTargetGroupId(targetGroupId);
+        memberRepository.deleteByTargetGroupId(targetGroupId);
         targetGroupRepository.deleteById(targetGroupId);
     }
     
@@ -266,6 +272,19 @@ public class NoticeService {
         return calculationService;
     }
     
+    /**
+     * 예약 발행 / 만료 처리 주기 실행 (여러 노드 중 잠금을 얻은 1곳만)
+     * - 잠금 획득/이력 기록은 트랜잭션 밖에서, 발행/만료 처리만 트랜잭션으로 실행
+     */
+    @Scheduled(fixedDelayString = "${app.notice.schedule-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduledNoticeJob() {
+        schedulerLockService.runExclusive("notice-schedule", lease -> transactionTemplate.executeWithoutResult(status -> {
+            processScheduledNotices();
+            processExpiredNotices();
+        }));
+    }
+    
     /**
      * 예약 발행 처리 (스케줄러에서 호출)
      */
@@ -426,27 +445,24 @@ public class NoticeService {
                 return;
             }
             
-            // 각 대상 지점에 알림 전송
-            for (Long branchId : targetBranchIds) {
-                NotificationDTO notification = NotificationDTO.builder()
-                    .type(NotificationDTO.TYPE_SYSTEM)
-                    .category(notice.getIsImportant() ? NotificationDTO.CATEGORY_CRITICAL : NotificationDTO.CATEGORY_INFO)
-                    .title("새로운 공지사항이 등록되었습니다")
-                    .message(String.format("[%s] %s", notice.getCategory().getDisplayName(), notice.getTitle()))
-                    .targetType(NotificationDTO.TARGET_TYPE_SYSTEM)
-                    .targetId(notice.getId())
-                    .targetName(notice.getTitle())
-                    .targetDetail(String.format("{\"noticeId\":%d,\"category\":\"%s\",\"priority\":\"%s\",\"isImportant\":%s}", 
-                        notice.getId(), notice.getCategory(), notice.getPriority(), notice.getIsImportant()))
-                    .timestamp(LocalDateTime.now())
-                    .isRead(false)
-                    .branchId(branchId)
-                    .userId(notice.getAuthorId())
-                    .userName("본사 관리자")
-                    .build();
-                
-                webSocketNotificationService.sendNotificationToBranch(branchId, notification);
-            }
+            // 대상 지점 전체를 아웃박스에 한 번에 기록 (지점 ID 는 디스패처가 수신자별로 채움)
+            NotificationDTO notification = NotificationDTO.builder()
+                .type(NotificationDTO.TYPE_SYSTEM)
+                .category(notice.getIsImportant() ? NotificationDTO.CATEGORY_CRITICAL : NotificationDTO.CATEGORY_INFO)
+                .title("새로운 공지사항이 등록되었습니다")
+                .message(String.format("[%s] %s", notice.getCategory().getDisplayName(), notice.getTitle()))
+                .targetType(NotificationDTO.TARGET_TYPE_SYSTEM)
+                .targetId(notice.getId())
+                .targetName(notice.getTitle())
+                .targetDetail(String.format("{\"noticeId\":%d,\"category\":\"%s\",\"priority\":\"%s\",\"isImportant\":%s}", 
+                    notice.getId(), notice.getCategory(), notice.getPriority(), notice.getIsImportant()))
+                .timestamp(LocalDateTime.now())
+                .isRead(false)
+                .userId(notice.getAuthorId())
+                .userName("본사 관리자")
+                .build();
+            
+            webSocketNotificationService.sendNotificationToBranches(targetBranchIds, notification);
             
             log.info("공지사항 알림 전송 완료: 공지사항 ID={}, 대상 지점 수={}", notice.getId(), targetBranchIds.size());
             
@@ -456,48 +472,16 @@ public class NoticeService {
     }
     
     /**
-     * 대상 그룹에서 지점 ID 목록 추출
+     * 대상 그룹에서 지점 ID 목록 추출 (구성원 테이블 조회)
      */
     private List<Long> getTargetBranchIdsFromGroups(List<Long> targetGroupIds) {
-        List<Long> branchIds = new java.util.ArrayList<>();
-        
-        for (Long groupId : targetGroupIds) {
-            Optional<NoticeTargetGroup> groupOpt = targetGroupRepository.findById(groupId);
-            if (groupOpt.isPresent()) {
-                NoticeTargetGroup group = groupOpt.get();
-                
-                // 그룹의 대상 지점 정보 파싱
-                String targetBranches = group.getTargetBranches();
-                if (targetBranches != null && !targetBranches.isEmpty() && !targetBranches.equals("[]")) {
-                    try {
-                        // JSON 배열 파싱 (간단한 파싱)
-                        String[] branchNames = targetBranches.replace("[", "").replace("]", "").replace("\"", "").split(",");
-                        for (String branchName : branchNames) {
-                            branchName = branchName.trim();
-                            if (!branchName.isEmpty()) {
-                                // 지점명으로 지점 ID 조회
-                                Optional<Branches> branch = branchesRepository.findByBranchNameAndStatus(
-                                    branchName, Branches.BranchStatus.active);
-                                if (branch.isPresent()) {
-                                    branchIds.add(branch.get().getId());
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        log.warn("대상 그룹의 지점 정보 파싱 실패: groupId={}, targetBranches={}", groupId, targetBranches);
-                    }
-                } else {
-                    // 전체 지점 대상인 경우 모든 활성 지점 조회
-                    List<Branches> allBranches = branchesRepository.findByStatusAndBranchTypeNot(
-                        Branches.BranchStatus.active, Branches.BranchType.headquarters);
-                    for (Branches branch : allBranches) {
-                        branchIds.add(branch.getId());
-                    }
-                }
-            }
+        // 전체 지점 대상 그룹이 하나라도 있으면 본사를 제외한 모든 활성 지점
+        if (memberRepository.existsByTargetGroupIdInAndBranchIdIsNull(targetGroupIds)) {
+            return branchesRepository.findByStatusAndBranchTypeNot(
+                    Branches.BranchStatus.active, Branches.BranchType.headquarters).stream()
+                .map(Branches::getId)
+                .collect(java.util.stream.Collectors.toList());
         }
-        
-        // 중복 제거
-        return branchIds.stream().distinct().collect(java.util.stream.Collectors.toList());
+        return memberRepository.findActiveBranchIdsByTargetGroupIds(targetGroupIds);
     }
 }
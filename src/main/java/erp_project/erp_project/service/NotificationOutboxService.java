@@ -0,0 +1,495 @@
+package erp_project.erp_project.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erp_project.erp_project.dto.NotificationDTO;
+import erp_project.erp_project.util.LatencyRecorder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 알림 트랜잭션 아웃박스
+ * - enqueue: 호출 측 트랜잭션 안에서 notification_outbox 에 INSERT 만 하고, 커밋 후 디스패처를 깨움
+ * - enqueueAfterCommit: 커밋 이후에 판단되는 알림(재고 상태 변화)은 메모리 큐로 넘기고 디스패처가 아웃박스에 기록
+ *   (요청 스레드는 DB/웹소켓 I/O 없음)
+ * - 디스패처(단일 스레드)는 묶음 단위로 행을 선점 → 중복 병합 → notifications 에 multi-row INSERT + 아웃박스 삭제를
+ *   한 트랜잭션으로 처리하고, 커밋 후 웹소켓 전송
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOutboxService {
+
+    private static final String INSERT_OUTBOX_PREFIX =
+        "INSERT INTO notification_outbox (recipient_type, recipient_id, payload, coalesce_key, attempts, created_at) VALUES ";
+    private static final String INSERT_OUTBOX_ROW = "(?, ?, ?, ?, 0, ?)";
+
+    // 선점할 때 attempts 증가, max-attempts 에 도달한 행은 더 이상 가져가지 않음 (확인용으로 남김)
+    private static final String CLAIM_SQL =
+        "UPDATE notification_outbox SET claim_token = ?, claimed_until = NOW(3) + INTERVAL ? MICROSECOND, " +
+        "attempts = attempts + 1 " +
+        "WHERE (claimed_until IS NULL OR claimed_until <= NOW(3)) AND attempts < ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_CLAIMED_SQL =
+        "SELECT id, recipient_type, recipient_id, payload, coalesce_key FROM notification_outbox " +
+        "WHERE claim_token = ? ORDER BY id";
+
+    private static final String DELETE_CLAIMED_SQL = "DELETE FROM notification_outbox WHERE claim_token = ?";
+
+    private static final String INSERT_NOTIFICATIONS_PREFIX =
+        "INSERT INTO notifications (recipient_type, recipient_id, type, category, title, message, target_type, " +
+        "target_id, target_name, target_detail, `timestamp`, is_read, coalesce_key, created_at) VALUES ";
+    private static final String INSERT_NOTIFICATIONS_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE, ?, ?)";
+
+    private static final String OUTBOX_STATUS_SQL =
+        "SELECT COUNT(*) AS pending, COALESCE(SUM(attempts >= ?), 0) AS exhausted, MIN(created_at) AS oldest " +
+        "FROM notification_outbox";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final UnreadCounterService unreadCounterService;
+
+    @Value("${app.notification.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.notification.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMillis;
+
+    @Value("${app.notification.outbox.claim-timeout-ms:30000}")
+    private long claimTimeoutMillis;
+
+    @Value("${app.notification.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.notification.outbox.coalesce-window-seconds:300}")
+    private long coalesceWindowSeconds;
+
+    @Value("${app.notification.outbox.memory-queue-capacity:10000}")
+    private int memoryQueueCapacity;
+
+    private final LinkedBlockingQueue<OutboxEntry> memoryQueue = new LinkedBlockingQueue<>();
+    private final Semaphore wakeUps = new Semaphore(0);
+    private volatile boolean running;
+    private volatile Thread dispatcher;
+
+    private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private final LongAdder fencedOut = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * 호출 측 트랜잭션에 아웃박스 행 기록 (트랜잭션이 롤백되면 알림도 없음)
+     */
+    public void enqueue(OutboxEntry entry) {
+        enqueue(List.of(entry));
+    }
+
+    public void enqueue(List<OutboxEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        insertOutbox(entries);
+        enqueued.add(entries.size());
+        wakeUpAfterCommit();
+    }
+
+    /**
+     * 커밋 이후 파생된 알림을 메모리 큐로 넘김 (디스패처가 아웃박스에 기록)
+     * - 큐가 가득 차면 버리고 dropped 증가
+     */
+    public void enqueueAfterCommit(OutboxEntry entry) {
+        if (memoryQueue.size() >= memoryQueueCapacity) {
+            dropped.increment();
+            log.warn("알림 메모리 큐 초과로 알림 폐기: recipient={}:{}, title={}",
+                entry.recipientType(), entry.recipientId(), entry.notification().getTitle());
+            return;
+        }
+        memoryQueue.add(entry);
+        enqueued.increment();
+        wakeUp();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::runDispatcher, "notification-outbox-dispatcher");
+        thread.setDaemon(true);
+        dispatcher = thread;
+        thread.start();
+        log.info("알림 아웃박스 디스패처 시작: batchSize={}, pollIntervalMs={}", batchSize, pollIntervalMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        Thread thread = dispatcher;
+        if (thread != null) {
+            wakeUp();
+            try {
+                thread.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 남은 메모리 큐는 아웃박스에 남겨 다음 기동(또는 다른 노드)에서 전송
+        try {
+            flushMemoryQueue();
+        } catch (Exception e) {
+            log.error("종료 시 알림 메모리 큐 기록 실패: 남은 건수={}", memoryQueue.size(), e);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enqueued", enqueued.sum());
+        metrics.put("memoryQueued", memoryQueue.size());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("dispatched", dispatched.sum());
+        metrics.put("coalesced", coalesced.sum());
+        metrics.put("invalid", invalid.sum());
+        metrics.put("fencedOut", fencedOut.sum());
+        metrics.put("sendFailures", sendFailures.sum());
+        metrics.put("failures", failures.sum());
+        metrics.put("outbox", jdbcTemplate.queryForMap(OUTBOX_STATUS_SQL, maxAttempts));
+        metrics.put("stages", latencyRecorder.snapshot());
+        return metrics;
+    }
+
+    private void runDispatcher() {
+        while (running) {
+            try {
+                int claimed = dispatchBatch();
+                if (claimed < batchSize) {
+                    wakeUps.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                    wakeUps.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failures.increment();
+                log.error("알림 아웃박스 디스패치 실패", e);
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 아웃박스 한 묶음 처리
+     * @return 선점한 행 수 (batchSize 와 같으면 바로 다음 묶음 처리)
+     */
+    int dispatchBatch() {
+        flushMemoryQueue();
+
+        String token = UUID.randomUUID().toString();
+        int claimed = jdbcTemplate.update(CLAIM_SQL, token, claimTimeoutMillis * 1000, maxAttempts, batchSize);
+        if (claimed == 0) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<ClaimedRow> rows = jdbcTemplate.query(SELECT_CLAIMED_SQL, (rs, rowNum) -> new ClaimedRow(
+            rs.getLong("id"), rs.getString("recipient_type"), rs.getObject("recipient_id", Long.class),
+            rs.getString("payload"), rs.getString("coalesce_key")), token);
+
+        List<ClaimedRow> valid = new ArrayList<>(rows.size());
+        for (ClaimedRow row : rows) {
+            if (row.parse(objectMapper)) {
+                valid.add(row);
+            } else {
+                invalid.increment();
+            }
+        }
+        List<ClaimedRow> kept = coalesce(valid);
+        coalesced.add(valid.size() - kept.size());
+
+        Boolean committed = transactionTemplate.execute(status -> {
+            insertNotifications(kept);
+            int deleted = jdbcTemplate.update(DELETE_CLAIMED_SQL, token);
+            if (deleted != rows.size()) {
+                // 선점이 만료되어 다른 디스패처가 가져간 행이 있음 → 이 묶음은 버리고 그쪽 처리에 맡김
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        });
+        latencyRecorder.record("persist", System.nanoTime() - start);
+        if (!Boolean.TRUE.equals(committed)) {
+            fencedOut.add(rows.size());
+            log.warn("알림 아웃박스 선점 만료로 묶음 롤백: claimed={}, token={}", rows.size(), token);
+            return claimed;
+        }
+
+        long sendStart = System.nanoTime();
+        for (ClaimedRow row : kept) {
+            try {
+                messagingTemplate.convertAndSend(
+                    WebSocketNotificationService.destinationFor(row.recipientType, row.recipientId), row.notification);
+            } catch (Exception e) {
+                // DB 에는 저장됐으므로 목록 조회로 확인 가능, 재전송하지 않음
+                sendFailures.increment();
+                log.warn("알림 웹소켓 전송 실패: notificationId={}, 오류={}", row.notification.getId(), e.getMessage());
+            }
+        }
+        latencyRecorder.record("send", System.nanoTime() - sendStart);
+
+        // 수신자별 읽지 않은 건수 카운터 증가 + 새 건수 푸시
+        Map<String, Integer> addedByRecipient = new LinkedHashMap<>();
+        Map<String, ClaimedRow> recipientRows = new HashMap<>();
+        for (ClaimedRow row : kept) {
+            String recipient = row.recipientType + ":" + row.recipientId;
+            addedByRecipient.merge(recipient, 1, Integer::sum);
+            recipientRows.putIfAbsent(recipient, row);
+        }
+        addedByRecipient.forEach((recipient, added) -> {
+            ClaimedRow row = recipientRows.get(recipient);
+            unreadCounterService.notificationsAdded(row.recipientType, row.recipientId, added);
+        });
+        dispatched.add(kept.size());
+        log.debug("알림 아웃박스 처리: claimed={}, saved={}, coalesced={}", rows.size(), kept.size(), valid.size() - kept.size());
+        return claimed;
+    }
+
+    /**
+     * 같은 coalesce_key 는 묶음 안에서 마지막 1건만 남기고,
+     * 최근 coalesce-window 안에 이미 저장된 키는 모두 제외
+     */
+    private List<ClaimedRow> coalesce(List<ClaimedRow> rows) {
+        Map<String, ClaimedRow> latestByKey = new HashMap<>();
+        for (ClaimedRow row : rows) {
+            if (row.coalesceKey != null) {
+                latestByKey.put(row.coalesceKey, row);
+            }
+        }
+        if (latestByKey.isEmpty()) {
+            return rows;
+        }
+        Set<String> recent = findRecentlyNotified(latestByKey.keySet());
+        List<ClaimedRow> kept = new ArrayList<>(rows.size());
+        for (ClaimedRow row : rows) {
+            if (row.coalesceKey == null
+                    || (latestByKey.get(row.coalesceKey) == row && !recent.contains(row.coalesceKey))) {
+                kept.add(row);
+            }
+        }
+        return kept;
+    }
+
+    private Set<String> findRecentlyNotified(Set<String> keys) {
+        if (coalesceWindowSeconds <= 0) {
+            return Set.of();
+        }
+        String sql = "SELECT DISTINCT coalesce_key FROM notifications WHERE coalesce_key IN (" +
+            String.join(", ", Collections.nCopies(keys.size(), "?")) + ") AND `timestamp` >= ?";
+        List<Object> args = new ArrayList<>(keys);
+        args.add(Timestamp.valueOf(LocalDateTime.now().minusSeconds(coalesceWindowSeconds)));
+        return new HashSet<>(jdbcTemplate.queryForList(sql, String.class, args.toArray()));
+    }
+
+    /**
+     * InnoDB는 단일 multi-row INSERT의 AUTO_INCREMENT 값을 연속으로 할당하므로
+     * 드라이버가 돌려주는 키 목록을 행 순서대로 매핑해 웹소켓 전송 시 실제 알림 ID 사용
+     */
+    private void insertNotifications(List<ClaimedRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        String sql = INSERT_NOTIFICATIONS_PREFIX + String.join(", ", Collections.nCopies(rows.size(), INSERT_NOTIFICATIONS_ROW));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            int idx = 1;
+            for (ClaimedRow row : rows) {
+                NotificationDTO n = row.notification;
+                ps.setString(idx++, row.recipientType);
+                ps.setObject(idx++, row.recipientId);
+                ps.setString(idx++, n.getType());
+                ps.setString(idx++, n.getCategory());
+                ps.setString(idx++, n.getTitle());
+                ps.setString(idx++, n.getMessage());
+                ps.setString(idx++, n.getTargetType());
+                ps.setObject(idx++, n.getTargetId());
+                ps.setString(idx++, n.getTargetName());
+                ps.setString(idx++, n.getTargetDetail());
+                ps.setTimestamp(idx++, Timestamp.valueOf(n.getTimestamp()));
+                ps.setString(idx++, row.coalesceKey);
+                ps.setTimestamp(idx++, now);
+            }
+            return ps;
+        }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != rows.size()) {
+            throw new IllegalStateException("생성된 알림 키 수가 일치하지 않습니다: expected="
+                + rows.size() + ", actual=" + keys.size());
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            Number key = (Number) keys.get(i).values().iterator().next();
+            rows.get(i).notification.setId(key.longValue());
+        }
+    }
+
+    private void insertOutbox(List<OutboxEntry> entries) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<OutboxEntry> chunk = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            List<String> payloads = new ArrayList<>(chunk.size());
+            for (OutboxEntry entry : chunk) {
+                try {
+                    payloads.add(objectMapper.writeValueAsString(entry.notification()));
+                } catch (Exception e) {
+                    throw new IllegalArgumentException("알림 직렬화 실패: " + entry.notification().getTitle(), e);
+                }
+            }
+            String sql = INSERT_OUTBOX_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), INSERT_OUTBOX_ROW));
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                int idx = 1;
+                for (int i = 0; i < chunk.size(); i++) {
+                    OutboxEntry entry = chunk.get(i);
+                    ps.setString(idx++, entry.recipientType());
+                    ps.setObject(idx++, entry.recipientId());
+                    ps.setString(idx++, payloads.get(i));
+                    ps.setString(idx++, entry.coalesceKey());
+                    ps.setTimestamp(idx++, now);
+                }
+                return ps;
+            });
+        }
+    }
+
+    private void flushMemoryQueue() {
+        while (!memoryQueue.isEmpty()) {
+            List<OutboxEntry> drained = new ArrayList<>(batchSize);
+            memoryQueue.drainTo(drained, batchSize);
+            if (drained.isEmpty()) {
+                return;
+            }
+            try {
+                insertOutbox(drained);
+            } catch (RuntimeException e) {
+                // 다음 주기에 다시 시도 (순서는 뒤로 밀림)
+                memoryQueue.addAll(drained);
+                throw e;
+            }
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private void wakeUpAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wakeUp();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUp();
+            }
+        });
+    }
+
+    private void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    /**
+     * 아웃박스에 넣을 알림 1건
+     * @param coalesceKey 같은 키의 알림은 coalesce-window 안에 한 번만 저장 (null 이면 병합 안 함)
+     */
+    public record OutboxEntry(String recipientType, Long recipientId, NotificationDTO notification, String coalesceKey) {}
+
+    private static final class ClaimedRow {
+        private final long id;
+        private final String recipientType;
+        private final Long recipientId;
+        private final String payload;
+        private final String coalesceKey;
+        private NotificationDTO notification;
+
+        private ClaimedRow(long id, String recipientType, Long recipientId, String payload, String coalesceKey) {
+            this.id = id;
+            this.recipientType = recipientType;
+            this.recipientId = recipientId;
+            this.payload = payload;
+            this.coalesceKey = coalesceKey;
+        }
+
+        /**
+         * 필수 항목이 없는 알림은 매번 INSERT 를 실패시키므로 버림
+         */
+        private boolean parse(ObjectMapper objectMapper) {
+            try {
+                NotificationDTO parsed = objectMapper.readValue(payload, NotificationDTO.class);
+                if (parsed.getType() == null || parsed.getCategory() == null
+                        || parsed.getTitle() == null || parsed.getMessage() == null) {
+                    log.warn("필수 항목이 없는 알림 폐기: outboxId={}", id);
+                    return false;
+                }
+                parsed.setTitle(truncate(parsed.getTitle(), 200));
+                parsed.setMessage(truncate(parsed.getMessage(), 1000));
+                parsed.setTargetName(truncate(parsed.getTargetName(), 200));
+                parsed.setRecipientType(recipientType);
+                parsed.setRecipientId(recipientId);
+                if (NotificationService.RECIPIENT_TYPE_BRANCH.equals(recipientType)) {
+                    parsed.setBranchId(recipientId);
+                }
+                parsed.setRead(false);
+                if (parsed.getTimestamp() == null) {
+                    parsed.setTimestamp(LocalDateTime.now());
+                }
+                notification = parsed;
+                return true;
+            } catch (Exception e) {
+                log.warn("알림 페이로드 해석 실패로 폐기: outboxId={}, 오류={}", id, e.getMessage());
+                return false;
+            }
+        }
+    }
+}
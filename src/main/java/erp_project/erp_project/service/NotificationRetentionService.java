@@ -0,0 +1,161 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.repository.NotificationQueryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * 알림 보존 기간 정리
+ * - 읽은 알림은 read-days, 읽지 않은 알림까지 포함한 전체는 days 가 지나면 삭제
+ * - 오래된 순으로 batch-size 건씩 별도 트랜잭션으로 삭제, 묶음 사이에 쉬어서 피드 조회/알림 저장과 잠금 경합을 줄임
+ * - 읽지 않은 알림을 지우면 커밋 후 수신자별 읽지 않은 건수 카운터 감소
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRetentionService {
+
+    private final NotificationQueryRepository notificationQueryRepository;
+    private final UnreadCounterService unreadCounterService;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.notification.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notification.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${app.notification.retention.read-days:30}")
+    private int readRetentionDays;
+
+    @Value("${app.notification.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.notification.retention.batch-pause-ms:50}")
+    private long batchPauseMs;
+
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    /**
+     * 매일 새벽 3시 30분 실행 (여러 노드 중 잠금을 얻은 1곳만)
+     */
+    @Scheduled(cron = "${app.notification.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (!enabled) {
+            return;
+        }
+        schedulerLockService.runExclusive("notification-retention", this::purge);
+    }
+
+    /**
+     * 수동 실행 (스케줄 실행과 같은 잠금을 얻은 경우에만, 다른 노드에서 실행 중이면 예외)
+     */
+    public Map<String, Object> purge() {
+        AtomicReference<Map<String, Object>> result = new AtomicReference<>();
+        if (!schedulerLockService.runExclusive("notification-retention", lease -> result.set(purge(lease)))) {
+            throw new IllegalStateException("알림 보존 기간 정리가 이미 실행 중입니다");
+        }
+        if (result.get() == null) {
+            throw new RuntimeException("알림 보존 기간 정리 실패 (스케줄 작업 이력 참고)");
+        }
+        return result.get();
+    }
+
+    private Map<String, Object> purge(SchedulerLockService.JobLease lease) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        PurgeResult read = purgeBefore(today.minusDays(readRetentionDays).atStartOfDay(), true, lease);
+        PurgeResult all = read.interrupted() ? PurgeResult.EMPTY
+            : purgeBefore(today.minusDays(retentionDays).atStartOfDay(), false, lease);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("startedAt", startedAt);
+        result.put("deletedRead", read.deleted());
+        result.put("deletedAll", all.deleted());
+        result.put("deletedUnread", read.unread() + all.unread());
+        result.put("batches", read.batches() + all.batches());
+        result.put("interrupted", read.interrupted() || all.interrupted());
+        result.put("elapsedMs", System.currentTimeMillis() - started);
+        lastRun = result;
+        log.info("알림 보존 기간 정리 완료: {}", result);
+        return result;
+    }
+
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+
+    private PurgeResult purgeBefore(LocalDateTime cutoff, boolean readOnly, SchedulerLockService.JobLease lease) {
+        long deleted = 0;
+        long unread = 0;
+        int batches = 0;
+        while (true) {
+            if (!lease.isValid()) {
+                log.warn("알림 정리 잠금을 잃어 중단합니다: cutoff={}, readOnly={}", cutoff, readOnly);
+                return new PurgeResult(deleted, unread, batches, true);
+            }
+            int[] counts = transactionTemplate.execute(status -> deleteBatch(cutoff, readOnly, lease));
+            if (counts == null || counts[0] == 0) {
+                return new PurgeResult(deleted, unread, batches, false);
+            }
+            deleted += counts[0];
+            unread += counts[1];
+            batches++;
+            if (counts[0] < batchSize) {
+                return new PurgeResult(deleted, unread, batches, false);
+            }
+            if (batchPauseMs > 0) {
+                try {
+                    Thread.sleep(batchPauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new PurgeResult(deleted, unread, batches, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {삭제 행 수, 그중 읽지 않은 알림 수}
+     */
+    private int[] deleteBatch(LocalDateTime cutoff, boolean readOnly, SchedulerLockService.JobLease lease) {
+        List<NotificationQueryRepository.PurgeCandidate> candidates =
+            notificationQueryRepository.findPurgeCandidates(cutoff, readOnly, batchSize);
+        if (candidates.isEmpty()) {
+            return new int[] {0, 0};
+        }
+        lease.checkFence();
+        int deleted = notificationQueryRepository.deleteByIds(
+            candidates.stream().map(NotificationQueryRepository.PurgeCandidate::id).toList());
+
+        // 읽지 않은 알림은 수신자별로 묶어 카운터 감소 (다른 트랜잭션이 먼저 지운 행은 대사에서 보정)
+        Map<Recipient, Long> unreadByRecipient = candidates.stream()
+            .filter(candidate -> !candidate.isRead())
+            .collect(Collectors.groupingBy(
+                candidate -> new Recipient(candidate.recipientType(), candidate.recipientId()), Collectors.counting()));
+        unreadByRecipient.forEach((recipient, count) -> unreadCounterService.adjustNotificationsAfterCommit(
+            recipient.type(), recipient.id(), -count.intValue()));
+        int unread = unreadByRecipient.values().stream().mapToInt(Long::intValue).sum();
+        return new int[] {deleted, unread};
+    }
+
+    private record Recipient(String type, Long id) {}
+
+    private record PurgeResult(long deleted, long unread, int batches, boolean interrupted) {
+        static final PurgeResult EMPTY = new PurgeResult(0, 0, 0, false);
+    }
+}
@@ -3,15 +3,18 @@ package erp_project.erp_project.service;
 import erp_project.erp_project.dto.NotificationDTO;
 import erp_project.erp_project.dto.InventoryAlertDTO;
 import erp_project.erp_project.entity.Notification;
+import erp_project.erp_project.repository.NotificationQueryRepository;
 import erp_project.erp_project.repository.NotificationRepository;
 import erp_project.erp_project.service.MaterialStockService;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -27,27 +30,33 @@ public class NotificationService {
 
     private final MaterialStockService materialStockService;
     private final NotificationRepository notificationRepository;
+    private final UnreadCounterService unreadCounterService;
+    private final NotificationQueryRepository notificationQueryRepository;
+    
+    // 목록형(커서 없는) 조회가 반환하는 최대 건수 - 전체 이력은 피드 API 로 이어서 조회
+    @Value("${app.notification.feed.list-limit:1000}")
+    private int listLimit;
     
     // 상수 정의
     public static final String RECIPIENT_TYPE_HEADQUARTERS = "HEADQUARTERS";
     public static final String RECIPIENT_TYPE_BRANCH = "BRANCH";
 
-    // 지점별 모든 알림 조회 (실제 알림 데이터만) - 기존 메서드 (호환성 유지)
+    // 지점별 모든 알림 조회 (최근 listLimit 건) - 기존 메서드 (호환성 유지)
     public List<NotificationDTO> getAllNotificationsByBranch(Long branchId) {
-        return getAllNotificationsByBranch(branchId, 0, Integer.MAX_VALUE);
+        return getRecent(RECIPIENT_TYPE_BRANCH, branchId, NotificationQueryRepository.FeedFilter.ALL);
     }
     
-    // 지점별 모든 알림 조회 (페이징 지원)
+    // 지점별 모든 알림 조회 (페이징 지원, 전체 개수 COUNT 없이 Slice 조회)
     public List<NotificationDTO> getAllNotificationsByBranch(Long branchId, int page, int size) {
         // 데이터베이스에서 저장된 실제 알림만 조회 (페이징)
         Pageable pageable = PageRequest.of(page, size);
-        Page<Notification> notificationPage = notificationRepository
+        Slice<Notification> notificationPage = notificationRepository
                 .findByRecipientTypeAndRecipientIdOrderByTimestampDesc(RECIPIENT_TYPE_BRANCH, branchId, pageable);
         
         List<Notification> dbNotifications = notificationPage.getContent();
         
         System.out.println("알림 조회 - 지점 ID: " + branchId + ", 페이지: " + page + ", 크기: " + size + 
-                         ", 조회된 알림 개수: " + dbNotifications.size() + ", 전체 개수: " + notificationPage.getTotalElements());
+                         ", 조회된 알림 개수: " + dbNotifications.size() + ", 다음 페이지: " + notificationPage.hasNext());
         
         return dbNotifications.stream()
                 .map(this::convertToDTO)
@@ -57,7 +66,7 @@ public class NotificationService {
     // 본사별 모든 알림 조회 (페이징 지원)
     public List<NotificationDTO> getAllNotificationsByHeadquarters(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("timestamp").descending());
-        Page<Notification> notificationPage = notificationRepository
+        Slice<Notification> notificationPage = notificationRepository
                 .findByRecipientTypeOrderByTimestampDesc(RECIPIENT_TYPE_HEADQUARTERS, pageable);
         
         return notificationPage.getContent().stream()
@@ -65,12 +74,49 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
     
-    // 본사별 모든 알림 조회 (페이징 없음 - 기존 호환성)
+    // 본사별 모든 알림 조회 (페이징 없음 - 기존 호환성, 최근 listLimit 건)
     public List<NotificationDTO> getAllNotificationsByHeadquarters() {
-        List<Notification> dbNotifications = notificationRepository
-                .findByRecipientTypeOrderByTimestampDesc(RECIPIENT_TYPE_HEADQUARTERS);
-        return dbNotifications.stream()
-                .map(this::convertToDTO)
+        return getRecent(RECIPIENT_TYPE_HEADQUARTERS, null, NotificationQueryRepository.FeedFilter.ALL);
+    }
+    
+    /**
+     * 알림 피드 (timestamp, id 키셋 페이지네이션, 필터는 SQL 조건으로 처리)
+     * @param recipientId 지점 ID (본사는 null)
+     * @param after       이전 페이지의 nextCursor (첫 페이지는 null)
+     */
+    public NotificationQueryRepository.FeedPage getFeed(String recipientType, Long recipientId,
+                                                         NotificationQueryRepository.FeedFilter filter,
+                                                         NotificationQueryRepository.Cursor after, int limit) {
+        return notificationQueryRepository.findPage(recipientType, recipientId, filter, after, limit);
+    }
+    
+    // 피드 행을 DTO로 변환
+    public NotificationDTO toDTO(NotificationQueryRepository.FeedRow row) {
+        return NotificationDTO.builder()
+                .id(row.id())
+                .recipientType(row.recipientType())
+                .recipientId(row.recipientId())
+                .type(row.type())
+                .category(row.category())
+                .title(row.title())
+                .message(row.message())
+                .targetType(row.targetType())
+                .targetId(row.targetId())
+                .targetName(row.targetName())
+                .targetDetail(row.targetDetail())
+                .timestamp(row.timestamp())
+                .isRead(row.isRead())
+                .readAt(row.readAt())
+                .branchId(row.recipientId()) // 호환성을 위해
+                .userId(null)
+                .userName("시스템")
+                .build();
+    }
+    
+    private List<NotificationDTO> getRecent(String recipientType, Long recipientId,
+                                            NotificationQueryRepository.FeedFilter filter) {
+        return notificationQueryRepository.findPage(recipientType, recipientId, filter, null, listLimit).rows().stream()
+                .map(this::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -126,30 +172,25 @@ public class NotificationService {
         System.out.println("알림 저장 시작 - 제목: " + notification.getTitle() + ", isRead: " + notification.getIsRead());
         Notification savedNotification = notificationRepository.save(notification);
         System.out.println("알림 저장 완료 - ID: " + savedNotification.getId() + ", isRead: " + savedNotification.getIsRead());
+        unreadCounterService.adjustNotificationsAfterCommit(
+                savedNotification.getRecipientType(), savedNotification.getRecipientId(), 1);
         
         return savedNotification;
     }
     
-    // 알림 읽음 처리
+    // 알림 읽음 처리 (읽지 않은 알림이었으면 수신자 카운터 감소)
     @Transactional
     public void markNotificationAsRead(Long notificationId) {
         System.out.println("알림 읽음 처리 시작 - 알림 ID: " + notificationId);
         try {
-            // 읽음 처리 전 상태 확인
-            Optional<Notification> beforeNotification = notificationRepository.findById(notificationId);
-            if (beforeNotification.isPresent()) {
-                System.out.println("읽음 처리 전 - 알림 ID: " + notificationId + ", isRead: " + beforeNotification.get().getIsRead());
+            Optional<Notification> notification = notificationRepository.findById(notificationId);
+            if (notification.isEmpty()) {
+                return;
             }
             
-            notificationRepository.markAsRead(notificationId, LocalDateTime.now());
-            
-            // 읽음 처리 후 상태 확인
-            Optional<Notification> afterNotification = notificationRepository.findById(notificationId);
-            if (afterNotification.isPresent()) {
-                System.out.println("읽음 처리 후 - 알림 ID: " + notificationId + ", isRead: " + afterNotification.get().getIsRead());
-            }
-            
-            System.out.println("알림 읽음 처리 완료 - 알림 ID: " + notificationId);
+            int updated = notificationRepository.markAsRead(notificationId, LocalDateTime.now());
+            unreadCounterService.adjustNotificationsAfterCommit(
+                    notification.get().getRecipientType(), notification.get().getRecipientId(), -updated);
         } catch (Exception e) {
             System.out.println("알림 읽음 처리 실패 - 알림 ID: " + notificationId + ", 오류: " + e.getMessage());
             throw e;
@@ -161,7 +202,8 @@ public class NotificationService {
     public void markAllNotificationsAsRead(Long branchId) {
         System.out.println("모든 알림 읽음 처리 시작 - 지점 ID: " + branchId);
         try {
-            notificationRepository.markAllAsRead(RECIPIENT_TYPE_BRANCH, branchId, LocalDateTime.now());
+            int updated = notificationRepository.markAllAsRead(RECIPIENT_TYPE_BRANCH, branchId, LocalDateTime.now());
+            unreadCounterService.adjustNotificationsAfterCommit(RECIPIENT_TYPE_BRANCH, branchId, -updated);
             System.out.println("모든 알림 읽음 처리 완료 - 지점 ID: " + branchId);
         } catch (Exception e) {
             System.out.println("모든 알림 읽음 처리 실패 - 지점 ID: " + branchId + ", 오류: " + e.getMessage());
@@ -172,51 +214,40 @@ public class NotificationService {
     // 본사의 모든 알림 읽음 처리
     @Transactional
     public void markAllNotificationsAsReadForHeadquarters() {
-        notificationRepository.markAllAsReadForHeadquarters(RECIPIENT_TYPE_HEADQUARTERS, LocalDateTime.now());
+        int updated = notificationRepository.markAllAsReadForHeadquarters(RECIPIENT_TYPE_HEADQUARTERS, LocalDateTime.now());
+        unreadCounterService.adjustNotificationsAfterCommit(RECIPIENT_TYPE_HEADQUARTERS, null, -updated);
     }
 
-    // 알림 타입별 필터링
+    // 알림 타입별 필터링 (SQL 조건 + 복합 인덱스)
     public List<NotificationDTO> getNotificationsByType(Long branchId, String type) {
-        List<NotificationDTO> allNotifications = getAllNotificationsByBranch(branchId);
-        return allNotifications.stream()
-                .filter(notification -> notification.getType().equals(type))
-                .collect(Collectors.toList());
+        return getRecent(RECIPIENT_TYPE_BRANCH, branchId, new NotificationQueryRepository.FeedFilter(type, null, false));
     }
 
-    // 알림 카테고리별 필터링
+    // 알림 카테고리별 필터링 (SQL 조건 + 복합 인덱스)
     public List<NotificationDTO> getNotificationsByCategory(Long branchId, String category) {
-        List<NotificationDTO> allNotifications = getAllNotificationsByBranch(branchId);
-        return allNotifications.stream()
-                .filter(notification -> notification.getCategory().equals(category))
-                .collect(Collectors.toList());
+        return getRecent(RECIPIENT_TYPE_BRANCH, branchId, new NotificationQueryRepository.FeedFilter(null, category, false));
     }
 
-    // 읽지 않은 알림만 조회 (지점)
+    // 읽지 않은 알림만 조회 (지점, 최근 listLimit 건)
     public List<NotificationDTO> getUnreadNotifications(Long branchId) {
-        List<Notification> unreadNotifications = notificationRepository
-                .findByRecipientTypeAndRecipientIdAndIsReadFalseOrderByTimestampDesc(RECIPIENT_TYPE_BRANCH, branchId);
-        return unreadNotifications.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return getRecent(RECIPIENT_TYPE_BRANCH, branchId, new NotificationQueryRepository.FeedFilter(null, null, true));
     }
     
-    // 읽지 않은 알림만 조회 (본사)
+    // 읽지 않은 알림만 조회 (본사, 최근 listLimit 건)
     public List<NotificationDTO> getUnreadNotificationsForHeadquarters() {
-        List<Notification> unreadNotifications = notificationRepository
-                .findByRecipientTypeAndIsReadFalseOrderByTimestampDesc(RECIPIENT_TYPE_HEADQUARTERS);
-        return unreadNotifications.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return getRecent(RECIPIENT_TYPE_HEADQUARTERS, null, new NotificationQueryRepository.FeedFilter(null, null, true));
     }
     
-    // 읽지 않은 알림 개수 조회 (지점)
+    // 읽지 않은 알림 개수 조회 (지점, Redis 카운터 - DB 트랜잭션 없이 조회)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long getUnreadNotificationCount(Long branchId) {
-        return notificationRepository.countByRecipientTypeAndRecipientIdAndIsReadFalse(RECIPIENT_TYPE_BRANCH, branchId);
+        return unreadCounterService.getNotificationUnread(RECIPIENT_TYPE_BRANCH, branchId);
     }
     
-    // 읽지 않은 알림 개수 조회 (본사)
+    // 읽지 않은 알림 개수 조회 (본사, Redis 카운터)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long getUnreadNotificationCountForHeadquarters() {
-        return notificationRepository.countByRecipientTypeAndIsReadFalse(RECIPIENT_TYPE_HEADQUARTERS);
+        return unreadCounterService.getNotificationUnread(RECIPIENT_TYPE_HEADQUARTERS, null);
     }
     
     // Entity를 DTO로 변환
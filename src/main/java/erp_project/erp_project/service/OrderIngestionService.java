@@ -0,0 +1,247 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.OrderItemDetails;
+import erp_project.erp_project.entity.OrderItems;
+import erp_project.erp_project.entity.Orders;
+import erp_project.erp_project.util.LatencyRecorder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 주문 적재 서비스
+ * - orders / order_items / order_item_details 를 하나의 트랜잭션으로 저장 (같은 트랜잭션에서 원재료 재고 예약)
+ * - IDENTITY 키 때문에 JPA 배치가 동작하지 않으므로 테이블별 multi-row INSERT 사용
+ *   (주문 1건 = INSERT 최대 3회 왕복 + 재고 예약)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIngestionService {
+
+    // multi-row INSERT 한 문장에 담을 최대 행 수
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT_ORDER_SQL =
+        "INSERT INTO orders (branch_id, order_number, order_status, order_type, customer_name, customer_phone, " +
+        "total_amount, discount_amount, final_amount, payment_method, payment_status, order_time, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEMS_PREFIX =
+        "INSERT INTO order_items (order_id, menu_id, menu_name, unit_price, quantity, total_price, options_json, " +
+        "display_name, display_options, item_type, is_substituted, is_set_component) VALUES ";
+    private static final String INSERT_ITEMS_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_DETAILS_PREFIX =
+        "INSERT INTO order_item_details (order_item_id, item_type, menu_id, menu_name, quantity, unit_price, total_price, " +
+        "is_substituted, ingredient_type, ingredient_action, ingredient_price, notes) VALUES ";
+    private static final String INSERT_DETAILS_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AutomatedOrderService automatedOrderService;
+    private final StockReservationService stockReservationService;
+
+    private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+    private final LongAdder ingestedOrders = new LongAdder();
+    private final LongAdder insertStatements = new LongAdder();
+
+    /**
+     * 주문, 주문 아이템, 주문 아이템 상세를 한 트랜잭션으로 저장
+     * - 저장 후 order.orderId / item.orderItemId 가 채워진 상태로 반환
+     */
+    @Transactional
+    public Orders ingest(Orders order, List<OrderItems> items) {
+        long start = System.nanoTime();
+        int statements = 0;
+
+        // 1. 주문
+        long stageStart = System.nanoTime();
+        insertOrder(order);
+        statements++;
+        latencyRecorder.record("order", System.nanoTime() - stageStart);
+
+        // 2. 주문 아이템 (multi-row INSERT, 생성 키를 순서대로 매핑)
+        stageStart = System.nanoTime();
+        for (OrderItems item : items) {
+            item.setOrderId(order.getOrderId());
+        }
+        statements += insertOrderItems(items);
+        latencyRecorder.record("items", System.nanoTime() - stageStart);
+
+        // 3. 주문 아이템 상세 (세트 구성/재료 변경)
+        stageStart = System.nanoTime();
+        List<OrderItemDetails> details = new ArrayList<>();
+        for (OrderItems item : items) {
+            details.addAll(automatedOrderService.buildOrderItemDetails(item));
+        }
+        statements += insertOrderItemDetails(details);
+        latencyRecorder.record("details", System.nanoTime() - stageStart);
+
+        // 4. 원재료 재고 예약 (가용 재고 부족 시 예외 → 주문 전체 롤백)
+        stageStart = System.nanoTime();
+        stockReservationService.reserve(order, items, details);
+        latencyRecorder.record("reservation", System.nanoTime() - stageStart);
+
+        latencyRecorder.record("total", System.nanoTime() - start);
+        ingestedOrders.increment();
+        insertStatements.add(statements);
+
+        log.debug("주문 적재 완료: orderNumber={}, items={}, details={}, statements={}",
+            order.getOrderNumber(), items.size(), details.size(), statements);
+        return order;
+    }
+
+    /**
+     * 단계별 지연 시간 및 주문당 INSERT 문 수
+     */
+    public Map<String, Object> getIngestionMetrics() {
+        long orders = ingestedOrders.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("orders", orders);
+        metrics.put("insertStatements", insertStatements.sum());
+        metrics.put("insertsPerOrder", orders == 0 ? 0.0 : (double) insertStatements.sum() / orders);
+        metrics.put("stages", latencyRecorder.snapshot());
+        return metrics;
+    }
+
+    public void resetIngestionMetrics() {
+        latencyRecorder.reset();
+        ingestedOrders.reset();
+        insertStatements.reset();
+    }
+
+    private void insertOrder(Orders order) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_ORDER_SQL, Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, order.getBranchId());
+            ps.setString(2, order.getOrderNumber());
+            ps.setString(3, enumName(order.getOrderStatus()));
+            ps.setString(4, enumName(order.getOrderType()));
+            ps.setString(5, order.getCustomerName());
+            ps.setString(6, order.getCustomerPhone());
+            ps.setBigDecimal(7, order.getTotalAmount());
+            ps.setBigDecimal(8, order.getDiscountAmount());
+            ps.setBigDecimal(9, order.getFinalAmount());
+            ps.setString(10, enumName(order.getPaymentMethod()));
+            ps.setString(11, enumName(order.getPaymentStatus()));
+            ps.setTimestamp(12, toTimestamp(order.getOrderTime()));
+            ps.setTimestamp(13, toTimestamp(order.getCreatedAt()));
+            ps.setTimestamp(14, toTimestamp(order.getUpdatedAt()));
+            return ps;
+        }, keyHolder);
+        order.setOrderId(keyHolder.getKey().longValue());
+    }
+
+    /**
+     * InnoDB는 단일 multi-row INSERT의 AUTO_INCREMENT 값을 연속으로 할당하므로
+     * (innodb_autoinc_lock_mode 0/1) 드라이버가 돌려주는 키 목록을 행 순서대로 매핑한다.
+     */
+    private int insertOrderItems(List<OrderItems> items) {
+        int statements = 0;
+        for (List<OrderItems> chunk : chunks(items)) {
+            String sql = INSERT_ITEMS_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), INSERT_ITEMS_ROW));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                int idx = 1;
+                for (OrderItems item : chunk) {
+                    ps.setLong(idx++, item.getOrderId());
+                    ps.setLong(idx++, item.getMenuId());
+                    ps.setString(idx++, item.getMenuName());
+                    ps.setBigDecimal(idx++, item.getUnitPrice());
+                    ps.setInt(idx++, item.getQuantity());
+                    ps.setBigDecimal(idx++, item.getTotalPrice());
+                    ps.setString(idx++, item.getOptionsJson());
+                    ps.setString(idx++, item.getDisplayName());
+                    ps.setString(idx++, item.getDisplayOptions());
+                    ps.setString(idx++, enumName(item.getItemType()));
+                    ps.setBoolean(idx++, Boolean.TRUE.equals(item.getIsSubstituted()));
+                    ps.setBoolean(idx++, Boolean.TRUE.equals(item.getIsSetComponent()));
+                }
+                return ps;
+            }, keyHolder);
+
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            if (keys.size() != chunk.size()) {
+                throw new IllegalStateException("생성된 주문 아이템 키 수가 일치하지 않습니다: expected="
+                    + chunk.size() + ", actual=" + keys.size());
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                Number key = (Number) keys.get(i).values().iterator().next();
+                chunk.get(i).setOrderItemId(key.longValue());
+            }
+            statements++;
+        }
+        return statements;
+    }
+
+    private int insertOrderItemDetails(List<OrderItemDetails> details) {
+        int statements = 0;
+        for (List<OrderItemDetails> chunk : chunks(details)) {
+            String sql = INSERT_DETAILS_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), INSERT_DETAILS_ROW));
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                int idx = 1;
+                for (OrderItemDetails detail : chunk) {
+                    ps.setLong(idx++, detail.getOrderItemId());
+                    ps.setString(idx++, enumName(detail.getItemType()));
+                    setNullableLong(ps, idx++, detail.getMenuId());
+                    ps.setString(idx++, detail.getMenuName());
+                    ps.setInt(idx++, detail.getQuantity() != null ? detail.getQuantity() : 1);
+                    ps.setBigDecimal(idx++, detail.getUnitPrice());
+                    ps.setBigDecimal(idx++, detail.getTotalPrice());
+                    ps.setBoolean(idx++, Boolean.TRUE.equals(detail.getIsSubstituted()));
+                    ps.setString(idx++, detail.getIngredientType());
+                    ps.setString(idx++, enumName(detail.getIngredientAction()));
+                    ps.setBigDecimal(idx++, detail.getIngredientPrice());
+                    ps.setString(idx++, detail.getNotes());
+                }
+                return ps;
+            });
+            statements++;
+        }
+        return statements;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> rows) {
+        List<List<T>> result = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i += MAX_ROWS_PER_STATEMENT) {
+            result.add(rows.subList(i, Math.min(i + MAX_ROWS_PER_STATEMENT, rows.size())));
+        }
+        return result;
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int idx, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(idx, Types.BIGINT);
+        } else {
+            ps.setLong(idx, value);
+        }
+    }
+
+    private static String enumName(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -3,7 +3,7 @@ package erp_project.erp_project.service;
 import erp_project.erp_project.dto.*;
 import erp_project.erp_project.entity.*;
 import erp_project.erp_project.repository.*;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -67,29 +67,17 @@ public class OrderService {
             orderItem.setTotalPrice(cartItem.getTotalPrice());
             orderItem.setDisplayName(cartItem.getDisplayName());
             
-            // 옵션 정보를 JSON으로 저장
-            if (cartItem.getDisplayOptions() != null) {
-                try {
-                    orderItem.setDisplayOptions(objectMapper.writeValueAsString(cartItem.getDisplayOptions()));
-                } catch (JsonProcessingException e) {
-                    orderItem.setDisplayOptions("[]");
-                }
-            }
-            
-            // 상세 옵션 정보를 JSON으로 저장
-            if (cartItem.getOptions() != null) {
-                try {
-                    orderItem.setOptionsJson(objectMapper.writeValueAsString(cartItem.getOptions()));
-                } catch (JsonProcessingException e) {
-                    orderItem.setOptionsJson("[]");
-                }
-            }
+            // 옵션 정보는 요청 원문 JSON 그대로 저장 (재직렬화 없음)
+            orderItem.setDisplayOptions(cartItem.getDisplayOptions() != null ? cartItem.getDisplayOptions() : "[]");
+            orderItem.setOptionsJson(cartItem.getOptionsJson() != null ? cartItem.getOptionsJson() : "[]");
             
             OrderItems savedOrderItem = orderItemRepository.save(orderItem);
             
             // 3. 주문 옵션 상세 저장
-            if (cartItem.getOptions() != null) {
-                for (OptionRequest option : cartItem.getOptions()) {
+            if (cartItem.getOptionsJson() != null) {
+                List<OptionRequest> options = objectMapper.readValue(
+                    cartItem.getOptionsJson(), new TypeReference<List<OptionRequest>>() {});
+                for (OptionRequest option : options) {
                     OrderItemOptions orderItemOption = new OrderItemOptions();
                     orderItemOption.setOrderItemId(savedOrderItem.getOrderItemId());
                     orderItemOption.setOptionId(option.getOptionId());
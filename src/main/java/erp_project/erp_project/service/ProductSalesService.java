@@ -13,6 +13,7 @@ import org.springframework.cache.annotation.Cacheable;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.HashMap;
@@ -28,6 +29,8 @@ public class ProductSalesService {
     private final MenuSalesStatisticsRepository menuSalesStatisticsRepository;
     private final CategorySalesStatisticsRepository categorySalesStatisticsRepository;
     private final BranchesRepository branchesRepository;
+    private final SalesRollupRepository salesRollupRepository;
+    private final SalesRollupService salesRollupService;
 
     public ProductSalesResponseDto getProductSalesData(int year, int month) {
         log.info("상품별 매출 데이터 조회 - 년도: {}, 월: {}", year, month);
@@ -62,43 +65,52 @@ public class ProductSalesService {
                 .build();
         }
         
-        // 해당 기간의 메뉴별 매출 통계 조회
-        List<MenuSalesStatistics> menuStats = menuSalesStatisticsRepository
-            .findByStatisticDateBetweenAndBranchIdIn(startDate, endDate, branchIds);
-        log.info("해당 기간의 메뉴별 매출 통계 수: {}", menuStats.size());
+        // 해당 기간의 메뉴/날짜별 매출 합계 조회 (지점 행을 DB 에서 합산)
+        List<Object[]> menuDailyStats = menuSalesStatisticsRepository
+            .sumMenuSalesGroupByMenuAndDate(startDate, endDate, branchIds);
+        log.info("해당 기간의 메뉴/날짜별 매출 합계 수: {}", menuDailyStats.size());
         
-        if (menuStats.isEmpty()) {
+        if (menuDailyStats.isEmpty()) {
             log.warn("메뉴별 매출 통계가 없습니다. 모든 메뉴의 기본 정보만으로 응답을 생성합니다.");
             return createProductSalesResponseFromMenuData();
         }
         
-        // 해당 기간의 카테고리별 매출 통계 조회
-        List<CategorySalesStatistics> categoryStats = categorySalesStatisticsRepository
-            .findByStatisticDateBetweenAndBranchIdIn(startDate, endDate, branchIds);
-        log.info("해당 기간의 카테고리별 매출 통계 수: {}", categoryStats.size());
+        // 해당 기간의 카테고리별 매출 합계 조회 (마감된 월은 월 롤업에서 조회)
+        List<Object[]> categoryStats = salesRollupService.isMonthRollupReady(YearMonth.of(year, month))
+            ? salesRollupRepository.sumDimensionTotalsByBranchIdIn(
+                SalesRollup.PeriodType.MONTH, startDate, SalesRollup.Dimension.CATEGORY, branchIds)
+            : categorySalesStatisticsRepository.sumCategorySalesByBranchIdIn(startDate, endDate, branchIds);
+        log.info("해당 기간의 카테고리별 매출 합계 수: {}", categoryStats.size());
+        
+        // 메뉴/카테고리 정보 (1회씩 조회 후 메모리 맵에서 찾음)
+        Map<Long, Menu> menuMap = menuRepository.findAll().stream()
+            .collect(Collectors.toMap(Menu::getId, menu -> menu));
+        Map<Long, MenuCategory> categoryMap = menuCategoryRepository.findAll().stream()
+            .collect(Collectors.toMap(MenuCategory::getId, category -> category));
         
         // 상품별 매출 집계
         Map<Long, ProductSalesData> productSalesMap = new HashMap<>();
         Map<String, BigDecimal> categorySalesMap = new HashMap<>();
         Map<String, Map<Integer, DailySalesData>> dailySalesMap = new HashMap<>();
         
-        // 메뉴별 매출 통계 처리
-        for (MenuSalesStatistics stat : menuStats) {
-            Long menuId = stat.getMenuId();
-            BigDecimal totalSales = stat.getTotalSales();
-            Long quantity = stat.getQuantitySold().longValue();
+        // 메뉴/날짜별 매출 합계 처리
+        for (Object[] row : menuDailyStats) {
+            Long menuId = (Long) row[0];
+            LocalDate statisticDate = (LocalDate) row[1];
+            Long quantity = ((Number) row[2]).longValue();
+            BigDecimal totalSales = (BigDecimal) row[3];
             
-            log.debug("메뉴별 매출 통계 - menuId: {}, quantity: {}, totalSales: {}", menuId, quantity, totalSales);
+            log.debug("메뉴별 매출 합계 - menuId: {}, date: {}, quantity: {}, totalSales: {}", menuId, statisticDate, quantity, totalSales);
             
             // 상품별 매출 집계
             productSalesMap.computeIfAbsent(menuId, k -> new ProductSalesData())
                 .addSales(totalSales, quantity);
             
             // 일별 매출 집계
-            Menu menu = menuRepository.findById(menuId).orElse(null);
+            Menu menu = menuMap.get(menuId);
             if (menu != null) {
                 String productName = menu.getName();
-                int day = stat.getStatisticDate().getDayOfMonth();
+                int day = statisticDate.getDayOfMonth();
                 
                 dailySalesMap.computeIfAbsent(productName, k -> new HashMap<>())
                     .computeIfAbsent(day, k -> new DailySalesData())
@@ -106,15 +118,12 @@ public class ProductSalesService {
             }
         }
         
-        // 카테고리별 매출 통계 처리
-        for (CategorySalesStatistics stat : categoryStats) {
-            Long categoryId = stat.getCategoryId();
-            BigDecimal totalSales = stat.getTotalSales();
-            
-            MenuCategory category = menuCategoryRepository.findById(categoryId).orElse(null);
+        // 카테고리별 매출 합계 처리
+        for (Object[] row : categoryStats) {
+            MenuCategory category = categoryMap.get((Long) row[0]);
             if (category != null) {
                 String categoryName = category.getName();
-                categorySalesMap.merge(categoryName, totalSales, BigDecimal::add);
+                categorySalesMap.merge(categoryName, (BigDecimal) row[2], BigDecimal::add);
             }
         }
         
@@ -129,10 +138,10 @@ public class ProductSalesService {
             Long menuId = entry.getKey();
             ProductSalesData salesData = entry.getValue();
             
-            Menu menu = menuRepository.findById(menuId).orElse(null);
+            Menu menu = menuMap.get(menuId);
             if (menu == null) continue;
             
-            MenuCategory category = menuCategoryRepository.findById(menu.getCategoryId()).orElse(null);
+            MenuCategory category = categoryMap.get(menu.getCategoryId());
             String categoryName = category != null ? category.getName() : "기타";
             
             // 수익률 계산 (판매가 - 원가) / 판매가 * 100
@@ -30,6 +30,7 @@ public class RecipeService {
     private final RecipeIngredientRepository recipeIngredientRepository;
     private final MenuRepository menuRepository;
     private final MaterialRepository materialRepository;
+    private final BomIndexService bomIndexService;
     
     // 모든 레시피 조회
     public List<RecipeDto> getAllRecipes() {
@@ -101,6 +102,9 @@ public class RecipeService {
         // 메뉴의 base_price를 레시피 총 원가로 업데이트
         updateMenuBasePrice(menu.getId(), totalRecipeCost);
         
+        // 커밋 후 BOM 인덱스 재생성
+        bomIndexService.rebuildAfterCommit();
+        
         return convertToDto(savedRecipe);
     }
     
@@ -158,6 +162,9 @@ public class RecipeService {
         // 메뉴의 base_price를 레시피 총 원가로 업데이트
         updateMenuBasePrice(menu.getId(), totalRecipeCost);
         
+        // 커밋 후 BOM 인덱스 재생성
+        bomIndexService.rebuildAfterCommit();
+        
         return convertToDto(updatedRecipe);
     }
     
@@ -173,6 +180,9 @@ public class RecipeService {
         
         // 메뉴의 base_price를 0으로 설정 (레시피가 없으므로)
         updateMenuBasePrice(menuId, BigDecimal.ZERO);
+        
+        // 커밋 후 BOM 인덱스 재생성
+        bomIndexService.rebuildAfterCommit();
     }
     
     // 메뉴의 base_price 업데이트
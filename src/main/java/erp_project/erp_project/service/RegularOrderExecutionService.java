@@ -5,163 +5,335 @@ import erp_project.erp_project.entity.RegularOrderExecution;
 import erp_project.erp_project.entity.RegularOrderItem;
 import erp_project.erp_project.entity.SupplyRequest;
 import erp_project.erp_project.entity.SupplyRequestItem;
-import erp_project.erp_project.repository.RegularOrderExecutionRepository;
 import erp_project.erp_project.repository.RegularOrderRepository;
-import erp_project.erp_project.repository.SupplyRequestRepository;
-import erp_project.erp_project.repository.SupplyRequestItemRepository;
+import erp_project.erp_project.util.LatencyRecorder;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * 정기발주 자동 실행
+ * - 실행 대상 ID 를 묶음 단위로 나눠 전용 풀에서 병렬 처리, 묶음마다 아이템까지 fetch join 으로 한 번에 조회
+ * - 정기발주 1건 = 트랜잭션 1개 (한 건 실패가 다른 건을 롤백하지 않음)
+ * - regular_order_executions 의 (정기발주, 실행일) 유니크 키를 먼저 INSERT 해 실행권 확보
+ *   → 재실행이나 여러 인스턴스의 스케줄러가 겹쳐도 같은 날 같은 정기발주는 한 번만 발주
+ * - IDENTITY 키라 JPA 배치가 동작하지 않으므로 발주 아이템은 multi-row INSERT 한 번으로 저장
+ * - 스케줄 실행은 지점 ID 기준 샤드별 잠금으로 여러 노드에 나눠 처리 (샤드 = branch_id % shards)
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RegularOrderExecutionService {
 
+    // multi-row INSERT 한 문장에 담을 최대 행 수
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT_EXECUTION_SQL =
+        "INSERT INTO regular_order_executions (regular_order_id, execution_date, scheduled_order_date, status, " +
+        "total_amount, notes, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // 실행 도중 비활성화/수정된 정기발주는 건너뜀
+    private static final String ADVANCE_ORDER_SQL =
+        "UPDATE regular_orders SET next_order_date = ?, last_order_date = ?, updated_at = ? " +
+        "WHERE id = ? AND is_active = TRUE AND next_order_date = ?";
+
+    private static final String INSERT_SUPPLY_REQUEST_SQL =
+        "INSERT INTO supply_requests (requesting_branch_id, requester_name, request_date, status, priority, " +
+        "total_cost, notes, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEMS_PREFIX =
+        "INSERT INTO supply_request_items (supply_request_id, material_id, requested_quantity, delivered_quantity, " +
+        "unit, cost_per_unit, total_cost, status, created_at, updated_at) VALUES ";
+    private static final String INSERT_ITEMS_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final RegularOrderRepository regularOrderRepository;
-    private final RegularOrderExecutionRepository executionRepository;
-    private final SupplyRequestRepository supplyRequestRepository;
-    private final SupplyRequestItemRepository supplyRequestItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+
+    @Value("${app.regular-order.workers:4}")
+    private int workers;
+
+    @Value("${app.regular-order.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.regular-order.shards:4}")
+    private int shards;
+
+    private volatile ForkJoinPool pool;
+
+    private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+    private final LongAdder executedOrders = new LongAdder();
+    private final LongAdder skippedOrders = new LongAdder();
+    private final LongAdder failedOrders = new LongAdder();
+    private volatile Map<String, Object> lastRun = Map.of();
 
     /**
-     * 매일 오전 9시에 실행할 정기발주를 확인하고 실행
+     * 매일 오전 9시에 실행할 정기발주를 확인하고 실행 (샤드마다 잠금을 얻은 노드 1곳만)
      */
-    @Scheduled(cron = "0 0 9 * * *")
-    @Transactional
-    public void executeScheduledOrders() {
-        log.info("정기발주 자동 실행 시작: {}", LocalDateTime.now());
-        
-        LocalDate today = LocalDate.now();
-        
-        // 오늘 실행해야 할 정기발주들을 찾기
-        List<RegularOrder> ordersToExecute = regularOrderRepository
-            .findByIsActiveTrueAndNextOrderDateLessThanEqual(today);
-        
-        log.info("실행할 정기발주 수: {}", ordersToExecute.size());
-        
-        for (RegularOrder order : ordersToExecute) {
-            try {
-                executeRegularOrder(order);
-                log.info("정기발주 실행 완료: {}", order.getOrderName());
-            } catch (Exception e) {
-                log.error("정기발주 실행 실패: {} - {}", order.getOrderName(), e.getMessage());
-            }
-        }
+    @Scheduled(cron = "${app.regular-order.cron:0 0 9 * * *}")
+    public void scheduledRun() {
+        schedulerLockService.runSharded("regular-order-execution", shards,
+            (lease, shard, shardCount) -> executeScheduledOrders(lease, shard, shardCount));
+    }
+
+    /**
+     * 오늘까지 도래한 정기발주 전체 실행 (수동 실행용, 잠금 없음)
+     * @return 실행 요약 (건수, 처리량, 소요 시간)
+     */
+    public Map<String, Object> executeScheduledOrders() throws Exception {
+        return executeScheduledOrders(null, 0, 1);
     }
 
     /**
-     * 개별 정기발주 실행
+     * 한 샤드의 도래한 정기발주 실행
+     * @param lease 스케줄 잠금 (잃으면 남은 묶음은 시작하지 않음, 수동 실행은 null)
      */
-    @Transactional
-    public void executeRegularOrder(RegularOrder order) {
+    public synchronized Map<String, Object> executeScheduledOrders(SchedulerLockService.JobLease lease,
+                                                                   int shard, int shardCount) throws Exception {
+        long start = System.nanoTime();
         LocalDate today = LocalDate.now();
-        
-        // 이미 오늘 실행되었는지 확인
-        Optional<RegularOrderExecution> existingExecution = executionRepository
-            .findByRegularOrderAndExecutionDate(order, today);
-        
-        if (existingExecution.isPresent()) {
-            log.info("이미 오늘 실행된 정기발주: {}", order.getOrderName());
-            return;
-        }
+        log.info("정기발주 자동 실행 시작: {} (shard {}/{})", LocalDateTime.now(), shard, shardCount);
 
-        // 1. RegularOrderExecution 생성
-        RegularOrderExecution execution = createExecutionRecord(order, today);
-        executionRepository.save(execution);
-
-        // 2. 실제 SupplyRequest 생성
-        SupplyRequest supplyRequest = createSupplyRequest(order, today);
-        supplyRequestRepository.save(supplyRequest);
-        
-        // 3. SupplyRequestItem들 생성 및 저장
-        List<SupplyRequestItem> items = order.getItems().stream()
-            .map(this::createSupplyRequestItem)
-            .toList();
-        
-        // 각 아이템에 supplyRequestId 설정하고 저장
-        for (SupplyRequestItem item : items) {
-            // supplyRequestId 설정
-            item.setSupplyRequestId(supplyRequest.getId());
-            
-            // 아이템 저장
-            supplyRequestItemRepository.save(item);
-        }
+        List<Long> dueIds = shardCount > 1
+            ? regularOrderRepository.findDueOrderIdsInShard(today, shardCount, shard)
+            : regularOrderRepository.findDueOrderIds(today);
+        log.info("실행할 정기발주 수: {}", dueIds.size());
 
-        // 4. 다음 발주일 계산 및 업데이트
-        updateNextOrderDate(order, today);
-        regularOrderRepository.save(order);
+        List<Future<int[]>> futures = new ArrayList<>();
+        for (int i = 0; i < dueIds.size(); i += batchSize) {
+            List<Long> batch = dueIds.subList(i, Math.min(i + batchSize, dueIds.size()));
+            futures.add(pool().submit(() -> lease == null || lease.isValid()
+                ? executeBatch(batch, today, lease)
+                : new int[] {0, batch.size(), 0}));
+        }
+        // [실행, 건너뜀, 실패]
+        int[] totals = new int[3];
+        for (Future<int[]> future : futures) {
+            int[] counts = future.get();
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += counts[i];
+            }
+        }
 
-        log.info("정기발주 실행 완료: {} -> 발주번호: {}", order.getOrderName(), supplyRequest.getId());
+        long elapsedNanos = System.nanoTime() - start;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("date", today.toString());
+        summary.put("shard", shard + "/" + shardCount);
+        summary.put("due", dueIds.size());
+        summary.put("executed", totals[0]);
+        summary.put("skipped", totals[1]);
+        summary.put("failed", totals[2]);
+        summary.put("elapsedMs", elapsedNanos / 1_000_000);
+        summary.put("ordersPerSecond", elapsedNanos == 0 ? 0.0 : dueIds.size() * 1_000_000_000.0 / elapsedNanos);
+        lastRun = summary;
+        log.info("정기발주 자동 실행 완료: {}", summary);
+        return summary;
     }
 
     /**
-     * 실행 기록 생성
+     * 수동으로 정기발주 실행 (테스트용)
      */
-    private RegularOrderExecution createExecutionRecord(RegularOrder order, LocalDate executionDate) {
-        BigDecimal totalAmount = order.getItems().stream()
-            .map(item -> item.getCostPerUnit().multiply(item.getRequestedQuantity()))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return RegularOrderExecution.builder()
-            .regularOrder(order)
-            .executionDate(executionDate)
-            .scheduledOrderDate(order.getNextOrderDate())
-            .status(RegularOrderExecution.ExecutionStatus.COMPLETED)
-            .totalAmount(totalAmount)
-            .notes("자동 실행된 정기발주")
-            .build();
+    public void executeRegularOrderManually(Long orderId) {
+        List<RegularOrder> orders = regularOrderRepository.findByIdInWithItems(List.of(orderId));
+        if (orders.isEmpty()) {
+            throw new RuntimeException("정기발주를 찾을 수 없습니다: " + orderId);
+        }
+        executeRegularOrder(orders.get(0), LocalDate.now());
     }
 
     /**
-     * 실제 발주 요청 생성
+     * 개별 정기발주 실행 (자체 트랜잭션)
+     * @return 이번 호출로 발주했으면 true, 이미 실행됐거나 도중에 변경된 경우 false
      */
-    private SupplyRequest createSupplyRequest(RegularOrder order, LocalDate requestDate) {
-        SupplyRequest supplyRequest = SupplyRequest.builder()
-            .requestingBranchId(order.getBranchId())
-            .requestDate(requestDate.atStartOfDay())
-            .requesterName(order.getCreatedBy())
-            .status(SupplyRequest.SupplyRequestStatus.PENDING)
-            .priority(SupplyRequest.SupplyRequestPriority.NORMAL)
-            .notes(order.getOrderName())
-            .build();
-
-        // 총 금액 계산
-        BigDecimal totalCost = order.getItems().stream()
-            .map(item -> item.getCostPerUnit().multiply(item.getRequestedQuantity()))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        supplyRequest.setTotalCost(totalCost);
-
-        return supplyRequest;
+    public boolean executeRegularOrder(RegularOrder order, LocalDate today) {
+        return executeRegularOrder(order, today, null);
     }
 
     /**
-     * 발주 아이템 생성
+     * @param lease 스케줄 잠금 (발주 요청 생성 직전 토큰 확인, 수동 실행은 null)
      */
-    private SupplyRequestItem createSupplyRequestItem(RegularOrderItem orderItem) {
-        return SupplyRequestItem.builder()
-            .material(orderItem.getMaterial())
-            .requestedQuantity(orderItem.getRequestedQuantity())
-            .unit(orderItem.getUnit())
-            .costPerUnit(orderItem.getCostPerUnit())
-            .totalCost(orderItem.getCostPerUnit().multiply(orderItem.getRequestedQuantity()))
-            .build();
+    public boolean executeRegularOrder(RegularOrder order, LocalDate today, SchedulerLockService.JobLease lease) {
+        Boolean executed = transactionTemplate.execute(status -> {
+            // 1. 실행권 확보 (유니크 키 충돌 = 이미 실행됨 또는 다른 인스턴스가 실행 중)
+            BigDecimal totalAmount = totalCost(order.getItems());
+            try {
+                insertExecution(order, today, totalAmount);
+            } catch (DuplicateKeyException e) {
+                log.info("이미 오늘 실행된 정기발주: {}", order.getOrderName());
+                return false;
+            }
+
+            // 2. 다음 발주일 갱신
+            LocalDate nextDate = calculateNextOrderDate(order, today);
+            int advanced = jdbcTemplate.update(ADVANCE_ORDER_SQL, Date.valueOf(nextDate), Date.valueOf(today),
+                Timestamp.valueOf(LocalDateTime.now()), order.getId(), Date.valueOf(order.getNextOrderDate()));
+            if (advanced == 0) {
+                log.info("실행 중 변경된 정기발주 건너뜀: {}", order.getOrderName());
+                status.setRollbackOnly();
+                return false;
+            }
+
+            // 3. 발주 요청과 아이템
+            if (lease != null) {
+                lease.checkFence();
+            }
+            long supplyRequestId = insertSupplyRequest(order, today, totalAmount);
+            insertItems(supplyRequestId, order.getItems());
+
+            log.debug("정기발주 실행 완료: {} -> 발주번호: {}", order.getOrderName(), supplyRequestId);
+            return true;
+        });
+        return Boolean.TRUE.equals(executed);
     }
 
     /**
-     * 다음 발주일 계산 및 업데이트
+     * 누적 실행 건수, 정기발주 1건당 처리 시간, 마지막 일괄 실행 요약
      */
-    private void updateNextOrderDate(RegularOrder order, LocalDate currentExecutionDate) {
-        LocalDate nextDate = calculateNextOrderDate(order, currentExecutionDate);
-        order.setNextOrderDate(nextDate);
-        order.setLastOrderDate(currentExecutionDate);
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("executed", executedOrders.sum());
+        metrics.put("skipped", skippedOrders.sum());
+        metrics.put("failed", failedOrders.sum());
+        metrics.put("workers", workers);
+        metrics.put("batchSize", batchSize);
+        metrics.put("latency", latencyRecorder.snapshot());
+        metrics.put("lastRun", lastRun);
+        return metrics;
+    }
+
+    public void resetMetrics() {
+        latencyRecorder.reset();
+        executedOrders.reset();
+        skippedOrders.reset();
+        failedOrders.reset();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private int[] executeBatch(List<Long> ids, LocalDate today, SchedulerLockService.JobLease lease) {
+        int[] counts = new int[3];
+        List<RegularOrder> orders;
+        try {
+            orders = regularOrderRepository.findByIdInWithItems(ids);
+        } catch (Exception e) {
+            log.error("정기발주 묶음 조회 실패: {}건", ids.size(), e);
+            counts[2] = ids.size();
+            failedOrders.add(ids.size());
+            return counts;
+        }
+        for (RegularOrder order : orders) {
+            if (lease != null && !lease.isValid()) {
+                // 잠금을 잃으면 남은 정기발주는 이어받은 노드가 실행
+                counts[1]++;
+                skippedOrders.increment();
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                if (executeRegularOrder(order, today, lease)) {
+                    counts[0]++;
+                    executedOrders.increment();
+                } else {
+                    counts[1]++;
+                    skippedOrders.increment();
+                }
+            } catch (Exception e) {
+                // 실행 기록도 함께 롤백되므로 다음 실행에서 재시도
+                log.error("정기발주 실행 실패: {} - {}", order.getOrderName(), e.getMessage());
+                counts[2]++;
+                failedOrders.increment();
+            }
+            latencyRecorder.record("order", System.nanoTime() - start);
+        }
+        return counts;
+    }
+
+    private void insertExecution(RegularOrder order, LocalDate executionDate, BigDecimal totalAmount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_EXECUTION_SQL, order.getId(), Date.valueOf(executionDate),
+            Date.valueOf(order.getNextOrderDate()), RegularOrderExecution.ExecutionStatus.COMPLETED.name(),
+            totalAmount, "자동 실행된 정기발주", now, now);
+    }
+
+    private long insertSupplyRequest(RegularOrder order, LocalDate requestDate, BigDecimal totalCost) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SUPPLY_REQUEST_SQL, Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, order.getBranchId());
+            ps.setString(2, order.getCreatedBy());
+            ps.setTimestamp(3, Timestamp.valueOf(requestDate.atStartOfDay()));
+            ps.setString(4, SupplyRequest.SupplyRequestStatus.PENDING.name());
+            ps.setString(5, SupplyRequest.SupplyRequestPriority.NORMAL.name());
+            ps.setBigDecimal(6, totalCost);
+            ps.setString(7, order.getOrderName());
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private void insertItems(long supplyRequestId, List<RegularOrderItem> items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < items.size(); i += MAX_ROWS_PER_STATEMENT) {
+            List<RegularOrderItem> chunk = items.subList(i, Math.min(i + MAX_ROWS_PER_STATEMENT, items.size()));
+            String sql = INSERT_ITEMS_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), INSERT_ITEMS_ROW));
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                int idx = 1;
+                for (RegularOrderItem item : chunk) {
+                    ps.setLong(idx++, supplyRequestId);
+                    // 지연 로딩 프록시의 ID 만 사용 (원재료 조회 없음)
+                    ps.setLong(idx++, item.getMaterial().getId());
+                    ps.setBigDecimal(idx++, item.getRequestedQuantity());
+                    ps.setBigDecimal(idx++, BigDecimal.ZERO);
+                    ps.setString(idx++, item.getUnit());
+                    ps.setBigDecimal(idx++, item.getCostPerUnit());
+                    ps.setBigDecimal(idx++, item.getCostPerUnit().multiply(item.getRequestedQuantity()));
+                    ps.setString(idx++, SupplyRequestItem.SupplyRequestItemStatus.PENDING.name());
+                    ps.setTimestamp(idx++, now);
+                    ps.setTimestamp(idx++, now);
+                }
+                return ps;
+            });
+        }
+    }
+
+    private static BigDecimal totalCost(List<RegularOrderItem> items) {
+        return items.stream()
+            .map(item -> item.getCostPerUnit().multiply(item.getRequestedQuantity()))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
     /**
@@ -176,14 +348,17 @@ public class RegularOrderExecutionService {
         };
     }
 
-    /**
-     * 수동으로 정기발주 실행 (테스트용)
-     */
-    @Transactional
-    public void executeRegularOrderManually(Long orderId) {
-        RegularOrder order = regularOrderRepository.findById(orderId)
-            .orElseThrow(() -> new RuntimeException("정기발주를 찾을 수 없습니다: " + orderId));
-        
-        executeRegularOrder(order);
+    // DB 커넥션 풀 크기를 넘지 않도록 작업자 수를 제한한 전용 풀
+    private ForkJoinPool pool() {
+        ForkJoinPool current = pool;
+        if (current == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    pool = new ForkJoinPool(workers > 0 ? workers : Runtime.getRuntime().availableProcessors());
+                }
+                current = pool;
+            }
+        }
+        return current;
     }
 }
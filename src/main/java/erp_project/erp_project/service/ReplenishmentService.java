@@ -0,0 +1,299 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.SupplyRequest;
+import erp_project.erp_project.entity.SupplyRequestItem;
+import erp_project.erp_project.repository.MaterialRepository;
+import erp_project.erp_project.repository.SupplyRequestItemRepository;
+import erp_project.erp_project.repository.SupplyRequestRepository;
+import erp_project.erp_project.util.ReplenishmentPlanner;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 소비 속도 기반 자동 보충
+ * - 재고 이동 이력(SALE_DEDUCTION)의 최근 일별 소비량으로 지점 × 원재료별 소비 속도 계산 (지수 평활)
+ * - 다음 입고 시점 예상 재고(가용 재고 + 진행 중 발주 - 리드타임 소비량)가 최소 재고 미만이면 보충 수량 산정
+ * - 지점별로 승인 대기(PENDING) 발주 요청 1건 생성 → 본사 승인 전까지 초안 역할
+ * - 진행 중 발주 수량을 입고 예정으로 빼므로 같은 날 다시 실행해도 중복 발주 없음
+ * - DB 조회는 전체 조합을 한 번에 읽는 쿼리 4개, 계산은 전용 ForkJoinPool 에서 병렬 실행 (제한 시간 초과 시 중단)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReplenishmentService {
+
+    public static final String REQUESTER_NAME = "자동 보충";
+
+    private static final String STOCK_LEVELS_SQL =
+        "SELECT ms.branch_id, ms.material_id, ms.current_stock - ms.reserved_stock, ms.min_stock, ms.max_stock, " +
+        "m.unit, m.cost_per_unit " +
+        "FROM material_stocks ms JOIN materials m ON m.id = ms.material_id " +
+        "WHERE m.status = 'ACTIVE' ORDER BY ms.branch_id, ms.material_id";
+
+    private static final String DAILY_CONSUMPTION_SQL =
+        "SELECT branch_id, material_id, DATE(movement_date), -SUM(quantity) FROM stock_movements " +
+        "WHERE movement_type = 'SALE_DEDUCTION' AND movement_date >= ? AND movement_date < ? " +
+        "GROUP BY branch_id, material_id, DATE(movement_date)";
+
+    // 진행 중 발주 (입고 예정)
+    private static final String INBOUND_SQL =
+        "SELECT sr.requesting_branch_id, sri.material_id, SUM(COALESCE(sri.approved_quantity, sri.requested_quantity) - COALESCE(sri.delivered_quantity, 0)) " +
+        "FROM supply_request_items sri JOIN supply_requests sr ON sr.id = sri.supply_request_id " +
+        "WHERE sr.status IN ('PENDING', 'APPROVED', 'IN_TRANSIT') " +
+        "GROUP BY sr.requesting_branch_id, sri.material_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SupplyRequestRepository supplyRequestRepository;
+    private final SupplyRequestItemRepository supplyRequestItemRepository;
+    private final MaterialRepository materialRepository;
+    private final SchedulerLockService schedulerLockService;
+
+    @Value("${app.replenishment.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.replenishment.history-days:28}")
+    private int historyDays;
+
+    @Value("${app.replenishment.alpha:0.3}")
+    private double alpha;
+
+    @Value("${app.replenishment.lead-time-days:2}")
+    private int leadTimeDays;
+
+    @Value("${app.replenishment.cover-days:7}")
+    private int coverDays;
+
+    @Value("${app.replenishment.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.replenishment.timeout-ms:30000}")
+    private long timeoutMillis;
+
+    private volatile ForkJoinPool pool;
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    @Scheduled(cron = "${app.replenishment.cron:0 30 6 * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        schedulerLockService.runExclusive("replenishment", lease -> run(true, lease));
+    }
+
+    /**
+     * 전체 지점 보충 계산
+     * @param createRequests false 면 발주 요청을 만들지 않고 계산 결과만 반환
+     */
+    public Map<String, Object> run(boolean createRequests) throws Exception {
+        return run(createRequests, null);
+    }
+
+    /**
+     * @param lease 스케줄 잠금 (발주 요청 생성 직전 토큰 확인, 수동 실행은 null)
+     */
+    public synchronized Map<String, Object> run(boolean createRequests, SchedulerLockService.JobLease lease) throws Exception {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+
+        // 1. 조합 목록과 재고 수준
+        List<Pair> pairs = new ArrayList<>();
+        Map<Long, Map<Long, Integer>> pairIndex = new HashMap<>();
+        jdbcTemplate.query(STOCK_LEVELS_SQL, rs -> {
+            Pair pair = new Pair(rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3), rs.getBigDecimal(4),
+                rs.getBigDecimal(5), rs.getString(6), rs.getBigDecimal(7));
+            pairIndex.computeIfAbsent(pair.branchId(), id -> new HashMap<>()).put(pair.materialId(), pairs.size());
+            pairs.add(pair);
+        });
+
+        ReplenishmentPlanner planner = new ReplenishmentPlanner(pairs.size(), historyDays);
+        Map<Integer, BigDecimal> inbound = new HashMap<>();
+        jdbcTemplate.query(INBOUND_SQL, rs -> {
+            Integer index = indexOf(pairIndex, rs.getLong(1), rs.getLong(2));
+            if (index != null) {
+                inbound.put(index, rs.getBigDecimal(3));
+            }
+        });
+        for (int i = 0; i < pairs.size(); i++) {
+            Pair pair = pairs.get(i);
+            planner.setLevel(i, pair.available().doubleValue(),
+                inbound.getOrDefault(i, BigDecimal.ZERO).doubleValue(),
+                pair.minStock().doubleValue(), pair.maxStock().doubleValue());
+        }
+
+        // 2. 일별 소비량 (어제까지 historyDays 일)
+        LocalDate from = today.minusDays(historyDays);
+        jdbcTemplate.query(DAILY_CONSUMPTION_SQL, rs -> {
+            Integer index = indexOf(pairIndex, rs.getLong(1), rs.getLong(2));
+            if (index != null) {
+                int day = (int) (rs.getDate(3).toLocalDate().toEpochDay() - from.toEpochDay());
+                planner.addConsumption(index, day, rs.getBigDecimal(4).doubleValue());
+            }
+        }, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(today.atStartOfDay()));
+
+        // 3. 병렬 계산
+        List<ReplenishmentPlanner.Suggestion> suggestions = planner.plan(
+            new ReplenishmentPlanner.Settings(alpha, leadTimeDays, coverDays), pool(), timeoutMillis);
+        long planMicros = (System.nanoTime() - start) / 1_000;
+
+        // 4. 지점별 발주 요청
+        Map<Long, List<Line>> linesByBranch = new TreeMap<>();
+        for (ReplenishmentPlanner.Suggestion suggestion : suggestions) {
+            Pair pair = pairs.get(suggestion.pair());
+            linesByBranch.computeIfAbsent(pair.branchId(), id -> new ArrayList<>()).add(new Line(pair, suggestion,
+                BigDecimal.valueOf(suggestion.quantity()).setScale(3, RoundingMode.UP)));
+        }
+        List<Map<String, Object>> branches = new ArrayList<>();
+        int created = 0;
+        for (Map.Entry<Long, List<Line>> entry : linesByBranch.entrySet()) {
+            Long requestId = null;
+            if (createRequests) {
+                try {
+                    requestId = transactionTemplate.execute(status -> {
+                        if (lease != null) {
+                            lease.checkFence();
+                        }
+                        return createSupplyRequest(entry.getKey(), entry.getValue(), today);
+                    });
+                    created++;
+                } catch (Exception e) {
+                    if (lease != null && !lease.isValid()) {
+                        // 잠금을 잃으면 남은 지점은 이어받은 노드가 처리
+                        throw e;
+                    }
+                    log.error("자동 보충 발주 생성 실패: branchId={}", entry.getKey(), e);
+                }
+            }
+            branches.add(toSummary(entry.getKey(), entry.getValue(), requestId));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("date", today.toString());
+        result.put("pairs", pairs.size());
+        result.put("suggestions", suggestions.size());
+        result.put("createdRequests", created);
+        result.put("planMicros", planMicros);
+        result.put("elapsedMicros", (System.nanoTime() - start) / 1_000);
+        result.put("branches", branches);
+        if (createRequests) {
+            Map<String, Object> summary = new LinkedHashMap<>(result);
+            summary.remove("branches");
+            lastRun = summary;
+        }
+        log.info("자동 보충 계산: 조합 {}개, 보충 {}건, 발주 요청 {}건, 계산 {}us", pairs.size(), suggestions.size(), created, planMicros);
+        return result;
+    }
+
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+
+    private Long createSupplyRequest(Long branchId, List<Line> lines, LocalDate today) {
+        // 리드타임 안에 재고가 바닥나는 원재료가 있으면 긴급도 상향
+        boolean stockOutBeforeDelivery = lines.stream()
+            .anyMatch(line -> line.suggestion().daysOfCover() < leadTimeDays);
+        BigDecimal totalCost = lines.stream()
+            .map(line -> line.quantity().multiply(line.pair().costPerUnit()))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        SupplyRequest supplyRequest = SupplyRequest.builder()
+            .requestingBranchId(branchId)
+            .requestDate(LocalDateTime.now())
+            .requesterName(REQUESTER_NAME)
+            .expectedDeliveryDate(today.plusDays(leadTimeDays).toString())
+            .status(SupplyRequest.SupplyRequestStatus.PENDING)
+            .priority(stockOutBeforeDelivery ? SupplyRequest.SupplyRequestPriority.HIGH : SupplyRequest.SupplyRequestPriority.NORMAL)
+            .totalCost(totalCost)
+            .notes(String.format("소비 속도 기반 자동 보충 제안 (최근 %d일, 리드타임 %d일, 목표 %d일분)",
+                historyDays, leadTimeDays, coverDays))
+            .build();
+        supplyRequestRepository.save(supplyRequest);
+
+        List<SupplyRequestItem> items = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            items.add(SupplyRequestItem.builder()
+                .supplyRequestId(supplyRequest.getId())
+                .material(materialRepository.getReferenceById(line.pair().materialId()))
+                .requestedQuantity(line.quantity())
+                .unit(line.pair().unit())
+                .costPerUnit(line.pair().costPerUnit())
+                .notes(String.format("일 소비 %.3f, 재고 %.1f일분, 입고 시점 예상 %.3f",
+                    line.suggestion().dailyRate(), Math.min(line.suggestion().daysOfCover(), 999.9),
+                    line.suggestion().projected()))
+                .build());
+        }
+        supplyRequestItemRepository.saveAll(items);
+        return supplyRequest.getId();
+    }
+
+    private Map<String, Object> toSummary(Long branchId, List<Line> lines, Long requestId) {
+        List<Map<String, Object>> items = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("materialId", line.pair().materialId());
+            item.put("quantity", line.quantity());
+            item.put("unit", line.pair().unit());
+            item.put("dailyRate", BigDecimal.valueOf(line.suggestion().dailyRate()).setScale(3, RoundingMode.HALF_UP));
+            item.put("daysOfCover", Double.isInfinite(line.suggestion().daysOfCover()) ? null
+                : BigDecimal.valueOf(line.suggestion().daysOfCover()).setScale(1, RoundingMode.HALF_UP));
+            item.put("projectedStock", BigDecimal.valueOf(line.suggestion().projected()).setScale(3, RoundingMode.HALF_UP));
+            item.put("minStock", line.pair().minStock());
+            items.add(item);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("branchId", branchId);
+        summary.put("supplyRequestId", requestId);
+        summary.put("items", items);
+        return summary;
+    }
+
+    private static Integer indexOf(Map<Long, Map<Long, Integer>> pairIndex, long branchId, long materialId) {
+        Map<Long, Integer> materials = pairIndex.get(branchId);
+        return materials != null ? materials.get(materialId) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    // 계산 중 요청 스레드가 공용 풀을 점유하지 않도록 전용 풀 사용
+    private ForkJoinPool pool() {
+        ForkJoinPool current = pool;
+        if (current == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+                }
+                current = pool;
+            }
+        }
+        return current;
+    }
+
+    private record Pair(long branchId, long materialId, BigDecimal available, BigDecimal minStock, BigDecimal maxStock,
+                        String unit, BigDecimal costPerUnit) {}
+
+    private record Line(Pair pair, ReplenishmentPlanner.Suggestion suggestion, BigDecimal quantity) {}
+}
@@ -0,0 +1,917 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.OrderItems;
+import erp_project.erp_project.entity.Orders;
+import erp_project.erp_project.repository.ArchiveSegmentRepository;
+import erp_project.erp_project.util.LatencyRecorder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * 매출 집계 엔진
+ * - 주문 완료 시 (지점, 날짜, 시간) / (지점, 메뉴, 날짜) 버킷의 LongAdder 카운터만 증가 (DB 접근 없음)
+ * - 금액은 원 단위 소수 2자리까지 정수(센트)로 누적
+ * - 주기적으로 변화량만 INSERT ... ON DUPLICATE KEY UPDATE x = x + 변화량 으로 반영 (카테고리 행은 메뉴 변화량에서 생성)
+ * - 재시작 등으로 반영 전 변화량이 유실된 경우 orders 기준 재집계(replay)로 복구
+ * - 반영된 (지점, 날짜)는 월/주 롤업 갱신 대상으로 표시 (SalesRollupService)
+ * - 주문 또는 일별 통계가 아카이브된 날짜는 재집계하지 않음 (남은 일부 주문으로 통계를 덮어쓰게 됨)
+ * - 재집계는 클러스터에서 한 번에 하나만 실행하고, 시작 전에 모든 노드를 펜스로 막음
+ *   (각 노드는 미반영 변화량을 먼저 반영하고 대상 날짜의 새 주문은 보류, 재집계 후 결과에 포함되지 않은 주문만 반영)
+ *   메시지 형식: {nodeId}|FENCE|{token}|{date}|{branchId} / {nodeId}|RELEASE|{token}
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesAggregationService implements MessageListener {
+
+    public static final String CHANNEL = "sales:aggregation:fence";
+
+    private static final String FENCE_KEY_PREFIX = "sales:aggregation:fence:";
+
+    // 재집계 노드가 응답 없이 사라졌을 때 보류 중인 노드가 기다리는 최대 시간
+    private static final Duration FENCE_STATE_TTL = Duration.ofMinutes(10);
+
+    private static final String UPSERT_SALES_SQL =
+        "INSERT INTO sales_statistics (branch_id, statistic_date, statistic_hour, total_orders, total_sales, " +
+        "total_discount, net_sales, cash_sales, card_sales, mobile_sales, average_order_value, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW()) " +
+        "ON DUPLICATE KEY UPDATE " +
+        "total_orders = total_orders + VALUES(total_orders), " +
+        "total_sales = total_sales + VALUES(total_sales), " +
+        "total_discount = total_discount + VALUES(total_discount), " +
+        "net_sales = net_sales + VALUES(net_sales), " +
+        "cash_sales = cash_sales + VALUES(cash_sales), " +
+        "card_sales = card_sales + VALUES(card_sales), " +
+        "mobile_sales = mobile_sales + VALUES(mobile_sales), " +
+        // 위 대입이 먼저 적용된 값으로 계산됨
+        "average_order_value = ROUND(total_sales / NULLIF(total_orders, 0), 2), " +
+        "updated_at = NOW()";
+
+    private static final String UPSERT_MENU_SQL =
+        "INSERT INTO menu_sales_statistics (branch_id, menu_id, statistic_date, quantity_sold, total_sales, " +
+        "discount_amount, net_sales, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, NOW(), NOW()) " +
+        "ON DUPLICATE KEY UPDATE " +
+        "quantity_sold = quantity_sold + VALUES(quantity_sold), " +
+        "total_sales = total_sales + VALUES(total_sales), " +
+        "discount_amount = discount_amount + VALUES(discount_amount), " +
+        "net_sales = net_sales + VALUES(net_sales), " +
+        "updated_at = NOW()";
+
+    // 메뉴 변화량을 메뉴의 카테고리 행에 더함 (카테고리가 없는 메뉴는 건너뜀)
+    private static final String UPSERT_CATEGORY_SQL =
+        "INSERT INTO category_sales_statistics (branch_id, category_id, statistic_date, quantity_sold, total_sales, " +
+        "discount_amount, net_sales, created_at, updated_at) " +
+        "SELECT ?, m.category_id, ?, ?, ?, ?, ?, NOW(), NOW() FROM menus m " +
+        "WHERE m.id = ? AND m.category_id IS NOT NULL " +
+        "ON DUPLICATE KEY UPDATE " +
+        "quantity_sold = category_sales_statistics.quantity_sold + VALUES(quantity_sold), " +
+        "total_sales = category_sales_statistics.total_sales + VALUES(total_sales), " +
+        "discount_amount = category_sales_statistics.discount_amount + VALUES(discount_amount), " +
+        "net_sales = category_sales_statistics.net_sales + VALUES(net_sales), " +
+        "updated_at = NOW()";
+
+    // 재집계용 집합 연산 SQL (완료 + 결제 완료 주문 기준, 날짜/시간은 주문 생성 시각 기준)
+    private static final String ORDER_FILTER =
+        "o.order_status = 'completed' AND o.payment_status = 'completed' " +
+        "AND o.created_at >= ? AND o.created_at < ? ";
+
+    private static final String REBUILD_HOURLY_SQL =
+        "INSERT INTO sales_statistics (branch_id, statistic_date, statistic_hour, total_orders, total_sales, " +
+        "total_discount, net_sales, cash_sales, card_sales, mobile_sales, average_order_value, created_at, updated_at) " +
+        "SELECT o.branch_id, DATE(o.created_at), HOUR(o.created_at), COUNT(*), SUM(o.total_amount), " +
+        "SUM(IFNULL(o.discount_amount, 0)), SUM(o.total_amount - IFNULL(o.discount_amount, 0)), 0, 0, 0, " +
+        "ROUND(SUM(o.total_amount) / COUNT(*), 2), NOW(), NOW() " +
+        "FROM orders o WHERE " + ORDER_FILTER + "%s" +
+        "GROUP BY o.branch_id, DATE(o.created_at), HOUR(o.created_at)";
+
+    private static final String REBUILD_DAILY_SQL =
+        "INSERT INTO sales_statistics (branch_id, statistic_date, statistic_hour, total_orders, total_sales, " +
+        "total_discount, net_sales, cash_sales, card_sales, mobile_sales, average_order_value, created_at, updated_at) " +
+        "SELECT o.branch_id, DATE(o.created_at), NULL, COUNT(*), SUM(o.total_amount), " +
+        "SUM(IFNULL(o.discount_amount, 0)), SUM(o.total_amount - IFNULL(o.discount_amount, 0)), " +
+        "SUM(CASE WHEN o.payment_method = 'cash' THEN o.final_amount ELSE 0 END), " +
+        "SUM(CASE WHEN o.payment_method = 'card' THEN o.final_amount ELSE 0 END), " +
+        "SUM(CASE WHEN o.payment_method = 'mobile' THEN o.final_amount ELSE 0 END), " +
+        "ROUND(SUM(o.total_amount) / COUNT(*), 2), NOW(), NOW() " +
+        "FROM orders o WHERE " + ORDER_FILTER + "%s" +
+        "GROUP BY o.branch_id, DATE(o.created_at)";
+
+    private static final String REBUILD_MENU_SQL =
+        "INSERT INTO menu_sales_statistics (branch_id, menu_id, statistic_date, quantity_sold, total_sales, " +
+        "discount_amount, net_sales, created_at, updated_at) " +
+        "SELECT t.branch_id, t.menu_id, t.statistic_date, SUM(t.quantity), SUM(t.total_price), SUM(t.discount), " +
+        "SUM(t.total_price - t.discount), NOW(), NOW() FROM (" +
+        "  SELECT o.branch_id, oi.menu_id, DATE(o.created_at) AS statistic_date, oi.quantity, oi.total_price, " +
+        "  IFNULL(ROUND(IFNULL(o.discount_amount, 0) * oi.total_price / NULLIF(o.total_amount, 0), 2), 0) AS discount " +
+        "  FROM orders o JOIN order_items oi ON oi.order_id = o.order_id " +
+        "  WHERE " + ORDER_FILTER + "%s" +
+        ") t GROUP BY t.branch_id, t.menu_id, t.statistic_date";
+
+    private static final String REBUILD_CATEGORY_SQL =
+        "INSERT INTO category_sales_statistics (branch_id, category_id, statistic_date, quantity_sold, total_sales, " +
+        "discount_amount, net_sales, created_at, updated_at) " +
+        "SELECT t.branch_id, t.category_id, t.statistic_date, SUM(t.quantity), SUM(t.total_price), SUM(t.discount), " +
+        "SUM(t.total_price - t.discount), NOW(), NOW() FROM (" +
+        "  SELECT o.branch_id, m.category_id, DATE(o.created_at) AS statistic_date, oi.quantity, oi.total_price, " +
+        "  IFNULL(ROUND(IFNULL(o.discount_amount, 0) * oi.total_price / NULLIF(o.total_amount, 0), 2), 0) AS discount " +
+        "  FROM orders o JOIN order_items oi ON oi.order_id = o.order_id JOIN menus m ON m.id = oi.menu_id " +
+        "  WHERE m.category_id IS NOT NULL AND " + ORDER_FILTER + "%s" +
+        ") t GROUP BY t.branch_id, t.category_id, t.statistic_date";
+
+    // 재집계에 포함되는 주문 (잠금 읽기: 재집계가 커밋될 때까지 대상 주문의 상태 변경을 막음)
+    private static final String INCLUDED_ORDERS_SQL =
+        "SELECT o.order_id FROM orders o WHERE " + ORDER_FILTER + "%sLOCK IN SHARE MODE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheService cacheService;
+    private final SalesRollupService salesRollupService;
+    private final ArchiveSegmentRepository archiveSegmentRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.archive.retention-days:365}")
+    private int ordersRetentionDays;
+
+    @Value("${app.statistics.aggregation.replay-on-startup:true}")
+    private boolean replayOnStartup;
+
+    @Value("${app.statistics.aggregation.replay-days:1}")
+    private int replayDays;
+
+    @Value("${app.statistics.aggregation.fence-timeout-ms:10000}")
+    private long fenceTimeoutMs;
+
+    private final Map<SalesKey, SalesBucket> salesBuckets = new ConcurrentHashMap<>();
+    private final Map<MenuKey, MenuBucket> menuBuckets = new ConcurrentHashMap<>();
+
+    // flush 와 재집계가 서로 겹치지 않도록 하는 잠금
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // 주문 기록은 읽기 잠금(서로 막지 않음), 펜스 시작/해제와 빈 버킷 제거는 쓰기 잠금
+    private final ReentrantReadWriteLock recordLock = new ReentrantReadWriteLock();
+
+    // 진행 중인 재집계 펜스 (대상 날짜/지점의 새 주문은 카운터 대신 여기에 보류)
+    private volatile Fence fence;
+
+    private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+    private final LongAdder recordedOrders = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final AtomicLong lastFlushAt = new AtomicLong();
+    private final LongAdder fencedRebuilds = new LongAdder();
+    private final LongAdder heldOrders = new LongAdder();
+    private final LongAdder droppedHeldOrders = new LongAdder();
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 매출로 집계하는 주문인지 (완료 + 결제 완료)
+     */
+    public static boolean isSale(Orders order) {
+        return order.getOrderStatus() == Orders.OrderStatus.completed
+            && order.getPaymentStatus() == Orders.PaymentStatus.completed;
+    }
+
+    /**
+     * 완료된 주문 1건을 메모리 카운터에 반영
+     * - 완료 + 결제 완료 주문만 집계
+     * - 재집계 펜스 대상 날짜/지점이면 재집계가 끝날 때까지 보류
+     */
+    public void record(Orders order, List<OrderItems> items) {
+        if (!isSale(order)) {
+            return;
+        }
+
+        LocalDateTime createdAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+        recordLock.readLock().lock();
+        try {
+            Fence current = fence;
+            if (current != null && current.covers(order.getBranchId(), createdAt.toLocalDate())) {
+                current.held.add(new HeldOrder(order, items));
+                heldOrders.increment();
+                return;
+            }
+            accumulate(order, items, createdAt);
+        } finally {
+            recordLock.readLock().unlock();
+        }
+    }
+
+    private void accumulate(Orders order, List<OrderItems> items, LocalDateTime createdAt) {
+        LocalDate date = createdAt.toLocalDate();
+        long totalCents = toCents(order.getTotalAmount());
+        long discountCents = toCents(order.getDiscountAmount());
+        long finalCents = order.getFinalAmount() != null ? toCents(order.getFinalAmount()) : totalCents - discountCents;
+
+        // 1. 시간별 버킷 (일별 행은 flush 시 같은 날짜의 시간별 버킷을 합산해 만든다)
+        SalesBucket bucket = salesBuckets.computeIfAbsent(
+            new SalesKey(order.getBranchId(), date, createdAt.getHour()), k -> new SalesBucket());
+        bucket.orders.increment();
+        bucket.salesCents.add(totalCents);
+        bucket.discountCents.add(discountCents);
+        if (order.getPaymentMethod() != null) {
+            switch (order.getPaymentMethod()) {
+                case cash -> bucket.cashCents.add(finalCents);
+                case card -> bucket.cardCents.add(finalCents);
+                case mobile -> bucket.mobileCents.add(finalCents);
+            }
+        }
+
+        // 2. 메뉴별 버킷 (할인 금액은 아이템 금액 비율로 배분)
+        if (items != null) {
+            for (OrderItems item : items) {
+                long itemCents = toCents(item.getTotalPrice());
+                long itemDiscount = totalCents > 0 ? Math.round((double) discountCents * itemCents / totalCents) : 0L;
+                MenuBucket menuBucket = menuBuckets.computeIfAbsent(
+                    new MenuKey(order.getBranchId(), item.getMenuId(), date), k -> new MenuBucket());
+                menuBucket.quantity.add(item.getQuantity() != null ? item.getQuantity() : 0);
+                menuBucket.salesCents.add(itemCents);
+                menuBucket.discountCents.add(itemDiscount);
+            }
+        }
+
+        recordedOrders.increment();
+    }
+
+    /**
+     * 누적된 변화량을 DB에 반영
+     */
+    @Scheduled(fixedDelayString = "${app.statistics.aggregation.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushInternal();
+        } finally {
+            flushLock.unlock();
+        }
+
+        // 해제 메시지를 놓친 다른 노드의 펜스는 시간 초과 후 재집계 상태를 직접 확인
+        Fence current = fence;
+        if (current != null && current.remote && System.currentTimeMillis() > current.deadline) {
+            releaseRemoteFence(current);
+        }
+    }
+
+    /**
+     * orders 기준 재집계 (크래시 복구)
+     * - 클러스터에서 한 번에 하나만 실행 (다른 노드에서 실행 중이면 예외)
+     * - 모든 노드의 미반영 변화량을 반영한 뒤 통계 행을 지우고 집합 연산으로 다시 생성
+     * - branchId 가 null 이면 전체 지점
+     */
+    public Map<String, Object> rebuild(LocalDate date, Long branchId) {
+        checkRebuildable(date);
+        AtomicReference<Map<String, Object>> result = new AtomicReference<>();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        boolean acquired = schedulerLockService.runExclusive("sales-aggregation-rebuild", lease -> {
+            try {
+                result.set(rebuildFenced(date, branchId, lease));
+            } catch (RuntimeException e) {
+                failure.set(e);
+                throw e;
+            }
+        });
+        if (!acquired) {
+            throw new IllegalStateException("다른 노드에서 매출 통계 재집계가 실행 중입니다");
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        if (result.get() == null) {
+            throw new RuntimeException("매출 통계 재집계 실패 (스케줄 작업 이력 참고)");
+        }
+        return result.get();
+    }
+
+    private Map<String, Object> rebuildFenced(LocalDate date, Long branchId, SchedulerLockService.JobLease lease) {
+        long start = System.nanoTime();
+        String token = UUID.randomUUID().toString();
+        // 1. 이 노드의 대상 주문 보류 시작
+        Fence local = startFence(token, date, branchId, false);
+        Set<Long> included = Set.of();
+        boolean committed = false;
+        flushLock.lock();
+        try {
+            // 2. 이 노드와 다른 노드의 미반영 변화량 반영 (반영된 행은 아래에서 지우고 다시 만듦)
+            if (!flushInternal()) {
+                throw new IllegalStateException("미반영 변화량을 반영하지 못해 재집계를 중단합니다");
+            }
+            long remoteNodes = fenceRemoteNodes(token, date, branchId);
+
+            // 3. 삭제 후 재생성 (한 트랜잭션)
+            Rebuilt rebuilt = transactionTemplate.execute(status -> {
+                String branchFilter = branchId != null ? "AND o.branch_id = ? " : "";
+                List<Object> deleteArgs = new ArrayList<>(List.of(Date.valueOf(date)));
+                List<Object> selectArgs = new ArrayList<>(List.of(
+                    Timestamp.valueOf(date.atStartOfDay()), Timestamp.valueOf(date.plusDays(1).atStartOfDay())));
+                if (branchId != null) {
+                    deleteArgs.add(branchId);
+                    selectArgs.add(branchId);
+                }
+                String deleteFilter = "WHERE statistic_date = ?" + (branchId != null ? " AND branch_id = ?" : "");
+
+                List<Long> orderIds = jdbcTemplate.queryForList(
+                    String.format(INCLUDED_ORDERS_SQL, branchFilter), Long.class, selectArgs.toArray());
+                int deleted = 0;
+                for (String table : List.of("sales_statistics", "menu_sales_statistics", "category_sales_statistics")) {
+                    deleted += jdbcTemplate.update("DELETE FROM " + table + " " + deleteFilter, deleteArgs.toArray());
+                }
+                int hourly = jdbcTemplate.update(String.format(REBUILD_HOURLY_SQL, branchFilter), selectArgs.toArray());
+                int daily = jdbcTemplate.update(String.format(REBUILD_DAILY_SQL, branchFilter), selectArgs.toArray());
+                int menus = jdbcTemplate.update(String.format(REBUILD_MENU_SQL, branchFilter), selectArgs.toArray());
+                int categories = jdbcTemplate.update(String.format(REBUILD_CATEGORY_SQL, branchFilter), selectArgs.toArray());
+
+                // 보류 중인 다른 노드가 결과에 포함된 주문을 거를 수 있도록 커밋 전에 기록
+                if (remoteNodes > 0) {
+                    publishIncludedOrders(token, orderIds);
+                }
+                lease.checkFence();
+
+                Map<String, Object> rows = new LinkedHashMap<>();
+                rows.put("date", date.toString());
+                rows.put("branchId", branchId);
+                rows.put("orders", orderIds.size());
+                rows.put("deletedRows", deleted);
+                rows.put("dailyRows", daily);
+                rows.put("hourlyRows", hourly);
+                rows.put("menuRows", menus);
+                rows.put("categoryRows", categories);
+                rows.put("fencedNodes", remoteNodes);
+                return new Rebuilt(rows, new HashSet<>(orderIds));
+            });
+            committed = true;
+            included = rebuilt.orderIds();
+            setFenceState(token, "done");
+
+            cacheService.invalidateSalesCaches(branchId, date);
+            salesRollupService.markDirty(branchId, date);
+            fencedRebuilds.increment();
+            latencyRecorder.record("rebuild", System.nanoTime() - start);
+            log.info("매출 통계 재집계 완료: {}", rebuilt.result());
+            return rebuilt.result();
+        } finally {
+            flushLock.unlock();
+            if (!committed) {
+                setFenceState(token, "aborted");
+            }
+            // 4. 보류한 주문 중 재집계 결과에 없는 주문만 반영하고 다른 노드에 해제 알림
+            endFence(local, included);
+            try {
+                stringRedisTemplate.convertAndSend(CHANNEL, nodeId + "|RELEASE|" + token);
+            } catch (Exception e) {
+                // 다른 노드는 시간 초과 후 상태 키를 직접 확인
+                log.warn("매출 재집계 펜스 해제 알림 실패: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 다른 노드에 펜스 요청 후 모든 노드가 미반영 변화량을 반영할 때까지 대기
+     * @return 펜스가 걸린 다른 노드 수
+     */
+    private long fenceRemoteNodes(String token, LocalDate date, Long branchId) {
+        setFenceState(token, "running");
+        Long receivers = stringRedisTemplate.convertAndSend(CHANNEL,
+            nodeId + "|FENCE|" + token + "|" + date + "|" + (branchId != null ? branchId : ""));
+        // 이 노드의 구독도 수신자에 포함됨
+        long expected = receivers != null ? Math.max(receivers - 1, 0) : 0;
+        long deadline = System.currentTimeMillis() + fenceTimeoutMs;
+        while (true) {
+            Long acks = stringRedisTemplate.opsForList().size(FENCE_KEY_PREFIX + token + ":acks");
+            if (acks != null && acks >= expected) {
+                return expected;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("다른 노드가 응답하지 않아 재집계를 중단합니다 (" + acks + "/" + expected + ")");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("재집계 대기 중 중단되었습니다");
+            }
+        }
+    }
+
+    private void publishIncludedOrders(String token, List<Long> orderIds) {
+        String key = FENCE_KEY_PREFIX + token + ":orders";
+        for (int from = 0; from < orderIds.size(); from += 1000) {
+            String[] chunk = orderIds.subList(from, Math.min(from + 1000, orderIds.size())).stream()
+                .map(String::valueOf).toArray(String[]::new);
+            stringRedisTemplate.opsForSet().add(key, chunk);
+        }
+        stringRedisTemplate.expire(key, FENCE_STATE_TTL);
+    }
+
+    private void setFenceState(String token, String state) {
+        try {
+            stringRedisTemplate.opsForValue().set(FENCE_KEY_PREFIX + token + ":state", state, FENCE_STATE_TTL);
+        } catch (Exception e) {
+            log.warn("매출 재집계 펜스 상태 기록 실패: token={}, state={} - {}", token, state, e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 노드의 펜스 요청/해제 (자기 노드가 보낸 메시지는 무시)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", -1);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            if ("FENCE".equals(parts[1]) && parts.length >= 5) {
+                Long branchId = parts[4].isEmpty() ? null : Long.valueOf(parts[4]);
+                startFence(parts[2], LocalDate.parse(parts[3]), branchId, true);
+                boolean flushed;
+                flushLock.lock();
+                try {
+                    flushed = flushInternal();
+                } finally {
+                    flushLock.unlock();
+                }
+                // 반영에 실패하면 응답하지 않음 (재집계 노드가 시간 초과로 중단)
+                if (flushed) {
+                    String acks = FENCE_KEY_PREFIX + parts[2] + ":acks";
+                    stringRedisTemplate.opsForList().rightPush(acks, nodeId);
+                    stringRedisTemplate.expire(acks, FENCE_STATE_TTL);
+                }
+            } else if ("RELEASE".equals(parts[1])) {
+                Fence current = fence;
+                if (current != null && current.token.equals(parts[2])) {
+                    releaseRemoteFence(current);
+                }
+            }
+        } catch (Exception e) {
+            log.error("매출 재집계 펜스 메시지 처리 실패: {}", parts[1], e);
+        }
+    }
+
+    private Fence startFence(String token, LocalDate date, Long branchId, boolean remote) {
+        Fence next = new Fence(token, date, branchId, remote, System.currentTimeMillis() + fenceTimeoutMs);
+        Fence previous;
+        recordLock.writeLock().lock();
+        try {
+            previous = fence;
+            fence = next;
+        } finally {
+            recordLock.writeLock().unlock();
+        }
+        if (previous != null) {
+            // 재집계는 한 번에 하나만 실행되므로 이전 펜스는 해제를 놓친 것
+            log.warn("해제되지 않은 매출 재집계 펜스를 정리합니다: {}", previous.token);
+            Set<Long> included = Set.of();
+            try {
+                if (previous.remote && "done".equals(fenceState(previous.token))) {
+                    included = includedOrders(previous.token);
+                }
+            } catch (Exception e) {
+                log.warn("이전 매출 재집계 펜스 결과 조회 실패: {}", e.getMessage());
+            }
+            releaseHeld(previous, included);
+        }
+        return next;
+    }
+
+    /**
+     * 다른 노드 재집계의 결과 확인 후 펜스 해제
+     * - done: 결과에 포함된 주문은 버리고 나머지만 반영
+     * - running: 아직 재집계 중이므로 계속 보류
+     * - aborted 또는 상태 없음(재집계 노드 종료): 보류한 주문 전체 반영
+     */
+    private void releaseRemoteFence(Fence target) {
+        String state;
+        try {
+            state = fenceState(target.token);
+        } catch (Exception e) {
+            // 다음 flush 주기에 다시 확인
+            log.warn("매출 재집계 펜스 상태 조회 실패: {}", e.getMessage());
+            return;
+        }
+        if ("running".equals(state)) {
+            target.deadline = System.currentTimeMillis() + fenceTimeoutMs;
+            return;
+        }
+        endFence(target, "done".equals(state) ? includedOrders(target.token) : Set.of());
+    }
+
+    private String fenceState(String token) {
+        return stringRedisTemplate.opsForValue().get(FENCE_KEY_PREFIX + token + ":state");
+    }
+
+    private Set<Long> includedOrders(String token) {
+        Set<String> members = stringRedisTemplate.opsForSet().members(FENCE_KEY_PREFIX + token + ":orders");
+        return members != null ? members.stream().map(Long::valueOf).collect(Collectors.toSet()) : Set.of();
+    }
+
+    private void endFence(Fence target, Set<Long> included) {
+        recordLock.writeLock().lock();
+        try {
+            if (fence == target) {
+                fence = null;
+            }
+        } finally {
+            recordLock.writeLock().unlock();
+        }
+        releaseHeld(target, included);
+    }
+
+    /**
+     * 보류한 주문 반영 (재집계 결과에 포함된 주문은 버림)
+     * - 펜스를 내린 뒤 호출하므로 이후 보류 목록에 추가되는 주문은 없음
+     */
+    private void releaseHeld(Fence target, Set<Long> included) {
+        int counted = 0;
+        int dropped = 0;
+        for (HeldOrder held = target.held.poll(); held != null; held = target.held.poll()) {
+            heldOrders.decrement();
+            if (included.contains(held.order().getOrderId())) {
+                dropped++;
+            } else {
+                record(held.order(), held.items());
+                counted++;
+            }
+        }
+        droppedHeldOrders.add(dropped);
+        if (counted + dropped > 0) {
+            log.info("매출 재집계 펜스 해제: token={}, 반영={}, 재집계에 포함={}", target.token, counted, dropped);
+        }
+    }
+
+    /**
+     * 주문 보존 기간이 지났거나 주문/일별 통계 세그먼트가 있는 월이면 재집계 거부
+     */
+    private void checkRebuildable(LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        if (date.isBefore(LocalDate.now().minusDays(ordersRetentionDays))
+                || !archiveSegmentRepository.findSegments(
+                    ArchiveEngineService.ORDERS.name(), null, month.toString(), month.toString()).isEmpty()) {
+            throw new IllegalStateException("주문이 아카이브된 날짜는 재집계할 수 없습니다: " + date);
+        }
+        if (month.isBefore(salesRollupService.firstRetainedMonth())) {
+            throw new IllegalStateException("일별 통계가 아카이브된 날짜는 재집계할 수 없습니다: " + date);
+        }
+    }
+
+    /**
+     * 기동 시 최근 replayDays 일을 재집계 (이전 프로세스의 미반영 변화량 복구)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        if (!replayOnStartup) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (int i = replayDays - 1; i >= 0; i--) {
+            try {
+                rebuild(today.minusDays(i), null);
+            } catch (Exception e) {
+                log.error("기동 시 매출 통계 재집계 실패: date={}", today.minusDays(i), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("종료 시 매출 통계 반영 실패", e);
+        }
+    }
+
+    /**
+     * 집계 엔진 지표
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("recordedOrders", recordedOrders.sum());
+        metrics.put("pendingSalesBuckets", salesBuckets.size());
+        metrics.put("pendingMenuBuckets", menuBuckets.size());
+        metrics.put("flushCount", flushCount.sum());
+        metrics.put("flushFailures", flushFailures.sum());
+        metrics.put("flushedRows", flushedRows.sum());
+        metrics.put("lastFlushAt", lastFlushAt.get());
+        metrics.put("fencedRebuilds", fencedRebuilds.sum());
+        metrics.put("heldOrders", heldOrders.sum());
+        metrics.put("droppedHeldOrders", droppedHeldOrders.sum());
+        Fence current = fence;
+        metrics.put("activeFence", current != null ? current.token : null);
+        metrics.put("stages", latencyRecorder.snapshot());
+        return metrics;
+    }
+
+    /**
+     * @return 반영 성공 여부 (반영할 변화량이 없으면 true)
+     */
+    private boolean flushInternal() {
+        long start = System.nanoTime();
+
+        // 1. 시간별 변화량 수집 + 일별 합산
+        Map<SalesKey, long[]> hourlyDeltas = new HashMap<>();
+        Map<SalesKey, long[]> dailyDeltas = new HashMap<>();
+        List<SalesKey> idleSales = new ArrayList<>();
+        salesBuckets.forEach((key, bucket) -> {
+            long[] delta = bucket.drain();
+            if (isZero(delta)) {
+                if (isRetirable(key.date)) {
+                    idleSales.add(key);
+                }
+                return;
+            }
+            hourlyDeltas.put(key, delta);
+            long[] daily = dailyDeltas.computeIfAbsent(new SalesKey(key.branchId, key.date, -1), k -> new long[delta.length]);
+            for (int i = 0; i < delta.length; i++) {
+                daily[i] += delta[i];
+            }
+        });
+
+        // 2. 메뉴별 변화량 수집
+        Map<MenuKey, long[]> menuDeltas = new HashMap<>();
+        List<MenuKey> idleMenus = new ArrayList<>();
+        menuBuckets.forEach((key, bucket) -> {
+            long[] delta = bucket.drain();
+            if (isZero(delta)) {
+                if (isRetirable(key.date)) {
+                    idleMenus.add(key);
+                }
+                return;
+            }
+            menuDeltas.put(key, delta);
+        });
+        retireIdle(idleSales, idleMenus);
+
+        if (hourlyDeltas.isEmpty() && menuDeltas.isEmpty()) {
+            return true;
+        }
+
+        // 3. 배치 upsert (실패 시 변화량을 버킷에 되돌려 다음 주기에 재시도)
+        List<Object[]> salesArgs = new ArrayList<>(hourlyDeltas.size() + dailyDeltas.size());
+        dailyDeltas.forEach((key, delta) -> salesArgs.add(salesRow(key, delta, true)));
+        hourlyDeltas.forEach((key, delta) -> salesArgs.add(salesRow(key, delta, false)));
+        List<Object[]> menuArgs = new ArrayList<>(menuDeltas.size());
+        List<Object[]> categoryArgs = new ArrayList<>(menuDeltas.size());
+        menuDeltas.forEach((key, delta) -> {
+            menuArgs.add(menuRow(key, delta));
+            categoryArgs.add(categoryRow(key, delta));
+        });
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!salesArgs.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPSERT_SALES_SQL, salesArgs);
+                }
+                if (!menuArgs.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPSERT_MENU_SQL, menuArgs);
+                    jdbcTemplate.batchUpdate(UPSERT_CATEGORY_SQL, categoryArgs);
+                }
+            });
+        } catch (RuntimeException e) {
+            hourlyDeltas.forEach((key, delta) -> salesBuckets.computeIfAbsent(key, k -> new SalesBucket()).restore(delta));
+            menuDeltas.forEach((key, delta) -> menuBuckets.computeIfAbsent(key, k -> new MenuBucket()).restore(delta));
+            flushFailures.increment();
+            log.error("매출 통계 반영 실패, 다음 주기에 재시도합니다: {}", e.getMessage());
+            return false;
+        }
+
+        // 4. 반영된 (지점, 날짜)에 걸린 캐시 키만 무효화
+        Set<SalesKey> touched = new HashSet<>(dailyDeltas.keySet());
+        menuDeltas.keySet().forEach(key -> touched.add(new SalesKey(key.branchId, key.date, -1)));
+        touched.forEach(key -> {
+            cacheService.invalidateSalesCaches(key.branchId, key.date);
+            salesRollupService.markDirty(key.branchId, key.date);
+        });
+
+        flushCount.increment();
+        flushedRows.add(salesArgs.size() + menuArgs.size());
+        lastFlushAt.set(System.currentTimeMillis());
+        latencyRecorder.record("flush", System.nanoTime() - start);
+        log.debug("매출 통계 반영: salesRows={}, menuRows={}", salesArgs.size(), menuArgs.size());
+        return true;
+    }
+
+    /**
+     * 이틀 이전 날짜인지 (자정 직후 완료되는 전날 주문을 고려해 어제/오늘 버킷은 유지)
+     */
+    private static boolean isRetirable(LocalDate date) {
+        return date.isBefore(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * 한 주기 동안 변화가 없던 버킷 제거
+     * - 쓰기 잠금으로 진행 중인 기록이 없을 때 다시 비어 있는지 확인 후 제거 (drain 이후 들어온 증가분 유실 방지)
+     */
+    private void retireIdle(List<SalesKey> idleSales, List<MenuKey> idleMenus) {
+        if (idleSales.isEmpty() && idleMenus.isEmpty()) {
+            return;
+        }
+        recordLock.writeLock().lock();
+        try {
+            idleSales.forEach(key -> salesBuckets.computeIfPresent(key, (k, bucket) -> bucket.isEmpty() ? null : bucket));
+            idleMenus.forEach(key -> menuBuckets.computeIfPresent(key, (k, bucket) -> bucket.isEmpty() ? null : bucket));
+        } finally {
+            recordLock.writeLock().unlock();
+        }
+    }
+
+    private static Object[] salesRow(SalesKey key, long[] delta, boolean daily) {
+        long orders = delta[0];
+        long sales = delta[1];
+        long discount = delta[2];
+        return new Object[] {
+            key.branchId,
+            Date.valueOf(key.date),
+            daily ? null : key.hour,
+            orders,
+            fromCents(sales),
+            fromCents(discount),
+            fromCents(sales - discount),
+            // 결제 수단별 매출은 기존과 같이 일별 행에만 기록
+            daily ? fromCents(delta[3]) : BigDecimal.ZERO,
+            daily ? fromCents(delta[4]) : BigDecimal.ZERO,
+            daily ? fromCents(delta[5]) : BigDecimal.ZERO,
+            orders > 0 ? fromCents(sales).divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO
+        };
+    }
+
+    private static Object[] menuRow(MenuKey key, long[] delta) {
+        return new Object[] {
+            key.branchId,
+            key.menuId,
+            Date.valueOf(key.date),
+            delta[0],
+            fromCents(delta[1]),
+            fromCents(delta[2]),
+            fromCents(delta[1] - delta[2])
+        };
+    }
+
+    private static Object[] categoryRow(MenuKey key, long[] delta) {
+        return new Object[] {
+            key.branchId,
+            Date.valueOf(key.date),
+            delta[0],
+            fromCents(delta[1]),
+            fromCents(delta[2]),
+            fromCents(delta[1] - delta[2]),
+            key.menuId
+        };
+    }
+
+    private static boolean isZero(long[] delta) {
+        for (long value : delta) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue() : 0L;
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private record SalesKey(long branchId, LocalDate date, int hour) {}
+
+    private record MenuKey(long branchId, long menuId, LocalDate date) {}
+
+    private record HeldOrder(Orders order, List<OrderItems> items) {}
+
+    private record Rebuilt(Map<String, Object> result, Set<Long> orderIds) {}
+
+    /**
+     * 재집계 펜스 (대상 날짜 + 지점, branchId 가 null 이면 전체 지점)
+     */
+    private static final class Fence {
+        final String token;
+        final LocalDate date;
+        final Long branchId;
+        // 다른 노드가 시작한 펜스 (해제 알림을 놓치면 deadline 이후 상태 키 확인)
+        final boolean remote;
+        volatile long deadline;
+        final Queue<HeldOrder> held = new ConcurrentLinkedQueue<>();
+
+        Fence(String token, LocalDate date, Long branchId, boolean remote, long deadline) {
+            this.token = token;
+            this.date = date;
+            this.branchId = branchId;
+            this.remote = remote;
+            this.deadline = deadline;
+        }
+
+        boolean covers(Long orderBranchId, LocalDate orderDate) {
+            return date.equals(orderDate) && (branchId == null || branchId.equals(orderBranchId));
+        }
+    }
+
+    /**
+     * 시간별 매출 카운터
+     * - sumThenReset 은 동시에 들어온 증가분을 잃지 않음 (이번 또는 다음 주기에 반영)
+     */
+    private static final class SalesBucket {
+        final LongAdder orders = new LongAdder();
+        final LongAdder salesCents = new LongAdder();
+        final LongAdder discountCents = new LongAdder();
+        final LongAdder cashCents = new LongAdder();
+        final LongAdder cardCents = new LongAdder();
+        final LongAdder mobileCents = new LongAdder();
+
+        long[] drain() {
+            return new long[] {
+                orders.sumThenReset(), salesCents.sumThenReset(), discountCents.sumThenReset(),
+                cashCents.sumThenReset(), cardCents.sumThenReset(), mobileCents.sumThenReset()
+            };
+        }
+
+        boolean isEmpty() {
+            return orders.sum() == 0 && salesCents.sum() == 0 && discountCents.sum() == 0
+                && cashCents.sum() == 0 && cardCents.sum() == 0 && mobileCents.sum() == 0;
+        }
+
+        void restore(long[] delta) {
+            orders.add(delta[0]);
+            salesCents.add(delta[1]);
+            discountCents.add(delta[2]);
+            cashCents.add(delta[3]);
+            cardCents.add(delta[4]);
+            mobileCents.add(delta[5]);
+        }
+    }
+
+    /**
+     * 메뉴별 매출 카운터
+     */
+    private static final class MenuBucket {
+        final LongAdder quantity = new LongAdder();
+        final LongAdder salesCents = new LongAdder();
+        final LongAdder discountCents = new LongAdder();
+
+        long[] drain() {
+            return new long[] { quantity.sumThenReset(), salesCents.sumThenReset(), discountCents.sumThenReset() };
+        }
+
+        boolean isEmpty() {
+            return quantity.sum() == 0 && salesCents.sum() == 0 && discountCents.sum() == 0;
+        }
+
+        void restore(long[] delta) {
+            quantity.add(delta[0]);
+            salesCents.add(delta[1]);
+            discountCents.add(delta[2]);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.dto.SalesCubeQueryDto;
+import erp_project.erp_project.entity.OrderItems;
+import erp_project.erp_project.entity.Orders;
+import erp_project.erp_project.repository.OrderItemRepository;
+import erp_project.erp_project.repository.OrderRepository;
+import erp_project.erp_project.util.LatencyRecorder;
+import erp_project.erp_project.util.SalesCube;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HQ 통계 화면용 인메모리 매출 큐브
+ * - 기동 시(비동기) / 매일 새벽 orders + order_items 를 (지점, 메뉴, 날짜, 시간) 단위로 합산해 컬럼형 큐브로 적재
+ *   (통계 테이블에는 메뉴 × 시간 조합이 없어 원본 주문에서 같은 조건으로 집계)
+ * - 주문 완료 시 주문 아이템 행을 즉시 추가 (재적재 시 압축됨)
+ * - 다른 노드 전파: 추가 후 Redis pub/sub 으로 주문 ID 전송, 받은 노드는 주문을 읽어 자기 큐브에 추가 (메시지 형식: {nodeId}|{orderId})
+ *   메시지를 놓친 노드는 다음 재적재에서 반영
+ * - 조회는 전용 ForkJoinPool 에서 병렬 스캔, 엔티티 생성 없이 결과 행만 만듦
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesCubeService implements MessageListener {
+
+    public static final String CHANNEL = "sales:cube:append";
+
+    private static final String LOAD_SQL =
+        "SELECT o.branch_id, oi.menu_id, IFNULL(m.category_id, 0), DATE(o.created_at), HOUR(o.created_at), " +
+        "SUM(oi.quantity), SUM(oi.total_price) " +
+        "FROM orders o JOIN order_items oi ON oi.order_id = o.order_id " +
+        "LEFT JOIN menus m ON m.id = oi.menu_id " +
+        "WHERE o.order_status = 'completed' AND o.payment_status = 'completed' " +
+        "AND o.created_at >= ? AND (o.updated_at IS NULL OR o.updated_at < ?) " +
+        "GROUP BY o.branch_id, oi.menu_id, IFNULL(m.category_id, 0), DATE(o.created_at), HOUR(o.created_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.analytics.cube.history-days:400}")
+    private int historyDays;
+
+    @Value("${app.analytics.cube.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.analytics.cube.load-on-startup:true}")
+    private boolean loadOnStartup;
+
+    private volatile SalesCube cube = new SalesCube();
+    private volatile Map<Long, Long> menuCategories = Map.of();
+    private volatile ForkJoinPool pool;
+
+    // 재적재 중 들어온 주문 (적재 기준 시각 이후 완료분만 새 큐브에 다시 추가)
+    private final Object reloadLock = new Object();
+    private boolean reloading;
+    private List<PendingOrder> pendingOrders;
+
+    private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder appendedRows = new LongAdder();
+    private final LongAdder remoteAppends = new LongAdder();
+    private final AtomicLong lastLoadedAt = new AtomicLong();
+    private final AtomicLong lastLoadedRows = new AtomicLong();
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!loadOnStartup) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("기동 시 매출 큐브 적재 실패", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.analytics.cube.reload-cron:0 0 4 * * *}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("매출 큐브 재적재 실패", e);
+        }
+    }
+
+    /**
+     * 큐브 전체 재적재 (적재 중에도 기존 큐브로 조회 가능, 완료 후 교체)
+     */
+    public Map<String, Object> reload() {
+        long start = System.nanoTime();
+        LocalDateTime cutoff;
+        synchronized (reloadLock) {
+            if (reloading) {
+                throw new IllegalStateException("매출 큐브를 이미 적재 중입니다");
+            }
+            reloading = true;
+            pendingOrders = new ArrayList<>();
+            cutoff = LocalDateTime.now();
+        }
+
+        try {
+            Map<Long, Long> categories = new HashMap<>();
+            jdbcTemplate.query("SELECT id, category_id FROM menus", rs -> {
+                categories.put(rs.getLong(1), rs.getLong(2));
+            });
+
+            SalesCube next = new SalesCube();
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                next.append(rs.getInt(1), rs.getInt(2), rs.getInt(3), (int) rs.getDate(4).toLocalDate().toEpochDay(),
+                    rs.getInt(5), rs.getInt(6), toCents(rs.getBigDecimal(7)));
+            }, Timestamp.valueOf(cutoff.toLocalDate().minusDays(historyDays).atStartOfDay()), Timestamp.valueOf(cutoff));
+
+            int replayed = 0;
+            synchronized (reloadLock) {
+                for (PendingOrder pending : pendingOrders) {
+                    LocalDateTime updatedAt = pending.order().getUpdatedAt();
+                    if (updatedAt == null || !updatedAt.isBefore(cutoff)) {
+                        appendTo(next, categories, pending.order(), pending.items());
+                        replayed++;
+                    }
+                }
+                cube = next;
+                menuCategories = categories;
+                reloading = false;
+                pendingOrders = null;
+            }
+
+            long elapsed = System.nanoTime() - start;
+            latencyRecorder.record("load", elapsed);
+            lastLoadedAt.set(System.currentTimeMillis());
+            lastLoadedRows.set(next.rowCount());
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("rows", next.rowCount());
+            result.put("replayedOrders", replayed);
+            result.put("memoryBytes", next.memoryBytes());
+            result.put("elapsedMs", elapsed / 1_000_000);
+            log.info("매출 큐브 적재 완료: {}", result);
+            return result;
+        } catch (RuntimeException e) {
+            synchronized (reloadLock) {
+                reloading = false;
+                pendingOrders = null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 완료된 주문 1건을 큐브에 추가 (완료 + 결제 완료 주문만) 후 다른 노드에 전파
+     */
+    public void append(Orders order, List<OrderItems> items) {
+        if (!appendLocal(order, items)) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, nodeId + "|" + order.getOrderId());
+        } catch (Exception e) {
+            // 다른 노드는 다음 재적재에서 반영
+            log.warn("매출 큐브 추가 전파 실패: orderId={}, error={}", order.getOrderId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 노드에서 완료된 주문 (자기 노드가 보낸 메시지는 무시)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        try {
+            Long orderId = Long.parseLong(body.substring(separator + 1));
+            orderRepository.findById(orderId).ifPresent(order -> {
+                if (appendLocal(order, orderItemRepository.findByOrderId(orderId))) {
+                    remoteAppends.increment();
+                }
+            });
+        } catch (Exception e) {
+            // 다음 재적재에서 반영
+            log.error("다른 노드의 주문 완료 큐브 반영 실패: {}", body, e);
+        }
+    }
+
+    private boolean appendLocal(Orders order, List<OrderItems> items) {
+        if (items == null || items.isEmpty()
+                || order.getOrderStatus() != Orders.OrderStatus.completed
+                || order.getPaymentStatus() != Orders.PaymentStatus.completed) {
+            return false;
+        }
+        synchronized (reloadLock) {
+            appendTo(cube, menuCategories, order, items);
+            if (reloading) {
+                pendingOrders.add(new PendingOrder(order, items));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 큐브 조회
+     */
+    public Map<String, Object> query(SalesCubeQueryDto request) {
+        long start = System.nanoTime();
+        SalesCube.Query query = toQuery(request);
+        SalesCube.Result result = cube.query(query, pool());
+
+        List<Map<String, Object>> rows = new ArrayList<>(result.size());
+        for (int i = 0; i < result.size(); i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int d = 0; d < result.groupBy.length; d++) {
+                long value = result.keys[i][d];
+                switch (result.groupBy[d]) {
+                    case BRANCH -> row.put("branchId", value);
+                    case MENU -> row.put("menuId", value);
+                    case CATEGORY -> row.put("categoryId", value);
+                    case DATE -> row.put("date", LocalDate.ofEpochDay(value).toString());
+                    case HOUR -> row.put("hour", value);
+                }
+            }
+            row.put("quantity", result.quantity[i]);
+            row.put("sales", BigDecimal.valueOf(result.salesCents[i], 2));
+            row.put("rows", result.rows[i]);
+            rows.add(row);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        queries.increment();
+        latencyRecorder.record("query", elapsed);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("rows", rows);
+        response.put("totalGroups", result.totalGroups);
+        response.put("scannedRows", result.scannedRows);
+        response.put("matchedRows", result.matchedRows);
+        response.put("elapsedMicros", elapsed / 1_000);
+        return response;
+    }
+
+    /**
+     * 큐브 지표 (행 수, 메모리, 적재/조회 지연 시간)
+     */
+    public Map<String, Object> getMetrics() {
+        SalesCube current = cube;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("rows", current.rowCount());
+        metrics.put("segments", current.segmentCount());
+        metrics.put("memoryBytes", current.memoryBytes());
+        metrics.put("parallelism", pool().getParallelism());
+        metrics.put("appendedRows", appendedRows.sum());
+        metrics.put("remoteAppends", remoteAppends.sum());
+        metrics.put("lastLoadedRows", lastLoadedRows.get());
+        metrics.put("lastLoadedAt", lastLoadedAt.get());
+        metrics.put("queries", queries.sum());
+        metrics.put("stages", latencyRecorder.snapshot());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    // HTTP 요청 스레드가 공용 풀을 점유하지 않도록 전용 풀 사용
+    private ForkJoinPool pool() {
+        ForkJoinPool current = pool;
+        if (current == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+                }
+                current = pool;
+            }
+        }
+        return current;
+    }
+
+    private void appendTo(SalesCube target, Map<Long, Long> categories, Orders order, List<OrderItems> items) {
+        LocalDateTime createdAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+        int day = (int) createdAt.toLocalDate().toEpochDay();
+        for (OrderItems item : items) {
+            long category = categories.getOrDefault(item.getMenuId(), 0L);
+            target.append(order.getBranchId().intValue(), item.getMenuId().intValue(), (int) category, day,
+                createdAt.getHour(), item.getQuantity() != null ? item.getQuantity() : 0, toCents(item.getTotalPrice()));
+            appendedRows.increment();
+        }
+    }
+
+    private static SalesCube.Query toQuery(SalesCubeQueryDto request) {
+        SalesCube.Query query = new SalesCube.Query();
+        query.branchIds = toArray(request.getBranchIds());
+        query.menuIds = toArray(request.getMenuIds());
+        query.categoryIds = toArray(request.getCategoryIds());
+        if (request.getStartDate() != null) {
+            query.fromDay = (int) request.getStartDate().toEpochDay();
+        }
+        if (request.getEndDate() != null) {
+            query.toDay = (int) request.getEndDate().toEpochDay();
+        }
+        if (request.getFromHour() != null) {
+            query.fromHour = request.getFromHour();
+        }
+        if (request.getToHour() != null) {
+            query.toHour = request.getToHour();
+        }
+        if (request.getGroupBy() != null) {
+            query.groupBy = request.getGroupBy().stream()
+                .map(name -> SalesCube.Dimension.valueOf(name.toUpperCase(Locale.ROOT)))
+                .distinct()
+                .toArray(SalesCube.Dimension[]::new);
+        }
+        if (request.getOrderBy() != null) {
+            query.orderBy = SalesCube.Metric.valueOf(request.getOrderBy().toUpperCase(Locale.ROOT));
+        }
+        if (request.getLimit() != null) {
+            query.limit = request.getLimit();
+        }
+        return query;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids == null || ids.isEmpty() ? null : ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue() : 0L;
+    }
+
+    private record PendingOrder(Orders order, List<OrderItems> items) {}
+}
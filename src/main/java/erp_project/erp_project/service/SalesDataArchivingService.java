@@ -1,6 +1,5 @@
 package erp_project.erp_project.service;
 
-import erp_project.erp_project.entity.Orders;
 import erp_project.erp_project.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,11 +7,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 @Service
@@ -21,6 +19,8 @@ import java.util.concurrent.CompletableFuture;
 public class SalesDataArchivingService {
     
     private final OrderRepository orderRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final ArchiveEngineService archiveEngineService;
     
     @Value("${app.archive.enabled:true}")
     private boolean archivingEnabled;
@@ -32,10 +32,21 @@ public class SalesDataArchivingService {
     private int batchSize;
     
     /**
-     * 주기적 데이터 아카이빙 (매월 1일 새벽 2시)
+     * 매월 1일 새벽 2시 실행 (여러 노드 중 잠금을 얻은 1곳만)
      */
     @Scheduled(cron = "0 0 2 1 * ?")
+    public void scheduledArchiveOldSalesData() {
+        schedulerLockService.runExclusive("sales-archiving", lease -> archiveOldSalesData(lease));
+    }
+    
+    /**
+     * 보존 기간이 지난 주문 / 주문 아이템 / 주문 아이템 상세를 아카이브 파일로 이동
+     */
     public void archiveOldSalesData() {
+        archiveOldSalesData(null);
+    }
+    
+    private void archiveOldSalesData(SchedulerLockService.JobLease lease) {
         if (!archivingEnabled) {
             log.info("데이터 아카이빙이 비활성화되어 있습니다.");
             return;
@@ -44,32 +55,10 @@ public class SalesDataArchivingService {
         log.info("오래된 매출 데이터 아카이빙 시작");
         
         try {
-            LocalDate cutoffDate = LocalDate.now().minusDays(retentionDays);
-            LocalDateTime cutoffDateTime = cutoffDate.atStartOfDay();
-            
-            // 1. 아카이빙 대상 데이터 조회
-            List<Orders> oldOrders = orderRepository.findByCreatedAtBefore(cutoffDateTime);
-            
-            if (oldOrders.isEmpty()) {
-                log.info("아카이빙할 데이터가 없습니다.");
-                return;
-            }
-            
-            log.info("아카이빙 대상 주문 수: {}", oldOrders.size());
-            
-            // 2. 배치 단위로 아카이빙 처리
-            int totalBatches = (int) Math.ceil((double) oldOrders.size() / batchSize);
-            
-            for (int i = 0; i < totalBatches; i++) {
-                int startIndex = i * batchSize;
-                int endIndex = Math.min(startIndex + batchSize, oldOrders.size());
-                
-                List<Orders> batch = oldOrders.subList(startIndex, endIndex);
-                processBatchArchive(batch, i + 1, totalBatches);
-            }
-            
-            log.info("데이터 아카이빙 완료: 총 {} 개 주문 처리", oldOrders.size());
-            
+            LocalDateTime cutoffDateTime = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+            Map<String, Object> summary = archiveEngineService.archive(
+                ArchiveEngineService.ORDERS, null, cutoffDateTime, batchSize, lease);
+            log.info("데이터 아카이빙 완료: 총 {} 개 주문 처리", summary.get("rows"));
         } catch (Exception e) {
             log.error("데이터 아카이빙 중 오류 발생", e);
         }
@@ -85,55 +74,22 @@ public class SalesDataArchivingService {
     }
     
     /**
-     * 배치 단위 아카이빙 처리
-     */
-    @Transactional
-    private void processBatchArchive(List<Orders> batch, int batchNumber, int totalBatches) {
-        log.info("배치 아카이빙 처리: {}/{}", batchNumber, totalBatches);
-        
-        try {
-            // 실제 아카이빙 로직 (예: 별도 테이블로 이동, 파일로 저장 등)
-            for (Orders order : batch) {
-                // 여기서 실제 아카이빙 로직 구현
-                // 예: 별도 아카이브 테이블에 저장
-                // archiveOrder(order);
-                
-                // 또는 파일로 저장
-                // saveOrderToFile(order);
-                
-                // 현재는 로그만 출력 (실제 구현 시 위의 주석 해제)
-                log.debug("아카이빙 처리: 주문 ID {}", order.getOrderId());
-            }
-            
-            // 원본 데이터 삭제 (필요한 경우)
-            // orderRepository.deleteAll(batch);
-            
-        } catch (Exception e) {
-            log.error("배치 {} 아카이빙 처리 실패", batchNumber, e);
-        }
-    }
-    
-    /**
-     * 수동 아카이빙 실행
+     * 수동 아카이빙 실행 (fromDate ~ toDate, 양 끝 포함)
      */
     @Async
     public CompletableFuture<String> manualArchive(LocalDate fromDate, LocalDate toDate) {
         log.info("수동 아카이빙 실행: {} ~ {}", fromDate, toDate);
         
         try {
-            LocalDateTime startDateTime = fromDate.atStartOfDay();
-            LocalDateTime endDateTime = toDate.plusDays(1).atStartOfDay();
-            
-            List<Orders> targetOrders = orderRepository.findByCreatedAtBetween(startDateTime, endDateTime);
+            Map<String, Object> summary = archiveEngineService.archive(ArchiveEngineService.ORDERS,
+                fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay(), batchSize, null);
             
-            if (targetOrders.isEmpty()) {
+            if (((Number) summary.get("rows")).intValue() == 0) {
                 return CompletableFuture.completedFuture("아카이빙할 데이터가 없습니다.");
             }
             
-            processBatchArchive(targetOrders, 1, 1);
-            
             return CompletableFuture.completedFuture(
-                String.format("수동 아카이빙 완료: %d 개 주문 처리", targetOrders.size()));
+                String.format("수동 아카이빙 완료: %s 개 주문 처리", summary.get("rows")));
                 
         } catch (Exception e) {
             log.error("수동 아카이빙 실패", e);
@@ -2,6 +2,7 @@ package erp_project.erp_project.service;
 
 import erp_project.erp_project.entity.Orders;
 import erp_project.erp_project.repository.OrderRepository;
+import erp_project.erp_project.util.RedisKeyScanner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -26,6 +27,8 @@ public class SalesDataOptimizationService {
     
     private final RedisTemplate<String, Object> redisTemplate;
     private final OrderRepository orderRepository;
+    private final RedisKeyScanner redisKeyScanner;
+    private final SchedulerLockService schedulerLockService;
     
     // Redis 키 패턴 상수
     private static final String REALTIME_SALES_KEY = "realtime:sales:";
@@ -121,10 +124,17 @@ public class SalesDataOptimizationService {
         return aggregatedData;
     }
     
+    /**
+     * 매일 새벽 1시 실행 (여러 노드 중 잠금을 얻은 1곳만)
+     */
+    @Scheduled(cron = "0 0 1 * * ?")
+    public void scheduledDailySalesBatch() {
+        schedulerLockService.runExclusive("sales-daily-batch", lease -> processDailySalesBatch());
+    }
+    
     /**
      * 대용량 데이터 처리를 위한 배치 작업
      */
-    @Scheduled(cron = "0 0 1 * * ?") // 매일 새벽 1시 실행
     public void processDailySalesBatch() {
         log.info("일별 매출 데이터 배치 처리 시작");
         
@@ -207,14 +217,14 @@ public class SalesDataOptimizationService {
     private void optimizeCache() {
         log.info("캐시 최적화 시작");
         
-        // 자주 사용되지 않는 캐시 정리
-        Set<String> keys = redisTemplate.keys("realtime:sales:*");
-        if (keys != null && keys.size() > 1000) {
-            // 오래된 실시간 데이터 정리
-            keys.stream()
-                .filter(key -> key.contains("realtime:sales:"))
-                .limit(keys.size() - 500) // 최신 500개만 유지
-                .forEach(key -> redisTemplate.delete(key));
+        // 자주 사용되지 않는 캐시 정리 (SCAN 으로 수집, 날짜가 오래된 순으로 정리)
+        List<String> keys = redisKeyScanner.scanKeys(REALTIME_SALES_KEY + "*");
+        if (keys.size() > 1000) {
+            // 오래된 실시간 데이터 정리 - 최신 500개만 유지
+            keys.sort(Comparator.comparing(SalesDataOptimizationService::keyDate,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+            long removed = redisKeyScanner.unlink(keys.subList(0, keys.size() - 500));
+            log.info("실시간 매출 캐시 정리: {}건", removed);
         }
     }
     
@@ -224,22 +234,29 @@ public class SalesDataOptimizationService {
     private void cleanupOldData() {
         log.info("오래된 데이터 정리 시작");
         
-        // 30일 이상 된 실시간 데이터 정리
+        // 30일 이상 된 실시간 데이터 정리 (SCAN 배치마다 바로 UNLINK)
         LocalDate cutoffDate = LocalDate.now().minusDays(30);
-        Set<String> oldKeys = redisTemplate.keys("realtime:sales:*");
-        
-        if (oldKeys != null) {
-            oldKeys.stream()
+        long[] removed = new long[1];
+        redisKeyScanner.forEachBatch(REALTIME_SALES_KEY + "*", batch -> {
+            List<String> oldKeys = batch.stream()
                 .filter(key -> {
-                    String dateStr = key.substring(key.lastIndexOf(":") + 1);
-                    try {
-                        LocalDate keyDate = LocalDate.parse(dateStr);
-                        return keyDate.isBefore(cutoffDate);
-                    } catch (Exception e) {
-                        return false;
-                    }
+                    LocalDate keyDate = keyDate(key);
+                    return keyDate != null && keyDate.isBefore(cutoffDate);
                 })
-                .forEach(redisTemplate::delete);
+                .collect(Collectors.toList());
+            removed[0] += redisKeyScanner.unlink(oldKeys);
+        });
+        log.info("오래된 실시간 데이터 정리: {}건", removed[0]);
+    }
+    
+    /**
+     * 키 마지막 구간의 날짜 (realtime:sales:{지점}:{yyyy-MM-dd}), 날짜가 아니면 null
+     */
+    private static LocalDate keyDate(String key) {
+        try {
+            return LocalDate.parse(key.substring(key.lastIndexOf(":") + 1));
+        } catch (Exception e) {
+            return null;
         }
     }
     
@@ -258,16 +275,10 @@ public class SalesDataOptimizationService {
         log.info("지점 {} 매출 캐시 무효화", branchId);
         
         // 실시간 데이터 캐시 무효화
-        Set<String> realtimeKeys = redisTemplate.keys(REALTIME_SALES_KEY + branchId + ":*");
-        if (realtimeKeys != null) {
-            redisTemplate.delete(realtimeKeys);
-        }
+        redisKeyScanner.unlinkMatching(REALTIME_SALES_KEY + branchId + ":*");
         
         // 집계 데이터 캐시 무효화
-        Set<String> aggregatedKeys = redisTemplate.keys(AGGREGATED_SALES_KEY + branchId + ":*");
-        if (aggregatedKeys != null) {
-            redisTemplate.delete(aggregatedKeys);
-        }
+        redisKeyScanner.unlinkMatching(AGGREGATED_SALES_KEY + branchId + ":*");
     }
     
     /**
@@ -277,22 +288,17 @@ public class SalesDataOptimizationService {
         Map<String, Object> memoryInfo = new HashMap<>();
         
         try {
-            // Redis INFO 명령어로 메모리 정보 조회
-            var connectionFactory = redisTemplate.getConnectionFactory();
-            if (connectionFactory != null) {
-                Properties info = connectionFactory
-                    .getConnection().serverCommands().info("memory");
-                
-                if (info != null) {
-                    memoryInfo.put("usedMemory", info.getProperty("used_memory_human"));
-                    memoryInfo.put("maxMemory", info.getProperty("maxmemory_human"));
-                    memoryInfo.put("memoryFragmentationRatio", info.getProperty("mem_fragmentation_ratio"));
-                }
+            // Redis INFO 명령어로 메모리 정보 조회 (연결은 템플릿이 반환)
+            Properties info = redisKeyScanner.info("memory");
+            if (info != null) {
+                memoryInfo.put("usedMemory", info.getProperty("used_memory_human"));
+                memoryInfo.put("maxMemory", info.getProperty("maxmemory_human"));
+                memoryInfo.put("memoryFragmentationRatio", info.getProperty("mem_fragmentation_ratio"));
             }
             
-            // 캐시 키 개수
-            Set<String> allKeys = redisTemplate.keys("*");
-            memoryInfo.put("totalKeys", allKeys != null ? allKeys.size() : 0);
+            // 캐시 키 개수 (DBSIZE, DB별 키/만료 키 수는 INFO keyspace)
+            memoryInfo.put("totalKeys", redisKeyScanner.dbSize());
+            memoryInfo.put("keyspace", redisKeyScanner.keyspaceInfo());
             
         } catch (Exception e) {
             log.error("Redis 메모리 정보 조회 실패", e);
@@ -4,9 +4,8 @@ import erp_project.erp_project.dto.SalesOverviewRequestDto;
 import erp_project.erp_project.dto.SalesOverviewResponseDto;
 import erp_project.erp_project.dto.DailySalesTrendResponseDto;
 import erp_project.erp_project.entity.Branches;
+import erp_project.erp_project.entity.SalesRollup;
 import erp_project.erp_project.entity.SalesStatistics;
-import erp_project.erp_project.entity.CategorySalesStatistics;
-import erp_project.erp_project.entity.MenuSalesStatistics;
 import erp_project.erp_project.entity.MenuCategory;
 import erp_project.erp_project.entity.Menu;
 import erp_project.erp_project.repository.BranchesRepository;
@@ -15,6 +14,7 @@ import erp_project.erp_project.repository.CategorySalesStatisticsRepository;
 import erp_project.erp_project.repository.MenuSalesStatisticsRepository;
 import erp_project.erp_project.repository.MenuCategoryRepository;
 import erp_project.erp_project.repository.MenuRepository;
+import erp_project.erp_project.repository.SalesRollupRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,6 +23,7 @@ import org.springframework.cache.annotation.Cacheable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -38,16 +39,38 @@ public class SalesOverviewService {
     private final MenuSalesStatisticsRepository menuSalesStatisticsRepository;
     private final MenuCategoryRepository menuCategoryRepository;
     private final MenuRepository menuRepository;
+    private final SalesRollupRepository salesRollupRepository;
+    private final SalesRollupService salesRollupService;
     
     public SalesOverviewResponseDto getSalesOverview(SalesOverviewRequestDto request) {
         log.info("매출 개요 조회 시작 - 연도: {}, 월: {}", request.getYear(), request.getMonth());
         
         try {
+            LocalDate startDate = LocalDate.of(request.getYear(), request.getMonth(), 1);
+            LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+            
+            // 활성 가맹점 조회 (본사 제외)
+            List<Branches> activeBranches = branchesRepository.findByStatusAndBranchTypeNot(
+                    Branches.BranchStatus.active, Branches.BranchType.headquarters);
+            
+            // 마감된 월은 월 롤업, 진행 중인 월은 일별 통계에서 집계
+            boolean useRollup = salesRollupService.isMonthRollupReady(YearMonth.from(startDate));
+            
+            // 지점별 월 매출 합계 (요약/가맹점 목록 공용, 1회 조회)
+            Map<Long, Object[]> monthlyTotals = new HashMap<>();
+            List<Object[]> monthlyRows = useRollup
+                    ? salesRollupRepository.findBranchTotals(SalesRollup.PeriodType.MONTH, startDate)
+                    : salesStatisticsRepository.sumDailySalesGroupByBranch(startDate, endDate);
+            for (Object[] row : monthlyRows) {
+                monthlyTotals.put((Long) row[0], row);
+            }
+            
             // 1. 전체 매출 요약 조회
-            SalesOverviewResponseDto.SalesSummaryDto summary = getSalesSummary(request.getYear(), request.getMonth());
+            SalesOverviewResponseDto.SalesSummaryDto summary = getSalesSummary(activeBranches, monthlyTotals);
             
             // 2. 가맹점별 매출 데이터 조회
-            List<SalesOverviewResponseDto.FranchiseSalesDto> franchises = getFranchiseSalesData(request.getYear(), request.getMonth());
+            List<SalesOverviewResponseDto.FranchiseSalesDto> franchises = getFranchiseSalesData(
+                    activeBranches, monthlyTotals, startDate, endDate, useRollup);
             
             return SalesOverviewResponseDto.builder()
                     .summary(summary)
@@ -60,113 +83,107 @@ public class SalesOverviewService {
         }
     }
     
-    private SalesOverviewResponseDto.SalesSummaryDto getSalesSummary(Integer year, Integer month) {
-        // 활성 가맹점 수 조회 (본사 제외)
-        List<Branches> activeBranches = branchesRepository.findByStatusAndBranchTypeNot(
-                Branches.BranchStatus.active, Branches.BranchType.headquarters);
-        int franchiseCount = activeBranches.size();
-        
-        // 해당 월의 매출 데이터 조회
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
-        
+    private SalesOverviewResponseDto.SalesSummaryDto getSalesSummary(List<Branches> activeBranches, Map<Long, Object[]> monthlyTotals) {
         BigDecimal totalSales = BigDecimal.ZERO;
         int totalCustomers = 0;
         
         for (Branches branch : activeBranches) {
-            List<SalesStatistics> monthlyStats = salesStatisticsRepository
-                    .findByBranchIdAndStatisticDateBetweenAndStatisticHourIsNullOrderByStatisticDate(
-                            branch.getId(), startDate, endDate);
-            
-            for (SalesStatistics stat : monthlyStats) {
-                totalSales = totalSales.add(stat.getTotalSales());
-                totalCustomers += stat.getTotalOrders();
+            Object[] totals = monthlyTotals.get(branch.getId());
+            if (totals != null) {
+                totalSales = totalSales.add((BigDecimal) totals[1]);
+                totalCustomers += ((Number) totals[2]).intValue();
             }
         }
         
         return SalesOverviewResponseDto.SalesSummaryDto.builder()
                 .totalSales(totalSales)
                 .totalCustomers(totalCustomers)
-                .franchiseCount(franchiseCount)
+                .franchiseCount(activeBranches.size())
                 .build();
     }
     
-    private List<SalesOverviewResponseDto.FranchiseSalesDto> getFranchiseSalesData(Integer year, Integer month) {
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+    /**
+     * 가맹점별 매출 데이터
+     * - 지점 수와 무관하게 전지점 GROUP BY 집계 쿼리 4개 + 메뉴/카테고리 이름 조회 2개로 처리
+     * - 메뉴/카테고리 이름은 집계 결과에 등장한 ID 만 한 번에 조회해 메모리 맵에서 찾음
+     * - useRollup 이면 같은 형태의 행을 월 롤업에서 읽음 (branchId, 차원 ID, 수량, 총매출)
+     */
+    private List<SalesOverviewResponseDto.FranchiseSalesDto> getFranchiseSalesData(
+            List<Branches> activeBranches, Map<Long, Object[]> monthlyTotals, LocalDate startDate, LocalDate endDate,
+            boolean useRollup) {
+        
+        // 지점별 인기 상품 상위 3개 (지점 내 판매수량 내림차순으로 정렬되어 옴)
+        Map<Long, List<Object[]>> topMenusByBranch = new HashMap<>();
+        Set<Long> menuIds = new HashSet<>();
+        List<Object[]> menuRows = useRollup
+                ? salesRollupRepository.findDimensionTotals(SalesRollup.PeriodType.MONTH, startDate, SalesRollup.Dimension.MENU)
+                : menuSalesStatisticsRepository.sumMenuSalesGroupByBranch(startDate, endDate);
+        for (Object[] row : menuRows) {
+            List<Object[]> topMenus = topMenusByBranch.computeIfAbsent((Long) row[0], id -> new ArrayList<>(3));
+            if (topMenus.size() < 3) {
+                topMenus.add(row);
+                menuIds.add((Long) row[1]);
+            }
+        }
+        
+        // 지점별 카테고리 매출
+        List<Object[]> categoryRows = useRollup
+                ? salesRollupRepository.findDimensionTotals(SalesRollup.PeriodType.MONTH, startDate, SalesRollup.Dimension.CATEGORY)
+                : categorySalesStatisticsRepository.sumCategorySalesGroupByBranch(startDate, endDate);
+        Set<Long> categoryIds = new HashSet<>();
+        for (Object[] row : categoryRows) {
+            categoryIds.add((Long) row[1]);
+        }
         
-        // 활성 가맹점 조회 (본사 제외)
-        List<Branches> activeBranches = branchesRepository.findByStatusAndBranchTypeNot(
-                Branches.BranchStatus.active, Branches.BranchType.headquarters);
-        List<SalesOverviewResponseDto.FranchiseSalesDto> franchiseSalesList = new ArrayList<>();
+        // 지점별 시간대 매출
+        Map<Long, Map<String, BigDecimal>> salesByTimeByBranch = new HashMap<>();
+        List<Object[]> hourlyRows = useRollup
+                ? salesRollupRepository.findDimensionTotals(SalesRollup.PeriodType.MONTH, startDate, SalesRollup.Dimension.HOUR)
+                : salesStatisticsRepository.sumHourlySalesGroupByBranch(startDate, endDate);
+        for (Object[] row : hourlyRows) {
+            salesByTimeByBranch.computeIfAbsent((Long) row[0], id -> new HashMap<>())
+                    .put(String.valueOf(row[1]), (BigDecimal) row[3]);
+        }
+        
+        // 메뉴/카테고리 이름 맵 (IN 조회 1회씩)
+        Map<Long, String> menuNames = menuIds.isEmpty() ? Collections.emptyMap()
+                : menuRepository.findAllById(menuIds).stream()
+                        .collect(Collectors.toMap(Menu::getId, Menu::getName, (a, b) -> a));
+        Map<Long, String> categoryNames = categoryIds.isEmpty() ? Collections.emptyMap()
+                : menuCategoryRepository.findAllById(categoryIds).stream()
+                        .collect(Collectors.toMap(MenuCategory::getId, MenuCategory::getDisplayName, (a, b) -> a));
         
+        Map<Long, Map<String, BigDecimal>> salesByCategoryByBranch = new HashMap<>();
+        for (Object[] row : categoryRows) {
+            String categoryName = categoryNames.getOrDefault((Long) row[1], "기타");
+            salesByCategoryByBranch.computeIfAbsent((Long) row[0], id -> new HashMap<>())
+                    .merge(categoryName, (BigDecimal) row[3], BigDecimal::add);
+        }
+        
+        List<SalesOverviewResponseDto.FranchiseSalesDto> franchiseSalesList = new ArrayList<>(activeBranches.size());
         for (Branches branch : activeBranches) {
-            // 1. 기본 매출 데이터 조회
-            List<SalesStatistics> monthlyStats = salesStatisticsRepository
-                    .findByBranchIdAndStatisticDateBetweenAndStatisticHourIsNullOrderByStatisticDate(
-                            branch.getId(), startDate, endDate);
-            
-            BigDecimal monthlySales = BigDecimal.ZERO;
-            int totalOrders = 0;
+            // 1. 기본 매출 데이터
+            Object[] totals = monthlyTotals.get(branch.getId());
+            BigDecimal monthlySales = totals != null ? (BigDecimal) totals[1] : BigDecimal.ZERO;
+            int totalOrders = totals != null ? ((Number) totals[2]).intValue() : 0;
             BigDecimal avgOrderValue = BigDecimal.ZERO;
             
-            for (SalesStatistics stat : monthlyStats) {
-                monthlySales = monthlySales.add(stat.getTotalSales());
-                totalOrders += stat.getTotalOrders();
-            }
-            
             // 평균 주문금액 = 총 매출 / 총 주문수 (소수점 반올림)
             if (totalOrders > 0) {
                 avgOrderValue = monthlySales.divide(BigDecimal.valueOf(totalOrders), 0, java.math.RoundingMode.HALF_UP);
             }
             
-            // 2. 인기 상품 데이터 조회
-            List<MenuSalesStatistics> topProducts = menuSalesStatisticsRepository
-                    .findTopSellingMenusByQuantity(branch.getId(), startDate, endDate);
-            List<SalesOverviewResponseDto.TopProductDto> topProductsList = topProducts.stream()
-                    .limit(3)
-                    .map(stat -> {
-                        // 실제 메뉴 이름 조회
-                        String menuName = "상품명"; // 기본값
-                        try {
-                            Optional<Menu> menu = menuRepository.findById(stat.getMenuId());
-                            if (menu.isPresent()) {
-                                menuName = menu.get().getName();
-                            }
-                        } catch (Exception e) {
-                            log.warn("메뉴 조회 실패 - menuId: {}", stat.getMenuId(), e);
-                        }
-                        
-                        return SalesOverviewResponseDto.TopProductDto.builder()
-                                .name(menuName)
-                                .quantity(stat.getQuantitySold())
-                                .sales(stat.getTotalSales())
-                                .build();
-                    })
+            // 2. 인기 상품 데이터
+            List<SalesOverviewResponseDto.TopProductDto> topProductsList = topMenusByBranch
+                    .getOrDefault(branch.getId(), Collections.emptyList()).stream()
+                    .map(row -> SalesOverviewResponseDto.TopProductDto.builder()
+                            .name(menuNames.getOrDefault((Long) row[1], "상품명"))
+                            .quantity(((Number) row[2]).intValue())
+                            .sales((BigDecimal) row[3])
+                            .build())
                     .collect(Collectors.toList());
             
-            // 3. 카테고리별 매출 데이터 조회
-            List<CategorySalesStatistics> categoryStats = categorySalesStatisticsRepository
-                    .findByBranchIdAndStatisticDateBetweenOrderByStatisticDateDescNetSalesDesc(
-                            branch.getId(), startDate, endDate);
-            Map<String, BigDecimal> salesByCategory = new HashMap<>();
-            for (CategorySalesStatistics stat : categoryStats) {
-                // 카테고리명 조회
-                Optional<MenuCategory> category = menuCategoryRepository.findById(stat.getCategoryId());
-                String categoryName = category.map(MenuCategory::getDisplayName).orElse("기타");
-                salesByCategory.put(categoryName, stat.getTotalSales());
-            }
-            
-            // 4. 시간대별 매출 데이터 조회
-            List<SalesStatistics> timeStats = salesStatisticsRepository
-                    .findByBranchIdAndStatisticDateBetweenAndStatisticHourIsNotNullOrderByStatisticDateAscStatisticHourAsc(
-                            branch.getId(), startDate, endDate);
-            Map<String, BigDecimal> salesByTime = new HashMap<>();
-            for (SalesStatistics stat : timeStats) {
-                salesByTime.put(String.valueOf(stat.getStatisticHour()), stat.getTotalSales());
-            }
-            
-            // 5. DTO 생성
+            // 3. DTO 생성 (카테고리별/시간대별 매출 포함)
             SalesOverviewResponseDto.FranchiseSalesDto franchiseSales = SalesOverviewResponseDto.FranchiseSalesDto.builder()
                     .branchId(branch.getId())
                     .branchName(branch.getBranchName())
@@ -177,8 +194,8 @@ public class SalesOverviewService {
                     .totalOrders(totalOrders)
                     .avgOrderValue(avgOrderValue)
                     .topProducts(topProductsList)
-                    .salesByCategory(salesByCategory)
-                    .salesByTime(salesByTime)
+                    .salesByCategory(salesByCategoryByBranch.getOrDefault(branch.getId(), new HashMap<>()))
+                    .salesByTime(salesByTimeByBranch.getOrDefault(branch.getId(), new HashMap<>()))
                     .build();
             
             franchiseSalesList.add(franchiseSales);
@@ -187,6 +204,15 @@ public class SalesOverviewService {
         return franchiseSalesList;
     }
     
+    /**
+     * 기간별 매출 비교 (예: 최근 12개월) - 마감 기간은 롤업, 진행 중인 기간만 일별 통계에서 집계
+     */
+    public Map<String, Object> getSalesComparison(SalesRollup.PeriodType periodType, Integer year, Integer month,
+                                                  int periods, Long branchId) {
+        LocalDate endDate = YearMonth.of(year, month).atEndOfMonth();
+        return salesRollupService.getPeriodComparison(periodType, endDate, periods, branchId);
+    }
+    
     /**
      * 일별 매출 추이 조회 - Redis 캐싱 적용
      */
@@ -219,21 +245,23 @@ public class SalesOverviewService {
                     Branches.BranchStatus.active, Branches.BranchType.headquarters);
         }
         
+        // 일별 매출 데이터 조회 (전체 지점이면 1회 조회 후 지점별로 분류)
+        List<SalesStatistics> dailyStats = branchId != null
+                ? salesStatisticsRepository.findByBranchIdAndStatisticDateBetweenAndStatisticHourIsNullOrderByStatisticDate(
+                        branchId, startDate, endDate)
+                : salesStatisticsRepository.findByStatisticDateBetweenAndStatisticHourIsNullOrderByStatisticDateDescBranchId(
+                        startDate, endDate);
+        Map<Long, Map<LocalDate, BigDecimal>> salesByBranchAndDate = new HashMap<>();
+        for (SalesStatistics stat : dailyStats) {
+            salesByBranchAndDate.computeIfAbsent(stat.getBranchId(), id -> new HashMap<>())
+                    .merge(stat.getStatisticDate(), stat.getTotalSales(), BigDecimal::add);
+        }
+        
         List<DailySalesTrendResponseDto.BranchTrendDto> branchTrends = new ArrayList<>();
         
         for (Branches branch : branches) {
-            // 해당 지점의 일별 매출 데이터 조회
-            List<SalesStatistics> dailyStats = salesStatisticsRepository
-                    .findByBranchIdAndStatisticDateBetweenAndStatisticHourIsNullOrderByStatisticDate(
-                            branch.getId(), startDate, endDate);
-            
             // 날짜별 매출 매핑
-            Map<LocalDate, BigDecimal> salesByDate = dailyStats.stream()
-                    .collect(Collectors.toMap(
-                            SalesStatistics::getStatisticDate,
-                            SalesStatistics::getTotalSales,
-                            (existing, replacement) -> existing.add(replacement)
-                    ));
+            Map<LocalDate, BigDecimal> salesByDate = salesByBranchAndDate.getOrDefault(branch.getId(), Collections.emptyMap());
             
             // 모든 날짜에 대한 매출 데이터 생성 (없는 날짜는 0)
             List<BigDecimal> dailySales = dates.stream()
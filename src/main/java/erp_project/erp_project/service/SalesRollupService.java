@@ -0,0 +1,444 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.ArchiveSegment;
+import erp_project.erp_project.entity.SalesRollup;
+import erp_project.erp_project.repository.ArchiveSegmentRepository;
+import erp_project.erp_project.repository.SalesRollupRepository;
+import erp_project.erp_project.util.LatencyRecorder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 월/주 단위 매출 롤업 관리
+ * - 일별 통계 행이 바뀐 (지점, 기간)을 dirty 로 표시하고 주기적으로 해당 기간만 DELETE + INSERT ... SELECT 로 다시 합산
+ * - 매일 새벽 최근 N개월 전체를 다시 합산하며 롤업과 일별 합계의 차이(drift)를 기록
+ *   (재집계 등으로 dirty 표시 없이 바뀐 일별 행도 이때 반영)
+ * - 조회 서비스는 마감된 월이면서 롤업이 최신일 때만 롤업을 읽고, 진행 중인 월은 일별 행에서 집계
+ * - 보존 기간이 지나 일별 행이 아카이브된(또는 될) 월은 다시 합산하지 않음 (남은 롤업이 유일한 합계)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupService {
+
+    private static final String INSERT_COLUMNS =
+        "INSERT INTO sales_rollups (period_type, period_start, branch_id, dimension, dimension_id, total_orders, " +
+        "quantity_sold, total_sales, total_discount, net_sales, refreshed_at) ";
+
+    private static final String ROLLUP_BRANCH_SQL = INSERT_COLUMNS +
+        "SELECT ?, ?, branch_id, 'BRANCH', 0, SUM(total_orders), 0, SUM(total_sales), SUM(total_discount), " +
+        "SUM(net_sales), NOW() FROM sales_statistics " +
+        "WHERE statistic_hour IS NULL AND statistic_date BETWEEN ? AND ? %s" +
+        "GROUP BY branch_id";
+
+    private static final String ROLLUP_HOUR_SQL = INSERT_COLUMNS +
+        "SELECT ?, ?, branch_id, 'HOUR', statistic_hour, SUM(total_orders), 0, SUM(total_sales), SUM(total_discount), " +
+        "SUM(net_sales), NOW() FROM sales_statistics " +
+        "WHERE statistic_hour IS NOT NULL AND statistic_date BETWEEN ? AND ? %s" +
+        "GROUP BY branch_id, statistic_hour";
+
+    private static final String ROLLUP_MENU_SQL = INSERT_COLUMNS +
+        "SELECT ?, ?, branch_id, 'MENU', menu_id, 0, SUM(quantity_sold), SUM(total_sales), SUM(discount_amount), " +
+        "SUM(net_sales), NOW() FROM menu_sales_statistics " +
+        "WHERE statistic_date BETWEEN ? AND ? %s" +
+        "GROUP BY branch_id, menu_id";
+
+    private static final String ROLLUP_CATEGORY_SQL = INSERT_COLUMNS +
+        "SELECT ?, ?, branch_id, 'CATEGORY', category_id, 0, SUM(quantity_sold), SUM(total_sales), SUM(discount_amount), " +
+        "SUM(net_sales), NOW() FROM category_sales_statistics " +
+        "WHERE statistic_date BETWEEN ? AND ? %s" +
+        "GROUP BY branch_id, category_id";
+
+    // 롤업이 없거나 일별 합계와 다른 지점 수
+    private static final String DRIFT_SQL =
+        "SELECT COUNT(*) FROM (" +
+        "  SELECT branch_id, SUM(total_sales) AS total_sales, SUM(total_orders) AS total_orders FROM sales_statistics " +
+        "  WHERE statistic_hour IS NULL AND statistic_date BETWEEN ? AND ? GROUP BY branch_id" +
+        ") d LEFT JOIN sales_rollups r ON r.period_type = ? AND r.period_start = ? AND r.dimension = 'BRANCH' " +
+        "AND r.branch_id = d.branch_id " +
+        "WHERE r.rollup_id IS NULL OR r.total_sales <> d.total_sales OR r.total_orders <> d.total_orders";
+
+    // 본사 제외 (매출 개요와 같은 기준)
+    private static final String FRANCHISE_FILTER =
+        "AND branch_id IN (SELECT id FROM branches WHERE branch_type <> 'headquarters') ";
+
+    private static final String COMPARISON_ROLLUP_SQL =
+        "SELECT period_start, SUM(total_orders), SUM(total_sales), SUM(net_sales) FROM sales_rollups " +
+        "WHERE period_type = ? AND dimension = 'BRANCH' AND period_start BETWEEN ? AND ? %s" +
+        "GROUP BY period_start";
+
+    private static final String COMPARISON_LIVE_SQL =
+        "SELECT COALESCE(SUM(total_orders), 0), COALESCE(SUM(total_sales), 0), COALESCE(SUM(net_sales), 0) " +
+        "FROM sales_statistics WHERE statistic_hour IS NULL AND statistic_date BETWEEN ? AND ? %s";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SalesRollupRepository salesRollupRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final ArchiveSegmentRepository archiveSegmentRepository;
+
+    @Value("${app.statistics.rollup.reconcile-months:13}")
+    private int reconcileMonths;
+
+    @Value("${app.statistics.rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${app.archive.statistics.retention-days:365}")
+    private int statisticsRetentionDays;
+
+    // 다시 합산해야 하는 기간 (branchId 가 null 이면 전체 지점)
+    private final Set<DirtyPeriod> dirtyPeriods = ConcurrentHashMap.newKeySet();
+
+    // 주기 갱신과 재조정이 같은 기간을 동시에 지우고 쓰지 않도록 하는 잠금
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+    private final LongAdder refreshedPeriods = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder rollupReads = new LongAdder();
+    private final LongAdder liveReads = new LongAdder();
+    private final AtomicLong lastReconcileAt = new AtomicLong();
+    private final AtomicLong lastDriftedBranches = new AtomicLong();
+
+    /**
+     * 일별 통계가 바뀐 지점/날짜 표시 (해당 날짜가 속한 월/주 롤업을 다음 주기에 다시 합산)
+     */
+    public void markDirty(Long branchId, LocalDate date) {
+        dirtyPeriods.add(new DirtyPeriod(SalesRollup.PeriodType.MONTH, periodStart(SalesRollup.PeriodType.MONTH, date), branchId));
+        dirtyPeriods.add(new DirtyPeriod(SalesRollup.PeriodType.WEEK, periodStart(SalesRollup.PeriodType.WEEK, date), branchId));
+    }
+
+    /**
+     * dirty 기간 롤업 갱신
+     */
+    @Scheduled(fixedDelayString = "${app.statistics.rollup.refresh-interval-ms:60000}")
+    public void refreshDirty() {
+        if (dirtyPeriods.isEmpty()) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            LocalDate retainedFrom = firstRetainedMonth().atDay(1);
+            for (DirtyPeriod period : new ArrayList<>(dirtyPeriods)) {
+                // 먼저 제거: 갱신 도중 다시 표시되면 다음 주기에 한 번 더 합산
+                dirtyPeriods.remove(period);
+                if (period.start().isBefore(retainedFrom)) {
+                    log.warn("일별 통계가 아카이브된 기간이라 롤업을 다시 합산하지 않습니다: {}", period);
+                    continue;
+                }
+                try {
+                    refresh(period.type(), period.start(), period.branchId());
+                } catch (RuntimeException e) {
+                    dirtyPeriods.add(period);
+                    refreshFailures.increment();
+                    log.error("매출 롤업 갱신 실패, 다음 주기에 재시도합니다: {} - {}", period, e.getMessage());
+                }
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 한 기간의 롤업을 일별 통계에서 다시 합산 (branchId 가 null 이면 전체 지점)
+     */
+    public int refresh(SalesRollup.PeriodType type, LocalDate start, Long branchId) {
+        long began = System.nanoTime();
+        LocalDate end = periodEnd(type, start);
+        // 아직 롤업이 없는 기간은 전체 지점으로 생성 (일부 지점만 있는 기간이 "생성됨"으로 보이지 않도록)
+        Long scope = branchId != null && salesRollupRepository.existsByPeriodTypeAndPeriodStart(type, start) ? branchId : null;
+
+        Integer inserted = transactionTemplate.execute(status -> {
+            String branchFilter = scope != null ? "AND branch_id = ? " : "";
+            List<Object> deleteArgs = new ArrayList<>(List.of(type.name(), Date.valueOf(start)));
+            List<Object> insertArgs = new ArrayList<>(List.of(type.name(), Date.valueOf(start), Date.valueOf(start), Date.valueOf(end)));
+            if (scope != null) {
+                deleteArgs.add(scope);
+                insertArgs.add(scope);
+            }
+
+            jdbcTemplate.update("DELETE FROM sales_rollups WHERE period_type = ? AND period_start = ?"
+                + (scope != null ? " AND branch_id = ?" : ""), deleteArgs.toArray());
+            int rows = 0;
+            for (String sql : List.of(ROLLUP_BRANCH_SQL, ROLLUP_HOUR_SQL, ROLLUP_MENU_SQL, ROLLUP_CATEGORY_SQL)) {
+                rows += jdbcTemplate.update(String.format(sql, branchFilter), insertArgs.toArray());
+            }
+            return rows;
+        });
+
+        refreshedPeriods.increment();
+        latencyRecorder.record("refresh", System.nanoTime() - began);
+        log.debug("매출 롤업 갱신: type={}, start={}, branchId={}, rows={}", type, start, scope, inserted);
+        return inserted != null ? inserted : 0;
+    }
+
+    @Scheduled(cron = "${app.statistics.rollup.reconcile-cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        schedulerLockService.runExclusive("sales-rollup-reconcile", lease -> reconcile(reconcileMonths));
+    }
+
+    /**
+     * 최근 months 개월의 월/주 롤업 전체 재합산 (재합산 전 drift 지점 수 기록)
+     */
+    public Map<String, Object> reconcile(int months) {
+        long began = System.nanoTime();
+        refreshLock.lock();
+        try {
+            YearMonth current = YearMonth.now();
+            YearMonth retainedFrom = firstRetainedMonth();
+            long drifted = 0;
+            int monthCount = 0;
+            int skippedMonths = 0;
+            Set<LocalDate> weeks = new LinkedHashSet<>();
+            for (int i = months - 1; i >= 0; i--) {
+                YearMonth month = current.minusMonths(i);
+                if (month.isBefore(retainedFrom)) {
+                    skippedMonths++;
+                    continue;
+                }
+                LocalDate start = month.atDay(1);
+                if (salesRollupRepository.existsByPeriodTypeAndPeriodStart(SalesRollup.PeriodType.MONTH, start)) {
+                    Long count = jdbcTemplate.queryForObject(DRIFT_SQL, Long.class, Date.valueOf(start),
+                        Date.valueOf(month.atEndOfMonth()), SalesRollup.PeriodType.MONTH.name(), Date.valueOf(start));
+                    drifted += count != null ? count : 0;
+                }
+                refresh(SalesRollup.PeriodType.MONTH, start, null);
+                monthCount++;
+                weeks.addAll(weekStartsOf(month));
+            }
+            for (LocalDate week : weeks) {
+                // 앞 월에 걸친 주는 아카이브된 날짜가 섞여 있을 수 있음
+                if (!week.isBefore(retainedFrom.atDay(1))) {
+                    refresh(SalesRollup.PeriodType.WEEK, week, null);
+                }
+            }
+
+            lastReconcileAt.set(System.currentTimeMillis());
+            lastDriftedBranches.set(drifted);
+            latencyRecorder.record("reconcile", System.nanoTime() - began);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("months", monthCount);
+            result.put("skippedMonths", skippedMonths);
+            result.put("retainedFrom", retainedFrom.toString());
+            result.put("weeks", weeks.size());
+            result.put("driftedBranchMonths", drifted);
+            result.put("elapsedMs", (System.nanoTime() - began) / 1_000_000);
+            if (drifted > 0) {
+                log.warn("매출 롤업 재조정: 일별 합계와 다른 지점-월 {}건을 보정했습니다", drifted);
+            }
+            log.info("매출 롤업 재조정 완료: {}", result);
+            return result;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 기동 시 롤업이 없는 마감 월만 생성
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        refreshLock.lock();
+        try {
+            YearMonth retainedFrom = firstRetainedMonth();
+            for (int i = reconcileMonths - 1; i >= 1; i--) {
+                YearMonth month = current.minusMonths(i);
+                if (month.isBefore(retainedFrom)
+                        || salesRollupRepository.existsByPeriodTypeAndPeriodStart(SalesRollup.PeriodType.MONTH, month.atDay(1))) {
+                    continue;
+                }
+                refresh(SalesRollup.PeriodType.MONTH, month.atDay(1), null);
+                for (LocalDate week : weekStartsOf(month)) {
+                    if (!week.isBefore(retainedFrom.atDay(1))
+                            && !salesRollupRepository.existsByPeriodTypeAndPeriodStart(SalesRollup.PeriodType.WEEK, week)) {
+                        refresh(SalesRollup.PeriodType.WEEK, week, null);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("기동 시 매출 롤업 생성 실패", e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 일별 통계가 온전히 남아 있는 첫 월 (이 월부터 다시 합산 가능)
+     * - 보존 기간 기준일 이전 행은 아카이브되므로 기준일이 속한 월은 일부만 남음
+     * - 수동 아카이브 등으로 더 최근 월의 세그먼트가 있으면 그 다음 달부터
+     */
+    public YearMonth firstRetainedMonth() {
+        YearMonth first = firstFullMonth(LocalDate.now().minusDays(statisticsRetentionDays));
+        for (ArchiveEngineService.Dataset dataset : List.of(ArchiveEngineService.SALES_STATISTICS,
+                ArchiveEngineService.MENU_SALES_STATISTICS, ArchiveEngineService.CATEGORY_SALES_STATISTICS)) {
+            for (ArchiveSegment segment : archiveSegmentRepository.findSegments(dataset.name(), null, first.toString(), null)) {
+                YearMonth next = YearMonth.parse(segment.getPeriod()).plusMonths(1);
+                if (next.isAfter(first)) {
+                    first = next;
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * cutoff 이전 날짜가 지워진 뒤에도 모든 날짜가 남는 첫 월
+     */
+    static YearMonth firstFullMonth(LocalDate cutoff) {
+        YearMonth month = YearMonth.from(cutoff);
+        return cutoff.getDayOfMonth() == 1 ? month : month.plusMonths(1);
+    }
+
+    /**
+     * 월 롤업을 읽어도 되는지 (마감된 월 + 갱신 대기 없음 + 롤업 생성됨)
+     */
+    public boolean isMonthRollupReady(YearMonth month) {
+        boolean ready = month.isBefore(YearMonth.now())
+            && isFresh(SalesRollup.PeriodType.MONTH, month.atDay(1))
+            && salesRollupRepository.existsByPeriodTypeAndPeriodStart(SalesRollup.PeriodType.MONTH, month.atDay(1));
+        (ready ? rollupReads : liveReads).increment();
+        return ready;
+    }
+
+    /**
+     * 기간별 매출 비교 (마감 기간은 롤업 1회 조회, 진행 중이거나 롤업이 없는 기간만 일별 행에서 집계)
+     * - 본사 제외, branchId 지정 시 해당 지점만
+     */
+    public Map<String, Object> getPeriodComparison(SalesRollup.PeriodType type, LocalDate endDate, int periods, Long branchId) {
+        long began = System.nanoTime();
+        LocalDate lastStart = periodStart(type, endDate);
+        LocalDate firstStart = type == SalesRollup.PeriodType.MONTH
+            ? lastStart.minusMonths(periods - 1L) : lastStart.minusWeeks(periods - 1L);
+        LocalDate currentStart = periodStart(type, LocalDate.now());
+
+        String branchFilter = branchId != null ? "AND branch_id = ? " : FRANCHISE_FILTER;
+        List<Object> args = new ArrayList<>(List.of(type.name(), Date.valueOf(firstStart), Date.valueOf(lastStart)));
+        if (branchId != null) {
+            args.add(branchId);
+        }
+        Map<LocalDate, Object[]> rollups = new HashMap<>();
+        jdbcTemplate.query(String.format(COMPARISON_ROLLUP_SQL, branchFilter), rs -> {
+            rollups.put(rs.getDate(1).toLocalDate(), new Object[] { rs.getLong(2), rs.getBigDecimal(3), rs.getBigDecimal(4) });
+        }, args.toArray());
+
+        List<Map<String, Object>> rows = new ArrayList<>(periods);
+        int rollupPeriods = 0;
+        for (LocalDate start = firstStart; !start.isAfter(lastStart); start = nextPeriod(type, start)) {
+            LocalDate end = periodEnd(type, start);
+            Object[] totals = start.isBefore(currentStart) && isFresh(type, start) ? rollups.get(start) : null;
+            String source = "rollup";
+            if (totals == null) {
+                totals = liveTotals(start, end, branchFilter, branchId);
+                source = "live";
+            } else {
+                rollupPeriods++;
+            }
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("periodStart", start.toString());
+            row.put("periodEnd", end.toString());
+            row.put("totalOrders", totals[0]);
+            row.put("totalSales", totals[1]);
+            row.put("netSales", totals[2]);
+            row.put("source", source);
+            rows.add(row);
+        }
+
+        latencyRecorder.record("comparison", System.nanoTime() - began);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("periodType", type.name());
+        result.put("branchId", branchId);
+        result.put("periods", rows);
+        result.put("rollupPeriods", rollupPeriods);
+        result.put("livePeriods", rows.size() - rollupPeriods);
+        result.put("elapsedMs", (System.nanoTime() - began) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * 롤업 지표 (갱신 대기 기간 수, 갱신/재조정 지연 시간, 롤업/일별 조회 비율)
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pendingPeriods", dirtyPeriods.size());
+        metrics.put("refreshedPeriods", refreshedPeriods.sum());
+        metrics.put("refreshFailures", refreshFailures.sum());
+        metrics.put("rollupReads", rollupReads.sum());
+        metrics.put("liveReads", liveReads.sum());
+        metrics.put("lastReconcileAt", lastReconcileAt.get());
+        metrics.put("lastDriftedBranchMonths", lastDriftedBranches.get());
+        metrics.put("stages", latencyRecorder.snapshot());
+        return metrics;
+    }
+
+    public static LocalDate periodStart(SalesRollup.PeriodType type, LocalDate date) {
+        return type == SalesRollup.PeriodType.MONTH
+            ? date.withDayOfMonth(1) : date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    public static LocalDate periodEnd(SalesRollup.PeriodType type, LocalDate start) {
+        return type == SalesRollup.PeriodType.MONTH ? start.withDayOfMonth(start.lengthOfMonth()) : start.plusDays(6);
+    }
+
+    private static LocalDate nextPeriod(SalesRollup.PeriodType type, LocalDate start) {
+        return type == SalesRollup.PeriodType.MONTH ? start.plusMonths(1) : start.plusWeeks(1);
+    }
+
+    private static List<LocalDate> weekStartsOf(YearMonth month) {
+        List<LocalDate> weeks = new ArrayList<>(6);
+        for (LocalDate week = periodStart(SalesRollup.PeriodType.WEEK, month.atDay(1));
+             !week.isAfter(month.atEndOfMonth()); week = week.plusWeeks(1)) {
+            weeks.add(week);
+        }
+        return weeks;
+    }
+
+    private boolean isFresh(SalesRollup.PeriodType type, LocalDate start) {
+        for (DirtyPeriod period : dirtyPeriods) {
+            if (period.type() == type && period.start().equals(start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object[] liveTotals(LocalDate start, LocalDate end, String branchFilter, Long branchId) {
+        List<Object> args = new ArrayList<>(List.of(Date.valueOf(start), Date.valueOf(end)));
+        if (branchId != null) {
+            args.add(branchId);
+        }
+        return jdbcTemplate.queryForObject(String.format(COMPARISON_LIVE_SQL, branchFilter),
+            (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getBigDecimal(2), rs.getBigDecimal(3) }, args.toArray());
+    }
+
+    private record DirtyPeriod(SalesRollup.PeriodType type, LocalDate start, Long branchId) {}
+}
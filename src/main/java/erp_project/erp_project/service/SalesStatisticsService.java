@@ -2,17 +2,18 @@ package erp_project.erp_project.service;
 
 import erp_project.erp_project.entity.*;
 import erp_project.erp_project.repository.*;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
 import erp_project.erp_project.dto.ProductSalesStatisticsDto;
@@ -20,6 +21,7 @@ import erp_project.erp_project.dto.CategorySalesStatisticsDto;
 
 @Service
 @Transactional
+@Slf4j
 public class SalesStatisticsService {
     
     @Autowired
@@ -38,155 +40,49 @@ public class SalesStatisticsService {
     private OrderItemRepository orderItemRepository;
     
     @Autowired
-    private PaymentRepository paymentRepository;
+    private SalesAggregationService salesAggregationService;
     
-    /**
-     * 주문 완료 시 매출 통계 업데이트 - 캐시 무효화
-     */
-    @CacheEvict(value = "salesStatistics", allEntries = true)
-    public void updateSalesStatistics(Long orderId) {
-        Orders order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다: " + orderId));
-        
-            // 주문 완료 + 결제 완료일 때만 매출 통계 업데이트
-    if (order.getOrderStatus() == Orders.OrderStatus.completed && 
-        order.getPaymentStatus() == Orders.PaymentStatus.completed) {
-        updateDailySalesStatistics(order);
-        updateHourlySalesStatistics(order);
-        updateMenuSalesStatistics(order);
-        updateCategorySalesStatistics(order);
-    }
-    }
+    @Autowired
+    private SalesCubeService salesCubeService;
     
     /**
-     * 일별 매출 통계 업데이트
+     * 주문이 완료 + 결제 완료 상태가 되면 매출 통계에 반영 (주문 상태/결제 상태 변경 직후 호출)
+     * - 행을 읽어 수정하지 않고 집계 엔진 카운터만 증가 (DB 반영/캐시 무효화는 주기적 flush 에서 처리)
+     * - HQ 분석용 인메모리 큐브에도 주문 아이템 행 추가
+     * - 현재 트랜잭션이 커밋된 뒤 반영 (롤백된 완료는 집계하지 않음, 트랜잭션 밖이면 즉시)
+     * - 주문 행의 sales_recorded 를 조건부 UPDATE 로 선점한 요청만 반영 (동시/중복 완료 요청은 0 행 → 반영 안 함)
      */
-    private void updateDailySalesStatistics(Orders order) {
-        LocalDate orderDate = order.getCreatedAt().toLocalDate();
-        
-        SalesStatistics dailyStats = salesStatisticsRepository
-                .findByBranchIdAndStatisticDateAndStatisticHourIsNull(order.getBranchId(), orderDate)
-                .orElse(new SalesStatistics());
-        
-        if (dailyStats.getStatisticId() == null) {
-            dailyStats.setBranchId(order.getBranchId());
-            dailyStats.setStatisticDate(orderDate);
-            dailyStats.setStatisticHour(null);
+    public void recordCompletedOrder(Long orderId) {
+        if (orderRepository.markSalesRecorded(orderId) == 0) {
+            return;
         }
-        
-        dailyStats.incrementOrders();
-        dailyStats.addSales(order.getTotalAmount());
-        dailyStats.addDiscount(order.getDiscountAmount() != null ? order.getDiscountAmount() : BigDecimal.ZERO);
-        dailyStats.updateNetSales();
-        
-        // 평균주문금액 자동 계산
-        if (dailyStats.getTotalOrders() > 0) {
-            BigDecimal averageOrderValue = dailyStats.getTotalSales()
-                    .divide(BigDecimal.valueOf(dailyStats.getTotalOrders()), 2, java.math.RoundingMode.HALF_UP);
-            dailyStats.setAverageOrderValue(averageOrderValue);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordOrder(orderId);
+            return;
         }
-        
-        // 결제 방법별 매출 업데이트
-        updatePaymentMethodSales(dailyStats, order);
-        
-        salesStatisticsRepository.save(dailyStats);
-    }
-    
-    /**
-     * 시간별 매출 통계 업데이트
-     */
-    private void updateHourlySalesStatistics(Orders order) {
-        LocalDate orderDate = order.getCreatedAt().toLocalDate();
-        int orderHour = order.getCreatedAt().getHour();
-        
-        List<SalesStatistics> hourlyStatsList = salesStatisticsRepository
-                .findByBranchIdAndStatisticDateAndStatisticHourIsNotNullOrderByStatisticHour(order.getBranchId(), orderDate);
-        
-        SalesStatistics hourlyStats = hourlyStatsList.stream()
-                .filter(stats -> stats.getStatisticHour() != null && stats.getStatisticHour().equals(orderHour))
-                .findFirst()
-                .orElse(new SalesStatistics());
-        
-        if (hourlyStats.getStatisticId() == null) {
-            hourlyStats.setBranchId(order.getBranchId());
-            hourlyStats.setStatisticDate(orderDate);
-            hourlyStats.setStatisticHour(orderHour);
-        }
-        
-        hourlyStats.incrementOrders();
-        hourlyStats.addSales(order.getTotalAmount());
-        hourlyStats.addDiscount(order.getDiscountAmount() != null ? order.getDiscountAmount() : BigDecimal.ZERO);
-        hourlyStats.updateNetSales();
-        
-        salesStatisticsRepository.save(hourlyStats);
-    }
-    
-    /**
-     * 메뉴별 매출 통계 업데이트
-     */
-    private void updateMenuSalesStatistics(Orders order) {
-        LocalDate orderDate = order.getCreatedAt().toLocalDate();
-        List<OrderItems> orderItems = orderItemRepository.findByOrderId(order.getOrderId());
-        
-        for (OrderItems item : orderItems) {
-            MenuSalesStatistics menuStats = menuSalesStatisticsRepository
-                    .findByBranchIdAndMenuIdAndStatisticDate(order.getBranchId(), item.getMenuId(), orderDate)
-                    .orElse(new MenuSalesStatistics());
-            
-            if (menuStats.getMenuStatisticId() == null) {
-                menuStats.setBranchId(order.getBranchId());
-                menuStats.setMenuId(item.getMenuId());
-                menuStats.setStatisticDate(orderDate);
-            }
-            
-            // 할인 금액 비례 배분
-            BigDecimal itemDiscount = BigDecimal.ZERO;
-            if (order.getDiscountAmount() != null && order.getTotalAmount().compareTo(BigDecimal.ZERO) > 0) {
-                itemDiscount = order.getDiscountAmount()
-                        .multiply(item.getTotalPrice())
-                        .divide(order.getTotalAmount(), 2, java.math.RoundingMode.HALF_UP);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    recordOrder(orderId);
+                } catch (Exception e) {
+                    // 해당 날짜 재집계로 복구
+                    log.error("주문 완료 매출 반영 실패: orderId={}", orderId, e);
+                }
             }
-            
-            menuStats.addQuantity(item.getQuantity());
-            menuStats.addSales(item.getTotalPrice());
-            menuStats.addDiscount(itemDiscount);
-            menuStats.updateNetSales();
-            
-            menuSalesStatisticsRepository.save(menuStats);
-        }
+        });
     }
     
-    /**
-     * 카테고리별 매출 통계 업데이트
-     */
-    private void updateCategorySalesStatistics(Orders order) {
-        // TODO: 카테고리별 매출 통계 업데이트 구현
-        // 현재는 메뉴별 통계만 업데이트하고 있음
-        // 카테고리별 통계는 별도로 구현 필요
-    }
-    
-    /**
-     * 결제 방법별 매출 업데이트
-     */
-    private void updatePaymentMethodSales(SalesStatistics dailyStats, Orders order) {
-        Optional<Payment> payment = paymentRepository.findByOrderId(order.getOrderId());
-        
-        if (payment.isPresent()) {
-            Payment.PaymentMethod method = payment.get().getPaymentMethod();
-            BigDecimal netAmount = order.getFinalAmount();
-            
-            switch (method) {
-                case cash:
-                    dailyStats.setCashSales(dailyStats.getCashSales().add(netAmount));
-                    break;
-                case card:
-                    dailyStats.setCardSales(dailyStats.getCardSales().add(netAmount));
-                    break;
-                case mobile:
-                    dailyStats.setMobileSales(dailyStats.getMobileSales().add(netAmount));
-                    break;
-            }
+    private void recordOrder(Long orderId) {
+        Orders order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다: " + orderId));
+        if (!SalesAggregationService.isSale(order)) {
+            return;
         }
+        
+        List<OrderItems> items = orderItemRepository.findByOrderId(orderId);
+        salesAggregationService.record(order, items);
+        salesCubeService.append(order, items);
     }
     
     /**
@@ -0,0 +1,340 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.SchedulerJobRun;
+import erp_project.erp_project.entity.SchedulerLock;
+import erp_project.erp_project.repository.SchedulerJobRunRepository;
+import erp_project.erp_project.repository.SchedulerLockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 여러 노드에서 도는 @Scheduled 작업 조정 (scheduler_locks 테이블 임대 잠금)
+ * - 같은 작업은 잠금을 얻은 노드 1곳만 실행, 나머지 노드는 건너뜀
+ * - 잠금을 얻을 때마다 fencing token 증가, 보유 중에는 heartbeat 로 임대 연장
+ *   → 노드가 죽으면 lease-ms 후 다른 노드가 이어받고, 늦게 깨어난 이전 보유자는 연장/토큰 확인에 실패
+ * - 작업이 빨리 끝나도 min-hold-ms 동안은 잠금 유지 (노드 간 시계 차이로 같은 cron 이 다시 실행되는 것 방지)
+ * - 샤드 작업은 작업:샤드 단위로 잠금 → 노드가 늘면 샤드가 나뉘어 처리됨
+ * - 잠금을 얻은 실행은 scheduler_job_runs 에 토큰/소요 시간/결과 기록
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SchedulerLockService {
+
+    private static final String INSERT_LOCK_SQL =
+        "INSERT IGNORE INTO scheduler_locks (job_name, owner, fencing_token, locked_at, locked_until, heartbeat_at) " +
+        "VALUES (?, ?, 1, NOW(3), NOW(3) + INTERVAL ? MICROSECOND, NOW(3))";
+
+    private static final String TAKE_OVER_SQL =
+        "UPDATE scheduler_locks SET owner = ?, fencing_token = fencing_token + 1, locked_at = NOW(3), " +
+        "locked_until = NOW(3) + INTERVAL ? MICROSECOND, heartbeat_at = NOW(3) " +
+        "WHERE job_name = ? AND locked_until <= NOW(3)";
+
+    // 토큰이 그대로면 임대가 잠시 만료됐더라도 아무도 가져가지 않은 것이므로 연장 가능
+    private static final String RENEW_SQL =
+        "UPDATE scheduler_locks SET locked_until = NOW(3) + INTERVAL ? MICROSECOND, heartbeat_at = NOW(3) " +
+        "WHERE job_name = ? AND owner = ? AND fencing_token = ?";
+
+    private static final String RELEASE_SQL =
+        "UPDATE scheduler_locks SET locked_until = GREATEST(NOW(3), locked_at + INTERVAL ? MICROSECOND) " +
+        "WHERE job_name = ? AND owner = ? AND fencing_token = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLockRepository lockRepository;
+    private final SchedulerJobRunRepository runRepository;
+
+    @Value("${app.scheduler.lock.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.scheduler.lock.lease-ms:60000}")
+    private long leaseMillis;
+
+    @Value("${app.scheduler.lock.min-hold-ms:30000}")
+    private long minHoldMillis;
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + ":" +
+        UUID.randomUUID().toString().substring(0, 8);
+
+    private final Set<JobLease> activeLeases = ConcurrentHashMap.newKeySet();
+    private volatile ScheduledExecutorService heartbeat;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+
+    /**
+     * 잠금을 얻은 경우에만 작업 실행
+     * @return 이 노드에서 실행했으면 true, 다른 노드가 보유 중이면 false
+     */
+    public boolean runExclusive(String jobName, LeasedTask task) {
+        return runLeased(jobName, null, task);
+    }
+
+    /**
+     * 샤드별로 잠금을 얻어 실행 (다른 노드와 샤드를 나눠 처리)
+     * - 노드마다 다른 샤드부터 시도해 동시에 시작해도 겹치지 않게 분산
+     * @return 이 노드에서 처리한 샤드 수
+     */
+    public int runSharded(String jobName, int shards, ShardTask task) {
+        int processed = 0;
+        int offset = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            int shard = (offset + i) % shards;
+            if (runLeased(jobName, shard, lease -> task.run(lease, shard, shards))) {
+                processed++;
+            }
+        }
+        return processed;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public List<SchedulerLock> getLocks() {
+        return lockRepository.findAllByOrderByJobNameAsc();
+    }
+
+    public List<SchedulerJobRun> getRuns(String jobName, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return jobName != null ? runRepository.findByJobNameOrderByRunIdDesc(jobName, page)
+            : runRepository.findAllByOrderByRunIdDesc(page);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("owner", owner);
+        metrics.put("enabled", enabled);
+        metrics.put("acquired", acquired.sum());
+        metrics.put("skipped", skipped.sum());
+        metrics.put("lost", lost.sum());
+        List<String> active = new ArrayList<>();
+        for (JobLease lease : activeLeases) {
+            active.add(lease.lockName() + "#" + lease.fencingToken());
+        }
+        metrics.put("activeLeases", active);
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+        // 종료 중인 노드의 잠금은 바로 풀어 다른 노드가 이어받게 함
+        for (JobLease lease : activeLeases) {
+            try {
+                jdbcTemplate.update(RELEASE_SQL, 0L, lease.lockName(), owner, lease.fencingToken());
+            } catch (Exception e) {
+                log.warn("종료 시 잠금 해제 실패: {}", lease.lockName(), e);
+            }
+        }
+    }
+
+    private boolean runLeased(String jobName, Integer shard, LeasedTask task) {
+        String lockName = shard != null ? jobName + ":" + shard : jobName;
+        if (!enabled) {
+            try {
+                task.run(new JobLease(lockName, 0L, null));
+            } catch (Exception e) {
+                log.error("스케줄 작업 실패: {}", lockName, e);
+            }
+            return true;
+        }
+
+        Long token;
+        try {
+            token = tryAcquire(lockName);
+        } catch (Exception e) {
+            log.error("스케줄 잠금 획득 실패: {}", lockName, e);
+            return false;
+        }
+        if (token == null) {
+            skipped.increment();
+            log.debug("다른 노드가 실행 중인 작업 건너뜀: {}", lockName);
+            return false;
+        }
+        acquired.increment();
+
+        JobLease lease = new JobLease(lockName, token, this);
+        SchedulerJobRun run = new SchedulerJobRun();
+        run.setJobName(jobName);
+        run.setShard(shard);
+        run.setOwner(owner);
+        run.setFencingToken(token);
+        run = runRepository.save(run);
+
+        activeLeases.add(lease);
+        ensureHeartbeat();
+        long start = System.nanoTime();
+        try {
+            task.run(lease);
+            run.setStatus(lease.isValid() ? SchedulerJobRun.RunStatus.SUCCEEDED : SchedulerJobRun.RunStatus.LEASE_LOST);
+        } catch (Exception e) {
+            log.error("스케줄 작업 실패: {} (token={})", lockName, token, e);
+            run.setStatus(lease.isValid() ? SchedulerJobRun.RunStatus.FAILED : SchedulerJobRun.RunStatus.LEASE_LOST);
+            run.setErrorMessage(truncate(e.toString()));
+        } finally {
+            activeLeases.remove(lease);
+            if (lease.isValid()) {
+                try {
+                    jdbcTemplate.update(RELEASE_SQL, minHoldMillis * 1_000, lockName, owner, token);
+                } catch (Exception e) {
+                    // 임대 만료 후 자연 해제
+                    log.warn("스케줄 잠금 해제 실패: {}", lockName, e);
+                }
+            }
+            run.setFinishedAt(LocalDateTime.now());
+            run.setDurationMs((System.nanoTime() - start) / 1_000_000);
+            try {
+                runRepository.save(run);
+            } catch (Exception e) {
+                log.warn("스케줄 실행 이력 저장 실패: {}", lockName, e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 획득한 fencing token, 다른 노드가 보유 중이면 null
+     */
+    private Long tryAcquire(String lockName) {
+        long leaseMicros = leaseMillis * 1_000;
+        if (jdbcTemplate.update(INSERT_LOCK_SQL, lockName, owner, leaseMicros) == 1) {
+            return 1L;
+        }
+        if (jdbcTemplate.update(TAKE_OVER_SQL, owner, leaseMicros, lockName) == 1) {
+            return jdbcTemplate.queryForObject(
+                "SELECT fencing_token FROM scheduler_locks WHERE job_name = ? AND owner = ?", Long.class, lockName, owner);
+        }
+        return null;
+    }
+
+    /**
+     * 현재 DB 의 토큰이 lease 의 토큰과 같은지 확인 (다른 노드가 이어받았으면 false)
+     * - 공유 잠금으로 읽으므로 트랜잭션 안에서 호출하면 커밋 전까지 다른 노드가 이어받지 못함
+     */
+    boolean verify(JobLease lease) {
+        List<Long> tokens = jdbcTemplate.queryForList(
+            "SELECT fencing_token FROM scheduler_locks WHERE job_name = ? AND owner = ? LOCK IN SHARE MODE",
+            Long.class, lease.lockName(), owner);
+        return !tokens.isEmpty() && tokens.get(0) == lease.fencingToken();
+    }
+
+    private void renewAll() {
+        for (JobLease lease : activeLeases) {
+            try {
+                int renewed = jdbcTemplate.update(RENEW_SQL, leaseMillis * 1_000, lease.lockName(), owner, lease.fencingToken());
+                if (renewed == 0 && lease.isValid()) {
+                    lease.invalidate();
+                    lost.increment();
+                    log.warn("스케줄 잠금 상실 (다른 노드가 이어받음): {} (token={})", lease.lockName(), lease.fencingToken());
+                }
+            } catch (Exception e) {
+                // DB 장애 중에는 상실로 보지 않고 다음 주기에 재시도 (임대 만료 전까지는 보유)
+                log.warn("스케줄 잠금 연장 실패: {}", lease.lockName(), e);
+            }
+        }
+    }
+
+    private void ensureHeartbeat() {
+        if (heartbeat != null) {
+            return;
+        }
+        synchronized (this) {
+            if (heartbeat == null) {
+                ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "scheduler-lock-heartbeat");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                long interval = Math.max(leaseMillis / 3, 1_000);
+                executor.scheduleWithFixedDelay(this::renewAll, interval, interval, TimeUnit.MILLISECONDS);
+                heartbeat = executor;
+            }
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    @FunctionalInterface
+    public interface LeasedTask {
+        void run(JobLease lease) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface ShardTask {
+        void run(JobLease lease, int shard, int shards) throws Exception;
+    }
+
+    /**
+     * 보유 중인 잠금 (작업 코드에서 긴 루프 사이에 isValid / checkFence 로 보유 여부 확인)
+     */
+    public static final class JobLease {
+
+        private final String lockName;
+        private final long fencingToken;
+        private final SchedulerLockService service;
+        private volatile boolean valid = true;
+
+        JobLease(String lockName, long fencingToken, SchedulerLockService service) {
+            this.lockName = lockName;
+            this.fencingToken = fencingToken;
+            this.service = service;
+        }
+
+        public String lockName() {
+            return lockName;
+        }
+
+        public long fencingToken() {
+            return fencingToken;
+        }
+
+        /**
+         * heartbeat 기준 보유 여부 (DB 조회 없음)
+         */
+        public boolean isValid() {
+            return valid;
+        }
+
+        /**
+         * DB 의 현재 토큰과 비교해 보유 여부 확인, 다른 노드가 이어받았으면 예외
+         * (되돌리기 어려운 쓰기 직전에 같은 트랜잭션 안에서 호출)
+         */
+        public void checkFence() {
+            if (service != null && valid && !service.verify(this)) {
+                invalidate();
+            }
+            if (!valid) {
+                throw new IllegalStateException("스케줄 잠금을 잃었습니다: " + lockName + " (token=" + fencingToken + ")");
+            }
+        }
+
+        void invalidate() {
+            valid = false;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package erp_project.erp_project.service;
 
-import erp_project.erp_project.entity.*;
 import erp_project.erp_project.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,10 +7,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 @Service
@@ -19,9 +18,16 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class StatisticsArchivingService {
     
+    private static final List<ArchiveEngineService.Dataset> STATISTICS_DATASETS = List.of(
+        ArchiveEngineService.SALES_STATISTICS,
+        ArchiveEngineService.MENU_SALES_STATISTICS,
+        ArchiveEngineService.CATEGORY_SALES_STATISTICS);
+    
     private final SalesStatisticsRepository salesStatisticsRepository;
     private final MenuSalesStatisticsRepository menuSalesStatisticsRepository;
     private final CategorySalesStatisticsRepository categorySalesStatisticsRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final ArchiveEngineService archiveEngineService;
     
     @Value("${app.archive.statistics.enabled:true}")
     private boolean statisticsArchivingEnabled;
@@ -33,10 +39,21 @@ public class StatisticsArchivingService {
     private int statisticsBatchSize;
     
     /**
-     * 통계 데이터 주기적 아카이빙 (매월 1일 새벽 3시)
+     * 매월 1일 새벽 3시 실행 (여러 노드 중 잠금을 얻은 1곳만)
      */
     @Scheduled(cron = "0 0 3 1 * ?")
+    public void scheduledArchiveOldStatisticsData() {
+        schedulerLockService.runExclusive("statistics-archiving", lease -> archiveOldStatisticsData(lease));
+    }
+    
+    /**
+     * 보존 기간이 지난 매출 / 메뉴 / 카테고리 통계를 아카이브 파일로 이동
+     */
     public void archiveOldStatisticsData() {
+        archiveOldStatisticsData(null);
+    }
+    
+    private void archiveOldStatisticsData(SchedulerLockService.JobLease lease) {
         if (!statisticsArchivingEnabled) {
             log.info("통계 데이터 아카이빙이 비활성화되어 있습니다.");
             return;
@@ -44,23 +61,17 @@ public class StatisticsArchivingService {
         
         log.info("오래된 통계 데이터 아카이빙 시작");
         
-        try {
-            LocalDate cutoffDate = LocalDate.now().minusDays(statisticsRetentionDays);
-            
-            // 1. 매출 통계 아카이빙
-            archiveSalesStatistics(cutoffDate);
-            
-            // 2. 메뉴 통계 아카이빙
-            archiveMenuSalesStatistics(cutoffDate);
-            
-            // 3. 카테고리 통계 아카이빙
-            archiveCategorySalesStatistics(cutoffDate);
-            
-            log.info("통계 데이터 아카이빙 완료");
-            
-        } catch (Exception e) {
-            log.error("통계 데이터 아카이빙 중 오류 발생", e);
+        LocalDate cutoffDate = LocalDate.now().minusDays(statisticsRetentionDays);
+        for (ArchiveEngineService.Dataset dataset : STATISTICS_DATASETS) {
+            // 한 통계 실패가 나머지 통계 아카이빙을 막지 않도록 개별 처리
+            try {
+                archiveEngineService.archive(dataset, null, cutoffDate, statisticsBatchSize, lease);
+            } catch (Exception e) {
+                log.error("{} 아카이빙 실패", dataset.name(), e);
+            }
         }
+        
+        log.info("통계 데이터 아카이빙 완료");
     }
     
     /**
@@ -73,211 +84,27 @@ public class StatisticsArchivingService {
     }
     
     /**
-     * 매출 통계 아카이빙
-     */
-    @Transactional
-    private void archiveSalesStatistics(LocalDate cutoffDate) {
-        log.info("매출 통계 아카이빙 시작: 기준일 {}", cutoffDate);
-        
-        try {
-            List<SalesStatistics> oldStats = salesStatisticsRepository
-                .findByStatisticDateBefore(cutoffDate);
-            
-            if (oldStats.isEmpty()) {
-                log.info("아카이빙할 매출 통계 데이터가 없습니다.");
-                return;
-            }
-            
-            log.info("매출 통계 아카이빙 대상: {} 개", oldStats.size());
-            
-            // 배치 단위로 아카이빙 처리
-            int totalBatches = (int) Math.ceil((double) oldStats.size() / statisticsBatchSize);
-            
-            for (int i = 0; i < totalBatches; i++) {
-                int startIndex = i * statisticsBatchSize;
-                int endIndex = Math.min(startIndex + statisticsBatchSize, oldStats.size());
-                
-                List<SalesStatistics> batch = oldStats.subList(startIndex, endIndex);
-                processSalesStatisticsBatch(batch, i + 1, totalBatches);
-            }
-            
-            // 아카이빙 완료 후 원본 데이터 삭제 (실제 운영에서는 주석 해제)
-            // salesStatisticsRepository.deleteAll(oldStats);
-            
-        } catch (Exception e) {
-            log.error("매출 통계 아카이빙 실패", e);
-        }
-    }
-    
-    /**
-     * 메뉴 통계 아카이빙
-     */
-    @Transactional
-    private void archiveMenuSalesStatistics(LocalDate cutoffDate) {
-        log.info("메뉴 통계 아카이빙 시작: 기준일 {}", cutoffDate);
-        
-        try {
-            List<MenuSalesStatistics> oldStats = menuSalesStatisticsRepository
-                .findByStatisticDateBefore(cutoffDate);
-            
-            if (oldStats.isEmpty()) {
-                log.info("아카이빙할 메뉴 통계 데이터가 없습니다.");
-                return;
-            }
-            
-            log.info("메뉴 통계 아카이빙 대상: {} 개", oldStats.size());
-            
-            // 배치 단위로 아카이빙 처리
-            int totalBatches = (int) Math.ceil((double) oldStats.size() / statisticsBatchSize);
-            
-            for (int i = 0; i < totalBatches; i++) {
-                int startIndex = i * statisticsBatchSize;
-                int endIndex = Math.min(startIndex + statisticsBatchSize, oldStats.size());
-                
-                List<MenuSalesStatistics> batch = oldStats.subList(startIndex, endIndex);
-                processMenuStatisticsBatch(batch, i + 1, totalBatches);
-            }
-            
-            // 아카이빙 완료 후 원본 데이터 삭제 (실제 운영에서는 주석 해제)
-            // menuSalesStatisticsRepository.deleteAll(oldStats);
-            
-        } catch (Exception e) {
-            log.error("메뉴 통계 아카이빙 실패", e);
-        }
-    }
-    
-    /**
-     * 카테고리 통계 아카이빙
-     */
-    @Transactional
-    private void archiveCategorySalesStatistics(LocalDate cutoffDate) {
-        log.info("카테고리 통계 아카이빙 시작: 기준일 {}", cutoffDate);
-        
-        try {
-            List<CategorySalesStatistics> oldStats = categorySalesStatisticsRepository
-                .findByStatisticDateBefore(cutoffDate);
-            
-            if (oldStats.isEmpty()) {
-                log.info("아카이빙할 카테고리 통계 데이터가 없습니다.");
-                return;
-            }
-            
-            log.info("카테고리 통계 아카이빙 대상: {} 개", oldStats.size());
-            
-            // 배치 단위로 아카이빙 처리
-            int totalBatches = (int) Math.ceil((double) oldStats.size() / statisticsBatchSize);
-            
-            for (int i = 0; i < totalBatches; i++) {
-                int startIndex = i * statisticsBatchSize;
-                int endIndex = Math.min(startIndex + statisticsBatchSize, oldStats.size());
-                
-                List<CategorySalesStatistics> batch = oldStats.subList(startIndex, endIndex);
-                processCategoryStatisticsBatch(batch, i + 1, totalBatches);
-            }
-            
-            // 아카이빙 완료 후 원본 데이터 삭제 (실제 운영에서는 주석 해제)
-            // categorySalesStatisticsRepository.deleteAll(oldStats);
-            
-        } catch (Exception e) {
-            log.error("카테고리 통계 아카이빙 실패", e);
-        }
-    }
-    
-    /**
-     * 매출 통계 배치 처리
-     */
-    private void processSalesStatisticsBatch(List<SalesStatistics> batch, int batchNumber, int totalBatches) {
-        log.info("매출 통계 배치 아카이빙 처리: {}/{}", batchNumber, totalBatches);
-        
-        try {
-            for (SalesStatistics stat : batch) {
-                // 실제 아카이빙 로직 구현
-                // 예: 별도 아카이브 테이블에 저장
-                // archiveSalesStatisticsToTable(stat);
-                
-                // 또는 파일로 저장
-                // saveSalesStatisticsToFile(stat);
-                
-                // 현재는 로그만 출력
-                log.debug("매출 통계 아카이빙: 지점={}, 날짜={}, 매출={}", 
-                    stat.getBranchId(), stat.getStatisticDate(), stat.getTotalSales());
-            }
-            
-        } catch (Exception e) {
-            log.error("매출 통계 배치 {} 아카이빙 처리 실패", batchNumber, e);
-        }
-    }
-    
-    /**
-     * 메뉴 통계 배치 처리
-     */
-    private void processMenuStatisticsBatch(List<MenuSalesStatistics> batch, int batchNumber, int totalBatches) {
-        log.info("메뉴 통계 배치 아카이빙 처리: {}/{}", batchNumber, totalBatches);
-        
-        try {
-            for (MenuSalesStatistics stat : batch) {
-                // 실제 아카이빙 로직 구현
-                log.debug("메뉴 통계 아카이빙: 지점={}, 메뉴={}, 날짜={}, 판매량={}", 
-                    stat.getBranchId(), stat.getMenuId(), stat.getStatisticDate(), stat.getQuantitySold());
-            }
-            
-        } catch (Exception e) {
-            log.error("메뉴 통계 배치 {} 아카이빙 처리 실패", batchNumber, e);
-        }
-    }
-    
-    /**
-     * 카테고리 통계 배치 처리
-     */
-    private void processCategoryStatisticsBatch(List<CategorySalesStatistics> batch, int batchNumber, int totalBatches) {
-        log.info("카테고리 통계 배치 아카이빙 처리: {}/{}", batchNumber, totalBatches);
-        
-        try {
-            for (CategorySalesStatistics stat : batch) {
-                // 실제 아카이빙 로직 구현
-                log.debug("카테고리 통계 아카이빙: 지점={}, 카테고리={}, 날짜={}, 매출={}", 
-                    stat.getBranchId(), stat.getCategoryId(), stat.getStatisticDate(), stat.getTotalSales());
-            }
-            
-        } catch (Exception e) {
-            log.error("카테고리 통계 배치 {} 아카이빙 처리 실패", batchNumber, e);
-        }
-    }
-    
-    /**
-     * 수동 통계 아카이빙 실행
+     * 수동 통계 아카이빙 실행 (fromDate ~ toDate, 양 끝 포함)
      */
     @Async
     public CompletableFuture<String> manualStatisticsArchive(LocalDate fromDate, LocalDate toDate) {
         log.info("수동 통계 아카이빙 실행: {} ~ {}", fromDate, toDate);
         
         try {
-            // 매출 통계 수동 아카이빙
-            List<SalesStatistics> salesStats = salesStatisticsRepository
-                .findByStatisticDateBetween(fromDate, toDate);
-            
-            // 메뉴 통계 수동 아카이빙
-            List<MenuSalesStatistics> menuStats = menuSalesStatisticsRepository
-                .findByStatisticDateBetween(fromDate, toDate);
-            
-            // 카테고리 통계 수동 아카이빙
-            List<CategorySalesStatistics> categoryStats = categorySalesStatisticsRepository
-                .findByStatisticDateBetween(fromDate, toDate);
-            
-            int totalArchived = salesStats.size() + menuStats.size() + categoryStats.size();
+            int[] archived = new int[STATISTICS_DATASETS.size()];
+            for (int i = 0; i < archived.length; i++) {
+                Map<String, Object> summary = archiveEngineService.archive(STATISTICS_DATASETS.get(i),
+                    fromDate, toDate.plusDays(1), statisticsBatchSize, null);
+                archived[i] = ((Number) summary.get("rows")).intValue();
+            }
             
-            if (totalArchived == 0) {
+            if (archived[0] + archived[1] + archived[2] == 0) {
                 return CompletableFuture.completedFuture("아카이빙할 통계 데이터가 없습니다.");
             }
             
-            // 실제 아카이빙 처리
-            processSalesStatisticsBatch(salesStats, 1, 1);
-            processMenuStatisticsBatch(menuStats, 1, 1);
-            processCategoryStatisticsBatch(categoryStats, 1, 1);
-            
             return CompletableFuture.completedFuture(
                 String.format("수동 통계 아카이빙 완료: 매출통계 %d개, 메뉴통계 %d개, 카테고리통계 %d개 처리", 
-                    salesStats.size(), menuStats.size(), categoryStats.size()));
+                    archived[0], archived[1], archived[2]));
                 
         } catch (Exception e) {
             log.error("수동 통계 아카이빙 실패", e);
@@ -2,6 +2,7 @@ package erp_project.erp_project.service;
 
 import erp_project.erp_project.entity.*;
 import erp_project.erp_project.repository.*;
+import erp_project.erp_project.util.RedisKeyScanner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -29,6 +30,8 @@ public class StatisticsDataOptimizationService {
     private final MenuSalesStatisticsRepository menuSalesStatisticsRepository;
     private final CategorySalesStatisticsRepository categorySalesStatisticsRepository;
     private final OrderRepository orderRepository;
+    private final RedisKeyScanner redisKeyScanner;
+    private final SchedulerLockService schedulerLockService;
     
     // Redis 키 패턴 상수
     private static final String STATS_CACHE_KEY = "stats:";
@@ -190,9 +193,16 @@ public class StatisticsDataOptimizationService {
     }
     
     /**
-     * 통계 데이터 배치 처리 (매일 새벽 2시)
+     * 매일 새벽 2시 실행 (여러 노드 중 잠금을 얻은 1곳만)
      */
     @Scheduled(cron = "0 0 2 * * ?")
+    public void scheduledStatisticsBatch() {
+        schedulerLockService.runExclusive("statistics-daily-batch", lease -> processStatisticsBatch());
+    }
+    
+    /**
+     * 통계 데이터 배치 처리
+     */
     public void processStatisticsBatch() {
         log.info("통계 데이터 배치 처리 시작");
         
@@ -494,16 +504,11 @@ public class StatisticsDataOptimizationService {
     public void invalidateBranchStatisticsCache(Long branchId) {
         log.info("지점 {} 통계 캐시 무효화", branchId);
         
-        // 통계 관련 캐시 키 패턴으로 삭제
-        Set<String> statsKeys = redisTemplate.keys(STATS_CACHE_KEY + "*:" + branchId + ":*");
-        Set<String> menuStatsKeys = redisTemplate.keys(MENU_STATS_CACHE_KEY + "*:" + branchId + ":*");
-        Set<String> categoryStatsKeys = redisTemplate.keys(CATEGORY_STATS_CACHE_KEY + "*:" + branchId + ":*");
-        Set<String> aggregatedKeys = redisTemplate.keys(AGGREGATED_STATS_KEY + "*:" + branchId + ":*");
-        
-        if (statsKeys != null) redisTemplate.delete(statsKeys);
-        if (menuStatsKeys != null) redisTemplate.delete(menuStatsKeys);
-        if (categoryStatsKeys != null) redisTemplate.delete(categoryStatsKeys);
-        if (aggregatedKeys != null) redisTemplate.delete(aggregatedKeys);
+        // 통계 관련 캐시 키 패턴으로 삭제 (SCAN + UNLINK)
+        redisKeyScanner.unlinkMatching(STATS_CACHE_KEY + "*:" + branchId + ":*");
+        redisKeyScanner.unlinkMatching(MENU_STATS_CACHE_KEY + "*:" + branchId + ":*");
+        redisKeyScanner.unlinkMatching(CATEGORY_STATS_CACHE_KEY + "*:" + branchId + ":*");
+        redisKeyScanner.unlinkMatching(AGGREGATED_STATS_KEY + "*:" + branchId + ":*");
     }
     
     /**
@@ -533,16 +538,11 @@ public class StatisticsDataOptimizationService {
             performanceInfo.put("recentMenuSalesStatisticsCount", recentMenuStats);
             performanceInfo.put("recentCategorySalesStatisticsCount", recentCategoryStats);
             
-            // 캐시 키 개수
-            Set<String> allStatsKeys = redisTemplate.keys(STATS_CACHE_KEY + "*");
-            Set<String> allMenuStatsKeys = redisTemplate.keys(MENU_STATS_CACHE_KEY + "*");
-            Set<String> allCategoryStatsKeys = redisTemplate.keys(CATEGORY_STATS_CACHE_KEY + "*");
-            Set<String> allAggregatedKeys = redisTemplate.keys(AGGREGATED_STATS_KEY + "*");
-            
-            performanceInfo.put("cachedStatsKeys", allStatsKeys != null ? allStatsKeys.size() : 0);
-            performanceInfo.put("cachedMenuStatsKeys", allMenuStatsKeys != null ? allMenuStatsKeys.size() : 0);
-            performanceInfo.put("cachedCategoryStatsKeys", allCategoryStatsKeys != null ? allCategoryStatsKeys.size() : 0);
-            performanceInfo.put("cachedAggregatedKeys", allAggregatedKeys != null ? allAggregatedKeys.size() : 0);
+            // 캐시 키 개수 (SCAN 으로 세므로 Redis 를 오래 점유하지 않음)
+            performanceInfo.put("cachedStatsKeys", redisKeyScanner.countKeys(STATS_CACHE_KEY + "*"));
+            performanceInfo.put("cachedMenuStatsKeys", redisKeyScanner.countKeys(MENU_STATS_CACHE_KEY + "*"));
+            performanceInfo.put("cachedCategoryStatsKeys", redisKeyScanner.countKeys(CATEGORY_STATS_CACHE_KEY + "*"));
+            performanceInfo.put("cachedAggregatedKeys", redisKeyScanner.countKeys(AGGREGATED_STATS_KEY + "*"));
             
         } catch (Exception e) {
             log.error("통계 성능 정보 조회 실패", e);
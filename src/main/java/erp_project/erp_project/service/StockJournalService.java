@@ -0,0 +1,406 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.StockMovement;
+import erp_project.erp_project.repository.StockMutationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 재고 이동 이력(stock_movements) 저널
+ * - 재고 수량 변경(주문 차감, 예약 확정, 발주 입고, 수동 조정)은 모두 이 서비스를 거쳐 이동 이력 1건씩 추가
+ * - material_stocks 변경과 이력 추가는 같은 트랜잭션, 이력은 변경 1회당 multi-row INSERT 1회
+ * - material_stocks 는 조회/조건부 차감용 현재값, 이력 + 스냅샷으로 시점 재고 조회와 현재값 검증
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockJournalService {
+
+    public static final String REFERENCE_ORDER = "ORDER";
+    public static final String REFERENCE_SUPPLY_REQUEST = "SUPPLY_REQUEST";
+    public static final String REFERENCE_MATERIAL_STOCK = "MATERIAL_STOCK";
+
+    private static final String INSERT_MOVEMENT_SQL =
+        "INSERT INTO stock_movements (material_id, branch_id, movement_type, quantity, unit, cost_per_unit, total_cost, " +
+        "reference_id, reference_type, notes, movement_date, created_at) VALUES ";
+
+    private static final String INSERT_MOVEMENT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // 지점/원재료별 가장 최근 스냅샷 (snapshot_at 상한 선택)
+    private static final String LATEST_SNAPSHOTS_SQL =
+        "SELECT s.branch_id, s.material_id, s.current_stock, s.last_movement_id FROM material_stock_snapshots s " +
+        "JOIN (SELECT branch_id, material_id, MAX(last_movement_id) AS last_id FROM material_stock_snapshots " +
+        "      WHERE %s GROUP BY branch_id, material_id) l " +
+        "ON l.branch_id = s.branch_id AND l.material_id = s.material_id AND l.last_id = s.last_movement_id";
+
+    private final StockMutationRepository stockMutationRepository;
+    private final StockStatusIndexService stockStatusIndexService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final SchedulerLockService schedulerLockService;
+
+    // 이 시간보다 최근 이동은 스냅샷에 넣지 않음 (ID 는 먼저 받았지만 아직 커밋되지 않은 이동 보호)
+    @Value("${app.inventory.journal.snapshot-lag-seconds:60}")
+    private long snapshotLagSeconds;
+
+    private final LongAdder appendedRows = new LongAdder();
+    private final LongAdder appendStatements = new LongAdder();
+    private final LongAdder snapshotRows = new LongAdder();
+    private volatile long lastSnapshotAt;
+    private volatile long lastSnapshotMovementId;
+
+    // ===== 쓰기 경로 (호출 측 트랜잭션 안에서 실행) =====
+
+    /**
+     * 주문 완료 차감 (예약 없는 주문) + SALE_DEDUCTION 이력
+     * - 부족이 있으면 이력 없이 결과만 반환 (호출 측에서 예외 → 롤백)
+     */
+    public StockMutationRepository.MutationResult deductForOrder(Long branchId, Long orderId,
+                                                                  List<StockMutationRepository.StockDelta> deltas) {
+        StockMutationRepository.MutationResult result = stockMutationRepository.deduct(branchId, deltas);
+        if (!result.hasShortfall()) {
+            appendFromResult(branchId, StockMovement.MovementType.SALE_DEDUCTION, result, true,
+                orderId, REFERENCE_ORDER, "주문 완료 재고 차감");
+        }
+        return result;
+    }
+
+    /**
+     * 예약분 차감 전환 + SALE_DEDUCTION 이력
+     */
+    public StockMutationRepository.MutationResult commitReservedForOrder(Long branchId, Long orderId,
+                                                                          List<StockMutationRepository.StockDelta> deltas) {
+        StockMutationRepository.MutationResult result = stockMutationRepository.commitReserved(branchId, deltas);
+        if (!result.hasShortfall()) {
+            appendFromResult(branchId, StockMovement.MovementType.SALE_DEDUCTION, result, true,
+                orderId, REFERENCE_ORDER, "주문 완료 재고 차감 (예약 확정)");
+        }
+        return result;
+    }
+
+    /**
+     * 발주 입고 + SUPPLY_IN 이력 (단위/단가는 발주 아이템 값)
+     */
+    @Transactional
+    public StockMutationRepository.MutationResult receiveSupply(Long branchId, Long supplyRequestId, List<JournalLine> lines) {
+        List<StockMutationRepository.StockDelta> deltas = new ArrayList<>(lines.size());
+        for (JournalLine line : lines) {
+            deltas.add(new StockMutationRepository.StockDelta(line.materialId(), line.quantity()));
+        }
+        StockMutationRepository.MutationResult result = stockMutationRepository.receive(branchId, deltas);
+        trackStatus(branchId, result, false);
+        append(branchId, StockMovement.MovementType.SUPPLY_IN, lines,
+            supplyRequestId, REFERENCE_SUPPLY_REQUEST, "발주 요청 배송 완료로 인한 재고 입고");
+        return result;
+    }
+
+    /**
+     * 수동 재고 조정 이력 (재고 행은 호출 측이 잠금 후 이미 변경, 증감이 0 이면 기록 없음)
+     */
+    public void recordAdjustment(Long branchId, Long stockId, JournalLine line) {
+        if (line.quantity().signum() == 0) {
+            return;
+        }
+        append(branchId, StockMovement.MovementType.ADJUSTMENT, List.of(line),
+            stockId, REFERENCE_MATERIAL_STOCK, "수동 재고 조정");
+    }
+
+    private void appendFromResult(Long branchId, StockMovement.MovementType type,
+                                  StockMutationRepository.MutationResult result, boolean outbound,
+                                  Long referenceId, String referenceType, String notes) {
+        trackStatus(branchId, result, outbound);
+        List<JournalLine> lines = new ArrayList<>(result.applied().size());
+        for (int i = 0; i < result.applied().size(); i++) {
+            StockMutationRepository.StockLevel level = result.applied().get(i);
+            BigDecimal quantity = result.appliedDeltas().get(i).quantity();
+            lines.add(new JournalLine(level.materialId(), outbound ? quantity.negate() : quantity,
+                level.unit(), level.costPerUnit()));
+        }
+        append(branchId, type, lines, referenceId, referenceType, notes);
+    }
+
+    // 변경 후 재고의 임계값 상태를 인덱스에 반영 (경계를 넘은 재고만 이벤트 발행)
+    private void trackStatus(Long branchId, StockMutationRepository.MutationResult result, boolean outbound) {
+        List<BigDecimal> signedDeltas = new ArrayList<>(result.appliedDeltas().size());
+        for (StockMutationRepository.StockDelta delta : result.appliedDeltas()) {
+            signedDeltas.add(outbound ? delta.quantity().negate() : delta.quantity());
+        }
+        stockStatusIndexService.onLevelsChanged(branchId, result.applied(), signedDeltas);
+    }
+
+    /**
+     * 이동 이력 추가 (multi-row INSERT 1회)
+     */
+    private void append(Long branchId, StockMovement.MovementType type, List<JournalLine> lines,
+                        Long referenceId, String referenceType, String notes) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        StringBuilder sql = new StringBuilder(INSERT_MOVEMENT_SQL);
+        List<Object> params = new ArrayList<>(lines.size() * 12);
+        for (JournalLine line : lines) {
+            if (params.size() > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_MOVEMENT_ROW);
+            BigDecimal costPerUnit = line.costPerUnit() != null ? line.costPerUnit() : BigDecimal.ZERO;
+            params.add(line.materialId());
+            params.add(branchId);
+            params.add(type.name());
+            params.add(line.quantity());
+            params.add(line.unit() != null ? line.unit() : "");
+            params.add(costPerUnit);
+            params.add(line.quantity().abs().multiply(costPerUnit).setScale(2, RoundingMode.HALF_UP));
+            params.add(referenceId);
+            params.add(referenceType);
+            params.add(notes);
+            params.add(now);
+            params.add(now);
+        }
+        jdbcTemplate.update(sql.toString(), params.toArray());
+        appendStatements.increment();
+        appendedRows.add(lines.size());
+    }
+
+    // ===== 스냅샷 =====
+
+    @Scheduled(cron = "${app.inventory.journal.snapshot-cron:0 10 2 * * *}")
+    public void scheduledSnapshot() {
+        schedulerLockService.runExclusive("stock-snapshot", this::takeSnapshot);
+    }
+
+    /**
+     * 이전 스냅샷 이후 이동 이력을 누적해 새 스냅샷 추가
+     * - 스냅샷이 하나도 없으면 현재 material_stocks 에서 기준 이후 이동을 빼서 기초 재고 생성
+     *   (같은 일관 읽기 트랜잭션이라 재고와 이력이 같은 시점)
+     * @return 추가한 스냅샷 행 수
+     */
+    public int takeSnapshot() {
+        return takeSnapshot(null);
+    }
+
+    /**
+     * @param lease 스케줄 잠금 (INSERT 직전 토큰 확인, 수동 실행은 null)
+     */
+    public synchronized int takeSnapshot(SchedulerLockService.JobLease lease) {
+        Integer inserted = consistentTransaction(false).execute(status -> {
+            LocalDateTime cutoff = LocalDateTime.now().minusSeconds(snapshotLagSeconds);
+            List<Map<String, Object>> cutRows = jdbcTemplate.queryForList(
+                "SELECT id, movement_date FROM stock_movements WHERE movement_date < ? " +
+                "ORDER BY movement_date DESC, id DESC LIMIT 1", Timestamp.valueOf(cutoff));
+            long cut = cutRows.isEmpty() ? 0L : ((Number) cutRows.get(0).get("id")).longValue();
+            LocalDateTime snapshotAt = cutRows.isEmpty() ? cutoff
+                : ((Timestamp) cutRows.get(0).get("movement_date")).toLocalDateTime();
+
+            Long previousCut = jdbcTemplate.queryForObject(
+                "SELECT MAX(last_movement_id) FROM material_stock_snapshots", Long.class);
+            if (previousCut != null && previousCut >= cut) {
+                return 0;
+            }
+
+            Map<StockKey, BigDecimal> next = new TreeMap<>();
+            if (previousCut == null) {
+                // 기초 재고 = 현재 재고 - 기준 이후 이동 합계
+                jdbcTemplate.query("SELECT branch_id, material_id, current_stock FROM material_stocks", rs -> {
+                    next.merge(new StockKey(rs.getLong(1), rs.getLong(2)), rs.getBigDecimal(3), BigDecimal::add);
+                });
+                jdbcTemplate.query("SELECT branch_id, material_id, SUM(quantity) FROM stock_movements " +
+                    "WHERE id > ? GROUP BY branch_id, material_id", rs -> {
+                    next.merge(new StockKey(rs.getLong(1), rs.getLong(2)), rs.getBigDecimal(3).negate(), BigDecimal::add);
+                }, cut);
+            } else {
+                // 이전 스냅샷 + (이전 기준, 이번 기준] 이동 합계, 이동이 있던 원재료만
+                Map<StockKey, BigDecimal> base = new HashMap<>();
+                jdbcTemplate.query(String.format(LATEST_SNAPSHOTS_SQL, "1 = 1"), rs -> {
+                    base.put(new StockKey(rs.getLong(1), rs.getLong(2)), rs.getBigDecimal(3));
+                });
+                jdbcTemplate.query("SELECT branch_id, material_id, SUM(quantity) FROM stock_movements " +
+                    "WHERE id > ? AND id <= ? GROUP BY branch_id, material_id", rs -> {
+                    StockKey key = new StockKey(rs.getLong(1), rs.getLong(2));
+                    next.put(key, base.getOrDefault(key, BigDecimal.ZERO).add(rs.getBigDecimal(3)));
+                }, previousCut, cut);
+            }
+
+            List<Object[]> rows = new ArrayList<>(next.size());
+            Timestamp snapshotTimestamp = Timestamp.valueOf(snapshotAt);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            next.forEach((key, stock) -> rows.add(new Object[]{
+                key.branchId(), key.materialId(), stock, cut, snapshotTimestamp, now}));
+            if (!rows.isEmpty()) {
+                if (lease != null) {
+                    lease.checkFence();
+                }
+                jdbcTemplate.batchUpdate("INSERT INTO material_stock_snapshots " +
+                    "(branch_id, material_id, current_stock, last_movement_id, snapshot_at, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)", rows);
+            }
+            lastSnapshotMovementId = cut;
+            return rows.size();
+        });
+
+        int count = inserted != null ? inserted : 0;
+        snapshotRows.add(count);
+        lastSnapshotAt = System.currentTimeMillis();
+        log.info("재고 스냅샷 생성: {}행, 기준 이동 ID={}", count, lastSnapshotMovementId);
+        return count;
+    }
+
+    // ===== 조회 =====
+
+    /**
+     * 지점의 시점 재고 (at 이전 마지막 스냅샷 + 이후 이동 합계, at 이 null 이면 현재)
+     * - at 이전 스냅샷이 없는 원재료는 at 이후 첫 스냅샷에서 역으로 차감
+     * - 스냅샷이 전혀 없는 원재료는 이동 이력 합계 (스냅샷 이후 입고로 새로 생긴 재고)
+     */
+    public Map<Long, BigDecimal> getLevelsAt(Long branchId, LocalDateTime at) {
+        Map<Long, BigDecimal> levels = new TreeMap<>();
+        Set<Long> backfilled = new HashSet<>();
+        if (at == null) {
+            jdbcTemplate.query(String.format(LATEST_SNAPSHOTS_SQL, "branch_id = ?"), rs -> {
+                levels.put(rs.getLong(2), rs.getBigDecimal(3));
+            }, branchId);
+        } else {
+            Timestamp atTimestamp = Timestamp.valueOf(at);
+            jdbcTemplate.query(String.format(LATEST_SNAPSHOTS_SQL, "branch_id = ? AND snapshot_at <= ?"), rs -> {
+                levels.put(rs.getLong(2), rs.getBigDecimal(3));
+            }, branchId, atTimestamp);
+
+            // at 이후 첫 스냅샷 - (at, 스냅샷] 이동 합계
+            Map<Long, Long> firstAfter = new HashMap<>();
+            jdbcTemplate.query("SELECT material_id, MIN(last_movement_id) FROM material_stock_snapshots " +
+                "WHERE branch_id = ? AND snapshot_at > ? GROUP BY material_id", rs -> {
+                if (!levels.containsKey(rs.getLong(1))) {
+                    firstAfter.put(rs.getLong(1), rs.getLong(2));
+                }
+            }, branchId, atTimestamp);
+            for (Map.Entry<Long, Long> entry : firstAfter.entrySet()) {
+                long materialId = entry.getKey();
+                long snapshotCut = entry.getValue();
+                BigDecimal snapshot = jdbcTemplate.queryForObject("SELECT current_stock FROM material_stock_snapshots " +
+                    "WHERE branch_id = ? AND material_id = ? AND last_movement_id = ?",
+                    BigDecimal.class, branchId, materialId, snapshotCut);
+                BigDecimal after = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM stock_movements " +
+                    "WHERE branch_id = ? AND material_id = ? AND id <= ? AND movement_date > ?",
+                    BigDecimal.class, branchId, materialId, snapshotCut, atTimestamp);
+                levels.put(materialId, snapshot.subtract(after));
+                // 역산한 값은 이미 at 시점 값이므로 더 이상 누적하지 않음
+                backfilled.add(materialId);
+            }
+        }
+
+        // 스냅샷 이후 이동 누적 (원재료별 마지막 스냅샷 ID 이후, 스냅샷이 없으면 처음부터)
+        String snapshotFilter = at != null ? " AND snapshot_at <= ?" : "";
+        String movementFilter = at != null ? " AND m.movement_date <= ?" : "";
+        List<Object> params = new ArrayList<>();
+        params.add(branchId);
+        if (at != null) {
+            params.add(Timestamp.valueOf(at));
+        }
+        params.add(branchId);
+        if (at != null) {
+            params.add(Timestamp.valueOf(at));
+        }
+        jdbcTemplate.query("SELECT m.material_id, SUM(m.quantity) FROM stock_movements m " +
+            "LEFT JOIN (SELECT material_id, MAX(last_movement_id) AS last_id FROM material_stock_snapshots " +
+            "           WHERE branch_id = ?" + snapshotFilter + " GROUP BY material_id) l ON l.material_id = m.material_id " +
+            "WHERE m.branch_id = ? AND m.id > COALESCE(l.last_id, 0)" + movementFilter + " GROUP BY m.material_id", rs -> {
+            long materialId = rs.getLong(1);
+            if (!backfilled.contains(materialId)) {
+                levels.merge(materialId, rs.getBigDecimal(2), BigDecimal::add);
+            }
+        }, params.toArray());
+        return levels;
+    }
+
+    /**
+     * 이력 기준 현재 재고와 material_stocks 비교 (같은 일관 읽기 트랜잭션)
+     * @return 차이가 있는 원재료 목록과 요약
+     */
+    public Map<String, Object> verify(Long branchId) {
+        return consistentTransaction(true).execute(status -> {
+            Map<Long, BigDecimal> journal = getLevelsAt(branchId, null);
+            Map<Long, BigDecimal> stored = new TreeMap<>();
+            jdbcTemplate.query("SELECT material_id, current_stock FROM material_stocks WHERE branch_id = ?", rs -> {
+                stored.merge(rs.getLong(1), rs.getBigDecimal(2), BigDecimal::add);
+            }, branchId);
+
+            List<Map<String, Object>> drifts = new ArrayList<>();
+            TreeMap<Long, Boolean> materialIds = new TreeMap<>();
+            journal.keySet().forEach(id -> materialIds.put(id, true));
+            stored.keySet().forEach(id -> materialIds.put(id, true));
+            for (Long materialId : materialIds.keySet()) {
+                BigDecimal journalStock = journal.getOrDefault(materialId, BigDecimal.ZERO);
+                BigDecimal storedStock = stored.getOrDefault(materialId, BigDecimal.ZERO);
+                if (journalStock.compareTo(storedStock) != 0) {
+                    Map<String, Object> drift = new LinkedHashMap<>();
+                    drift.put("materialId", materialId);
+                    drift.put("journalStock", journalStock);
+                    drift.put("currentStock", storedStock);
+                    drift.put("difference", storedStock.subtract(journalStock));
+                    drifts.add(drift);
+                }
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("branchId", branchId);
+            report.put("materials", materialIds.size());
+            report.put("driftCount", drifts.size());
+            report.put("drifts", drifts);
+            return report;
+        });
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("appendedRows", appendedRows.sum());
+        metrics.put("appendStatements", appendStatements.sum());
+        metrics.put("snapshotRows", snapshotRows.sum());
+        metrics.put("lastSnapshotAt", lastSnapshotAt);
+        metrics.put("lastSnapshotMovementId", lastSnapshotMovementId);
+        return metrics;
+    }
+
+    // REPEATABLE READ: 트랜잭션 안의 모든 SELECT 가 같은 시점을 읽음
+    private TransactionTemplate consistentTransaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    /**
+     * 이력 1행 (quantity 양수: 입고, 음수: 출고)
+     */
+    public record JournalLine(long materialId, BigDecimal quantity, String unit, BigDecimal costPerUnit) {}
+
+    private record StockKey(long branchId, long materialId) implements Comparable<StockKey> {
+        @Override
+        public int compareTo(StockKey other) {
+            int byBranch = Long.compare(branchId, other.branchId);
+            return byBranch != 0 ? byBranch : Long.compare(materialId, other.materialId);
+        }
+    }
+}
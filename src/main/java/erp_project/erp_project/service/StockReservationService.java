@@ -0,0 +1,336 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.OrderItemDetails;
+import erp_project.erp_project.entity.OrderItems;
+import erp_project.erp_project.entity.Orders;
+import erp_project.erp_project.entity.StockReservation;
+import erp_project.erp_project.repository.StockMutationRepository;
+import erp_project.erp_project.repository.StockReservationRepository;
+import erp_project.erp_project.util.BillOfMaterials;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 주문 재고 예약
+ * - 주문 생성 시 BOM 으로 전개한 원재료를 예약 (reserved_stock 증가, 가용 재고 부족 시 주문 생성 실패)
+ * - 주문 완료 시 예약분을 실제 차감으로 전환, 취소/시간 초과 시 예약 해제
+ * - stock_reservations 원장(추가 전용)이 기준, 지점별 인메모리 인덱스는 미정산 예약의 원재료/수량 캐시
+ *   (완료/취소 시 레시피 전개·원장 조회 없이 처리, 다른 인스턴스가 만든 예약은 원장에서 조회)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+
+    private static final String INSERT_LEDGER_PREFIX =
+        "INSERT IGNORE INTO stock_reservations (order_id, branch_id, material_id, quantity, entry_type, settlement, " +
+        "expires_at, created_at) VALUES ";
+    private static final String INSERT_LEDGER_ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockMutationRepository stockMutationRepository;
+    private final StockJournalService stockJournalService;
+    private final StockReservationRepository stockReservationRepository;
+    private final BomIndexService bomIndexService;
+
+    @Value("${app.inventory.reservation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.inventory.reservation.ttl-minutes:180}")
+    private long ttlMinutes;
+
+    @Value("${app.inventory.reservation.recovery-days:7}")
+    private int recoveryDays;
+
+    // 지점 ID → (주문 ID → 미정산 예약)
+    private final Map<Long, Map<Long, Reservation>> openByBranch = new ConcurrentHashMap<>();
+
+    private final LongAdder reserved = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 미완료 예약을 원장에서 다시 읽어 인덱스 복구 (만료분은 다음 정리 주기에 해제)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        try {
+            Map<Long, List<StockReservation>> byOrder = new LinkedHashMap<>();
+            for (StockReservation row : stockReservationRepository.findOpenCreatedSince(
+                    LocalDateTime.now().minusDays(recoveryDays))) {
+                byOrder.computeIfAbsent(row.getOrderId(), key -> new ArrayList<>()).add(row);
+            }
+            byOrder.values().forEach(rows -> index(Reservation.of(rows)));
+            log.info("재고 예약 인덱스 복구: 미정산 주문 {}건", byOrder.size());
+        } catch (Exception e) {
+            log.error("재고 예약 인덱스 복구 실패", e);
+        }
+    }
+
+    /**
+     * 주문 생성 트랜잭션 안에서 원재료 예약
+     * - 가용 재고가 부족하면 예외 → 주문 생성 롤백
+     */
+    public void reserve(Orders order, List<OrderItems> items, List<OrderItemDetails> details) {
+        if (!enabled) {
+            return;
+        }
+        BillOfMaterials.Usage usage = bomIndexService.explode(items, details);
+        if (usage.isEmpty()) {
+            return;
+        }
+        List<StockMutationRepository.StockDelta> deltas = new ArrayList<>(usage.size());
+        for (int i = 0; i < usage.size(); i++) {
+            deltas.add(new StockMutationRepository.StockDelta(usage.materialId(i), usage.quantity(i)));
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+        if (appendLedger(order.getOrderId(), order.getBranchId(), deltas, StockReservation.EntryType.RESERVED, expiresAt) == 0) {
+            // 이미 예약된 주문
+            return;
+        }
+        StockMutationRepository.MutationResult result = stockMutationRepository.reserve(order.getBranchId(), deltas);
+        if (result.hasShortfall()) {
+            rejected.increment();
+            throw new RuntimeException(result.shortfallMessage(order.getBranchId()));
+        }
+
+        Reservation reservation = Reservation.of(order.getOrderId(), order.getBranchId(), deltas, expiresAt);
+        afterCommit(() -> {
+            index(reservation);
+            reserved.increment();
+        });
+    }
+
+    /**
+     * 주문 완료: 예약분을 실제 차감으로 전환 (호출 측 트랜잭션 안에서 실행)
+     * - COMMITTED: 이번 호출에서 차감
+     * - ALREADY_SETTLED: 다른 요청(동시 완료, 재시도)이 이미 차감 → 호출 측은 차감하지 않음
+     * - NO_RESERVATION: 예약 전 주문, 만료/취소된 주문 → 호출 측에서 일반 차감
+     */
+    public CommitOutcome commit(Orders order) {
+        Reservation reservation = findOpen(order.getBranchId(), order.getOrderId());
+        if (reservation == null) {
+            return settledOutcome(order.getOrderId());
+        }
+        List<StockMutationRepository.StockDelta> deltas = reservation.deltas();
+        if (appendLedger(reservation.orderId(), reservation.branchId(), deltas, StockReservation.EntryType.COMMITTED, null) == 0) {
+            // 다른 요청이 먼저 정산 (완료인지 취소/만료인지 원장에서 확인)
+            afterCommit(() -> unindex(reservation));
+            return settledOutcome(reservation.orderId());
+        }
+        StockMutationRepository.MutationResult result = stockJournalService.commitReservedForOrder(
+            reservation.branchId(), reservation.orderId(), deltas);
+        if (result.hasShortfall()) {
+            throw new RuntimeException(result.shortfallMessage(reservation.branchId()));
+        }
+        afterCommit(() -> {
+            unindex(reservation);
+            committed.increment();
+        });
+        return CommitOutcome.COMMITTED;
+    }
+
+    private CommitOutcome settledOutcome(Long orderId) {
+        return orderId != null && stockReservationRepository.existsByOrderIdAndEntryType(orderId, StockReservation.EntryType.COMMITTED)
+            ? CommitOutcome.ALREADY_SETTLED : CommitOutcome.NO_RESERVATION;
+    }
+
+    /**
+     * 주문 취소: 예약 해제 (예약이 없거나 이미 정산된 주문이면 false)
+     */
+    public boolean release(Orders order) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+            settleRelease(findOpen(order.getBranchId(), order.getOrderId()), StockReservation.EntryType.RELEASED)));
+    }
+
+    /**
+     * 시간 초과 예약 해제 (이 인스턴스 인덱스 기준)
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.sweep-interval-ms:60000}")
+    public void expireOverdue() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Map<Long, Reservation> reservations : openByBranch.values()) {
+            for (Reservation reservation : reservations.values()) {
+                if (reservation.expiresAt() == null || reservation.expiresAt().isAfter(now)) {
+                    continue;
+                }
+                try {
+                    transactionTemplate.execute(status -> settleRelease(reservation, StockReservation.EntryType.EXPIRED));
+                } catch (Exception e) {
+                    log.error("재고 예약 만료 처리 실패: orderId={}", reservation.orderId(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 주문에 미정산 예약이 있는지 (인덱스 → 원장 순으로 확인)
+     */
+    public boolean hasOpenReservation(Long branchId, Long orderId) {
+        return findOpen(branchId, orderId) != null;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("openReservations", openByBranch.values().stream().mapToInt(Map::size).sum());
+        metrics.put("branches", openByBranch.size());
+        metrics.put("reserved", reserved.sum());
+        metrics.put("committed", committed.sum());
+        metrics.put("released", released.sum());
+        metrics.put("expired", expired.sum());
+        metrics.put("rejected", rejected.sum());
+        return metrics;
+    }
+
+    private boolean settleRelease(Reservation reservation, StockReservation.EntryType entryType) {
+        if (reservation == null) {
+            return false;
+        }
+        List<StockMutationRepository.StockDelta> deltas = reservation.deltas();
+        if (appendLedger(reservation.orderId(), reservation.branchId(), deltas, entryType, null) == 0) {
+            // 이미 정산된 예약 (다른 인스턴스에서 완료/취소)
+            afterCommit(() -> unindex(reservation));
+            return false;
+        }
+        stockMutationRepository.release(reservation.branchId(), deltas);
+        afterCommit(() -> {
+            unindex(reservation);
+            (entryType == StockReservation.EntryType.EXPIRED ? expired : released).increment();
+        });
+        return true;
+    }
+
+    private Reservation findOpen(Long branchId, Long orderId) {
+        if (orderId == null) {
+            return null;
+        }
+        Map<Long, Reservation> reservations = openByBranch.get(branchId);
+        Reservation reservation = reservations != null ? reservations.get(orderId) : null;
+        if (reservation != null) {
+            return reservation;
+        }
+        List<StockReservation> rows = stockReservationRepository.findOpenByOrderId(orderId);
+        return rows.isEmpty() ? null : Reservation.of(rows);
+    }
+
+    /**
+     * 원장 행 추가 (multi-row INSERT IGNORE, 이미 같은 구분의 행이 있으면 0 반환)
+     */
+    private int appendLedger(Long orderId, Long branchId, List<StockMutationRepository.StockDelta> deltas,
+                             StockReservation.EntryType entryType, LocalDateTime expiresAt) {
+        String sql = INSERT_LEDGER_PREFIX + String.join(", ", Collections.nCopies(deltas.size(), INSERT_LEDGER_ROW));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        boolean settlement = entryType != StockReservation.EntryType.RESERVED;
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int idx = 1;
+            for (StockMutationRepository.StockDelta delta : deltas) {
+                ps.setLong(idx++, orderId);
+                ps.setLong(idx++, branchId);
+                ps.setLong(idx++, delta.materialId());
+                ps.setBigDecimal(idx++, delta.quantity());
+                ps.setString(idx++, entryType.name());
+                ps.setBoolean(idx++, settlement);
+                if (expiresAt != null) {
+                    ps.setTimestamp(idx++, Timestamp.valueOf(expiresAt));
+                } else {
+                    ps.setNull(idx++, Types.TIMESTAMP);
+                }
+                ps.setTimestamp(idx++, now);
+            }
+            return ps;
+        });
+    }
+
+    private void index(Reservation reservation) {
+        openByBranch.computeIfAbsent(reservation.branchId(), key -> new ConcurrentHashMap<>())
+            .put(reservation.orderId(), reservation);
+    }
+
+    private void unindex(Reservation reservation) {
+        Map<Long, Reservation> reservations = openByBranch.get(reservation.branchId());
+        if (reservations != null) {
+            reservations.remove(reservation.orderId());
+        }
+    }
+
+    // 커밋 후 인덱스 반영 (롤백된 예약/정산은 인덱스에 남기지 않음)
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public enum CommitOutcome { COMMITTED, ALREADY_SETTLED, NO_RESERVATION }
+
+    /**
+     * 미정산 예약 1건 (원재료 ID 순 평면 배열)
+     */
+    private record Reservation(long orderId, long branchId, long[] materialIds, BigDecimal[] quantities,
+                               LocalDateTime expiresAt) {
+
+        static Reservation of(long orderId, long branchId, List<StockMutationRepository.StockDelta> deltas,
+                              LocalDateTime expiresAt) {
+            long[] materialIds = new long[deltas.size()];
+            BigDecimal[] quantities = new BigDecimal[deltas.size()];
+            for (int i = 0; i < deltas.size(); i++) {
+                materialIds[i] = deltas.get(i).materialId();
+                quantities[i] = deltas.get(i).quantity();
+            }
+            return new Reservation(orderId, branchId, materialIds, quantities, expiresAt);
+        }
+
+        static Reservation of(List<StockReservation> rows) {
+            StockReservation first = rows.get(0);
+            List<StockMutationRepository.StockDelta> deltas = rows.stream()
+                .map(row -> new StockMutationRepository.StockDelta(row.getMaterialId(), row.getQuantity()))
+                .toList();
+            return of(first.getOrderId(), first.getBranchId(), deltas, first.getExpiresAt());
+        }
+
+        List<StockMutationRepository.StockDelta> deltas() {
+            List<StockMutationRepository.StockDelta> deltas = new ArrayList<>(materialIds.length);
+            for (int i = 0; i < materialIds.length; i++) {
+                deltas.add(new StockMutationRepository.StockDelta(materialIds[i], quantities[i]));
+            }
+            return deltas;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.MaterialStock;
+import erp_project.erp_project.repository.StockMutationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 지점별 재고 임계값 상태 인덱스
+ * - material_stocks.stock_status 는 재고 변경 UPDATE 에서 함께 갱신, 메모리에는 NORMAL 이 아닌 재고만 최신순으로 유지
+ * - 재고 알림 조회는 전체 재고를 읽지 않고 이 인덱스만 사용
+ * - 재고 변경이 상태 경계를 넘으면 커밋 후 StatusChange 이벤트 1건 발행 (요청마다 다시 계산하지 않음, 수동 수정은 제외)
+ * - 다른 인스턴스의 변경은 주기 재적재로 반영 (이벤트는 변경한 인스턴스에서만 발행)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockStatusIndexService {
+
+    private static final String SELECT_OFFENDERS_SQL =
+        "SELECT ms.id, ms.branch_id, ms.material_id, m.name, m.category, m.unit, ms.stock_status, " +
+        "ms.current_stock, ms.min_stock, ms.max_stock, ms.last_updated " +
+        "FROM material_stocks ms JOIN materials m ON m.id = ms.material_id " +
+        "WHERE ms.stock_status IN ('CRITICAL', 'WARNING', 'EXCESS')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Map<Long, BranchOffenders> offendersByBranch = new ConcurrentHashMap<>();
+
+    private final LongAdder crossings = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private volatile long lastReloadedAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            // 컬럼 추가 전 행과 수동 변경 행의 상태를 한 번에 다시 계산
+            int updated = jdbcTemplate.update("UPDATE material_stocks SET stock_status = " + StockMutationRepository.STATUS_CASE +
+                " WHERE stock_status IS NULL OR stock_status <> " + StockMutationRepository.STATUS_CASE);
+            log.info("재고 상태 재계산: {}행", updated);
+            reload();
+        } catch (Exception e) {
+            // 다음 주기 재적재에서 다시 시도
+            log.error("기동 시 재고 상태 인덱스 생성 실패", e);
+        }
+    }
+
+    /**
+     * DB 의 NORMAL 이 아닌 재고로 인덱스 전체 교체
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.status-index.refresh-interval-ms:60000}",
+               initialDelayString = "${app.inventory.status-index.refresh-interval-ms:60000}")
+    public void reload() {
+        Map<Long, BranchOffenders> next = new ConcurrentHashMap<>();
+        jdbcTemplate.query(SELECT_OFFENDERS_SQL, rs -> {
+            Offender offender = new Offender(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4),
+                rs.getString(5), rs.getString(6), MaterialStock.StockStatus.valueOf(rs.getString(7)),
+                rs.getBigDecimal(8), rs.getBigDecimal(9), rs.getBigDecimal(10), rs.getTimestamp(11).toLocalDateTime());
+            next.computeIfAbsent(offender.branchId(), id -> new BranchOffenders()).put(offender);
+        });
+        offendersByBranch = next;
+        reloads.increment();
+        lastReloadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 재고 수량 변경 반영 (호출 측 트랜잭션 커밋 후 적용)
+     * @param levels         변경 후 재고 (min/max 는 변경 없음)
+     * @param signedDeltas   levels 와 같은 순서의 증감량 (입고 양수, 출고 음수)
+     */
+    public void onLevelsChanged(Long branchId, List<StockMutationRepository.StockLevel> levels, List<BigDecimal> signedDeltas) {
+        List<Change> changes = new ArrayList<>(levels.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < levels.size(); i++) {
+            StockMutationRepository.StockLevel level = levels.get(i);
+            BigDecimal previousStock = level.currentStock().subtract(signedDeltas.get(i));
+            MaterialStock.StockStatus previous = MaterialStock.StockStatus.of(previousStock, level.minStock(), level.maxStock());
+            changes.add(new Change(previous, previousStock, new Offender(level.stockId(), branchId, level.materialId(),
+                level.materialName(), level.materialCategory(), level.unit(), level.status(),
+                level.currentStock(), level.minStock(), level.maxStock(), now), true));
+        }
+        afterCommit(() -> changes.forEach(this::apply));
+    }
+
+    /**
+     * 수동 재고 수정 반영 (최소/최대 재고 변경 포함)
+     * - 인덱스만 갱신하고 StatusChange 는 발행하지 않음 (관리자가 직접 맞춘 값이므로 부족/과다 알림 제외)
+     */
+    public void onStockUpdated(MaterialStock.StockStatus previous, BigDecimal previousStock, MaterialStock stock) {
+        Offender current = new Offender(stock.getId(), stock.getBranch().getId(), stock.getMaterial().getId(),
+            stock.getMaterial().getName(), stock.getMaterial().getCategory(), stock.getMaterial().getUnit(),
+            MaterialStock.StockStatus.of(stock.getCurrentStock(), stock.getMinStock(), stock.getMaxStock()),
+            stock.getCurrentStock(), stock.getMinStock(), stock.getMaxStock(),
+            stock.getLastUpdated() != null ? stock.getLastUpdated() : LocalDateTime.now());
+        Change change = new Change(previous, previousStock, current, false);
+        afterCommit(() -> apply(change));
+    }
+
+    /**
+     * 지점의 NORMAL 이 아닌 재고 (최근 변경순)
+     */
+    public List<Offender> getOffenders(Long branchId) {
+        BranchOffenders offenders = offendersByBranch.get(branchId);
+        return offenders != null ? offenders.snapshot() : List.of();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        Map<String, Integer> byStatus = new LinkedHashMap<>();
+        for (BranchOffenders offenders : offendersByBranch.values()) {
+            for (Offender offender : offenders.snapshot()) {
+                byStatus.merge(offender.status().name(), 1, Integer::sum);
+            }
+        }
+        metrics.put("branches", offendersByBranch.size());
+        metrics.put("offenders", byStatus);
+        metrics.put("crossings", crossings.sum());
+        metrics.put("reloads", reloads.sum());
+        metrics.put("lastReloadedAt", lastReloadedAt);
+        return metrics;
+    }
+
+    private void apply(Change change) {
+        Offender current = change.current();
+        BranchOffenders offenders = offendersByBranch.computeIfAbsent(current.branchId(), id -> new BranchOffenders());
+        if (current.status() == MaterialStock.StockStatus.NORMAL) {
+            offenders.remove(current.stockId());
+        } else {
+            offenders.put(current);
+        }
+        if (change.previous() != current.status()) {
+            crossings.increment();
+            if (change.publish()) {
+                eventPublisher.publishEvent(new StatusChange(current.branchId(), current.stockId(), current.materialId(),
+                    current.materialName(), current.unit(), change.previous(), current.status(),
+                    change.previousStock(), current.currentStock(), current.minStock(), current.maxStock()));
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    // 다음 주기 재적재에서 복구
+                    log.error("재고 상태 인덱스 갱신 실패", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 지점 하나의 NORMAL 이 아닌 재고 (stockId 조회 + 최근 변경순 정렬)
+     */
+    private static final class BranchOffenders {
+
+        private static final Comparator<Offender> RECENT_FIRST = Comparator
+            .comparing(Offender::lastUpdated).reversed()
+            .thenComparing(Comparator.comparingLong(Offender::stockId).reversed());
+
+        private final Map<Long, Offender> byStockId = new HashMap<>();
+        private final TreeSet<Offender> ordered = new TreeSet<>(RECENT_FIRST);
+
+        synchronized void put(Offender offender) {
+            Offender previous = byStockId.put(offender.stockId(), offender);
+            if (previous != null) {
+                ordered.remove(previous);
+            }
+            ordered.add(offender);
+        }
+
+        synchronized void remove(long stockId) {
+            Offender previous = byStockId.remove(stockId);
+            if (previous != null) {
+                ordered.remove(previous);
+            }
+        }
+
+        synchronized List<Offender> snapshot() {
+            return new ArrayList<>(ordered);
+        }
+    }
+
+    public record Offender(long stockId, long branchId, long materialId, String materialName, String materialCategory,
+                           String unit, MaterialStock.StockStatus status, BigDecimal currentStock,
+                           BigDecimal minStock, BigDecimal maxStock, LocalDateTime lastUpdated) {}
+
+    private record Change(MaterialStock.StockStatus previous, BigDecimal previousStock, Offender current, boolean publish) {}
+
+    /**
+     * 재고 상태 경계 통과 이벤트 (커밋 후 발행)
+     */
+    public record StatusChange(long branchId, long stockId, long materialId, String materialName, String unit,
+                               MaterialStock.StockStatus previousStatus, MaterialStock.StockStatus status,
+                               BigDecimal previousStock, BigDecimal currentStock,
+                               BigDecimal minStock, BigDecimal maxStock) {}
+}
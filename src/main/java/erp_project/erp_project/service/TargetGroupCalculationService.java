@@ -1,202 +1,213 @@
 package erp_project.erp_project.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erp_project.erp_project.entity.Branches;
 import erp_project.erp_project.entity.NoticeTargetGroup;
+import erp_project.erp_project.entity.NoticeTargetMember;
 import erp_project.erp_project.entity.Users;
-import erp_project.erp_project.repository.UsersRepository;
+import erp_project.erp_project.repository.BranchesRepository;
+import erp_project.erp_project.repository.NoticeTargetGroupRepository;
+import erp_project.erp_project.repository.NoticeTargetMemberRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
+/**
+ * 공지 대상 그룹 구성원 계산
+ * - 그룹의 지점/직급 JSON 을 (지점 ID, 직급) 구성원 행으로 풀어 notice_target_members 에 저장
+ * - 수신 인원은 구성원 테이블과 users 의 조인 1회로 계산해 그룹의 member_count 에 보관
+ * - 지점 추가/이름 변경, 직원 입퇴사를 반영하도록 주기적으로 전체 그룹 재구성
+ * - 기동 시 구성원 행이 없는 그룹은 요청을 받기 전에 바로 채움
+ * - 재구성에 실패한 그룹은 이전 구성원을 유지하고 audience_error 에 사유를 남김 (대상 그룹 목록에 노출)
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TargetGroupCalculationService {
     
-    private final UsersRepository usersRepository;
+    private static final String ALL_BRANCHES = "전체 지점";
+    private static final String ALL_POSITIONS = "전체 직급";
+    private static final int MAX_ERROR_LENGTH = 500;
+    
+    private final NoticeTargetMemberRepository memberRepository;
+    private final NoticeTargetGroupRepository targetGroupRepository;
+    private final BranchesRepository branchesRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
     
     /**
-     * 대상 그룹의 실제 인원수 계산
-     * 지점과 직급을 조합해서 계산
+     * 대상 그룹 구성원 재구성 후 실제 인원수 반환 (호출자 트랜잭션 안에서 실행, 그룹은 저장되어 ID 가 있어야 함)
      */
-    public int calculateMemberCount(NoticeTargetGroup targetGroup) {
+    public int materialize(NoticeTargetGroup targetGroup) {
+        memberRepository.deleteByTargetGroupId(targetGroup.getId());
+        
+        List<NoticeTargetMember> members = buildMembers(targetGroup);
+        memberRepository.saveAllAndFlush(members);
+        
+        int memberCount = (int) memberRepository.countRecipients(targetGroup.getId());
+        targetGroup.setMemberCount(memberCount);
+        targetGroup.setAudienceError(null);
+        return memberCount;
+    }
+    
+    /**
+     * 구성원 행이 없는 그룹 채우기 (빈 결과로 공지가 숨겨지지 않도록 웹 서버 시작 전에 실행)
+     */
+    @PostConstruct
+    public void backfillOnStartup() {
         try {
-            String targetBranches = targetGroup.getTargetBranches();
-            String targetPositions = targetGroup.getTargetPositions();
-            
-            // 둘 다 비어있거나 "전체"가 포함되어 있으면 전체 직원
-            if ((targetBranches == null || targetBranches.isEmpty() || targetBranches.equals("[]") || targetBranches.contains("전체 지점")) &&
-                (targetPositions == null || targetPositions.isEmpty() || targetPositions.equals("[]") || targetPositions.contains("전체 직급"))) {
-                return calculateAllMembers();
-            }
-            
-            // 지점만 있는 경우
-            if (targetBranches != null && !targetBranches.isEmpty() && !targetBranches.equals("[]") &&
-                (targetPositions == null || targetPositions.isEmpty() || targetPositions.equals("[]"))) {
-                return calculateByBranches(targetBranches);
-            }
-            
-            // 직급만 있는 경우
-            if ((targetBranches == null || targetBranches.isEmpty() || targetBranches.equals("[]")) &&
-                targetPositions != null && !targetPositions.isEmpty() && !targetPositions.equals("[]")) {
-                return calculateByPositions(targetPositions);
+            List<Long> groupIds = targetGroupRepository.findIdsWithoutMembers();
+            if (!groupIds.isEmpty()) {
+                log.info("구성원 행이 없는 대상 그룹 채우기: {}개 그룹", groupIds.size());
+                refresh(groupIds);
             }
-            
-            // 둘 다 있는 경우 - 교집합 계산
-            return calculateByBranchesAndPositions(targetBranches, targetPositions);
-            
         } catch (Exception e) {
-            log.error("인원수 계산 오류: targetGroupId={}", targetGroup.getId(), e);
-            return 0;
+            // 주기 재구성에서 다시 시도
+            log.error("기동 시 대상 그룹 구성원 채우기 실패", e);
         }
     }
     
     /**
-     * 전체 직원 수 계산
+     * 전체 대상 그룹 재구성 (여러 노드 중 잠금을 얻은 1곳만)
+     */
+    @Scheduled(fixedDelayString = "${app.notice.audience.refresh-interval-ms:3600000}",
+               initialDelayString = "${app.notice.audience.refresh-initial-delay-ms:30000}")
+    public void scheduledRefresh() {
+        schedulerLockService.runExclusive("notice-audience-refresh", lease -> refreshAll());
+    }
+    
+    public int refreshAll() {
+        return refresh(targetGroupRepository.findAll().stream().map(NoticeTargetGroup::getId).toList());
+    }
+    
+    /**
+     * 구성원 재구성에 실패한 그룹 (대상 JSON 을 고쳐야 함)
      */
-    private int calculateAllMembers() {
-        return (int) usersRepository.count();
+    public List<NoticeTargetGroup> getFailedGroups() {
+        return targetGroupRepository.findByAudienceErrorIsNotNullOrderByName();
     }
     
     /**
-     * 지점별 인원수 계산
+     * 그룹마다 별도 트랜잭션으로 재구성 (한 그룹 실패가 다른 그룹에 영향 없음)
+     * - 그룹 행을 잠가 다른 노드의 기동 채우기/주기 재구성과 겹치지 않게 함
+     * - 실패하면 구성원 변경은 롤백하고 실패 사유만 별도 트랜잭션으로 기록
      */
-    private int calculateByBranches(String targetBranches) {
-        if (targetBranches == null || targetBranches.isEmpty()) {
-            return 0;
+    private int refresh(List<Long> groupIds) {
+        int refreshed = 0;
+        List<Long> failed = new ArrayList<>();
+        for (Long groupId : groupIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> targetGroupRepository.findByIdForUpdate(groupId)
+                    .ifPresent(group -> {
+                        materialize(group);
+                        targetGroupRepository.save(group);
+                    }));
+                refreshed++;
+            } catch (Exception e) {
+                log.error("대상 그룹 구성원 재구성 실패: targetGroupId={}", groupId, e);
+                failed.add(groupId);
+                recordFailure(groupId, e);
+            }
         }
-        
+        if (failed.isEmpty()) {
+            log.info("대상 그룹 구성원 재구성 완료: {}개 그룹", refreshed);
+        } else {
+            log.warn("대상 그룹 구성원 재구성 완료: {}개 그룹, 실패 {}개 그룹 {}", refreshed, failed.size(), failed);
+        }
+        return refreshed;
+    }
+    
+    private void recordFailure(Long groupId, Exception cause) {
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+        String error = message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
         try {
-            List<String> branches = parseJsonArray(targetBranches);
-            int count = 0;
-            
-            for (String branch : branches) {
-                if ("전체 지점".equals(branch)) {
-                    return calculateAllMembers();
-                }
-                count += usersRepository.countByBranchName(branch);
-            }
-            
-            return count;
+            transactionTemplate.executeWithoutResult(status -> targetGroupRepository.findById(groupId)
+                .ifPresent(group -> {
+                    group.setAudienceError(error);
+                    targetGroupRepository.save(group);
+                }));
         } catch (Exception e) {
-            log.error("지점별 인원수 계산 오류", e);
-            return 0;
+            log.warn("대상 그룹 재구성 실패 사유 기록 실패: targetGroupId={}, 오류={}", groupId, e.getMessage());
         }
     }
     
     /**
-     * 직급별 인원수 계산 (일정 직급 이상)
+     * 지점 × 직급 조합으로 구성원 행 생성
+     * - 지점이 비었거나 "전체 지점" 포함 → branchId null, 직급이 비었거나 "전체 직급" 포함 → role null
+     * - 찾을 수 없는 지점명 / 잘못된 직급 값은 건너뜀 (전부 잘못되면 구성원 없음)
      */
-    private int calculateByPositions(String targetPositions) {
-        if (targetPositions == null || targetPositions.isEmpty()) {
-            return 0;
+    private List<NoticeTargetMember> buildMembers(NoticeTargetGroup targetGroup) {
+        List<String> branchNames = parseJsonArray(targetGroup.getTargetBranches());
+        List<String> positions = parseJsonArray(targetGroup.getTargetPositions());
+        
+        List<Long> branchIds = new ArrayList<>();
+        if (branchNames.isEmpty() || branchNames.contains(ALL_BRANCHES)) {
+            branchIds.add(null);
+        } else {
+            List<Branches> branches = branchesRepository.findByBranchNameIn(branchNames);
+            if (branches.size() < branchNames.size()) {
+                log.warn("찾을 수 없는 지점명이 있습니다: targetGroupId={}, targetBranches={}",
+                    targetGroup.getId(), targetGroup.getTargetBranches());
+            }
+            branches.stream().map(Branches::getId).distinct().forEach(branchIds::add);
         }
         
-        try {
-            List<String> positions = parseJsonArray(targetPositions);
-            int count = 0;
-            
+        List<Users.UserRole> roles = new ArrayList<>();
+        if (positions.isEmpty() || positions.contains(ALL_POSITIONS)) {
+            roles.add(null);
+        } else {
             for (String position : positions) {
-                if ("전체 직급".equals(position)) {
-                    return calculateAllMembers();
-                }
                 try {
-                    Users.UserRole role = Users.UserRole.valueOf(position);
-                    count += usersRepository.countByRole(role);
+                    roles.add(Users.UserRole.valueOf(position));
                 } catch (IllegalArgumentException e) {
                     log.warn("잘못된 직급 값: {}", position);
                 }
             }
-            
-            return count;
-        } catch (Exception e) {
-            log.error("직급별 인원수 계산 오류", e);
-            return 0;
         }
-    }
-    
-    /**
-     * 지점과 직급을 모두 고려한 인원수 계산 (교집합)
-     */
-    private int calculateByBranchesAndPositions(String targetBranches, String targetPositions) {
-        try {
-            List<String> branches = parseJsonArray(targetBranches);
-            List<String> positions = parseJsonArray(targetPositions);
-            
-            int count = 0;
-            
-            for (String branch : branches) {
-                for (String position : positions) {
-                    if ("전체 지점".equals(branch) && "전체 직급".equals(position)) {
-                        return calculateAllMembers();
-                    } else if ("전체 지점".equals(branch)) {
-                        try {
-                            Users.UserRole role = Users.UserRole.valueOf(position);
-                            count += usersRepository.countByRole(role);
-                        } catch (IllegalArgumentException e) {
-                            log.warn("잘못된 직급 값: {}", position);
-                        }
-                    } else if ("전체 직급".equals(position)) {
-                        count += usersRepository.countByBranchName(branch);
-                    } else {
-                        // 특정 지점의 특정 직급 인원수 계산
-                        try {
-                            Users.UserRole role = Users.UserRole.valueOf(position);
-                            count += usersRepository.countByBranchNameAndRole(branch, role);
-                        } catch (IllegalArgumentException e) {
-                            log.warn("잘못된 직급 값: {}", position);
-                        }
-                    }
-                }
+        
+        List<NoticeTargetMember> members = new ArrayList<>();
+        for (Long branchId : branchIds) {
+            for (Users.UserRole role : roles.stream().distinct().toList()) {
+                members.add(NoticeTargetMember.builder()
+                    .targetGroupId(targetGroup.getId())
+                    .branchId(branchId)
+                    .role(role)
+                    .build());
             }
-            
-            return count;
-        } catch (Exception e) {
-            log.error("지점+직급 인원수 계산 오류", e);
-            return 0;
         }
+        return members;
     }
     
     /**
-     * JSON 배열 문자열을 List로 파싱
+     * JSON 배열 문자열을 List로 파싱 (배열이 아닌 단일 문자열은 값 1개로 취급, 형식 오류는 IllegalArgumentException)
      */
     private List<String> parseJsonArray(String jsonArray) {
-        if (jsonArray == null || jsonArray.isEmpty()) {
+        if (jsonArray == null || jsonArray.isBlank()) {
             return List.of();
         }
-        
+        String trimmed = jsonArray.trim();
+        if (!trimmed.startsWith("[")) {
+            return List.of(trimmed);
+        }
         try {
-            // JSON 배열인지 확인
-            if (jsonArray.startsWith("[") && jsonArray.endsWith("]")) {
-                // 실제 JSON 배열 파싱
-                String cleaned = jsonArray.substring(1, jsonArray.length() - 1); // [ ] 제거
-                if (cleaned.trim().isEmpty()) {
-                    return List.of();
-                }
-                // 쉼표로 분리하고 따옴표 제거
-                String[] parts = cleaned.split(",");
-                List<String> result = new java.util.ArrayList<>();
-                for (String part : parts) {
-                    String trimmed = part.trim().replaceAll("^\"|\"$", ""); // 앞뒤 따옴표 제거
-                    if (!trimmed.isEmpty()) {
-                        result.add(trimmed);
-                    }
-                }
-                return result;
-            } else {
-                // 단순 문자열인 경우 (예: "전체 지점", "강남점")
-                if (jsonArray.equals("전체 지점") || jsonArray.equals("전체 직급")) {
-                    return List.of(); // 빈 배열은 전체를 의미
-                } else {
-                    return List.of(jsonArray); // 단일 값을 배열로 변환
-                }
-            }
+            List<String> values = objectMapper.readValue(trimmed, new TypeReference<List<String>>() {});
+            Set<String> result = new LinkedHashSet<>();
+            values.stream().filter(Objects::nonNull).map(String::trim).filter(value -> !value.isEmpty()).forEach(result::add);
+            return new ArrayList<>(result);
         } catch (Exception e) {
-            log.error("JSON 배열 파싱 오류: {}", jsonArray, e);
-            return List.of();
+            // 잘못된 값을 전체 대상으로 해석하지 않도록 실패 처리
+            throw new IllegalArgumentException("대상 그룹 JSON 배열 형식이 올바르지 않습니다: " + jsonArray, e);
         }
     }
-    
-
 }
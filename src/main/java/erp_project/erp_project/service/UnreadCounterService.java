@@ -0,0 +1,336 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.dto.UnreadCountDTO;
+import erp_project.erp_project.repository.NoticeReadStatusRepository;
+import erp_project.erp_project.repository.NotificationRepository;
+import erp_project.erp_project.util.RedisKeyScanner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 수신자별 읽지 않은 건수 카운터 (Redis)
+ * - 알림: unread:notification:branch:{branchId}, unread:notification:headquarters
+ * - 공지: unread:notice:user:{userId}
+ * - 증감은 키가 있을 때만 적용하고, 없는 키는 다음 조회 때 DB COUNT 로 적재
+ * - 증감은 DB 커밋 후 적용하고 바뀐 값을 웹소켓으로 푸시 (클라이언트 폴링 불필요)
+ * - 주기 대사(reconcile)로 DB 와 어긋난 값 보정 (대사 도중 바뀐 키는 건너뛰고 다음 주기에 보정)
+ * - Redis 장애 시 조회는 DB COUNT 로 대체
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadCounterService {
+
+    private static final String NOTIFICATION_PREFIX = "unread:notification:";
+    private static final String NOTICE_PREFIX = "unread:notice:user:";
+    private static final String RECIPIENT_TYPE_USER = "USER";
+
+    // 키가 있을 때만 증감, 0 미만으로 내려가지 않음 (키가 없으면 nil)
+    private static final RedisScript<Long> ADJUST_IF_PRESENT = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[1]) == 0 then return nil end " +
+        "local v = redis.call('INCRBY', KEYS[1], ARGV[1]) " +
+        "if v < 0 then v = redis.call('INCRBY', KEYS[1], -v) end " +
+        "return v", Long.class);
+
+    // 대사 시작 시 읽은 값 그대로일 때만 교체 (ARGV[1] 이 빈 문자열이면 키가 없었음)
+    private static final RedisScript<Long> COMPARE_AND_SET = new DefaultRedisScript<>(
+        "local cur = redis.call('GET', KEYS[1]) " +
+        "if (cur == false and ARGV[1] == '') or cur == ARGV[1] then " +
+        "redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3]) return 1 end " +
+        "return 0", Long.class);
+
+    private static final String NOTIFICATION_UNREAD_SQL =
+        "SELECT recipient_type, recipient_id, COUNT(*) AS unread FROM notifications " +
+        "WHERE is_read = FALSE GROUP BY recipient_type, recipient_id";
+
+    private static final String NOTICE_UNREAD_SQL =
+        "SELECT user_id, COUNT(*) AS unread FROM notice_read_status WHERE is_read = FALSE GROUP BY user_id";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisKeyScanner redisKeyScanner;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationRepository notificationRepository;
+    private final NoticeReadStatusRepository noticeReadStatusRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SchedulerLockService schedulerLockService;
+
+    @Value("${app.notification.unread.ttl-hours:168}")
+    private long ttlHours;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder adjustments = new LongAdder();
+    private final LongAdder pushes = new LongAdder();
+    private final LongAdder corrections = new LongAdder();
+    private volatile Map<String, Object> lastReconcile = Map.of();
+
+    /**
+     * 알림 읽지 않은 건수 (지점은 recipientId, 본사는 null)
+     */
+    public long getNotificationUnread(String recipientType, Long recipientId) {
+        return read(notificationKey(recipientType, recipientId), () -> countNotifications(recipientType, recipientId));
+    }
+
+    /**
+     * 사용자의 읽지 않은 공지 건수
+     */
+    public long getNoticeUnread(Long userId) {
+        return read(NOTICE_PREFIX + userId, () -> {
+            Long count = noticeReadStatusRepository.countUnreadNoticesByUserId(userId);
+            return count != null ? count : 0L;
+        });
+    }
+
+    /**
+     * 알림 저장 커밋 후 호출 (아웃박스 디스패처)
+     */
+    public void notificationsAdded(String recipientType, Long recipientId, int count) {
+        adjustAndPush(new Recipient(recipientType, recipientId), count);
+    }
+
+    /**
+     * 알림 저장/읽음 처리 트랜잭션 커밋 후 증감 (트랜잭션 밖이면 즉시)
+     */
+    public void adjustNotificationsAfterCommit(String recipientType, Long recipientId, int delta) {
+        if (delta != 0) {
+            afterCommit(() -> adjustAndPush(new Recipient(recipientType, recipientId), delta));
+        }
+    }
+
+    /**
+     * 공지 읽음 처리/공지 삭제 트랜잭션 커밋 후 감소
+     */
+    public void noticesReadAfterCommit(Long userId, int count) {
+        if (count != 0) {
+            afterCommit(() -> adjustAndPush(new Recipient(RECIPIENT_TYPE_USER, userId), -count));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.unread.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.notification.unread.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        schedulerLockService.runExclusive("unread-counter-reconcile", lease -> reconcile());
+    }
+
+    /**
+     * DB 기준으로 카운터 보정
+     * 1) 기존 카운터 키와 값을 먼저 읽고 2) DB 에서 수신자별 GROUP BY 집계 후
+     * 3) 값이 다르면 1) 에서 읽은 값 그대로일 때만 교체 (그 사이 증감된 키는 다음 주기로)
+     */
+    public Map<String, Object> reconcile() {
+        long start = System.currentTimeMillis();
+        List<String> keys = new ArrayList<>(redisKeyScanner.scanKeys(NOTIFICATION_PREFIX + "*"));
+        keys.addAll(redisKeyScanner.scanKeys(NOTICE_PREFIX + "*"));
+        Map<String, String> before = new HashMap<>();
+        if (!keys.isEmpty()) {
+            List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+            for (int i = 0; i < keys.size(); i++) {
+                before.put(keys.get(i), values != null ? values.get(i) : null);
+            }
+        }
+
+        Map<String, Long> expected = new HashMap<>();
+        jdbcTemplate.query(NOTIFICATION_UNREAD_SQL, rs -> {
+            expected.put(notificationKey(rs.getString("recipient_type"), rs.getObject("recipient_id", Long.class)),
+                rs.getLong("unread"));
+        });
+        jdbcTemplate.query(NOTICE_UNREAD_SQL, rs -> {
+            expected.put(NOTICE_PREFIX + rs.getLong("user_id"), rs.getLong("unread"));
+        });
+        for (String key : before.keySet()) {
+            expected.putIfAbsent(key, 0L);
+        }
+
+        String ttlSeconds = Long.toString(Duration.ofHours(ttlHours).toSeconds());
+        int corrected = 0;
+        int warmed = 0;
+        int skipped = 0;
+        for (Map.Entry<String, Long> entry : expected.entrySet()) {
+            String key = entry.getKey();
+            String current = before.get(key);
+            String target = Long.toString(entry.getValue());
+            if (target.equals(current)) {
+                continue;
+            }
+            Long swapped = stringRedisTemplate.execute(COMPARE_AND_SET, List.of(key),
+                current != null ? current : "", target, ttlSeconds);
+            if (swapped == null || swapped == 0L) {
+                skipped++;
+            } else if (current == null) {
+                warmed++;
+            } else {
+                corrected++;
+                Recipient recipient = Recipient.fromKey(key);
+                if (recipient != null) {
+                    push(recipient, entry.getValue());
+                }
+            }
+        }
+        corrections.add(corrected);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("keys", expected.size());
+        result.put("corrected", corrected);
+        result.put("warmed", warmed);
+        result.put("skipped", skipped);
+        result.put("elapsedMs", System.currentTimeMillis() - start);
+        result.put("finishedAt", LocalDateTime.now());
+        lastReconcile = result;
+        if (corrected > 0) {
+            log.info("읽지 않은 건수 카운터 보정: {}", result);
+        }
+        return result;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hits.sum());
+        metrics.put("loads", loads.sum());
+        metrics.put("fallbacks", fallbacks.sum());
+        metrics.put("adjustments", adjustments.sum());
+        metrics.put("pushes", pushes.sum());
+        metrics.put("corrections", corrections.sum());
+        metrics.put("lastReconcile", lastReconcile);
+        return metrics;
+    }
+
+    private long read(String key, LongSupplier loader) {
+        String cached;
+        try {
+            cached = stringRedisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            fallbacks.increment();
+            log.warn("읽지 않은 건수 카운터 조회 실패, DB 로 대체: key={}, 오류={}", key, e.getMessage());
+            return loader.getAsLong();
+        }
+        if (cached != null) {
+            hits.increment();
+            return Long.parseLong(cached);
+        }
+        loads.increment();
+        long count = loader.getAsLong();
+        try {
+            // 적재 중 들어온 증감은 키가 없어 버려지므로 다음 대사에서 보정
+            stringRedisTemplate.opsForValue().setIfAbsent(key, Long.toString(count), Duration.ofHours(ttlHours));
+        } catch (Exception e) {
+            log.warn("읽지 않은 건수 카운터 적재 실패: key={}, 오류={}", key, e.getMessage());
+        }
+        return count;
+    }
+
+    private long countNotifications(String recipientType, Long recipientId) {
+        return recipientId != null
+            ? notificationRepository.countByRecipientTypeAndRecipientIdAndIsReadFalse(recipientType, recipientId)
+            : notificationRepository.countByRecipientTypeAndIsReadFalse(recipientType);
+    }
+
+    private void adjustAndPush(Recipient recipient, int delta) {
+        try {
+            Long value = stringRedisTemplate.execute(ADJUST_IF_PRESENT, List.of(recipient.key()), Integer.toString(delta));
+            adjustments.increment();
+            // 키가 없었으면 이번 푸시 값은 DB 에서 적재
+            push(recipient, value != null ? value : currentValue(recipient));
+        } catch (Exception e) {
+            // 다음 대사에서 보정
+            log.warn("읽지 않은 건수 카운터 갱신 실패: key={}, delta={}, 오류={}", recipient.key(), delta, e.getMessage());
+        }
+    }
+
+    private long currentValue(Recipient recipient) {
+        return RECIPIENT_TYPE_USER.equals(recipient.type())
+            ? getNoticeUnread(recipient.id())
+            : getNotificationUnread(recipient.type(), recipient.id());
+    }
+
+    private void push(Recipient recipient, long unreadCount) {
+        boolean notice = RECIPIENT_TYPE_USER.equals(recipient.type());
+        UnreadCountDTO payload = UnreadCountDTO.builder()
+            .type(notice ? UnreadCountDTO.TYPE_NOTICE : UnreadCountDTO.TYPE_NOTIFICATION)
+            .recipientType(recipient.type())
+            .recipientId(recipient.id())
+            .unreadCount(unreadCount)
+            .timestamp(LocalDateTime.now())
+            .build();
+        String destination = notice
+            ? "/queue/notifications/user/" + recipient.id()
+            : WebSocketNotificationService.destinationFor(recipient.type(), recipient.id());
+        try {
+            messagingTemplate.convertAndSend(destination, payload);
+            pushes.increment();
+        } catch (Exception e) {
+            log.warn("읽지 않은 건수 푸시 실패: destination={}, 오류={}", destination, e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String notificationKey(String recipientType, Long recipientId) {
+        return new Recipient(recipientType, recipientId).key();
+    }
+
+    /**
+     * 카운터 대상 (BRANCH + 지점 ID, HEADQUARTERS, USER + 사용자 ID)
+     */
+    private record Recipient(String type, Long id) {
+
+        String key() {
+            if (RECIPIENT_TYPE_USER.equals(type)) {
+                return NOTICE_PREFIX + id;
+            }
+            if (NotificationService.RECIPIENT_TYPE_HEADQUARTERS.equals(type)) {
+                return NOTIFICATION_PREFIX + "headquarters";
+            }
+            return NOTIFICATION_PREFIX + "branch:" + id;
+        }
+
+        static Recipient fromKey(String key) {
+            try {
+                if (key.startsWith(NOTICE_PREFIX)) {
+                    return new Recipient(RECIPIENT_TYPE_USER, Long.parseLong(key.substring(NOTICE_PREFIX.length())));
+                }
+                String rest = key.substring(NOTIFICATION_PREFIX.length());
+                if (rest.equals("headquarters")) {
+                    return new Recipient(NotificationService.RECIPIENT_TYPE_HEADQUARTERS, null);
+                }
+                if (rest.startsWith("branch:")) {
+                    return new Recipient(NotificationService.RECIPIENT_TYPE_BRANCH, Long.parseLong(rest.substring(7)));
+                }
+            } catch (RuntimeException ignored) {
+                // 형식이 다른 키는 푸시하지 않음
+            }
+            return null;
+        }
+    }
+}
@@ -6,33 +6,71 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WebSocketNotificationService {
 
     private final SimpMessagingTemplate messagingTemplate;
-    private final NotificationService notificationService;
+    private final NotificationOutboxService outboxService;
 
     /**
-     * 특정 지점에 알림 전송 (DB 저장 + 웹소켓 전송)
+     * 특정 지점에 알림 전송 (아웃박스 기록, 커밋 후 디스패처가 DB 저장 + 웹소켓 전송)
+     * - 호출 측 트랜잭션 안이면 같은 트랜잭션에 기록되어 롤백 시 알림도 사라짐
      */
     public void sendNotificationToBranch(Long branchId, NotificationDTO notification) {
+        sendNotificationToBranch(branchId, notification, null);
+    }
+
+    /**
+     * @param coalesceKey 같은 키의 알림은 일정 시간 안에 한 번만 저장/전송 (null 이면 병합 안 함)
+     */
+    public void sendNotificationToBranch(Long branchId, NotificationDTO notification, String coalesceKey) {
         try {
-            // 1. 알림을 데이터베이스에 저장
-            notification.setRecipientType(NotificationService.RECIPIENT_TYPE_BRANCH);
-            notification.setRecipientId(branchId);
-            notificationService.saveNotification(notification);
-            
-            // 2. 웹소켓으로 실시간 전송
-            String destination = "/topic/notifications/branch/" + branchId;
-            messagingTemplate.convertAndSend(destination, notification);
-            log.info("알림 전송 완료 - 지점 ID: {}, 알림 ID: {}", branchId, notification.getId());
+            outboxService.enqueue(branchEntry(branchId, notification, coalesceKey));
+            log.debug("알림 아웃박스 기록 - 지점 ID: {}, 제목: {}", branchId, notification.getTitle());
+        } catch (Exception e) {
+            log.error("알림 아웃박스 기록 실패 - 지점 ID: {}, 오류: {}", branchId, e.getMessage());
+        }
+    }
+
+    /**
+     * 여러 지점에 같은 알림 전송 (아웃박스에 multi-row INSERT 한 번)
+     */
+    public void sendNotificationToBranches(List<Long> branchIds, NotificationDTO notification) {
+        try {
+            List<NotificationOutboxService.OutboxEntry> entries = new ArrayList<>(branchIds.size());
+            for (Long branchId : branchIds) {
+                entries.add(branchEntry(branchId, notification, null));
+            }
+            outboxService.enqueue(entries);
+            log.debug("알림 아웃박스 기록 - 지점 수: {}, 제목: {}", branchIds.size(), notification.getTitle());
         } catch (Exception e) {
-            log.error("알림 전송 실패 - 지점 ID: {}, 오류: {}", branchId, e.getMessage());
+            log.error("알림 아웃박스 기록 실패 - 지점 수: {}, 오류: {}", branchIds.size(), e.getMessage());
         }
     }
 
+    /**
+     * 커밋 이후에 판단된 지점 알림 (재고 상태 변화 등)
+     * - 호출 스레드는 메모리 큐에 넣기만 하고 저장/전송은 디스패처가 처리
+     */
+    public void sendNotificationToBranchAfterCommit(Long branchId, NotificationDTO notification, String coalesceKey) {
+        outboxService.enqueueAfterCommit(branchEntry(branchId, notification, coalesceKey));
+    }
+
+    /**
+     * 수신자별 웹소켓 destination
+     */
+    public static String destinationFor(String recipientType, Long recipientId) {
+        if (NotificationService.RECIPIENT_TYPE_HEADQUARTERS.equals(recipientType)) {
+            return "/topic/notifications/headquarters";
+        }
+        return "/topic/notifications/branch/" + recipientId;
+    }
+
     /**
      * 모든 지점에 알림 전송 (시스템 알림용)
      */
@@ -47,21 +85,15 @@ public class WebSocketNotificationService {
     }
 
     /**
-     * 본사에 알림 전송 (DB 저장 + 웹소켓 전송)
+     * 본사에 알림 전송 (아웃박스 기록, 커밋 후 디스패처가 DB 저장 + 웹소켓 전송)
      */
     public void sendNotificationToHeadquarters(NotificationDTO notification) {
         try {
-            // 1. 알림을 데이터베이스에 저장
-            notification.setRecipientType(NotificationService.RECIPIENT_TYPE_HEADQUARTERS);
-            notification.setRecipientId(null);
-            notificationService.saveNotification(notification);
-            
-            // 2. 웹소켓으로 실시간 전송
-            String destination = "/topic/notifications/headquarters";
-            messagingTemplate.convertAndSend(destination, notification);
-            log.info("본사 알림 전송 완료 - 알림 ID: {}", notification.getId());
+            outboxService.enqueue(new NotificationOutboxService.OutboxEntry(
+                NotificationService.RECIPIENT_TYPE_HEADQUARTERS, null, notification, null));
+            log.debug("본사 알림 아웃박스 기록 - 제목: {}", notification.getTitle());
         } catch (Exception e) {
-            log.error("본사 알림 전송 실패 - 오류: {}", e.getMessage());
+            log.error("본사 알림 아웃박스 기록 실패 - 오류: {}", e.getMessage());
         }
     }
 
@@ -77,4 +109,10 @@ public class WebSocketNotificationService {
             log.error("개인 알림 전송 실패 - 사용자 ID: {}, 오류: {}", userId, e.getMessage());
         }
     }
+
+    private static NotificationOutboxService.OutboxEntry branchEntry(Long branchId, NotificationDTO notification,
+                                                                    String coalesceKey) {
+        return new NotificationOutboxService.OutboxEntry(
+            NotificationService.RECIPIENT_TYPE_BRANCH, branchId, notification, coalesceKey);
+    }
 }
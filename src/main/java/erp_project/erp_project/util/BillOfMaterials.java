@@ -0,0 +1,168 @@
+package erp_project.erp_project.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * 컴파일된 BOM (메뉴 1개당 원재료 사용량) 인덱스
+ * - 메뉴 ID 정렬 배열 + 오프셋 배열 + (원재료 ID, 사용량) 평면 배열, 생성 후 변경 불가
+ * - 사용량은 레시피 정밀도(소수 3자리)에 맞춰 1/1000 단위 long 으로 보관 (합산 시 오차 없음)
+ * - 교체는 새 인스턴스를 만들어 참조만 바꾸는 방식 (copy-on-write)
+ */
+public final class BillOfMaterials {
+
+    public static final int QUANTITY_SCALE = 3;
+
+    public static final BillOfMaterials EMPTY = new Builder().build();
+
+    private final long[] menuIds;
+    private final int[] offsets;
+    private final long[] materialIds;
+    private final long[] quantities;
+
+    private BillOfMaterials(long[] menuIds, int[] offsets, long[] materialIds, long[] quantities) {
+        this.menuIds = menuIds;
+        this.offsets = offsets;
+        this.materialIds = materialIds;
+        this.quantities = quantities;
+    }
+
+    public int menuCount() {
+        return menuIds.length;
+    }
+
+    public int lineCount() {
+        return materialIds.length;
+    }
+
+    public boolean contains(long menuId) {
+        return Arrays.binarySearch(menuIds, menuId) >= 0;
+    }
+
+    /**
+     * 메뉴 units 개 분량의 원재료 사용량을 누적 (레시피 없는 메뉴는 false)
+     */
+    public boolean explode(long menuId, long units, Usage usage) {
+        int index = Arrays.binarySearch(menuIds, menuId);
+        if (index < 0) {
+            return false;
+        }
+        for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+            usage.add(materialIds[i], Math.multiplyExact(quantities[i], units));
+        }
+        return true;
+    }
+
+    public static long toUnits(BigDecimal quantity) {
+        return quantity.setScale(QUANTITY_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toQuantity(long units) {
+        return BigDecimal.valueOf(units, QUANTITY_SCALE);
+    }
+
+    /**
+     * 주문 1건의 원재료별 사용량 합계 (원재료 ID 첫 등장 순서 유지)
+     */
+    public static final class Usage {
+
+        private long[] materialIds = new long[16];
+        private long[] quantities = new long[16];
+        private int size;
+
+        void add(long materialId, long quantity) {
+            for (int i = 0; i < size; i++) {
+                if (materialIds[i] == materialId) {
+                    quantities[i] = Math.addExact(quantities[i], quantity);
+                    return;
+                }
+            }
+            if (size == materialIds.length) {
+                materialIds = Arrays.copyOf(materialIds, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            materialIds[size] = materialId;
+            quantities[size] = quantity;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public long materialId(int i) {
+            return materialIds[i];
+        }
+
+        public BigDecimal quantity(int i) {
+            return toQuantity(quantities[i]);
+        }
+    }
+
+    /**
+     * (메뉴 ID, 원재료 ID, 사용량) 행을 받아 인덱스 생성 (같은 메뉴·원재료 행은 합산)
+     */
+    public static final class Builder {
+
+        private long[] menus = new long[256];
+        private long[] materials = new long[256];
+        private long[] amounts = new long[256];
+        private int size;
+
+        public Builder add(long menuId, long materialId, BigDecimal quantity) {
+            if (quantity == null) {
+                return this;
+            }
+            if (size == menus.length) {
+                menus = Arrays.copyOf(menus, size * 2);
+                materials = Arrays.copyOf(materials, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+            }
+            menus[size] = menuId;
+            materials[size] = materialId;
+            amounts[size] = toUnits(quantity);
+            size++;
+            return this;
+        }
+
+        public BillOfMaterials build() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> menus[a] != menus[b]
+                ? Long.compare(menus[a], menus[b])
+                : Long.compare(materials[a], materials[b]));
+
+            long[] menuIds = new long[size];
+            int[] offsets = new int[size + 1];
+            long[] materialIds = new long[size];
+            long[] quantities = new long[size];
+            int menuCount = 0;
+            int lineCount = 0;
+            for (int k = 0; k < size; k++) {
+                int i = order[k];
+                boolean newMenu = menuCount == 0 || menuIds[menuCount - 1] != menus[i];
+                if (newMenu) {
+                    menuIds[menuCount] = menus[i];
+                    offsets[menuCount] = lineCount;
+                    menuCount++;
+                } else if (materialIds[lineCount - 1] == materials[i]) {
+                    quantities[lineCount - 1] += amounts[i];
+                    continue;
+                }
+                materialIds[lineCount] = materials[i];
+                quantities[lineCount] = amounts[i];
+                lineCount++;
+            }
+            offsets[menuCount] = lineCount;
+            return new BillOfMaterials(Arrays.copyOf(menuIds, menuCount), Arrays.copyOf(offsets, menuCount + 1),
+                Arrays.copyOf(materialIds, lineCount), Arrays.copyOf(quantities, lineCount));
+        }
+    }
+}
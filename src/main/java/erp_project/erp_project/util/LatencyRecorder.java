@@ -0,0 +1,86 @@
+package erp_project.erp_project.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 단계(stage)별 처리 시간 기록기
+ * - 누적 건수/합계/최대값은 LongAdder 기반으로 경합 없이 기록
+ * - p50/p99는 최근 WINDOW_SIZE 건의 링 버퍼에서 계산
+ */
+public class LatencyRecorder {
+
+    private static final int WINDOW_SIZE = 2048;
+
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+
+    /**
+     * 단계 처리 시간 기록 (나노초)
+     */
+    public void record(String stage, long elapsedNanos) {
+        stages.computeIfAbsent(stage, k -> new Stage()).record(elapsedNanos);
+    }
+
+    /**
+     * 단계별 통계 스냅샷 (밀리초 단위)
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        stages.forEach((name, stage) -> result.put(name, stage.snapshot()));
+        return result;
+    }
+
+    public void reset() {
+        stages.clear();
+    }
+
+    private static final class Stage {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray window = new AtomicLongArray(WINDOW_SIZE);
+        private final AtomicLong cursor = new AtomicLong();
+
+        void record(long elapsedNanos) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            window.set((int) (cursor.getAndIncrement() % WINDOW_SIZE), elapsedNanos);
+        }
+
+        Map<String, Object> snapshot() {
+            long n = count.sum();
+            int filled = (int) Math.min(cursor.get(), WINDOW_SIZE);
+            long[] samples = new long[filled];
+            for (int i = 0; i < filled; i++) {
+                samples[i] = window.get(i);
+            }
+            Arrays.sort(samples);
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", n);
+            stats.put("avgMs", n == 0 ? 0.0 : toMillis(totalNanos.sum() / n));
+            stats.put("p50Ms", toMillis(percentile(samples, 0.50)));
+            stats.put("p99Ms", toMillis(percentile(samples, 0.99)));
+            stats.put("maxMs", toMillis(maxNanos.get()));
+            return stats;
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0L;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package erp_project.erp_project.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 아카이브 세그먼트 파일 (한 줄에 JSON 문서 1개, gzip 압축)
+ * - 임시 파일에 쓰고 fsync 후 이름 변경 → 중간에 죽어도 반쯤 쓴 세그먼트가 남지 않음
+ * - 체크섬은 압축된 파일 바이트의 SHA-256 (쓰는 중에 계산, 읽기 전 검증)
+ */
+public final class NdjsonGzipArchive {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private NdjsonGzipArchive() {
+    }
+
+    /**
+     * 문서 목록을 target 에 기록 (같은 이름이 있으면 교체)
+     */
+    public static Written write(Path target, List<?> documents, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        MessageDigest digest = sha256();
+        try (OutputStream file = Files.newOutputStream(temp);
+             DigestOutputStream digestStream = new DigestOutputStream(file, digest);
+             GZIPOutputStream gzip = new GZIPOutputStream(digestStream, BUFFER_SIZE);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            for (Object document : documents) {
+                writer.write(objectMapper.writeValueAsString(document));
+                writer.write('\n');
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new Written(target, Files.size(target), HexFormat.of().formatHex(digest.digest()), documents.size());
+    }
+
+    /**
+     * 파일 SHA-256 (16진수)
+     */
+    public static String checksum(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 압축을 풀며 한 줄씩 전달 (consumer 가 false 를 반환하면 중단)
+     */
+    public static void readLines(Path file, Predicate<String> consumer) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && !consumer.test(line)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Written(Path path, long bytes, String sha256, int lines) {}
+}
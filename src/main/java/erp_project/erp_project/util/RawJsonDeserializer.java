@@ -0,0 +1,39 @@
+package erp_project.erp_project.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * JSON 값을 원문 문자열 그대로 받는 역직렬화기
+ * - 배열/객체는 Map/List 트리를 만들지 않고 토큰을 바로 문자열로 복사
+ * - 문자열 값은 기존 동작과 같이 내용 그대로 사용 (이미 JSON 문자열로 보낸 클라이언트 호환)
+ */
+public class RawJsonDeserializer extends JsonDeserializer<String> {
+
+    // 출력 전용 팩토리 (ObjectCodec 불필요)
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+
+        StringWriter writer = new StringWriter(256);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.copyCurrentStructure(p);
+        }
+        return writer.toString();
+    }
+}
@@ -0,0 +1,163 @@
+package erp_project.erp_project.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * Redis 키 순회/삭제 유틸리티
+ * - KEYS 대신 커서 기반 SCAN (호출 1회당 서버 작업량은 COUNT 로 제한)
+ * - 삭제는 UNLINK 를 배치 단위로 파이프라인 전송 (메모리 해제는 Redis 백그라운드 스레드가 처리)
+ * - 전체 키 수는 DBSIZE / INFO keyspace 로 조회 (키 순회 없음)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisKeyScanner {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // SCAN 1회당 조회 힌트 (서버가 한 번에 훑는 버킷 수)
+    @Value("${app.redis.scan.count:500}")
+    private int scanCount;
+
+    // 파이프라인 1회에 보내는 UNLINK 수
+    @Value("${app.redis.scan.unlink-batch-size:500}")
+    private int unlinkBatchSize;
+
+    /**
+     * 패턴에 맞는 키를 배치 단위로 전달
+     * @return 순회한 키 수
+     */
+    public long forEachBatch(String pattern, Consumer<List<String>> batchConsumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(scanCount).build();
+        long total = 0;
+        List<String> batch = new ArrayList<>(scanCount);
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= scanCount) {
+                    batchConsumer.accept(batch);
+                    total += batch.size();
+                    batch = new ArrayList<>(scanCount);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+            total += batch.size();
+        }
+        return total;
+    }
+
+    /**
+     * 패턴에 맞는 키 목록 (결과 크기가 작다고 알려진 패턴에만 사용)
+     */
+    public List<String> scanKeys(String pattern) {
+        List<String> keys = new ArrayList<>();
+        forEachBatch(pattern, keys::addAll);
+        return keys;
+    }
+
+    /**
+     * 패턴에 맞는 키 수
+     */
+    public long countKeys(String pattern) {
+        return forEachBatch(pattern, batch -> { });
+    }
+
+    /**
+     * 패턴에 맞는 키를 순회하면서 바로 삭제
+     * @return 삭제한 키 수
+     */
+    public long unlinkMatching(String pattern) {
+        long[] unlinked = new long[1];
+        forEachBatch(pattern, batch -> unlinked[0] += unlink(batch));
+        return unlinked[0];
+    }
+
+    /**
+     * 키 목록을 UNLINK 배치로 삭제
+     * - 키마다 단일 키 UNLINK 를 파이프라인으로 전송 (클러스터에서도 슬롯 제약 없음)
+     * @return 실제로 삭제된 키 수
+     */
+    public long unlink(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return 0;
+        }
+        List<String> all = new ArrayList<>(keys);
+        long unlinked = 0;
+        for (int from = 0; from < all.size(); from += unlinkBatchSize) {
+            List<String> chunk = all.subList(from, Math.min(from + unlinkBatchSize, all.size()));
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : chunk) {
+                    connection.keyCommands().unlink(key.getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+            for (Object result : results) {
+                if (result instanceof Number number) {
+                    unlinked += number.longValue();
+                }
+            }
+        }
+        return unlinked;
+    }
+
+    /**
+     * 현재 DB 전체 키 수 (DBSIZE, O(1))
+     */
+    public long dbSize() {
+        Long size = stringRedisTemplate.execute((RedisCallback<Long>) connection -> connection.serverCommands().dbSize());
+        return size != null ? size : 0L;
+    }
+
+    /**
+     * DB별 키 수/만료 키 수 (INFO keyspace)
+     * - 예) db0 -> {keys=120, expires=118, avg_ttl=...}
+     */
+    public Map<String, Map<String, String>> keyspaceInfo() {
+        Properties info = stringRedisTemplate.execute((RedisCallback<Properties>) connection -> info(connection, "keyspace"));
+        Map<String, Map<String, String>> result = new LinkedHashMap<>();
+        if (info == null) {
+            return result;
+        }
+        for (String db : info.stringPropertyNames()) {
+            Map<String, String> fields = new LinkedHashMap<>();
+            for (String pair : info.getProperty(db).split(",")) {
+                int idx = pair.indexOf('=');
+                if (idx > 0) {
+                    fields.put(pair.substring(0, idx), pair.substring(idx + 1));
+                }
+            }
+            result.put(db, fields);
+        }
+        return result;
+    }
+
+    /**
+     * INFO 섹션 조회 (연결은 템플릿이 반환)
+     */
+    public Properties info(String section) {
+        return stringRedisTemplate.execute((RedisCallback<Properties>) connection -> info(connection, section));
+    }
+
+    private static Properties info(RedisConnection connection, String section) {
+        return connection.serverCommands().info(section);
+    }
+}
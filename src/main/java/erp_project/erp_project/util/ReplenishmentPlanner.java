@@ -0,0 +1,118 @@
+package erp_project.erp_project.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 지점 × 원재료 조합별 보충 수량 계산 (순수 계산, DB 접근 없음)
+ * - 조합마다 일별 소비량(오래된 날 → 최근) 배열과 현재 가용 재고 / 입고 예정 / 최소 / 최대 재고를 채운 뒤 plan 호출
+ * - 소비 속도: 일별 소비량 지수 평활 (최근 값 가중), 소비가 없던 날도 0 으로 반영
+ * - 다음 입고 시점(리드타임 후) 예상 재고가 최소 재고 미만이면 최소 재고 + 목표 일수만큼의 소비량까지 보충
+ * - 조합별 계산은 서로 독립이라 배열 인덱스 단위로 병렬 실행 (결과도 인덱스별 배열에 기록)
+ */
+public final class ReplenishmentPlanner {
+
+    private final int pairs;
+    private final int days;
+
+    // 조합 p 의 d 번째 날 소비량 = consumption[p * days + d]
+    private final double[] consumption;
+    private final double[] available;
+    private final double[] inbound;
+    private final double[] minStock;
+    private final double[] maxStock;
+
+    private final double[] rate;
+    private final double[] daysOfCover;
+    private final double[] projected;
+    private final double[] orderQuantity;
+
+    public ReplenishmentPlanner(int pairs, int days) {
+        this.pairs = pairs;
+        this.days = days;
+        this.consumption = new double[pairs * days];
+        this.available = new double[pairs];
+        this.inbound = new double[pairs];
+        this.minStock = new double[pairs];
+        this.maxStock = new double[pairs];
+        this.rate = new double[pairs];
+        this.daysOfCover = new double[pairs];
+        this.projected = new double[pairs];
+        this.orderQuantity = new double[pairs];
+    }
+
+    public void setLevel(int pair, double availableStock, double inboundStock, double min, double max) {
+        available[pair] = availableStock;
+        inbound[pair] = inboundStock;
+        minStock[pair] = min;
+        maxStock[pair] = max;
+    }
+
+    public void addConsumption(int pair, int day, double quantity) {
+        consumption[pair * days + day] += quantity;
+    }
+
+    /**
+     * 전체 조합 계산 (timeoutMillis 안에 끝나지 않으면 예외)
+     * @return 보충이 필요한 조합만
+     */
+    public List<Suggestion> plan(Settings settings, ForkJoinPool pool, long timeoutMillis) throws Exception {
+        pool.submit(() -> IntStream.range(0, pairs).parallel().forEach(pair -> planPair(pair, settings)))
+            .get(timeoutMillis, TimeUnit.MILLISECONDS);
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (int pair = 0; pair < pairs; pair++) {
+            if (orderQuantity[pair] > 0) {
+                suggestions.add(new Suggestion(pair, rate[pair], daysOfCover[pair], projected[pair], orderQuantity[pair]));
+            }
+        }
+        return suggestions;
+    }
+
+    private void planPair(int pair, Settings settings) {
+        int offset = pair * days;
+        double level = 0;
+        for (int day = 0; day < days; day++) {
+            level += consumption[offset + day];
+        }
+        // 창 평균으로 시작해 오래된 날부터 평활
+        level = days > 0 ? level / days : 0;
+        for (int day = 0; day < days; day++) {
+            level = settings.alpha() * consumption[offset + day] + (1 - settings.alpha()) * level;
+        }
+        double dailyRate = Math.max(level, 0);
+        rate[pair] = dailyRate;
+        daysOfCover[pair] = dailyRate > 0 ? available[pair] / dailyRate : Double.POSITIVE_INFINITY;
+
+        double atDelivery = available[pair] + inbound[pair] - dailyRate * settings.leadTimeDays();
+        projected[pair] = atDelivery;
+        if (atDelivery >= minStock[pair]) {
+            orderQuantity[pair] = 0;
+            return;
+        }
+        double target = minStock[pair] + dailyRate * settings.coverDays();
+        if (maxStock[pair] > minStock[pair]) {
+            target = Math.min(target, maxStock[pair]);
+        }
+        orderQuantity[pair] = Math.max(target - atDelivery, 0);
+    }
+
+    /**
+     * @param alpha        지수 평활 계수 (0 ~ 1, 클수록 최근 소비 반영)
+     * @param leadTimeDays 발주 후 입고까지 일수
+     * @param coverDays    입고 후 최소 재고 위로 확보할 소비 일수
+     */
+    public record Settings(double alpha, int leadTimeDays, int coverDays) {}
+
+    /**
+     * @param pair          조합 인덱스
+     * @param dailyRate     평활한 일일 소비량
+     * @param daysOfCover   현재 가용 재고로 버틸 수 있는 일수
+     * @param projected     다음 입고 시점 예상 재고 (입고 예정 포함)
+     * @param quantity      보충 수량
+     */
+    public record Suggestion(int pair, double dailyRate, double daysOfCover, double projected, double quantity) {}
+}
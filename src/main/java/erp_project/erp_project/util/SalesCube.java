@@ -0,0 +1,476 @@
+package erp_project.erp_project.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 컬럼형 매출 큐브 (지점 × 메뉴 × 카테고리 × 날짜 × 시간)
+ * - 행 단위 객체 없이 컬럼별 원시 배열(int/byte/long)에 저장, 금액은 센트 단위 long
+ * - SEGMENT_ROWS 행씩 세그먼트로 나누고 마지막(tail) 세그먼트에만 추가 (채워지면 봉인)
+ * - 조회는 세그먼트를 MORSEL_ROWS 단위 조각으로 나눠 fork-join 으로 병렬 스캔
+ *   조각 안에서는 BATCH 행씩 필터 → 선택 벡터 → 집계 순으로 컬럼 배열을 순차 접근
+ * - 그룹 키는 그룹 차원 값을 비트 단위로 묶은 long 하나 (원시 open addressing 해시 테이블로 집계)
+ */
+public class SalesCube {
+
+    public enum Dimension { BRANCH, MENU, CATEGORY, DATE, HOUR }
+
+    public enum Metric { SALES, QUANTITY, ROWS }
+
+    static final int SEGMENT_ROWS = 1 << 16;
+    private static final int MORSEL_ROWS = 1 << 15;
+    private static final int BATCH = 1024;
+
+    // 행당 바이트: branch/menu/category/day/quantity(int 5개) + hour(byte) + sales(long)
+    private static final int BYTES_PER_ROW = 4 * 5 + 1 + 8;
+
+    private final Object lock = new Object();
+    private Segment[] sealed = new Segment[0];
+    private Segment tail = new Segment();
+
+    // 그룹 키 비트 폭 계산용 최대/최소값
+    private int maxBranch;
+    private int maxMenu;
+    private int maxCategory;
+    private int minDay = Integer.MAX_VALUE;
+    private int maxDay = Integer.MIN_VALUE;
+
+    /**
+     * 행 추가 (day 는 epochDay)
+     */
+    public void append(int branch, int menu, int category, int day, int hour, int quantity, long salesCents) {
+        synchronized (lock) {
+            if (tail.size == SEGMENT_ROWS) {
+                Segment[] next = Arrays.copyOf(sealed, sealed.length + 1);
+                next[sealed.length] = tail;
+                sealed = next;
+                tail = new Segment();
+            }
+            tail.add(branch, menu, category, day, hour, quantity, salesCents);
+            maxBranch = Math.max(maxBranch, branch);
+            maxMenu = Math.max(maxMenu, menu);
+            maxCategory = Math.max(maxCategory, category);
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+        }
+    }
+
+    public long rowCount() {
+        synchronized (lock) {
+            return (long) sealed.length * SEGMENT_ROWS + tail.size;
+        }
+    }
+
+    public int segmentCount() {
+        synchronized (lock) {
+            return sealed.length + 1;
+        }
+    }
+
+    /**
+     * 컬럼 배열이 차지하는 메모리 (할당 용량 기준)
+     */
+    public long memoryBytes() {
+        return (long) segmentCount() * SEGMENT_ROWS * BYTES_PER_ROW;
+    }
+
+    /**
+     * 필터 + 그룹 + 정렬/상위 N 조회
+     */
+    public Result query(Query query, ForkJoinPool pool) {
+        // 1. 스냅샷 (tail 은 이후 추가분이 보이지 않도록 현재 크기까지만)
+        Segment[] segments;
+        int tailSize;
+        Segment tailSegment;
+        KeyLayout layout;
+        Filter filter;
+        synchronized (lock) {
+            segments = sealed;
+            tailSegment = tail;
+            tailSize = tail.size;
+            layout = new KeyLayout(query.groupBy, maxBranch, maxMenu, maxCategory,
+                minDay == Integer.MAX_VALUE ? 0 : minDay, maxDay == Integer.MIN_VALUE ? 0 : maxDay);
+            filter = new Filter(query, maxBranch, maxMenu, maxCategory);
+        }
+
+        List<Morsel> morsels = new ArrayList<>();
+        for (Segment segment : segments) {
+            addMorsels(morsels, segment, SEGMENT_ROWS);
+        }
+        addMorsels(morsels, tailSegment, tailSize);
+
+        // 2. 병렬 스캔
+        GroupTable table = morsels.isEmpty()
+            ? new GroupTable(16)
+            : pool.invoke(new ScanTask(morsels, 0, morsels.size(), filter, layout));
+
+        long scanned = 0;
+        for (Morsel morsel : morsels) {
+            scanned += morsel.end - morsel.start;
+        }
+        return table.toResult(query, layout, scanned);
+    }
+
+    private static void addMorsels(List<Morsel> morsels, Segment segment, int size) {
+        for (int start = 0; start < size; start += MORSEL_ROWS) {
+            morsels.add(new Morsel(segment, start, Math.min(start + MORSEL_ROWS, size)));
+        }
+    }
+
+    /**
+     * 조회 조건 (id 배열이 null 이면 전체, 날짜/시간 범위는 양끝 포함, 음수/int 범위 밖 id 는 거부)
+     */
+    public static final class Query {
+        public long[] branchIds;
+        public long[] menuIds;
+        public long[] categoryIds;
+        public int fromDay = Integer.MIN_VALUE;
+        public int toDay = Integer.MAX_VALUE;
+        public int fromHour = 0;
+        public int toHour = 23;
+        public Dimension[] groupBy = new Dimension[0];
+        public Metric orderBy = Metric.SALES;
+        public int limit;
+    }
+
+    /**
+     * 조회 결과 (groups 행, 각 행의 차원 값은 groupBy 순서)
+     */
+    public static final class Result {
+        public final Dimension[] groupBy;
+        public final long[][] keys;
+        public final long[] quantity;
+        public final long[] salesCents;
+        public final long[] rows;
+        public final long scannedRows;
+        public final long matchedRows;
+        public final int totalGroups;
+
+        Result(Dimension[] groupBy, int size, long scannedRows, long matchedRows, int totalGroups) {
+            this.groupBy = groupBy;
+            this.keys = new long[size][];
+            this.quantity = new long[size];
+            this.salesCents = new long[size];
+            this.rows = new long[size];
+            this.scannedRows = scannedRows;
+            this.matchedRows = matchedRows;
+            this.totalGroups = totalGroups;
+        }
+
+        public int size() {
+            return keys.length;
+        }
+    }
+
+    private static final class Segment {
+        final int[] branch = new int[SEGMENT_ROWS];
+        final int[] menu = new int[SEGMENT_ROWS];
+        final int[] category = new int[SEGMENT_ROWS];
+        final int[] day = new int[SEGMENT_ROWS];
+        final byte[] hour = new byte[SEGMENT_ROWS];
+        final int[] quantity = new int[SEGMENT_ROWS];
+        final long[] sales = new long[SEGMENT_ROWS];
+        int size;
+
+        void add(int branchId, int menuId, int categoryId, int epochDay, int hourOfDay, int qty, long salesCents) {
+            branch[size] = branchId;
+            menu[size] = menuId;
+            category[size] = categoryId;
+            day[size] = epochDay;
+            hour[size] = (byte) hourOfDay;
+            quantity[size] = qty;
+            sales[size] = salesCents;
+            size++;
+        }
+
+        int value(Dimension dimension, int row) {
+            return switch (dimension) {
+                case BRANCH -> branch[row];
+                case MENU -> menu[row];
+                case CATEGORY -> category[row];
+                case DATE -> day[row];
+                case HOUR -> hour[row];
+            };
+        }
+    }
+
+    private record Morsel(Segment segment, int start, int end) {}
+
+    /**
+     * id 집합은 id 를 인덱스로 쓰는 비트맵으로 변환 (행마다 배열 조회 1회)
+     * - 비트맵 크기는 요청 id 가 아니라 큐브에 적재된 최대 id 기준 (그보다 큰 id 는 일치하는 행이 없으므로 제외)
+     */
+    private static final class Filter {
+        final boolean[] branches;
+        final boolean[] menus;
+        final boolean[] categories;
+        final int fromDay;
+        final int toDay;
+        final int fromHour;
+        final int toHour;
+
+        Filter(Query query, int maxBranch, int maxMenu, int maxCategory) {
+            branches = bitmap("branch", query.branchIds, maxBranch);
+            menus = bitmap("menu", query.menuIds, maxMenu);
+            categories = bitmap("category", query.categoryIds, maxCategory);
+            fromDay = query.fromDay;
+            toDay = query.toDay;
+            fromHour = query.fromHour;
+            toHour = query.toHour;
+        }
+
+        private static boolean[] bitmap(String dimension, long[] ids, int maxStored) {
+            if (ids == null) {
+                return null;
+            }
+            boolean[] bitmap = new boolean[maxStored + 1];
+            for (long id : ids) {
+                if (id < 0 || id > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("잘못된 " + dimension + " id: " + id);
+                }
+                if (id <= maxStored) {
+                    bitmap[(int) id] = true;
+                }
+            }
+            return bitmap;
+        }
+
+        private static boolean contains(boolean[] bitmap, int id) {
+            return bitmap == null || (id >= 0 && id < bitmap.length && bitmap[id]);
+        }
+
+        /**
+         * [start, end) 중 조건에 맞는 행 번호를 sel 에 채우고 개수 반환
+         */
+        int select(Segment s, int start, int end, int[] sel) {
+            int n = 0;
+            for (int i = start; i < end; i++) {
+                int d = s.day[i];
+                int h = s.hour[i];
+                boolean match = d >= fromDay & d <= toDay & h >= fromHour & h <= toHour;
+                if (branches != null) {
+                    match &= contains(branches, s.branch[i]);
+                }
+                if (menus != null) {
+                    match &= contains(menus, s.menu[i]);
+                }
+                if (categories != null) {
+                    match &= contains(categories, s.category[i]);
+                }
+                // 분기 없이 선택 벡터 채움 (불일치 행은 다음 행이 덮어씀)
+                sel[n] = i;
+                n += match ? 1 : 0;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * 그룹 차원 값을 하나의 long 키로 묶는 비트 배치
+     */
+    private static final class KeyLayout {
+        final Dimension[] dimensions;
+        final int[] shifts;
+        final int[] bits;
+        final int[] offsets;
+
+        KeyLayout(Dimension[] dimensions, int maxBranch, int maxMenu, int maxCategory, int minDay, int maxDay) {
+            this.dimensions = dimensions;
+            this.shifts = new int[dimensions.length];
+            this.bits = new int[dimensions.length];
+            this.offsets = new int[dimensions.length];
+            int shift = 0;
+            for (int i = 0; i < dimensions.length; i++) {
+                int max = switch (dimensions[i]) {
+                    case BRANCH -> maxBranch;
+                    case MENU -> maxMenu;
+                    case CATEGORY -> maxCategory;
+                    case DATE -> maxDay - minDay;
+                    case HOUR -> 23;
+                };
+                offsets[i] = dimensions[i] == Dimension.DATE ? minDay : 0;
+                bits[i] = Math.max(1, 32 - Integer.numberOfLeadingZeros(max));
+                shifts[i] = shift;
+                shift += bits[i];
+            }
+            if (shift > 62) {
+                throw new IllegalArgumentException("그룹 차원 조합의 키 범위가 너무 큽니다: " + Arrays.toString(dimensions));
+            }
+        }
+
+        long key(Segment s, int row) {
+            long key = 0;
+            for (int i = 0; i < dimensions.length; i++) {
+                key |= (long) (s.value(dimensions[i], row) - offsets[i]) << shifts[i];
+            }
+            return key;
+        }
+
+        long decode(long key, int index) {
+            return ((key >>> shifts[index]) & ((1L << bits[index]) - 1)) + offsets[index];
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<GroupTable> {
+        private final List<Morsel> morsels;
+        private final int from;
+        private final int to;
+        private final Filter filter;
+        private final KeyLayout layout;
+
+        ScanTask(List<Morsel> morsels, int from, int to, Filter filter, KeyLayout layout) {
+            this.morsels = morsels;
+            this.from = from;
+            this.to = to;
+            this.filter = filter;
+            this.layout = layout;
+        }
+
+        @Override
+        protected GroupTable compute() {
+            if (to - from == 1) {
+                return scan(morsels.get(from));
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(morsels, from, mid, filter, layout);
+            left.fork();
+            GroupTable right = new ScanTask(morsels, mid, to, filter, layout).compute();
+            GroupTable merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+
+        private GroupTable scan(Morsel morsel) {
+            Segment s = morsel.segment();
+            GroupTable table = new GroupTable(64);
+            int[] sel = new int[BATCH];
+            for (int base = morsel.start(); base < morsel.end(); base += BATCH) {
+                int n = filter.select(s, base, Math.min(base + BATCH, morsel.end()), sel);
+                for (int k = 0; k < n; k++) {
+                    int row = sel[k];
+                    table.add(layout.key(s, row), s.quantity[row], s.sales[row], 1);
+                }
+                table.matched += n;
+            }
+            return table;
+        }
+    }
+
+    /**
+     * long 키 → (수량, 매출, 행 수) open addressing 해시 테이블 (박싱 없음)
+     */
+    private static final class GroupTable {
+        private static final long EMPTY = -1L;
+
+        long[] keys;
+        long[] quantity;
+        long[] sales;
+        long[] rows;
+        int size;
+        long matched;
+
+        GroupTable(int capacity) {
+            allocate(Integer.highestOneBit(Math.max(16, capacity) - 1) << 1);
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            quantity = new long[capacity];
+            sales = new long[capacity];
+            rows = new long[capacity];
+            size = 0;
+        }
+
+        void add(long key, long qty, long salesCents, long rowCount) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                size++;
+            }
+            quantity[slot] += qty;
+            sales[slot] += salesCents;
+            rows[slot] += rowCount;
+        }
+
+        void merge(GroupTable other) {
+            for (int slot = 0; slot < other.keys.length; slot++) {
+                if (other.keys[slot] != EMPTY) {
+                    add(other.keys[slot], other.quantity[slot], other.sales[slot], other.rows[slot]);
+                }
+            }
+            matched += other.matched;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldQuantity = quantity;
+            long[] oldSales = sales;
+            long[] oldRows = rows;
+            allocate(oldKeys.length << 1);
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != EMPTY) {
+                    add(oldKeys[slot], oldQuantity[slot], oldSales[slot], oldRows[slot]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        private long metric(int slot, Metric metric) {
+            return switch (metric) {
+                case SALES -> sales[slot];
+                case QUANTITY -> quantity[slot];
+                case ROWS -> rows[slot];
+            };
+        }
+
+        /**
+         * 지표 내림차순 정렬 (limit > 0 이면 크기 limit 의 힙으로 상위 N 만 유지)
+         */
+        Result toResult(Query query, KeyLayout layout, long scannedRows) {
+            int limit = query.limit > 0 ? Math.min(query.limit, size) : size;
+            PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, limit),
+                (a, b) -> Long.compare(metric(a, query.orderBy), metric(b, query.orderBy)));
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] == EMPTY) {
+                    continue;
+                }
+                if (heap.size() < limit) {
+                    heap.add(slot);
+                } else if (limit > 0 && metric(slot, query.orderBy) > metric(heap.peek(), query.orderBy)) {
+                    heap.poll();
+                    heap.add(slot);
+                }
+            }
+
+            Result result = new Result(query.groupBy, heap.size(), scannedRows, matched, size);
+            for (int i = heap.size() - 1; i >= 0; i--) {
+                int slot = heap.poll();
+                long[] values = new long[layout.dimensions.length];
+                for (int d = 0; d < values.length; d++) {
+                    values[d] = layout.decode(keys[slot], d);
+                }
+                result.keys[i] = values;
+                result.quantity[i] = quantity[slot];
+                result.salesCents[i] = sales[slot];
+                result.rows[i] = rows[slot];
+            }
+            return result;
+        }
+    }
+}
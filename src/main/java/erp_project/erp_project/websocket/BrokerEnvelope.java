@@ -0,0 +1,44 @@
+package erp_project.erp_project.websocket;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 노드 간 브로커 메시지 전달 단위 (서버가 보낸 메시지 1건)
+ * - 형식: origin, sentAt(epoch ms), destination, contentType("" = 없음), payload 길이 + 바이트
+ */
+public record BrokerEnvelope(String origin, long sentAt, String destination, String contentType, byte[] payload) {
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(origin);
+            out.writeLong(sentAt);
+            out.writeUTF(destination);
+            out.writeUTF(contentType != null ? contentType : "");
+            out.writeInt(payload.length);
+            out.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static BrokerEnvelope decode(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            String origin = in.readUTF();
+            long sentAt = in.readLong();
+            String destination = in.readUTF();
+            String contentType = in.readUTF();
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            return new BrokerEnvelope(origin, sentAt, destination, contentType.isEmpty() ? null : contentType, payload);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("브로커 메시지 형식 오류", e);
+        }
+    }
+}
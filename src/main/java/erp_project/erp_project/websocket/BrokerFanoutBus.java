@@ -0,0 +1,14 @@
+package erp_project.erp_project.websocket;
+
+import java.util.function.Consumer;
+
+/**
+ * 노드 간 브로커 메시지 전파 통로
+ * - 보낸 노드 자신도 받을 수 있으므로 수신 측에서 origin 으로 걸러냄
+ */
+public interface BrokerFanoutBus {
+
+    void publish(BrokerEnvelope envelope);
+
+    void subscribe(Consumer<BrokerEnvelope> listener);
+}
@@ -0,0 +1,111 @@
+package erp_project.erp_project.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.UUID;
+
+/**
+ * 서버가 보낸 메시지를 다른 노드로 전파 (brokerChannel 인터셉터)
+ * - 보낸 시각 헤더를 붙이고, 전파 통로가 있으면(redis/embedded 모드) 다른 노드로 publish
+ * - 다른 노드에서 받은 메시지는 origin 헤더를 붙여 로컬 broker 로만 보냄 (다시 전파하지 않음)
+ * - 클라이언트가 직접 /topic 으로 SEND 한 메시지는 brokerChannel 을 거치지 않으므로 전파 대상 아님
+ */
+@Component
+@Slf4j
+public class BrokerFanoutInterceptor implements ChannelInterceptor {
+
+    static final String ORIGIN_HEADER = "erp-fanout-origin";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BrokerFanoutBus bus;
+    private final BrokerTrafficMetrics metrics;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final boolean nativeSentAt;
+
+    public BrokerFanoutInterceptor(ObjectProvider<BrokerFanoutBus> bus,
+                                   BrokerTrafficMetrics metrics,
+                                   ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+                                   @Value("${app.websocket.broker.mode:simple}") String mode) {
+        this.bus = bus.getIfAvailable();
+        this.metrics = metrics;
+        this.messagingTemplate = messagingTemplate;
+        this.nativeSentAt = "relay".equalsIgnoreCase(mode);
+        if (this.bus != null) {
+            this.bus.subscribe(this::onRemote);
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String destination = accessor.getDestination();
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE || destination == null
+                || accessor.getHeader(ORIGIN_HEADER) != null) {
+            return message;
+        }
+
+        long sentAt = System.currentTimeMillis();
+        accessor.setHeader(BrokerTrafficMetrics.SENT_AT_HEADER, sentAt);
+        if (nativeSentAt) {
+            accessor.setNativeHeader(BrokerTrafficMetrics.SENT_AT_HEADER, Long.toString(sentAt));
+        }
+        Message<?> stamped = MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+        metrics.recordPublished(destination);
+
+        if (bus != null) {
+            if (message.getPayload() instanceof byte[] payload) {
+                MimeType contentType = accessor.getContentType();
+                try {
+                    bus.publish(new BrokerEnvelope(nodeId, sentAt, destination,
+                        contentType != null ? contentType.toString() : null, payload));
+                } catch (Exception e) {
+                    // 로컬 구독자에게는 그대로 전달, 다른 노드 구독자는 알림 목록 조회로 확인
+                    metrics.recordFanoutFailure(destination);
+                    log.warn("브로커 메시지 전파 실패: destination={}, 오류={}", destination, e.getMessage());
+                }
+            } else {
+                metrics.recordFanoutFailure(destination);
+                log.warn("직렬화되지 않은 메시지는 전파하지 않음: destination={}, payload={}",
+                    destination, message.getPayload().getClass().getSimpleName());
+            }
+        }
+        return stamped;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    void onRemote(BrokerEnvelope envelope) {
+        if (nodeId.equals(envelope.origin())) {
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.destination());
+        if (envelope.contentType() != null) {
+            accessor.setContentType(MimeTypeUtils.parseMimeType(envelope.contentType()));
+        }
+        accessor.setHeader(ORIGIN_HEADER, envelope.origin());
+        accessor.setHeader(BrokerTrafficMetrics.SENT_AT_HEADER, envelope.sentAt());
+        accessor.setLeaveMutable(true);
+        try {
+            messagingTemplate.getObject().send(envelope.destination(),
+                MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders()));
+            metrics.recordRemote(envelope.destination());
+        } catch (Exception e) {
+            log.warn("전파받은 브로커 메시지 전달 실패: destination={}, 오류={}", envelope.destination(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package erp_project.erp_project.websocket;
+
+import erp_project.erp_project.util.LatencyRecorder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 웹소켓 destination 별 메시지 처리량/전달 지연
+ * - published: 이 노드 서버가 보낸 메시지, remote: 다른 노드에서 전파받은 메시지, delivered: 클라이언트 세션으로 나간 메시지
+ * - 전달 지연 = 클라이언트 세션으로 나가는 시각 - 서버가 보낸 시각 (다른 노드 발신분은 노드 간 시계 차이 포함)
+ * - destination 의 숫자 경로는 {id} 로 묶음 (/topic/notifications/branch/{id})
+ * - clientOutboundChannel 인터셉터로 등록
+ */
+@Component
+public class BrokerTrafficMetrics implements ChannelInterceptor {
+
+    // 서버가 보낸 시각 (epoch ms), 외부 브로커 릴레이는 내부 헤더를 보존하지 않으므로 같은 이름의 STOMP 헤더도 사용
+    public static final String SENT_AT_HEADER = "erp-sent-at";
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final int RATE_WINDOW_SECONDS = 60;
+
+    private final Map<String, DestinationStats> stats = new ConcurrentHashMap<>();
+    private final LatencyRecorder deliveryLag = new LatencyRecorder();
+    private volatile long startedAt = System.currentTimeMillis();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE || accessor.getDestination() == null) {
+            return message;
+        }
+        String destination = normalize(accessor.getDestination());
+        statsFor(destination).delivered.record();
+        Long sentAt = sentAt(accessor);
+        if (sentAt != null) {
+            long lagMillis = Math.max(0, System.currentTimeMillis() - sentAt);
+            deliveryLag.record(destination, TimeUnit.MILLISECONDS.toNanos(lagMillis));
+        }
+        return message;
+    }
+
+    public void recordPublished(String destination) {
+        statsFor(normalize(destination)).published.record();
+    }
+
+    public void recordRemote(String destination) {
+        statsFor(normalize(destination)).remote.record();
+    }
+
+    public void recordFanoutFailure(String destination) {
+        statsFor(normalize(destination)).fanoutFailures.increment();
+    }
+
+    /**
+     * destination 별 누적 건수, 최근 60초 초당 처리량, 전달 지연(ms)
+     */
+    public Map<String, Object> snapshot() {
+        long nowSecond = System.currentTimeMillis() / 1000;
+        Map<String, Object> lag = deliveryLag.snapshot();
+        Map<String, Object> destinations = new TreeMap<>();
+        stats.forEach((destination, s) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("published", s.published.total());
+            entry.put("publishedPerSecond", s.published.perSecond(nowSecond));
+            entry.put("remote", s.remote.total());
+            entry.put("remotePerSecond", s.remote.perSecond(nowSecond));
+            entry.put("delivered", s.delivered.total());
+            entry.put("deliveredPerSecond", s.delivered.perSecond(nowSecond));
+            entry.put("fanoutFailures", s.fanoutFailures.sum());
+            entry.put("deliveryLagMs", lag.get(destination));
+            destinations.put(destination, entry);
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("since", startedAt);
+        result.put("rateWindowSeconds", RATE_WINDOW_SECONDS);
+        result.put("destinations", destinations);
+        return result;
+    }
+
+    public void reset() {
+        stats.clear();
+        deliveryLag.reset();
+        startedAt = System.currentTimeMillis();
+    }
+
+    static String normalize(String destination) {
+        return NUMERIC_SEGMENT.matcher(destination).replaceAll("/{id}");
+    }
+
+    private DestinationStats statsFor(String destination) {
+        return stats.computeIfAbsent(destination, k -> new DestinationStats());
+    }
+
+    private static Long sentAt(SimpMessageHeaderAccessor accessor) {
+        Object header = accessor.getHeader(SENT_AT_HEADER);
+        if (header instanceof Long value) {
+            return value;
+        }
+        String nativeHeader = accessor.getFirstNativeHeader(SENT_AT_HEADER);
+        if (nativeHeader != null) {
+            try {
+                return Long.parseLong(nativeHeader);
+            } catch (NumberFormatException ignored) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static final class DestinationStats {
+        private final Counter published = new Counter();
+        private final Counter remote = new Counter();
+        private final Counter delivered = new Counter();
+        private final LongAdder fanoutFailures = new LongAdder();
+    }
+
+    /**
+     * 누적 건수 + 초 단위 버킷(최근 60초) 처리량
+     */
+    private static final class Counter {
+        private final LongAdder total = new LongAdder();
+        private final long[] bucketSeconds = new long[RATE_WINDOW_SECONDS];
+        private final long[] bucketCounts = new long[RATE_WINDOW_SECONDS];
+
+        void record() {
+            total.increment();
+            long second = System.currentTimeMillis() / 1000;
+            int index = (int) (second % RATE_WINDOW_SECONDS);
+            synchronized (this) {
+                if (bucketSeconds[index] != second) {
+                    bucketSeconds[index] = second;
+                    bucketCounts[index] = 0;
+                }
+                bucketCounts[index]++;
+            }
+        }
+
+        long total() {
+            return total.sum();
+        }
+
+        synchronized double perSecond(long nowSecond) {
+            long sum = 0;
+            for (int i = 0; i < RATE_WINDOW_SECONDS; i++) {
+                if (nowSecond - bucketSeconds[i] < RATE_WINDOW_SECONDS) {
+                    sum += bucketCounts[i];
+                }
+            }
+            return (double) sum / RATE_WINDOW_SECONDS;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package erp_project.erp_project.websocket;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 프로세스 내 브로커 메시지 전파 (app.websocket.broker.mode=embedded, 테스트용)
+ * - 같은 JVM 안의 모든 인스턴스(= 노드)가 한 통로를 공유하므로 여러 애플리케이션 컨텍스트로 다중 노드를 흉내냄
+ * - 전달은 publish 호출 스레드에서 동기로 처리
+ */
+public class EmbeddedBrokerFanoutBus implements BrokerFanoutBus, AutoCloseable {
+
+    private static final Set<EmbeddedBrokerFanoutBus> NODES = ConcurrentHashMap.newKeySet();
+
+    private final List<Consumer<BrokerEnvelope>> listeners = new CopyOnWriteArrayList<>();
+
+    public EmbeddedBrokerFanoutBus() {
+        NODES.add(this);
+    }
+
+    @Override
+    public void publish(BrokerEnvelope envelope) {
+        for (EmbeddedBrokerFanoutBus node : NODES) {
+            for (Consumer<BrokerEnvelope> listener : node.listeners) {
+                listener.accept(envelope);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<BrokerEnvelope> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        NODES.remove(this);
+        listeners.clear();
+    }
+}
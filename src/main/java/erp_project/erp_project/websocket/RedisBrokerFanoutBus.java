@@ -0,0 +1,61 @@
+package erp_project.erp_project.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub 기반 브로커 메시지 전파 (app.websocket.broker.mode=redis)
+ * - 각 노드는 로컬 simple broker 를 유지하고, 서버가 보낸 메시지만 채널로 전파
+ * - pub/sub 은 구독 중인 노드에만 전달되고 저장되지 않음 (끊겨 있던 동안의 메시지는 알림 목록 조회로 복구)
+ */
+@Slf4j
+public class RedisBrokerFanoutBus implements BrokerFanoutBus, MessageListener {
+
+    public static final String CHANNEL = "websocket:broker:fanout";
+
+    private static final byte[] CHANNEL_BYTES = CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final List<Consumer<BrokerEnvelope>> listeners = new CopyOnWriteArrayList<>();
+
+    public RedisBrokerFanoutBus(StringRedisTemplate stringRedisTemplate, RedisMessageListenerContainer container) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        container.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    public void publish(BrokerEnvelope envelope) {
+        byte[] body = envelope.encode();
+        stringRedisTemplate.execute((RedisCallback<Long>) (RedisConnection connection) -> connection.publish(CHANNEL_BYTES, body));
+    }
+
+    @Override
+    public void subscribe(Consumer<BrokerEnvelope> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        BrokerEnvelope envelope;
+        try {
+            envelope = BrokerEnvelope.decode(message.getBody());
+        } catch (IllegalArgumentException e) {
+            log.warn("브로커 전파 메시지 해석 실패: {}", e.getMessage());
+            return;
+        }
+        for (Consumer<BrokerEnvelope> listener : listeners) {
+            listener.accept(envelope);
+        }
+    }
+}
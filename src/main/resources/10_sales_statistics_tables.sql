@@ -1,24 +1,9 @@
 -- 매출 분석을 위한 테이블 생성
--- 이 파일은 기존 주문, 결제 시스템과 연동되어 매출 통계를 자동으로 수집합니다.
 
--- 4. 매출 통계 자동 업데이트를 위한 트리거
-DELIMITER //
-
--- 주문 완료 + 결제 완료 시 매출 통계 업데이트 트리거
-CREATE TRIGGER IF NOT EXISTS after_order_completed
-AFTER UPDATE ON orders
-FOR EACH ROW
-BEGIN
-    -- 주문 상태가 completed이고, 결제 상태도 completed일 때만 매출 통계 업데이트
-    IF NEW.order_status = 'completed' AND OLD.order_status != 'completed' AND 
-       NEW.payment_status = 'completed' THEN
-        CALL UpdateSalesStatistics(NEW.order_id);
-    END IF;
-END//
-
-DELIMITER ;
+-- 4. 매출 통계는 애플리케이션 집계 엔진(SalesAggregationService)이 주문 완료 커밋 후 반영
+--    (after_order_completed 트리거는 16_drop_sales_statistics_trigger.sql 에서 삭제)
 
--- 5. 매출 통계 업데이트 프로시저들
+-- 5. 매출 통계 업데이트 프로시저들 (수동 보정용, 트리거에서 호출하지 않음)
 DELIMITER //
 
 -- 매출 통계 업데이트 메인 프로시저
@@ -0,0 +1,9 @@
+-- 15_notification_indexes.sql
+-- =====================================================
+-- 알림 피드 인덱스 정리
+-- =====================================================
+
+-- (recipient_type, recipient_id, is_read) 인덱스는 idx_notifications_recipient_unread_feed
+-- (recipient_type, recipient_id, is_read, timestamp, id) 로 대체됨
+-- ddl-auto=update 는 기존 인덱스를 지우지 않으므로 여기서 삭제 (없으면 무시)
+ALTER TABLE notifications DROP INDEX IF EXISTS idx_notifications_recipient_unread;
@@ -0,0 +1,8 @@
+-- 16_drop_sales_statistics_trigger.sql
+-- =====================================================
+-- 매출 통계 트리거 삭제
+-- =====================================================
+
+-- 주문 완료 매출은 애플리케이션 집계 엔진이 커밋 후 반영하므로
+-- 같은 주문을 한 번 더 더하던 트리거 삭제 (없으면 무시)
+DROP TRIGGER IF EXISTS after_order_completed;
@@ -0,0 +1,9 @@
+-- 17_orders_sales_recorded.sql
+-- =====================================================
+-- 주문 매출 반영 표시 초기화
+-- =====================================================
+
+-- sales_recorded 컬럼 도입 전에 이미 완료 + 결제 완료된 주문은 집계에 반영된 것으로 표시
+-- (표시되지 않으면 결제 상태를 다시 저장할 때 한 번 더 집계됨, 이미 표시된 주문은 변경 없음)
+UPDATE orders SET sales_recorded = TRUE
+WHERE sales_recorded = FALSE AND order_status = 'completed' AND payment_status = 'completed';
@@ -0,0 +1,193 @@
+package erp_project.erp_project.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import erp_project.erp_project.config.VersionedCacheSerializer;
+import erp_project.erp_project.dto.MenuResponseDto;
+import erp_project.erp_project.dto.ProductSalesResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 캐시 직렬화기 벤치마크 (기존 JSON vs Smile vs Smile+Deflate)
+ * - 페이로드는 getAllMenus / getProductSalesData / getDashboardKpis 응답과 같은 구조로 생성
+ * - encode/decode ns/op 는 JMH, 저장 바이트와 절감량은 main 실행 시 표로 출력
+ * - 실행: mvn test-compile 후 main 실행
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    @Param({"allMenus", "productSales", "dashboardKpis"})
+    public String payload;
+
+    @Param({"json", "smile", "smile-deflate"})
+    public String codec;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        serializer = serializer(codec);
+        value = payload(payload);
+        encoded = serializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    static RedisSerializer<Object> serializer(String codec) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(objectMapper);
+        return switch (codec) {
+            case "json" -> json;
+            case "smile" -> new VersionedCacheSerializer(json, VersionedCacheSerializer.WriteFormat.SMILE, Integer.MAX_VALUE);
+            case "smile-deflate" -> new VersionedCacheSerializer(json, VersionedCacheSerializer.WriteFormat.SMILE, 2048);
+            default -> throw new IllegalArgumentException(codec);
+        };
+    }
+
+    static Object payload(String name) {
+        return switch (name) {
+            case "allMenus" -> allMenus();
+            case "productSales" -> productSales();
+            case "dashboardKpis" -> dashboardKpis();
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+
+    // MenuService.getAllMenus: 메뉴 80개
+    private static List<MenuResponseDto> allMenus() {
+        String[][] categories = {{"BURGER", "버거"}, {"SET", "세트"}, {"SIDE", "사이드"}, {"DRINK", "음료"}};
+        List<MenuResponseDto> menus = new ArrayList<>();
+        for (int i = 1; i <= 80; i++) {
+            String[] category = categories[i % categories.length];
+            menus.add(MenuResponseDto.builder()
+                .id((long) i)
+                .name(category[1] + " 메뉴 " + i)
+                .description("신선한 재료로 만든 " + category[1] + " 메뉴 " + i + " 입니다.")
+                .price(BigDecimal.valueOf(1500L + i * 100L))
+                .basePrice(BigDecimal.valueOf(1500L + i * 100L))
+                .category(category[0])
+                .categoryId((long) (i % categories.length + 1))
+                .categoryName(category[0])
+                .categoryDisplayName(category[1])
+                .isAvailable(true)
+                .displayOrder(i)
+                .imageUrl("/uploads/menu/menu_" + i + ".png")
+                .createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+                .updatedAt(LocalDateTime.of(2024, 6, 1, 9, 0))
+                .build());
+        }
+        return menus;
+    }
+
+    // ProductSalesService.getProductSalesData: 상품 60개, 상품별 31일 추이
+    private static ProductSalesResponseDto productSales() {
+        List<ProductSalesResponseDto.ProductSalesDto> products = new ArrayList<>();
+        Map<String, List<ProductSalesResponseDto.DailySalesDto>> trend = new LinkedHashMap<>();
+        Map<String, BigDecimal> categorySales = new LinkedHashMap<>();
+        for (int i = 1; i <= 60; i++) {
+            String productName = "상품 " + i;
+            products.add(ProductSalesResponseDto.ProductSalesDto.builder()
+                .productId((long) i)
+                .productName(productName)
+                .productCode("P" + (1000 + i))
+                .category(i % 2 == 0 ? "버거" : "음료")
+                .price(BigDecimal.valueOf(5000 + i * 10L))
+                .cost(BigDecimal.valueOf(2000 + i * 5L))
+                .monthlySales(BigDecimal.valueOf(1_250_000L + i * 1_000L))
+                .monthlyQuantity(250L + i)
+                .profitMargin(new BigDecimal("58.25"))
+                .build());
+            List<ProductSalesResponseDto.DailySalesDto> daily = new ArrayList<>();
+            for (int day = 1; day <= 31; day++) {
+                daily.add(ProductSalesResponseDto.DailySalesDto.builder()
+                    .day(day).sales(BigDecimal.valueOf(40_000L + day * 100L)).quantity(8L + day % 3).build());
+            }
+            trend.put(productName, daily);
+        }
+        categorySales.put("버거", new BigDecimal("45000000.00"));
+        categorySales.put("음료", new BigDecimal("12000000.00"));
+        return ProductSalesResponseDto.builder()
+            .totalSales(new BigDecimal("57000000.00"))
+            .totalQuantity(16_830L)
+            .averageProfitMargin(new BigDecimal("58.25"))
+            .totalProducts(60L)
+            .productSales(products)
+            .categorySales(categorySales)
+            .dailySalesTrend(trend)
+            .build();
+    }
+
+    // DashboardService.getDashboardKpis: KPI 5개 (각각 값/전일 대비 맵)
+    private static Map<String, Object> dashboardKpis() {
+        Map<String, Object> kpis = new HashMap<>();
+        for (String name : List.of("todaySales", "todayOrders", "pendingSupplyRequests", "lowStockItems", "unreadNotifications")) {
+            Map<String, Object> kpi = new HashMap<>();
+            kpi.put("value", new BigDecimal("1234500.00"));
+            kpi.put("previousValue", new BigDecimal("1100000.00"));
+            kpi.put("changeRate", 12.2);
+            kpi.put("trend", "up");
+            kpi.put("updatedAt", LocalDateTime.of(2024, 6, 1, 12, 30));
+            kpis.put(name, kpi);
+        }
+        return kpis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 1. 저장 바이트 비교 (Redis 메모리 절감량 = JSON 대비 감소 바이트 x 키 수)
+        System.out.printf("%-15s %-15s %10s %10s%n", "payload", "codec", "bytes", "saved");
+        for (String name : List.of("allMenus", "productSales", "dashboardKpis")) {
+            Object value = payload(name);
+            int jsonBytes = serializer("json").serialize(value).length;
+            for (String codec : List.of("json", "smile", "smile-deflate")) {
+                int bytes = serializer(codec).serialize(value).length;
+                System.out.printf("%-15s %-15s %10d %9.1f%%%n", name, codec, bytes, 100.0 * (jsonBytes - bytes) / jsonBytes);
+            }
+        }
+
+        // 2. encode/decode 지연 시간
+        Options options = new OptionsBuilder()
+            .include(CacheSerializerBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
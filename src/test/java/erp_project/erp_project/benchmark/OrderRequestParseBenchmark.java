@@ -0,0 +1,125 @@
+package erp_project.erp_project.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erp_project.erp_project.dto.CartItemRequest;
+import erp_project.erp_project.dto.CreateOrderRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 생성 요청 파싱 벤치마크 (Map 경로 vs 타입 DTO 경로)
+ * - ns/op 와 gc.alloc.rate.norm(B/op)으로 비교
+ * - 실행: mvn test-compile 후 main 실행 (GC 프로파일러 포함)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderRequestParseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        payload = ("{"
+            + "\"branchId\":1,\"orderType\":\"takeout\",\"customerName\":\"손님\",\"customerPhone\":\"000-0000-0000\","
+            + "\"paymentMethod\":\"card\",\"securityHash\":\"abc\",\"timestamp\":1700000000000,"
+            + "\"items\":["
+            + item(101, "불고기버거 세트", 7500, "[{\"optionId\":13,\"optionName\":\"감자튀김\",\"quantity\":1,\"unitPrice\":0,\"action\":\"add\"},"
+                + "{\"optionId\":19,\"optionName\":\"콜라\",\"quantity\":1,\"unitPrice\":0,\"action\":\"add\"}]") + ","
+            + item(102, "치즈버거", 5000, "[{\"optionId\":3,\"optionName\":\"치즈 추가\",\"quantity\":1,\"unitPrice\":500,\"action\":\"add\"}]") + ","
+            + item(301, "콜라", 1000, "[]")
+            + "]}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String item(long menuId, String name, int price, String options) {
+        return "{\"menuId\":" + menuId + ",\"menuName\":\"" + name + "\",\"displayName\":\"" + name + "\","
+            + "\"quantity\":1,\"unitPrice\":" + price + ",\"totalPrice\":" + price + ","
+            + "\"itemType\":\"BURGER\",\"options\":" + options + ",\"displayOptions\":[\"옵션 표시\"]}";
+    }
+
+    /**
+     * 변경 전 OrderController.createOrder 의 Map 파싱 경로
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void mapPath(Blackhole bh) throws Exception {
+        Map<String, Object> request = objectMapper.readValue(payload, Map.class);
+        bh.consume(Long.valueOf(request.get("timestamp").toString()));
+        bh.consume(Long.valueOf(request.get("branchId").toString()));
+        bh.consume(request.get("orderType"));
+        List<Map<String, Object>> items = (List<Map<String, Object>>) request.get("items");
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map<String, Object> item : items) {
+            total = total.add(new BigDecimal(item.get("totalPrice").toString()));
+        }
+        bh.consume(total);
+        for (Map<String, Object> itemData : items) {
+            bh.consume(Long.valueOf(itemData.get("menuId").toString()));
+            bh.consume(new BigDecimal(itemData.get("unitPrice").toString()));
+            bh.consume(Integer.valueOf(itemData.get("quantity").toString()));
+            bh.consume(new BigDecimal(itemData.get("totalPrice").toString()));
+            bh.consume(objectMapper.writeValueAsString(itemData.get("displayOptions")));
+            bh.consume(objectMapper.writeValueAsString(itemData.get("options")));
+        }
+    }
+
+    /**
+     * 기존 Map 요청을 어댑터로 변환하는 경로 (/api/orders/create/legacy)
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void legacyAdapterPath(Blackhole bh) throws Exception {
+        Map<String, Object> request = objectMapper.readValue(payload, Map.class);
+        consumeTyped(objectMapper.convertValue(request, CreateOrderRequest.class), bh);
+    }
+
+    /**
+     * 타입 DTO 직접 역직렬화 경로 (/api/orders/create)
+     */
+    @Benchmark
+    public void typedPath(Blackhole bh) throws Exception {
+        consumeTyped(objectMapper.readValue(payload, CreateOrderRequest.class), bh);
+    }
+
+    private static void consumeTyped(CreateOrderRequest request, Blackhole bh) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItemRequest item : request.getItems()) {
+            total = total.add(item.getTotalPrice());
+            bh.consume(item.getOptionsJson());
+            bh.consume(item.getDisplayOptions());
+        }
+        bh.consume(total);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+            .include(OrderRequestParseBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,82 @@
+package erp_project.erp_project.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 버전 헤더 캐시 직렬화기 테스트
+ * - Smile 왕복, 임계값 이상 값의 Deflate 왕복
+ * - 헤더 없는 기존 JSON 값 읽기, 더 높은 버전/모르는 코덱은 캐시 미스(null)
+ */
+class VersionedCacheSerializerTest {
+
+    private static final int COMPRESS_THRESHOLD = 256;
+
+    private final RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer(new ObjectMapper());
+    private final VersionedCacheSerializer serializer =
+            new VersionedCacheSerializer(json, VersionedCacheSerializer.WriteFormat.SMILE, COMPRESS_THRESHOLD);
+
+    @Test
+    void smileRoundTrip() {
+        Map<String, Object> value = menu(1);
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertEquals(VersionedCacheSerializer.MAGIC, bytes[0]);
+        assertEquals(VersionedCacheSerializer.CODEC_SMILE, bytes[2]);
+        assertEquals(0, bytes[3]);
+        assertEquals(value, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void deflatedRoundTripAboveThreshold() {
+        List<Map<String, Object>> value = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            value.add(menu(i));
+        }
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertEquals(VersionedCacheSerializer.FLAG_DEFLATE, bytes[3]);
+        assertEquals(value, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void readsLegacyJsonValue() {
+        Map<String, Object> value = menu(7);
+
+        assertEquals(value, serializer.deserialize(json.serialize(value)));
+    }
+
+    @Test
+    void higherVersionOrUnknownCodecIsCacheMiss() {
+        byte[] bytes = serializer.serialize(menu(1));
+        byte[] newerVersion = bytes.clone();
+        newerVersion[1] = VersionedCacheSerializer.FORMAT_VERSION + 1;
+        byte[] unknownCodec = bytes.clone();
+        unknownCodec[2] = VersionedCacheSerializer.CODEC_SMILE + 1;
+
+        assertNull(serializer.deserialize(newerVersion));
+        assertNull(serializer.deserialize(unknownCodec));
+    }
+
+    private static Map<String, Object> menu(int id) {
+        Map<String, Object> menu = new LinkedHashMap<>();
+        menu.put("id", id);
+        menu.put("name", "아메리카노 " + id);
+        menu.put("categoryName", "커피");
+        menu.put("price", 4500);
+        menu.put("isAvailable", true);
+        return menu;
+    }
+}
@@ -0,0 +1,144 @@
+package erp_project.erp_project.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 조건부 재고 차감 동시성 테스트
+ * - 64개 스레드가 같은 지점의 같은 원재료 2개를 동시에 차감 (주문 완료와 같은 트랜잭션 경계)
+ * - 가용 재고만큼만 성공하고 재고가 음수가 되지 않아야 함
+ * - 실제 MariaDB/MySQL 이 필요하므로 STOCK_STRESS_DB_URL 이 있을 때만 실행
+ *   (예: STOCK_STRESS_DB_URL=jdbc:mysql://localhost:3306/erp_test STOCK_STRESS_DB_USER=root STOCK_STRESS_DB_PASSWORD=...)
+ *   빈 테스트 스키마를 가리켜야 함 (최소 컬럼만 가진 materials / material_stocks 를 만들고 끝나면 행 삭제)
+ */
+@EnabledIfEnvironmentVariable(named = "STOCK_STRESS_DB_URL", matches = ".+")
+class StockMutationRepositoryStressTest {
+
+    private static final int THREADS = 64;
+    private static final BigDecimal INITIAL_STOCK = new BigDecimal("60.000");
+    private static final BigDecimal PER_ORDER = new BigDecimal("1.500");
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private StockMutationRepository repository;
+
+    private long branchId;
+    private long materialA;
+    private long materialB;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getenv("STOCK_STRESS_DB_URL"),
+                System.getenv("STOCK_STRESS_DB_USER"), System.getenv("STOCK_STRESS_DB_PASSWORD"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new StockMutationRepository(jdbcTemplate);
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS materials (id BIGINT PRIMARY KEY AUTO_INCREMENT, " +
+                "name VARCHAR(100) NOT NULL, unit VARCHAR(20) NOT NULL, category VARCHAR(50), cost_per_unit DECIMAL(10,2) NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS material_stocks (id BIGINT PRIMARY KEY AUTO_INCREMENT, " +
+                "material_id BIGINT NOT NULL, branch_id BIGINT NOT NULL, current_stock DECIMAL(10,3) NOT NULL, " +
+                "min_stock DECIMAL(10,3) NOT NULL, max_stock DECIMAL(10,3) NOT NULL, reserved_stock DECIMAL(10,3) NOT NULL, " +
+                "available_stock DECIMAL(10,3), stock_status VARCHAR(10), last_updated DATETIME NOT NULL, created_at DATETIME NOT NULL)");
+
+        branchId = 900_000_000L + ThreadLocalRandom.current().nextInt(1_000_000);
+        materialA = insertMaterial("스트레스 테스트 패티");
+        materialB = insertMaterial("스트레스 테스트 번");
+        insertStock(materialA);
+        insertStock(materialB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM material_stocks WHERE branch_id = ?", branchId);
+        jdbcTemplate.update("DELETE FROM materials WHERE id IN (?, ?)", materialA, materialB);
+    }
+
+    @Test
+    void parallelCompletionsNeverDriveStockNegative() throws Exception {
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            // 절반은 원재료 순서를 뒤집어 요청 (저장소가 정렬하므로 교착 없어야 함)
+            List<StockMutationRepository.StockDelta> deltas = i % 2 == 0
+                    ? List.of(delta(materialA), delta(materialB))
+                    : List.of(delta(materialB), delta(materialA));
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        StockMutationRepository.MutationResult result = repository.deduct(branchId, deltas);
+                        if (result.hasShortfall()) {
+                            throw new IllegalStateException("재고 부족");
+                        }
+                        result.applied().forEach(level ->
+                                assertTrue(level.availableStock().signum() >= 0, "차감 후 가용 재고가 음수"));
+                    });
+                    completed.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        int expected = INITIAL_STOCK.divide(PER_ORDER).intValueExact();
+        assertEquals(expected, completed.get());
+        assertEquals(THREADS - expected, rejected.get());
+
+        for (long materialId : new long[]{materialA, materialB}) {
+            BigDecimal current = jdbcTemplate.queryForObject(
+                    "SELECT current_stock FROM material_stocks WHERE branch_id = ? AND material_id = ?",
+                    BigDecimal.class, branchId, materialId);
+            BigDecimal available = jdbcTemplate.queryForObject(
+                    "SELECT available_stock FROM material_stocks WHERE branch_id = ? AND material_id = ?",
+                    BigDecimal.class, branchId, materialId);
+            assertEquals(0, current.signum());
+            assertEquals(0, available.signum());
+        }
+    }
+
+    private StockMutationRepository.StockDelta delta(long materialId) {
+        return new StockMutationRepository.StockDelta(materialId, PER_ORDER);
+    }
+
+    private long insertMaterial(String name) {
+        jdbcTemplate.update("INSERT INTO materials (name, unit) VALUES (?, 'ea')", name);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM materials WHERE name = ?", Long.class, name);
+    }
+
+    private void insertStock(long materialId) {
+        jdbcTemplate.update("INSERT INTO material_stocks (material_id, branch_id, current_stock, min_stock, max_stock, " +
+                "reserved_stock, available_stock, last_updated, created_at) VALUES (?, ?, ?, 5, 100, 0, ?, NOW(), NOW())",
+                materialId, branchId, INITIAL_STOCK, INITIAL_STOCK);
+    }
+}
@@ -0,0 +1,113 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.OrderItemDetails;
+import erp_project.erp_project.entity.OrderItems;
+import erp_project.erp_project.repository.RecipeIngredientRepository;
+import erp_project.erp_project.util.BillOfMaterials;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * BOM 인덱스 전개 테스트
+ * - 레시피 조회는 인덱스 생성 시 1회뿐, 주문 전개는 인덱스만 사용
+ * - 세트 메뉴는 구성 요소 단위로 전개
+ */
+class BomIndexServiceTest {
+
+    private static final long BURGER = 1L;
+    private static final long FRIES = 201L;
+    private static final long COLA = 301L;
+
+    private static final long BUN = 10L;
+    private static final long PATTY = 11L;
+    private static final long POTATO = 20L;
+    private static final long SYRUP = 30L;
+
+    @Test
+    void explodesSingleItemsAndSetComponentsWithoutRecipeQueries() {
+        RecipeIngredientRepository repository = mock(RecipeIngredientRepository.class);
+        List<Object[]> lines = new ArrayList<>();
+        lines.add(new Object[]{BURGER, 100L, BUN, new BigDecimal("1.000")});
+        lines.add(new Object[]{BURGER, 100L, PATTY, new BigDecimal("0.150")});
+        // 같은 메뉴의 두 번째 레시피는 무시
+        lines.add(new Object[]{BURGER, 101L, PATTY, new BigDecimal("9.000")});
+        lines.add(new Object[]{FRIES, 200L, POTATO, new BigDecimal("0.120")});
+        lines.add(new Object[]{COLA, 300L, SYRUP, new BigDecimal("0.050")});
+        when(repository.findAllBomLines()).thenReturn(lines);
+
+        BomIndexService service = new BomIndexService(repository, mock(StringRedisTemplate.class),
+                mock(RedisMessageListenerContainer.class));
+        service.rebuild();
+
+        OrderItems single = orderItem(1L, BURGER, 2, OrderItems.ItemType.BURGER);
+        OrderItems set = orderItem(2L, BURGER, 3, OrderItems.ItemType.SET);
+        Map<Long, List<OrderItemDetails>> details = new HashMap<>();
+        details.put(2L, List.of(
+                component(BURGER, OrderItemDetails.ItemType.BURGER),
+                component(FRIES, OrderItemDetails.ItemType.SIDE),
+                component(COLA, OrderItemDetails.ItemType.DRINK)));
+
+        for (int i = 0; i < 100; i++) {
+            service.explode(List.of(single, set), details);
+        }
+        BillOfMaterials.Usage usage = service.explode(List.of(single, set), details);
+
+        assertEquals(4, usage.size());
+        Map<Long, BigDecimal> byMaterial = new HashMap<>();
+        for (int i = 0; i < usage.size(); i++) {
+            byMaterial.put(usage.materialId(i), usage.quantity(i));
+        }
+        assertEquals(new BigDecimal("5.000"), byMaterial.get(BUN));
+        assertEquals(new BigDecimal("0.750"), byMaterial.get(PATTY));
+        assertEquals(new BigDecimal("0.360"), byMaterial.get(POTATO));
+        assertEquals(new BigDecimal("0.150"), byMaterial.get(SYRUP));
+
+        verify(repository, times(1)).findAllBomLines();
+    }
+
+    @Test
+    void setWithoutComponentsFallsBackToItsOwnRecipe() {
+        RecipeIngredientRepository repository = mock(RecipeIngredientRepository.class);
+        List<Object[]> lines = new ArrayList<>();
+        lines.add(new Object[]{BURGER, 100L, BUN, new BigDecimal("1.000")});
+        when(repository.findAllBomLines()).thenReturn(lines);
+
+        BomIndexService service = new BomIndexService(repository, mock(StringRedisTemplate.class),
+                mock(RedisMessageListenerContainer.class));
+        BillOfMaterials.Usage usage = service.explode(
+                List.of(orderItem(1L, BURGER, 4, OrderItems.ItemType.SET)), Map.of());
+
+        assertEquals(1, usage.size());
+        assertEquals(new BigDecimal("4.000"), usage.quantity(0));
+    }
+
+    private static OrderItems orderItem(Long orderItemId, Long menuId, int quantity, OrderItems.ItemType itemType) {
+        OrderItems item = new OrderItems();
+        item.setOrderItemId(orderItemId);
+        item.setMenuId(menuId);
+        item.setQuantity(quantity);
+        item.setItemType(itemType);
+        return item;
+    }
+
+    private static OrderItemDetails component(Long menuId, OrderItemDetails.ItemType itemType) {
+        OrderItemDetails detail = new OrderItemDetails();
+        detail.setMenuId(menuId);
+        detail.setItemType(itemType);
+        detail.setQuantity(1);
+        return detail;
+    }
+}
@@ -0,0 +1,52 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.util.RedisKeyScanner;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 캐시 키 → 지점/기간 해석 테스트
+ * - 지점 ID 가 null 인 키는 연도를 지점으로 읽지 않고 전체 지점(all)으로 분류
+ */
+class CacheDependencyIndexTest {
+
+    private final CacheDependencyIndex index =
+            new CacheDependencyIndex(mock(StringRedisTemplate.class), mock(RedisKeyScanner.class));
+
+    @Test
+    void resolvesNullBranchMonthlyKeyAsAllBranches() {
+        CacheDependencyIndex.KeyScope scope = index.resolve("salesStatistics", "monthly:null:2024:1");
+
+        assertEquals("all", scope.branch());
+        assertEquals(LocalDate.of(2024, 1, 1), scope.from());
+        assertEquals(LocalDate.of(2024, 1, 31), scope.to());
+        assertTrue(scope.covers(LocalDate.of(2024, 1, 15)));
+        assertFalse(scope.covers(LocalDate.of(2024, 2, 1)));
+    }
+
+    @Test
+    void resolvesBranchMonthlyKeyPositionally() {
+        CacheDependencyIndex.KeyScope scope = index.resolve("salesStatistics", "monthly:3:2024:1");
+
+        assertEquals("3", scope.branch());
+        assertEquals(LocalDate.of(2024, 1, 1), scope.from());
+        assertEquals(LocalDate.of(2024, 1, 31), scope.to());
+    }
+
+    @Test
+    void resolvesNullBranchDateRangeKey() {
+        CacheDependencyIndex.KeyScope scope =
+                index.resolve("salesStatistics", "topMenus:sales:null:2024-03-01:2024-03-31");
+
+        assertEquals("all", scope.branch());
+        assertTrue(scope.covers(LocalDate.of(2024, 3, 31)));
+        assertFalse(scope.covers(LocalDate.of(2024, 4, 1)));
+    }
+}
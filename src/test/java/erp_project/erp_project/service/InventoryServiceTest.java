@@ -0,0 +1,110 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.Orders;
+import erp_project.erp_project.entity.StockReservation;
+import erp_project.erp_project.repository.OrderItemDetailsRepository;
+import erp_project.erp_project.repository.OrderItemsRepository;
+import erp_project.erp_project.repository.OrdersRepository;
+import erp_project.erp_project.repository.StockMutationRepository;
+import erp_project.erp_project.repository.StockReservationRepository;
+import erp_project.erp_project.util.BillOfMaterials;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 주문 완료 재고 차감 테스트
+ * - 예약된 주문을 두 번 완료(재시도, 동시 요청)해도 예약분만 한 번 차감 (BOM 전체 일반 차감으로 넘어가지 않음)
+ */
+class InventoryServiceTest {
+
+    private static final long ORDER_ID = 42L;
+    private static final long BRANCH_ID = 1L;
+    private static final BigDecimal RESERVED = new BigDecimal("4.000");
+
+    @Test
+    void completingReservedOrderTwiceDeductsOnce() {
+        AtomicReference<BigDecimal> stock = new AtomicReference<>(new BigDecimal("10.000"));
+        // 원장 상태: COMMITTED 행이 생기면 미정산 예약 없음 + 정산 INSERT IGNORE 는 0 행
+        AtomicBoolean settled = new AtomicBoolean();
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class)))
+                .thenAnswer(invocation -> settled.getAndSet(true) ? 0 : 1);
+        StockReservationRepository reservationRepository = mock(StockReservationRepository.class);
+        when(reservationRepository.findOpenByOrderId(ORDER_ID))
+                .thenAnswer(invocation -> settled.get() ? List.of() : List.of(reservedRow()));
+        when(reservationRepository.existsByOrderIdAndEntryType(ORDER_ID, StockReservation.EntryType.COMMITTED))
+                .thenAnswer(invocation -> settled.get());
+
+        StockJournalService journal = mock(StockJournalService.class);
+        when(journal.commitReservedForOrder(eq(BRANCH_ID), eq(ORDER_ID), anyList()))
+                .thenAnswer(invocation -> deduct(stock));
+        when(journal.deductForOrder(eq(BRANCH_ID), eq(ORDER_ID), anyList()))
+                .thenAnswer(invocation -> deduct(stock));
+
+        BomIndexService bomIndexService = mock(BomIndexService.class);
+        when(bomIndexService.explode(anyList(), anyMap())).thenReturn(new BillOfMaterials.Usage());
+        StockReservationService reservationService = new StockReservationService(jdbcTemplate,
+                mock(TransactionTemplate.class), mock(StockMutationRepository.class), journal,
+                reservationRepository, bomIndexService);
+
+        OrdersRepository ordersRepository = mock(OrdersRepository.class);
+        when(ordersRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(order()));
+        OrderItemsRepository orderItemsRepository = mock(OrderItemsRepository.class);
+        when(orderItemsRepository.findByOrderId(ORDER_ID)).thenReturn(List.of());
+
+        InventoryService service = new InventoryService();
+        ReflectionTestUtils.setField(service, "ordersRepository", ordersRepository);
+        ReflectionTestUtils.setField(service, "orderItemsRepository", orderItemsRepository);
+        ReflectionTestUtils.setField(service, "orderItemDetailsRepository", mock(OrderItemDetailsRepository.class));
+        ReflectionTestUtils.setField(service, "bomIndexService", bomIndexService);
+        ReflectionTestUtils.setField(service, "stockReservationService", reservationService);
+        ReflectionTestUtils.setField(service, "stockJournalService", journal);
+        ReflectionTestUtils.setField(service, "salesStatisticsService", mock(SalesStatisticsService.class));
+
+        service.deductInventoryFromOrder(ORDER_ID);
+        service.deductInventoryFromOrder(ORDER_ID);
+
+        assertEquals(new BigDecimal("6.000"), stock.get());
+    }
+
+    private static StockMutationRepository.MutationResult deduct(AtomicReference<BigDecimal> stock) {
+        stock.updateAndGet(current -> current.subtract(RESERVED));
+        return new StockMutationRepository.MutationResult(List.of(), List.of(), List.of(), List.of());
+    }
+
+    private static StockReservation reservedRow() {
+        StockReservation row = new StockReservation();
+        row.setOrderId(ORDER_ID);
+        row.setBranchId(BRANCH_ID);
+        row.setMaterialId(11L);
+        row.setQuantity(RESERVED);
+        row.setEntryType(StockReservation.EntryType.RESERVED);
+        return row;
+    }
+
+    private static Orders order() {
+        Orders order = new Orders();
+        order.setOrderId(ORDER_ID);
+        order.setBranchId(BRANCH_ID);
+        return order;
+    }
+}
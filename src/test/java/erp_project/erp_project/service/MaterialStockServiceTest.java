@@ -0,0 +1,75 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.Branches;
+import erp_project.erp_project.entity.Material;
+import erp_project.erp_project.entity.MaterialStock;
+import erp_project.erp_project.repository.MaterialStockRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 수동 재고 수정 테스트
+ * - reserved_stock 은 주문 예약/확정만 변경, 수동 수정 요청의 값은 무시
+ * - 요청에 없는 수량/임계값은 기존 값 유지
+ */
+class MaterialStockServiceTest {
+
+    private static final long STOCK_ID = 7L;
+
+    @Test
+    void manualEditBetweenReserveAndCommitKeepsReservedStock() {
+        // 주문 생성 시 4 예약된 상태
+        MaterialStock stored = stock("10.000", "4.000");
+        MaterialStockRepository repository = mock(MaterialStockRepository.class);
+        when(repository.findByIdForUpdate(STOCK_ID)).thenReturn(Optional.of(stored));
+        when(repository.save(any(MaterialStock.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        MaterialStockService service = new MaterialStockService(repository,
+                mock(StockJournalService.class), mock(StockStatusIndexService.class));
+
+        // 예약 전에 화면을 연 사용자가 예약 0 인 값으로 수량만 수정
+        MaterialStock edit = stock("12.000", "0.000");
+        MaterialStock updated = service.updateMaterialStock(STOCK_ID, edit);
+
+        assertEquals(new BigDecimal("12.000"), updated.getCurrentStock());
+        // 주문 완료 시 확정 조건 (reserved_stock >= 예약 수량) 이 그대로 성립
+        assertEquals(new BigDecimal("4.000"), updated.getReservedStock());
+    }
+
+    @Test
+    void partialEditKeepsMissingValues() {
+        MaterialStock stored = stock("10.000", "0.000");
+        MaterialStockRepository repository = mock(MaterialStockRepository.class);
+        when(repository.findByIdForUpdate(STOCK_ID)).thenReturn(Optional.of(stored));
+        when(repository.save(any(MaterialStock.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        MaterialStockService service = new MaterialStockService(repository,
+                mock(StockJournalService.class), mock(StockStatusIndexService.class));
+
+        // 최소 재고만 보낸 요청
+        MaterialStock edit = new MaterialStock();
+        edit.setMinStock(new BigDecimal("3.000"));
+        MaterialStock updated = service.updateMaterialStock(STOCK_ID, edit);
+
+        assertEquals(new BigDecimal("10.000"), updated.getCurrentStock());
+        assertEquals(new BigDecimal("3.000"), updated.getMinStock());
+        assertEquals(new BigDecimal("50.000"), updated.getMaxStock());
+    }
+
+    private static MaterialStock stock(String current, String reserved) {
+        return MaterialStock.builder()
+                .id(STOCK_ID)
+                .branch(Branches.builder().id(1L).branchName("테스트 지점").build())
+                .material(Material.builder().id(11L).name("패티").unit("kg").costPerUnit(new BigDecimal("5000")).build())
+                .currentStock(new BigDecimal(current))
+                .minStock(new BigDecimal("2.000"))
+                .maxStock(new BigDecimal("50.000"))
+                .reservedStock(new BigDecimal(reserved))
+                .build();
+    }
+}
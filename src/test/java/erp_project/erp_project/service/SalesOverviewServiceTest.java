@@ -0,0 +1,115 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.dto.SalesOverviewRequestDto;
+import erp_project.erp_project.dto.SalesOverviewResponseDto;
+import erp_project.erp_project.entity.Branches;
+import erp_project.erp_project.entity.Menu;
+import erp_project.erp_project.entity.MenuCategory;
+import erp_project.erp_project.repository.BranchesRepository;
+import erp_project.erp_project.repository.CategorySalesStatisticsRepository;
+import erp_project.erp_project.repository.MenuCategoryRepository;
+import erp_project.erp_project.repository.MenuRepository;
+import erp_project.erp_project.repository.MenuSalesStatisticsRepository;
+import erp_project.erp_project.repository.SalesRollupRepository;
+import erp_project.erp_project.repository.SalesStatisticsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 매출 개요 조립 테스트 (지점별 GROUP BY 결과 행으로 가맹점 목록 구성)
+ * - 실제 SQL 문 수는 SalesOverviewStatementCountTest 에서 확인
+ */
+class SalesOverviewServiceTest {
+
+    private static final int MENUS_PER_BRANCH = 5;
+    private static final int CATEGORIES = 4;
+
+    @Test
+    void franchiseSalesAreAssembledFromGroupedRows() {
+        Fixture fixture = new Fixture(2);
+        SalesOverviewResponseDto response = fixture.service.getSalesOverview(request());
+
+        assertEquals(2, response.getSummary().getFranchiseCount());
+        assertEquals(new BigDecimal("30000"), response.getSummary().getTotalSales());
+        assertEquals(30, response.getSummary().getTotalCustomers());
+
+        SalesOverviewResponseDto.FranchiseSalesDto second = response.getFranchises().get(1);
+        assertEquals(new BigDecimal("20000"), second.getMonthlySales());
+        assertEquals(new BigDecimal("1000"), second.getAvgOrderValue());
+        assertEquals(3, second.getTopProducts().size());
+        assertEquals("메뉴 1", second.getTopProducts().get(0).getName());
+        assertEquals(CATEGORIES, second.getSalesByCategory().size());
+        assertEquals(new BigDecimal("200"), second.getSalesByTime().get("12"));
+    }
+
+    private static SalesOverviewRequestDto request() {
+        return SalesOverviewRequestDto.builder().year(2024).month(1).build();
+    }
+
+    private static class Fixture {
+        final BranchesRepository branchesRepository = mock(BranchesRepository.class);
+        final SalesStatisticsRepository salesStatisticsRepository = mock(SalesStatisticsRepository.class);
+        final CategorySalesStatisticsRepository categorySalesStatisticsRepository = mock(CategorySalesStatisticsRepository.class);
+        final MenuSalesStatisticsRepository menuSalesStatisticsRepository = mock(MenuSalesStatisticsRepository.class);
+        final MenuCategoryRepository menuCategoryRepository = mock(MenuCategoryRepository.class);
+        final MenuRepository menuRepository = mock(MenuRepository.class);
+        final SalesRollupRepository salesRollupRepository = mock(SalesRollupRepository.class);
+        // 롤업 미생성 상태 (일별 통계 GROUP BY 경로)
+        final SalesRollupService salesRollupService = mock(SalesRollupService.class);
+        final SalesOverviewService service = new SalesOverviewService(branchesRepository, salesStatisticsRepository,
+                categorySalesStatisticsRepository, menuSalesStatisticsRepository, menuCategoryRepository, menuRepository,
+                salesRollupRepository, salesRollupService);
+
+        Fixture(int branchCount) {
+            List<Branches> branches = new ArrayList<>();
+            List<Object[]> daily = new ArrayList<>();
+            List<Object[]> hourly = new ArrayList<>();
+            List<Object[]> menuRows = new ArrayList<>();
+            List<Object[]> categoryRows = new ArrayList<>();
+            for (long branchId = 1; branchId <= branchCount; branchId++) {
+                branches.add(Branches.builder()
+                        .id(branchId)
+                        .branchCode("B" + branchId)
+                        .branchName("가맹점 " + branchId)
+                        .managerName("점장 " + branchId)
+                        .branchType(Branches.BranchType.franchise)
+                        .status(Branches.BranchStatus.active)
+                        .build());
+                daily.add(new Object[]{branchId, BigDecimal.valueOf(10000 * branchId), 10L * branchId});
+                hourly.add(new Object[]{branchId, 12, branchId, BigDecimal.valueOf(100 * branchId)});
+                for (long menuId = 1; menuId <= MENUS_PER_BRANCH; menuId++) {
+                    menuRows.add(new Object[]{branchId, menuId, 100L - menuId, BigDecimal.valueOf(1000 * menuId)});
+                }
+                for (long categoryId = 1; categoryId <= CATEGORIES; categoryId++) {
+                    categoryRows.add(new Object[]{branchId, categoryId, 10L, BigDecimal.valueOf(500 * categoryId)});
+                }
+            }
+
+            List<Menu> menus = new ArrayList<>();
+            for (long menuId = 1; menuId <= MENUS_PER_BRANCH; menuId++) {
+                menus.add(Menu.builder().id(menuId).name("메뉴 " + menuId).build());
+            }
+            List<MenuCategory> categories = new ArrayList<>();
+            for (long categoryId = 1; categoryId <= CATEGORIES; categoryId++) {
+                categories.add(MenuCategory.builder().id(categoryId).displayName("카테고리 " + categoryId).build());
+            }
+
+            when(branchesRepository.findByStatusAndBranchTypeNot(any(), any())).thenReturn(branches);
+            when(salesStatisticsRepository.sumDailySalesGroupByBranch(any(), any())).thenReturn(daily);
+            when(salesStatisticsRepository.sumHourlySalesGroupByBranch(any(), any())).thenReturn(hourly);
+            when(menuSalesStatisticsRepository.sumMenuSalesGroupByBranch(any(), any())).thenReturn(menuRows);
+            when(categorySalesStatisticsRepository.sumCategorySalesGroupByBranch(any(), any())).thenReturn(categoryRows);
+            when(menuRepository.findAllById(anyIterable())).thenReturn(menus);
+            when(menuCategoryRepository.findAllById(anyIterable())).thenReturn(categories);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.dto.SalesOverviewRequestDto;
+import erp_project.erp_project.dto.SalesOverviewResponseDto;
+import erp_project.erp_project.repository.BranchesRepository;
+import erp_project.erp_project.repository.CategorySalesStatisticsRepository;
+import erp_project.erp_project.repository.MenuCategoryRepository;
+import erp_project.erp_project.repository.MenuRepository;
+import erp_project.erp_project.repository.MenuSalesStatisticsRepository;
+import erp_project.erp_project.repository.SalesRollupRepository;
+import erp_project.erp_project.repository.SalesStatisticsRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 매출 개요 조회 SQL 수 테스트
+ * - Hibernate StatementInspector 로 실제로 준비된 SQL 문을 센다 (리포지토리 내부의 지연 로딩/추가 조회 포함)
+ * - 지점 수가 1 → 10 → 150 으로 늘어도 문장 수와 종류가 같아야 함 (지점/상품/카테고리별 추가 조회 없음)
+ * - 실제 MariaDB/MySQL 이 필요하므로 SALES_OVERVIEW_DB_URL 이 있을 때만 실행
+ *   (예: SALES_OVERVIEW_DB_URL=jdbc:mysql://localhost:3306/erp_test SALES_OVERVIEW_DB_USER=root SALES_OVERVIEW_DB_PASSWORD=...)
+ *   빈 테스트 스키마를 가리켜야 함 (ddl-auto 로 테이블 생성, 넣은 행은 테스트 트랜잭션 롤백으로 삭제)
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "SALES_OVERVIEW_DB_URL", matches = ".+")
+class SalesOverviewStatementCountTest {
+
+    private static final LocalDate DAY = LocalDate.of(2099, 1, 15);
+    private static final int MENUS = 5;
+    private static final int CATEGORIES = 4;
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("SALES_OVERVIEW_DB_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv("SALES_OVERVIEW_DB_USER"));
+        registry.add("spring.datasource.password", () -> System.getenv("SALES_OVERVIEW_DB_PASSWORD"));
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                () -> StatementRecorder.class.getName());
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private BranchesRepository branchesRepository;
+    @Autowired private SalesStatisticsRepository salesStatisticsRepository;
+    @Autowired private CategorySalesStatisticsRepository categorySalesStatisticsRepository;
+    @Autowired private MenuSalesStatisticsRepository menuSalesStatisticsRepository;
+    @Autowired private MenuCategoryRepository menuCategoryRepository;
+    @Autowired private MenuRepository menuRepository;
+    @Autowired private SalesRollupRepository salesRollupRepository;
+
+    private SalesOverviewService service;
+    private final List<Long> menuIds = new ArrayList<>();
+    private final List<Long> categoryIds = new ArrayList<>();
+    private int branches;
+
+    @BeforeEach
+    void setUp() {
+        // 롤업 미생성 상태 (일별 통계 GROUP BY 경로)
+        service = new SalesOverviewService(branchesRepository, salesStatisticsRepository, categorySalesStatisticsRepository,
+                menuSalesStatisticsRepository, menuCategoryRepository, menuRepository, salesRollupRepository,
+                mock(SalesRollupService.class));
+        for (int i = 1; i <= CATEGORIES; i++) {
+            jdbcTemplate.update("INSERT INTO menu_categories (name, display_name, display_order, is_active, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, TRUE, NOW(), NOW())", "stmt-count-category-" + i, "카테고리 " + i, i);
+            categoryIds.add(lastInsertId());
+        }
+        for (int i = 1; i <= MENUS; i++) {
+            jdbcTemplate.update("INSERT INTO menus (name, price, category, category_id, is_available, display_order, created_at) " +
+                    "VALUES (?, 1000, 'test', ?, TRUE, ?, NOW())", "stmt-count-menu-" + i, categoryIds.get(i % CATEGORIES), i);
+            menuIds.add(lastInsertId());
+        }
+    }
+
+    @Test
+    void statementsDoNotGrowWithBranchCount() {
+        List<String> one = statementsFor(1);
+        List<String> ten = statementsFor(10);
+        List<String> many = statementsFor(150);
+
+        assertEquals(one, ten);
+        assertEquals(one, many);
+    }
+
+    private List<String> statementsFor(int branchCount) {
+        while (branches < branchCount) {
+            addBranch(++branches);
+        }
+        StatementRecorder.STATEMENTS.clear();
+        SalesOverviewResponseDto response = service.getSalesOverview(
+                SalesOverviewRequestDto.builder().year(DAY.getYear()).month(DAY.getMonthValue()).build());
+        List<String> statements = new ArrayList<>(StatementRecorder.STATEMENTS);
+        // 넣은 지점이 모두 집계에 포함됐는지 (빈 결과로 문장 수만 같아지는 경우 방지)
+        assertEquals(branchCount, response.getFranchises().stream()
+                .filter(franchise -> franchise.getBranchCode().startsWith("SC"))
+                .filter(franchise -> franchise.getTopProducts().size() == 3)
+                .count());
+        return statements;
+    }
+
+    private void addBranch(int index) {
+        jdbcTemplate.update("INSERT INTO branches (branch_code, branch_name, branch_type, status, manager_name) " +
+                "VALUES (?, ?, 'franchise', 'active', ?)", "SC" + index, "문장 수 테스트 " + index, "점장 " + index);
+        long branchId = lastInsertId();
+        jdbcTemplate.update("INSERT INTO sales_statistics (branch_id, statistic_date, statistic_hour, total_orders, total_sales) " +
+                "VALUES (?, ?, NULL, 10, ?), (?, ?, 12, 10, ?)", branchId, Date.valueOf(DAY), BigDecimal.valueOf(10000),
+                branchId, Date.valueOf(DAY), BigDecimal.valueOf(10000));
+        List<Object[]> menuRows = new ArrayList<>();
+        for (int i = 0; i < menuIds.size(); i++) {
+            menuRows.add(new Object[]{branchId, menuIds.get(i), Date.valueOf(DAY), 100 - i, BigDecimal.valueOf(1000L * (i + 1))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO menu_sales_statistics (branch_id, menu_id, statistic_date, quantity_sold, total_sales) " +
+                "VALUES (?, ?, ?, ?, ?)", menuRows);
+        List<Object[]> categoryRows = new ArrayList<>();
+        for (Long categoryId : categoryIds) {
+            categoryRows.add(new Object[]{branchId, categoryId, Date.valueOf(DAY), 10, BigDecimal.valueOf(500)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO category_sales_statistics (branch_id, category_id, statistic_date, quantity_sold, total_sales) " +
+                "VALUES (?, ?, ?, ?, ?)", categoryRows);
+    }
+
+    private long lastInsertId() {
+        return jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+    }
+
+    /**
+     * Hibernate 가 준비하는 모든 SQL 기록 (session_factory.statement_inspector 로 등록)
+     */
+    public static class StatementRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
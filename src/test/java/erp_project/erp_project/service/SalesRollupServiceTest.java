@@ -0,0 +1,79 @@
+package erp_project.erp_project.service;
+
+import erp_project.erp_project.entity.ArchiveSegment;
+import erp_project.erp_project.entity.SalesRollup;
+import erp_project.erp_project.repository.ArchiveSegmentRepository;
+import erp_project.erp_project.repository.SalesRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 롤업 재조정 범위 테스트
+ * - 보존 기간 기준일이 속한 월(일부 아카이브됨)과 그 이전 월은 다시 합산하지 않음
+ */
+class SalesRollupServiceTest {
+
+    private final SalesRollupRepository salesRollupRepository = mock(SalesRollupRepository.class);
+    private final ArchiveSegmentRepository archiveSegmentRepository = mock(ArchiveSegmentRepository.class);
+
+    private final SalesRollupService service = new SalesRollupService(mock(JdbcTemplate.class),
+            mock(TransactionTemplate.class), salesRollupRepository, mock(SchedulerLockService.class),
+            archiveSegmentRepository);
+
+    @Test
+    void cutoffMonthIsOnlyFullWhenCutoffIsFirstDay() {
+        assertEquals(YearMonth.of(2024, 3), SalesRollupService.firstFullMonth(LocalDate.of(2024, 3, 1)));
+        assertEquals(YearMonth.of(2024, 4), SalesRollupService.firstFullMonth(LocalDate.of(2024, 3, 2)));
+        assertEquals(YearMonth.of(2024, 4), SalesRollupService.firstFullMonth(LocalDate.of(2024, 3, 31)));
+    }
+
+    @Test
+    void reconcileSkipsMonthContainingRetentionCutoff() {
+        LocalDate today = LocalDate.now();
+        LocalDate cutoff = today.minusMonths(6).withDayOfMonth(15);
+        ReflectionTestUtils.setField(service, "statisticsRetentionDays", (int) ChronoUnit.DAYS.between(cutoff, today));
+        YearMonth boundary = YearMonth.from(cutoff);
+
+        Map<String, Object> result = service.reconcile(13);
+
+        assertEquals(boundary.plusMonths(1).toString(), result.get("retainedFrom"));
+        assertEquals(7, result.get("skippedMonths"));
+        verify(salesRollupRepository, never())
+                .existsByPeriodTypeAndPeriodStart(SalesRollup.PeriodType.MONTH, boundary.atDay(1));
+        verify(salesRollupRepository)
+                .existsByPeriodTypeAndPeriodStart(SalesRollup.PeriodType.MONTH, boundary.plusMonths(1).atDay(1));
+    }
+
+    @Test
+    void reconcileSkipsMonthsWithArchivedSegments() {
+        ReflectionTestUtils.setField(service, "statisticsRetentionDays", 365);
+        YearMonth archived = YearMonth.now().minusMonths(3);
+        ArchiveSegment segment = new ArchiveSegment();
+        segment.setPeriod(archived.toString());
+        when(archiveSegmentRepository.findSegments(eq("sales_statistics"), isNull(), any(), isNull()))
+                .thenReturn(List.of(segment));
+
+        Map<String, Object> result = service.reconcile(13);
+
+        assertEquals(archived.plusMonths(1).toString(), result.get("retainedFrom"));
+        verify(salesRollupRepository, never())
+                .existsByPeriodTypeAndPeriodStart(SalesRollup.PeriodType.MONTH, archived.atDay(1));
+    }
+}
@@ -0,0 +1,70 @@
+package erp_project.erp_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 보충 수량 계산 테스트
+ * - 입고 시점 예상 재고가 최소 재고 미만인 조합만 보충, 목표는 최대 재고를 넘지 않음
+ * - 진행 중 발주(입고 예정)가 충분하면 다시 보충하지 않음
+ */
+class ReplenishmentPlannerTest {
+
+    private static final ReplenishmentPlanner.Settings SETTINGS = new ReplenishmentPlanner.Settings(0.3, 2, 7);
+
+    @Test
+    void suggestsOnlyPairsFallingBelowMinimumBeforeDelivery() throws Exception {
+        ReplenishmentPlanner planner = new ReplenishmentPlanner(3, 7);
+        for (int day = 0; day < 7; day++) {
+            planner.addConsumption(0, day, 10);
+            planner.addConsumption(1, day, 10);
+            planner.addConsumption(2, day, 1);
+        }
+        // 일 10 소비, 가용 30 → 입고 시점 10 < 최소 20
+        planner.setLevel(0, 30, 0, 20, 1000);
+        // 같은 소비지만 입고 예정 100 → 보충 불필요
+        planner.setLevel(1, 30, 100, 20, 1000);
+        // 소비가 적어 최소 재고 유지
+        planner.setLevel(2, 30, 0, 20, 1000);
+
+        List<ReplenishmentPlanner.Suggestion> suggestions = plan(planner);
+
+        assertEquals(1, suggestions.size());
+        ReplenishmentPlanner.Suggestion suggestion = suggestions.get(0);
+        assertEquals(0, suggestion.pair());
+        assertEquals(10, suggestion.dailyRate(), 1e-9);
+        assertEquals(10, suggestion.projected(), 1e-9);
+        // 최소 20 + 7일분 70 - 입고 시점 10
+        assertEquals(80, suggestion.quantity(), 1e-9);
+    }
+
+    @Test
+    void capsTargetAtMaximumStock() throws Exception {
+        ReplenishmentPlanner planner = new ReplenishmentPlanner(1, 4);
+        for (int day = 0; day < 4; day++) {
+            planner.addConsumption(0, day, 20);
+        }
+        planner.setLevel(0, 10, 0, 20, 60);
+
+        List<ReplenishmentPlanner.Suggestion> suggestions = plan(planner);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(-30, suggestions.get(0).projected(), 1e-9);
+        assertEquals(90, suggestions.get(0).quantity(), 1e-9);
+        assertTrue(suggestions.get(0).daysOfCover() < SETTINGS.leadTimeDays());
+    }
+
+    private static List<ReplenishmentPlanner.Suggestion> plan(ReplenishmentPlanner planner) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            return planner.plan(SETTINGS, pool, 5_000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
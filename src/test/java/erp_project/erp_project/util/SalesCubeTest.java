@@ -0,0 +1,46 @@
+package erp_project.erp_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 큐브 id 필터 테스트
+ * - 적재된 최대 id 보다 큰 id 는 비트맵을 키우지 않고 일치 없음으로 처리
+ * - 음수/int 범위 밖 id 는 거부
+ */
+class SalesCubeTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    private SalesCube cube() {
+        SalesCube cube = new SalesCube();
+        cube.append(1, 10, 100, 19000, 9, 2, 5_000);
+        cube.append(2, 11, 100, 19000, 10, 1, 3_000);
+        return cube;
+    }
+
+    @Test
+    void idAboveLoadedMaximumMatchesNothing() {
+        SalesCube.Query query = new SalesCube.Query();
+        query.branchIds = new long[] {1, Integer.MAX_VALUE};
+
+        SalesCube.Result result = cube().query(query, pool);
+
+        assertEquals(1, result.matchedRows);
+    }
+
+    @Test
+    void rejectsIdsOutsideIntRange() {
+        SalesCube.Query negative = new SalesCube.Query();
+        negative.menuIds = new long[] {-1};
+        SalesCube.Query tooLarge = new SalesCube.Query();
+        tooLarge.categoryIds = new long[] {Integer.MAX_VALUE + 1L};
+
+        assertThrows(IllegalArgumentException.class, () -> cube().query(negative, pool));
+        assertThrows(IllegalArgumentException.class, () -> cube().query(tooLarge, pool));
+    }
+}
@@ -0,0 +1,110 @@
+package erp_project.erp_project.websocket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 노드 간 브로커 메시지 전파 테스트 (embedded 통로로 두 노드 구성)
+ * - A 노드가 보낸 메시지는 B 노드 로컬 broker 로 전달, A 자신에게는 다시 보내지 않음
+ * - 전파받은 메시지가 B 의 brokerChannel 을 지날 때 다시 전파되지 않음
+ */
+class BrokerFanoutInterceptorTest {
+
+    private final EmbeddedBrokerFanoutBus busA = new EmbeddedBrokerFanoutBus();
+    private final EmbeddedBrokerFanoutBus busB = new EmbeddedBrokerFanoutBus();
+
+    @AfterEach
+    void closeBuses() {
+        busA.close();
+        busB.close();
+    }
+
+    @Test
+    void deliversServerMessagesToOtherNodesOnly() {
+        SimpMessagingTemplate templateA = mock(SimpMessagingTemplate.class);
+        SimpMessagingTemplate templateB = mock(SimpMessagingTemplate.class);
+        BrokerTrafficMetrics metricsA = new BrokerTrafficMetrics();
+        BrokerTrafficMetrics metricsB = new BrokerTrafficMetrics();
+        BrokerFanoutInterceptor nodeA = node(busA, metricsA, templateA);
+        BrokerFanoutInterceptor nodeB = node(busB, metricsB, templateB);
+
+        byte[] payload = "{\"title\":\"재고 부족 알림\"}".getBytes(StandardCharsets.UTF_8);
+        Message<?> stamped = nodeA.preSend(serverMessage("/topic/notifications/branch/7", payload), null);
+
+        assertNotNull(stamped.getHeaders().get(BrokerTrafficMetrics.SENT_AT_HEADER));
+        verify(templateA, never()).send(anyString(), any(Message.class));
+
+        ArgumentCaptor<Message> forwarded = ArgumentCaptor.forClass(Message.class);
+        verify(templateB).send(eq("/topic/notifications/branch/7"), forwarded.capture());
+        Message<?> remote = forwarded.getValue();
+        assertArrayEquals(payload, (byte[]) remote.getPayload());
+        assertEquals(nodeA.getNodeId(), remote.getHeaders().get(BrokerFanoutInterceptor.ORIGIN_HEADER));
+        assertEquals(MimeTypeUtils.APPLICATION_JSON, SimpMessageHeaderAccessor.getContentType(remote.getHeaders()));
+
+        // B 의 brokerChannel 을 지나는 전파 메시지는 다시 publish 되지 않음
+        nodeB.preSend(remote, null);
+        verify(templateA, never()).send(anyString(), any(Message.class));
+
+        assertEquals(1L, destination(metricsA).get("published"));
+        assertEquals(1L, destination(metricsB).get("remote"));
+        assertEquals(0L, destination(metricsB).get("published"));
+    }
+
+    @Test
+    void envelopeRoundTrip() {
+        BrokerEnvelope envelope = new BrokerEnvelope("node-1", 1234L, "/topic/notifications/headquarters",
+            null, new byte[] {1, 2, 3});
+        BrokerEnvelope decoded = BrokerEnvelope.decode(envelope.encode());
+        assertEquals("node-1", decoded.origin());
+        assertEquals(1234L, decoded.sentAt());
+        assertEquals("/topic/notifications/headquarters", decoded.destination());
+        assertNull(decoded.contentType());
+        assertArrayEquals(new byte[] {1, 2, 3}, decoded.payload());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BrokerFanoutInterceptor node(BrokerFanoutBus bus, BrokerTrafficMetrics metrics,
+                                                SimpMessagingTemplate template) {
+        ObjectProvider<BrokerFanoutBus> busProvider = mock(ObjectProvider.class);
+        when(busProvider.getIfAvailable()).thenReturn(bus);
+        ObjectProvider<SimpMessagingTemplate> templateProvider = mock(ObjectProvider.class);
+        when(templateProvider.getObject()).thenReturn(template);
+        return new BrokerFanoutInterceptor(busProvider, metrics, templateProvider, "embedded");
+    }
+
+    private static Message<byte[]> serverMessage(String destination, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> destination(BrokerTrafficMetrics metrics) {
+        Map<String, Object> destinations = (Map<String, Object>) metrics.snapshot().get("destinations");
+        return (Map<String, Object>) destinations.get("/topic/notifications/branch/{id}");
+    }
+}
@@ -0,0 +1,113 @@
+// 주문 적재 부하 테스트 스크립트
+// 사용법: node test-order-ingestion.js [주문수] [동시요청수] [지점ID]
+// 변경 전/후 빌드에 각각 실행하여 p99 지연 시간과 주문당 INSERT 수를 비교한다.
+const axios = require('axios');
+
+const BASE_URL = 'http://localhost:8080';
+const TOTAL_ORDERS = parseInt(process.argv[2] || '500', 10);
+const CONCURRENCY = parseInt(process.argv[3] || '20', 10);
+const BRANCH_ID = parseInt(process.argv[4] || '1', 10);
+
+// 색상 코드
+const colors = {
+    green: '\x1b[32m',
+    red: '\x1b[31m',
+    yellow: '\x1b[33m',
+    blue: '\x1b[34m',
+    reset: '\x1b[0m'
+};
+
+function log(message, color = 'reset') {
+    console.log(`${colors[color]}${message}${colors.reset}`);
+}
+
+// 키오스크 점심 피크 주문과 비슷한 형태 (세트 1 + 버거 1 + 음료 1)
+function buildOrder() {
+    return {
+        branchId: BRANCH_ID,
+        orderType: 'dine_in',
+        customerName: '부하테스트',
+        customerPhone: '010-0000-0000',
+        paymentMethod: 'card',
+        securityHash: 'load-test',
+        timestamp: Date.now(),
+        items: [
+            {
+                menuId: 101, menuName: '불고기버거 세트', displayName: '불고기버거 세트',
+                quantity: 1, unitPrice: 7500, totalPrice: 7500,
+                options: [{ optionId: 13, optionName: '감자튀김' }, { optionId: 19, optionName: '콜라' }],
+                displayOptions: ['사이드: 감자튀김', '음료: 콜라']
+            },
+            {
+                menuId: 102, menuName: '치즈버거', displayName: '치즈버거',
+                quantity: 2, unitPrice: 5000, totalPrice: 10000,
+                options: [], displayOptions: []
+            },
+            {
+                menuId: 301, menuName: '콜라', displayName: '콜라',
+                quantity: 1, unitPrice: 1000, totalPrice: 1000,
+                options: [], displayOptions: []
+            }
+        ]
+    };
+}
+
+function percentile(sorted, p) {
+    if (sorted.length === 0) return 0;
+    const index = Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+    return sorted[Math.max(0, index)];
+}
+
+async function worker(queue, latencies, failures) {
+    while (queue.length > 0) {
+        queue.pop();
+        const start = process.hrtime.bigint();
+        try {
+            await axios.post(`${BASE_URL}/api/orders/create`, buildOrder());
+            latencies.push(Number(process.hrtime.bigint() - start) / 1e6);
+        } catch (error) {
+            failures.push(error.message);
+        }
+    }
+}
+
+async function run() {
+    log(`\n🚀 주문 적재 부하 테스트: 주문 ${TOTAL_ORDERS}건, 동시 ${CONCURRENCY}, 지점 ${BRANCH_ID}`, 'blue');
+
+    // 서버 측 지표 초기화 (변경 전 빌드에는 없는 엔드포인트이므로 실패해도 무시)
+    await axios.post(`${BASE_URL}/api/orders/ingestion/metrics/reset`).catch(() => null);
+
+    const queue = Array.from({ length: TOTAL_ORDERS }, (_, i) => i);
+    const latencies = [];
+    const failures = [];
+
+    const started = Date.now();
+    await Promise.all(Array.from({ length: CONCURRENCY }, () => worker(queue, latencies, failures)));
+    const elapsedSec = (Date.now() - started) / 1000;
+
+    latencies.sort((a, b) => a - b);
+    log('\n📊 클라이언트 측 결과', 'yellow');
+    log(`   성공: ${latencies.length}, 실패: ${failures.length}`);
+    log(`   처리량: ${(latencies.length / elapsedSec).toFixed(1)} orders/s`);
+    log(`   p50: ${percentile(latencies, 0.5).toFixed(1)}ms, p99: ${percentile(latencies, 0.99).toFixed(1)}ms, ` +
+        `max: ${(latencies[latencies.length - 1] || 0).toFixed(1)}ms`);
+
+    try {
+        const { data } = await axios.get(`${BASE_URL}/api/orders/ingestion/metrics`);
+        log('\n📊 서버 측 적재 지표', 'yellow');
+        log(`   주문당 INSERT 문 수: ${Number(data.insertsPerOrder).toFixed(2)}`);
+        Object.entries(data.stages || {}).forEach(([stage, stats]) => {
+            log(`   [${stage}] avg ${stats.avgMs.toFixed(2)}ms, p99 ${stats.p99Ms.toFixed(2)}ms`);
+        });
+    } catch (error) {
+        log('\n⚠️ 서버 측 적재 지표 없음 (변경 전 빌드). 주문당 INSERT 수는 hibernate.SQL 로그로 확인하세요.', 'yellow');
+    }
+
+    if (failures.length > 0) {
+        log(`\n❌ 첫 번째 실패: ${failures[0]}`, 'red');
+    } else {
+        log('\n✅ 부하 테스트 완료', 'green');
+    }
+}
+
+run();